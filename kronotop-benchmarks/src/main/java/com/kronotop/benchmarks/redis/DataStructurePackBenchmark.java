@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.benchmarks.redis;
+
+import com.kronotop.redis.handlers.hash.HashFieldValue;
+import com.kronotop.redis.handlers.string.StringValue;
+import com.kronotop.redis.storage.HashFieldPack;
+import com.kronotop.redis.storage.StringPack;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures packing and unpacking of the Redis data structures persisted to the shard volumes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataStructurePackBenchmark {
+    @Param({"16", "1024"})
+    public int valueSize;
+
+    private StringValue stringValue;
+    private HashFieldValue hashFieldValue;
+    private byte[] packedString;
+    private byte[] packedHashField;
+
+    @Setup
+    public void setup() {
+        byte[] value = new byte[valueSize];
+        ThreadLocalRandom.current().nextBytes(value);
+        stringValue = new StringValue(value);
+        hashFieldValue = new HashFieldValue(value);
+        packedString = toArray(StringPack.pack("benchmark-key", stringValue));
+        packedHashField = toArray(HashFieldPack.pack("benchmark-key", "benchmark-field", hashFieldValue));
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Benchmark
+    public ByteBuffer packString() {
+        return StringPack.pack("benchmark-key", stringValue);
+    }
+
+    @Benchmark
+    public StringPack unpackString() throws IOException {
+        return StringPack.unpack(ByteBuffer.wrap(packedString));
+    }
+
+    @Benchmark
+    public ByteBuffer packHashField() {
+        return HashFieldPack.pack("benchmark-key", "benchmark-field", hashFieldValue);
+    }
+
+    @Benchmark
+    public HashFieldPack unpackHashField() throws IOException {
+        return HashFieldPack.unpack(ByteBuffer.wrap(packedHashField));
+    }
+}
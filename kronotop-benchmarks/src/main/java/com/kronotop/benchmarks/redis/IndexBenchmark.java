@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.benchmarks.redis;
+
+import com.kronotop.redis.storage.index.Index;
+import com.kronotop.redis.storage.index.Projection;
+import com.kronotop.redis.storage.index.impl.IndexImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the key index of a Redis shard, which backs the SCAN and RANDOMKEY commands.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IndexBenchmark {
+    private static final int KEYS = 100_000;
+
+    private Index index;
+    private String[] keys;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        index = new IndexImpl(0);
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key-" + i;
+            index.add(keys[i]);
+        }
+        index.flush();
+    }
+
+    @Benchmark
+    public void addAndRemove() {
+        String key = keys[cursor++ % KEYS];
+        index.remove(key);
+        index.add(key);
+    }
+
+    @Benchmark
+    public Projection projection() {
+        return index.getProjection(0, 100);
+    }
+}
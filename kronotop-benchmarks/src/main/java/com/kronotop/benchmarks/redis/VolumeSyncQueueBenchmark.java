@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.benchmarks.redis;
+
+import com.kronotop.redis.storage.syncer.impl.OnHeapVolumeSyncQueue;
+import com.kronotop.redis.storage.syncer.jobs.AppendStringJob;
+import com.kronotop.redis.storage.syncer.jobs.VolumeSyncJob;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the volume sync queue under contention. Writer threads add jobs for a bounded set of
+ * keys, so the deduplication path is exercised, while a single thread polls like a volume sync worker.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class VolumeSyncQueueBenchmark {
+    private static final int KEYS = 10_000;
+
+    private OnHeapVolumeSyncQueue queue;
+    private VolumeSyncJob[] jobs;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        queue = new OnHeapVolumeSyncQueue();
+        jobs = new VolumeSyncJob[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            jobs[i] = new AppendStringJob("key-" + i);
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(7)
+    public void add() {
+        queue.add(jobs[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public List<VolumeSyncJob> poll() {
+        return queue.poll(100);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.benchmarks.volume;
+
+import com.kronotop.volume.EntryMetadata;
+import com.kronotop.volume.EntryMetadataView;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding and decoding of the entry metadata stored in FoundationDB for each volume entry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntryMetadataBenchmark {
+    private EntryMetadata metadata;
+    private byte[] encoded;
+    private final EntryMetadataView view = new EntryMetadataView();
+
+    @Setup
+    public void setup() {
+        byte[] prefix = new byte[EntryMetadata.ENTRY_PREFIX_SIZE];
+        metadata = new EntryMetadata(42, prefix, 1048576, 4096, 7);
+        encoded = metadata.encode().array();
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        return metadata.encode();
+    }
+
+    @Benchmark
+    public EntryMetadata decode() {
+        return EntryMetadata.decode(ByteBuffer.wrap(encoded));
+    }
+
+    @Benchmark
+    public long view() {
+        view.wrap(encoded);
+        return view.segmentId() + view.position() + view.length();
+    }
+}
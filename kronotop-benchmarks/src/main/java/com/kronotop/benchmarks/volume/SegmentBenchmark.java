@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.benchmarks.volume;
+
+import com.kronotop.volume.NotEnoughSpaceException;
+import com.kronotop.volume.segment.Segment;
+import com.kronotop.volume.segment.SegmentAppendResult;
+import com.kronotop.volume.segment.SegmentConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the append, read and flush paths of a single segment file.
+ * <p>
+ * The segment is recreated when it runs out of space, so the append results include the cost
+ * of an occasional file creation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SegmentBenchmark {
+    private static final long SEGMENT_SIZE = 256L * 1024 * 1024;
+    private static final int READ_ENTRIES = 10_000;
+
+    @Param({"128", "4096"})
+    public int entrySize;
+
+    private Path dataDir;
+    private Segment segment;
+    private long segmentId;
+    private byte[] entry;
+    private long[] positions;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, NotEnoughSpaceException {
+        dataDir = Files.createTempDirectory("kronotop-segment-benchmark");
+        entry = new byte[entrySize];
+        ThreadLocalRandom.current().nextBytes(entry);
+        segment = newSegment();
+
+        // Populate the entries for the read benchmark.
+        positions = new long[READ_ENTRIES];
+        for (int i = 0; i < READ_ENTRIES; i++) {
+            positions[i] = segment.append(ByteBuffer.wrap(entry)).position();
+        }
+        segment.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        segment.close();
+        try (Stream<Path> paths = Files.walk(dataDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        return new Segment(new SegmentConfig(segmentId++, dataDir.toString(), SEGMENT_SIZE));
+    }
+
+    @Benchmark
+    public SegmentAppendResult append() throws IOException {
+        try {
+            return segment.append(ByteBuffer.wrap(entry));
+        } catch (NotEnoughSpaceException e) {
+            segment.delete();
+            segment = newSegment();
+            positions = new long[0];
+            return null;
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer get() throws IOException {
+        if (positions.length == 0) {
+            return null;
+        }
+        long position = positions[ThreadLocalRandom.current().nextInt(positions.length)];
+        return segment.get(position, entrySize);
+    }
+
+    @Benchmark
+    public void appendAndFlush() throws IOException {
+        append();
+        segment.flush();
+    }
+}
@@ -28,4 +28,9 @@ public abstract class BaseBucketHandler implements Handler {
     public boolean isRedisCompatible() {
         return false;
     }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
 }
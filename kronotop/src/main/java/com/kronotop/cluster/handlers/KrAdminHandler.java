@@ -68,6 +68,11 @@ public class KrAdminHandler implements Handler {
         return false;
     }
 
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
     @Override
     public void beforeExecute(Request request) {
         request.attr(MessageTypes.KRADMIN).set(new KrAdminMessage(request));
@@ -29,4 +29,9 @@ public abstract class BaseFoundationDBHandler implements Handler {
     public boolean isRedisCompatible() {
         return false;
     }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
 }
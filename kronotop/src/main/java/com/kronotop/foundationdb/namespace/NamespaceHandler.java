@@ -45,6 +45,11 @@ public class NamespaceHandler implements Handler {
         return false;
     }
 
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
     @Override
     public void beforeExecute(Request request) {
         request.attr(MessageTypes.NAMESPACE).set(new NamespaceMessage(request));
@@ -33,6 +33,7 @@ import com.kronotop.redis.server.CommandHandler;
 import com.kronotop.redis.server.FlushAllHandler;
 import com.kronotop.redis.server.FlushDBHandler;
 import com.kronotop.redis.storage.*;
+import com.kronotop.redis.storage.impl.OffHeapRedisShardImpl;
 import com.kronotop.redis.storage.impl.OnHeapRedisShardImpl;
 import com.kronotop.server.*;
 import com.kronotop.volume.Prefix;
@@ -45,6 +46,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -106,6 +111,11 @@ public class RedisService extends CommandHandlerService implements KronotopServi
         handlerMethod(ServerKind.EXTERNAL, new SetNXHandler(this));
         handlerMethod(ServerKind.EXTERNAL, new MSetNXHandler(this));
         handlerMethod(ServerKind.EXTERNAL, new TypeHandler(this));
+        handlerMethod(ServerKind.EXTERNAL, new ExpireHandler(this));
+        handlerMethod(ServerKind.EXTERNAL, new PExpireHandler(this));
+        handlerMethod(ServerKind.EXTERNAL, new TTLHandler(this));
+        handlerMethod(ServerKind.EXTERNAL, new PTTLHandler(this));
+        handlerMethod(ServerKind.EXTERNAL, new PersistHandler(this));
         handlerMethod(ServerKind.EXTERNAL, new RenameHandler(this));
         handlerMethod(ServerKind.EXTERNAL, new RenameNXHandler(this));
         handlerMethod(ServerKind.EXTERNAL, new RandomKeyHandler(this));
@@ -176,8 +186,17 @@ public class RedisService extends CommandHandlerService implements KronotopServi
         }
     }
 
+    private RedisShard newRedisShard(int shardId) {
+        String kind = context.getConfig().getString("redis.storage.kind");
+        return switch (kind) {
+            case "on_heap" -> new OnHeapRedisShardImpl(context, shardId);
+            case "off_heap" -> new OffHeapRedisShardImpl(context, shardId);
+            default -> throw new KronotopException("Unknown redis.storage.kind: " + kind);
+        };
+    }
+
     private void createAndLoadRedisShard(int shardId) {
-        serviceContext.shards().put(shardId, new OnHeapRedisShardImpl(context, shardId));
+        serviceContext.shards().put(shardId, newRedisShard(shardId));
         RedisShard shard = serviceContext.shards().get(shardId);
         RedisShardLoader loader = new RedisShardLoader(context, shard);
         loader.load();
@@ -202,11 +221,44 @@ public class RedisService extends CommandHandlerService implements KronotopServi
         }
     }
 
-    public void start() {
-        for (int shardId = 0; shardId < numberOfShards; shardId++) {
-            loadRedisShardFromDisk(shardId);
+    private void initializeActiveExpiryWorker() {
+        int period = context.getConfig().getInt("redis.active_expiry.period");
+        ActiveExpiryWorker worker = new ActiveExpiryWorker(context);
+        scheduledExecutorService.scheduleAtFixedRate(worker, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the Redis shards owned by this member concurrently and waits until all of them are loaded.
+     */
+    private void loadRedisShardsFromDisk() {
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("kr.redis.load-redis-shard-", 0L).factory())
+        ) {
+            for (int shardId = 0; shardId < numberOfShards; shardId++) {
+                final int finalShardId = shardId;
+                futures.add(executor.submit(() -> loadRedisShardFromDisk(finalShardId)));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new KronotopException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new KronotopException(e.getCause());
+            }
         }
+    }
+
+    public void start() {
+        loadRedisShardsFromDisk();
         initializeVolumeSyncerWorkers();
+        initializeActiveExpiryWorker();
     }
 
     /**
@@ -16,10 +16,19 @@
 
 package com.kronotop.redis.handlers.generic;
 
+import com.apple.foundationdb.tuple.Versionstamp;
+import com.kronotop.KronotopException;
 import com.kronotop.redis.RedisService;
+import com.kronotop.redis.handlers.hash.HashValue;
 import com.kronotop.redis.handlers.string.BaseStringHandler;
+import com.kronotop.redis.handlers.string.StringValue;
 import com.kronotop.redis.storage.RedisShard;
 import com.kronotop.redis.storage.RedisValueContainer;
+import com.kronotop.redis.storage.RedisValueKind;
+import com.kronotop.redis.storage.syncer.jobs.AppendHashFieldJob;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class BaseGenericHandler extends BaseStringHandler {
     public BaseGenericHandler(RedisService service) {
@@ -28,6 +37,110 @@ public class BaseGenericHandler extends BaseStringHandler {
 
     protected void wipeOutKey(RedisShard shard, String key, RedisValueContainer previous) {
         shard.index().remove(key);
+        if (previous.kind().equals(RedisValueKind.HASH)) {
+            // Every field of a hash has its own volume entry.
+            previous.hash().forEach((field, value) -> deleteByVersionstamp(shard, value.versionstamp()));
+            return;
+        }
         deleteByVersionstamp(shard, previous.baseRedisValue().versionstamp());
     }
+
+    /**
+     * Converts a relative time to live to an absolute expiration time.
+     *
+     * @param amount     the time to live
+     * @param multiplier the number of milliseconds in one unit of the time to live
+     * @param command    the command name used in the error message
+     * @return the expiration time as a Unix time in milliseconds
+     * @throws KronotopException if the expiration time overflows
+     */
+    protected long expiresAt(long amount, long multiplier, String command) {
+        try {
+            return Math.addExact(System.currentTimeMillis(), Math.multiplyExact(amount, multiplier));
+        } catch (ArithmeticException e) {
+            throw new KronotopException(String.format("invalid expire time in '%s' command", command.toLowerCase()));
+        }
+    }
+
+    /**
+     * Sets the expiration time of a key without checking it, 0 removes the expiration time.
+     * Hashes are persisted field by field, so every field is written to the volume again.
+     */
+    private void setExpiresAt(RedisShard shard, String key, RedisValueContainer container, long expiresAt) {
+        if (container.kind().equals(RedisValueKind.HASH)) {
+            HashValue hashValue = container.hash();
+            List<Versionstamp> versionstamps = new ArrayList<>();
+            hashValue.forEach((field, value) -> versionstamps.add(value.versionstamp()));
+            hashValue.setTTL(expiresAt);
+            // Reschedules the key
+            shard.storage().put(key, container);
+            for (String field : hashValue.keySet()) {
+                shard.volumeSyncQueue().add(new AppendHashFieldJob(key, field));
+            }
+            for (Versionstamp versionstamp : versionstamps) {
+                deleteByVersionstamp(shard, versionstamp);
+            }
+            return;
+        }
+        StringValue value = new StringValue(container.string().value(), expiresAt);
+        RedisValueContainer previous = shard.storage().put(key, new RedisValueContainer(value));
+        syncStringOnVolume(shard, key, previous);
+    }
+
+    /**
+     * Sets the expiration time of a key. A non-positive time to live deletes the key.
+     * The caller must hold the write lock of the key.
+     *
+     * @param shard     the shard that owns the key
+     * @param key       the key
+     * @param expiresAt the expiration time as a Unix time in milliseconds
+     * @return 1 if the expiration time is set, 0 if the key doesn't exist
+     */
+    protected long expire(RedisShard shard, String key, long expiresAt) {
+        RedisValueContainer container = shard.storage().get(key);
+        if (container == null) {
+            return 0;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            shard.storage().remove(key);
+            wipeOutKey(shard, key, container);
+            return 1;
+        }
+        setExpiresAt(shard, key, container, expiresAt);
+        return 1;
+    }
+
+    /**
+     * Removes the expiration time of a key. The caller must hold the write lock of the key.
+     *
+     * @param shard the shard that owns the key
+     * @param key   the key
+     * @return 1 if the expiration time is removed, 0 if the key doesn't exist or has no expiration time
+     */
+    protected long persist(RedisShard shard, String key) {
+        RedisValueContainer container = shard.storage().get(key);
+        if (container == null || container.expiresAt() == 0) {
+            return 0;
+        }
+        setExpiresAt(shard, key, container, 0);
+        return 1;
+    }
+
+    /**
+     * Returns the remaining time to live of a key. The caller must hold the lock of the key.
+     *
+     * @param shard the shard that owns the key
+     * @param key   the key
+     * @return the remaining time to live in milliseconds, -2 if the key doesn't exist, -1 if the key has no expiration time
+     */
+    protected long ttl(RedisShard shard, String key) {
+        RedisValueContainer container = shard.storage().get(key);
+        if (container == null) {
+            return -2;
+        }
+        if (container.expiresAt() == 0) {
+            return -1;
+        }
+        return Math.max(0, container.expiresAt() - System.currentTimeMillis());
+    }
 }
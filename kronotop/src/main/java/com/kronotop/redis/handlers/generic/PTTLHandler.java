@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.redis.handlers.generic;
+
+import com.kronotop.cluster.sharding.ShardStatus;
+import com.kronotop.redis.RedisService;
+import com.kronotop.redis.handlers.generic.protocol.PTTLMessage;
+import com.kronotop.redis.storage.RedisShard;
+import com.kronotop.server.Handler;
+import com.kronotop.server.MessageTypes;
+import com.kronotop.server.Request;
+import com.kronotop.server.Response;
+import com.kronotop.server.annotation.Command;
+import com.kronotop.server.annotation.MaximumParameterCount;
+import com.kronotop.server.annotation.MinimumParameterCount;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+
+@Command(PTTLMessage.COMMAND)
+@MaximumParameterCount(PTTLMessage.MAXIMUM_PARAMETER_COUNT)
+@MinimumParameterCount(PTTLMessage.MINIMUM_PARAMETER_COUNT)
+public class PTTLHandler extends BaseGenericHandler implements Handler {
+    public PTTLHandler(RedisService service) {
+        super(service);
+    }
+
+    @Override
+    public List<String> getKeys(Request request) {
+        return Collections.singletonList(request.attr(MessageTypes.PTTL).get().getKey());
+    }
+
+    @Override
+    public void beforeExecute(Request request) {
+        request.attr(MessageTypes.PTTL).set(new PTTLMessage(request));
+    }
+
+    @Override
+    public void execute(Request request, Response response) {
+        PTTLMessage message = request.attr(MessageTypes.PTTL).get();
+
+        RedisShard shard = service.findShard(message.getKey(), ShardStatus.READONLY);
+        long result;
+        ReadWriteLock lock = shard.striped().get(message.getKey());
+        lock.readLock().lock();
+        try {
+            result = ttl(shard, message.getKey());
+        } finally {
+            lock.readLock().unlock();
+        }
+        response.writeInteger(result);
+    }
+}
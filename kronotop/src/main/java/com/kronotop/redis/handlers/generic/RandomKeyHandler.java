@@ -41,6 +41,8 @@ import java.util.concurrent.ThreadLocalRandom;
 @MaximumParameterCount(RandomKeyMessage.MAXIMUM_PARAMETER_COUNT)
 @MinimumParameterCount(RandomKeyMessage.MINIMUM_PARAMETER_COUNT)
 public class RandomKeyHandler extends BaseHandler implements Handler {
+    static final int MAX_ATTEMPTS = 100;
+
     public RandomKeyHandler(RedisService service) {
         super(service);
     }
@@ -69,16 +71,26 @@ public class RandomKeyHandler extends BaseHandler implements Handler {
             return;
         }
 
-        int randomIndex = ThreadLocalRandom.current().nextInt(shardIds.size());
-        int shardId = shardIds.get(randomIndex);
-        RedisShard shard = service.findShard(shardId, ShardStatus.READONLY);
-        try {
-            String randomKey = shard.index().random();
+        // The index might still contain keys that have expired but haven't been reaped yet, skip them
+        // like Redis does and give up after a bounded number of attempts.
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int randomIndex = ThreadLocalRandom.current().nextInt(shardIds.size());
+            int shardId = shardIds.get(randomIndex);
+            RedisShard shard = service.findShard(shardId, ShardStatus.READONLY);
+            String randomKey;
+            try {
+                randomKey = shard.index().random();
+            } catch (NoSuchElementException e) {
+                continue;
+            }
+            if (shard.storage().get(randomKey) == null) {
+                continue;
+            }
             ByteBuf buf = response.getCtx().alloc().buffer();
             buf.writeBytes(randomKey.getBytes());
             response.write(buf);
-        } catch (NoSuchElementException e) {
-            response.writeFullBulkString(FullBulkStringRedisMessage.NULL_INSTANCE);
+            return;
         }
+        response.writeFullBulkString(FullBulkStringRedisMessage.NULL_INSTANCE);
     }
 }
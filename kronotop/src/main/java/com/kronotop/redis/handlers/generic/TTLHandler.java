@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.redis.handlers.generic;
+
+import com.kronotop.cluster.sharding.ShardStatus;
+import com.kronotop.redis.RedisService;
+import com.kronotop.redis.handlers.generic.protocol.TTLMessage;
+import com.kronotop.redis.storage.RedisShard;
+import com.kronotop.server.Handler;
+import com.kronotop.server.MessageTypes;
+import com.kronotop.server.Request;
+import com.kronotop.server.Response;
+import com.kronotop.server.annotation.Command;
+import com.kronotop.server.annotation.MaximumParameterCount;
+import com.kronotop.server.annotation.MinimumParameterCount;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+
+@Command(TTLMessage.COMMAND)
+@MaximumParameterCount(TTLMessage.MAXIMUM_PARAMETER_COUNT)
+@MinimumParameterCount(TTLMessage.MINIMUM_PARAMETER_COUNT)
+public class TTLHandler extends BaseGenericHandler implements Handler {
+    public TTLHandler(RedisService service) {
+        super(service);
+    }
+
+    @Override
+    public List<String> getKeys(Request request) {
+        return Collections.singletonList(request.attr(MessageTypes.TTL).get().getKey());
+    }
+
+    @Override
+    public void beforeExecute(Request request) {
+        request.attr(MessageTypes.TTL).set(new TTLMessage(request));
+    }
+
+    @Override
+    public void execute(Request request, Response response) {
+        TTLMessage message = request.attr(MessageTypes.TTL).get();
+
+        RedisShard shard = service.findShard(message.getKey(), ShardStatus.READONLY);
+        long result;
+        ReadWriteLock lock = shard.striped().get(message.getKey());
+        lock.readLock().lock();
+        try {
+            long ttl = ttl(shard, message.getKey());
+            // Negative values are the "no such key" and "no expiration" replies.
+            result = ttl < 0 ? ttl : (ttl + 500) / 1000;
+        } finally {
+            lock.readLock().unlock();
+        }
+        response.writeInteger(result);
+    }
+}
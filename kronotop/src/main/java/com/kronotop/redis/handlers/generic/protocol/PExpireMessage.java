@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.redis.handlers.generic.protocol;
+
+import com.kronotop.KronotopException;
+import com.kronotop.server.ProtocolMessage;
+import com.kronotop.server.RESPError;
+import com.kronotop.server.Request;
+
+import java.util.List;
+
+public class PExpireMessage implements ProtocolMessage<String> {
+    public static final String COMMAND = "PEXPIRE";
+    public static final int MINIMUM_PARAMETER_COUNT = 2;
+    public static final int MAXIMUM_PARAMETER_COUNT = 2;
+    private final Request request;
+    private String key;
+    private long milliseconds;
+
+    public PExpireMessage(Request request) {
+        this.request = request;
+        parse();
+    }
+
+    private void parse() {
+        byte[] rawKey = new byte[request.getParams().get(0).readableBytes()];
+        request.getParams().get(0).readBytes(rawKey);
+        key = new String(rawKey);
+
+        byte[] rawMilliseconds = new byte[request.getParams().get(1).readableBytes()];
+        request.getParams().get(1).readBytes(rawMilliseconds);
+        try {
+            milliseconds = Long.parseLong(new String(rawMilliseconds));
+        } catch (NumberFormatException e) {
+            throw new KronotopException(RESPError.NUMBER_FORMAT_EXCEPTION_MESSAGE_INTEGER);
+        }
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public List<String> getKeys() {
+        return null;
+    }
+
+    /**
+     * Returns the time to live in milliseconds.
+     */
+    public long getMilliseconds() {
+        return milliseconds;
+    }
+}
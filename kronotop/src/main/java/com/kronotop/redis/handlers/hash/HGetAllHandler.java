@@ -33,9 +33,9 @@ import com.kronotop.server.annotation.MinimumParameterCount;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
 import com.kronotop.server.resp3.RedisMessage;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -70,18 +70,13 @@ public class HGetAllHandler extends BaseHandler implements Handler {
             }
             checkRedisValueKind(container, RedisValueKind.HASH);
 
-            Enumeration<String> fields = container.hash().keys();
-            while (fields.hasMoreElements()) {
-                String field = fields.nextElement();
-                ByteBuf fieldBuf = response.getCtx().alloc().buffer();
-                fieldBuf.writeBytes(field.getBytes());
+            container.hash().forEach((field, hashField) -> {
+                ByteBuf fieldBuf = Unpooled.wrappedBuffer(field.getBytes());
                 result.add(new FullBulkStringRedisMessage(fieldBuf));
 
-                HashFieldValue hashField = container.hash().get(field);
-                ByteBuf valueBuf = response.getCtx().alloc().buffer();
-                valueBuf.writeBytes(hashField.value());
+                ByteBuf valueBuf = Unpooled.wrappedBuffer(hashField.value());
                 result.add(new FullBulkStringRedisMessage(valueBuf));
-            }
+            });
         } finally {
             lock.readLock().unlock();
         }
@@ -32,6 +32,7 @@ import com.kronotop.server.annotation.MaximumParameterCount;
 import com.kronotop.server.annotation.MinimumParameterCount;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -71,8 +72,7 @@ public class HGetHandler extends BaseHandler implements Handler {
                 return;
             }
 
-            ByteBuf buf = response.getCtx().alloc().buffer();
-            buf.writeBytes(hashField.value());
+            ByteBuf buf = Unpooled.wrappedBuffer(hashField.value());
             response.write(buf);
         } finally {
             lock.readLock().unlock();
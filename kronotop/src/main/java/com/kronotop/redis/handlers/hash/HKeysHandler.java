@@ -35,7 +35,6 @@ import com.kronotop.server.resp3.RedisMessage;
 import io.netty.buffer.ByteBuf;
 
 import java.util.ArrayList;
-import java.util.Enumeration;
 import java.util.List;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -70,10 +69,9 @@ public class HKeysHandler extends BaseHandler implements Handler {
             }
             checkRedisValueKind(container, RedisValueKind.HASH);
 
-            Enumeration<String> keys = container.hash().keys();
-            while (keys.hasMoreElements()) {
+            for (String field : container.hash().keySet()) {
                 ByteBuf buf = response.getCtx().alloc().buffer();
-                buf.writeBytes(keys.nextElement().getBytes());
+                buf.writeBytes(field.getBytes());
                 fields.add(new FullBulkStringRedisMessage(buf));
             }
         } finally {
@@ -33,6 +33,7 @@ import com.kronotop.server.annotation.MinimumParameterCount;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
 import com.kronotop.server.resp3.RedisMessage;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -61,8 +62,7 @@ public class HRandFieldHandler extends BaseHandler implements Handler {
 
     private FullBulkStringRedisMessage prepareBulkReply(Response response, HashValue hashValue) {
         String field = getRandomSetElement(hashValue.keySet());
-        ByteBuf buf = response.getCtx().alloc().buffer();
-        buf.writeBytes(field.getBytes());
+        ByteBuf buf = Unpooled.wrappedBuffer(field.getBytes());
         return new FullBulkStringRedisMessage(buf);
     }
 
@@ -72,10 +72,12 @@ public class HRandFieldHandler extends BaseHandler implements Handler {
             count = hashValue.size();
         }
 
+        // The field set is a snapshot for compact hashes, take it once.
+        Set<String> fields = hashValue.keySet();
         Set<String> set = new HashSet<>();
         List<RedisMessage> upperList = new ArrayList<>();
         for (int i = 0; i < count; i++) {
-            String field = getRandomSetElement(hashValue.keySet());
+            String field = getRandomSetElement(fields);
             if (hrandfieldMessage.getCount() > 0) {
                 if (set.contains(field)) {
                     i--;
@@ -83,13 +85,11 @@ public class HRandFieldHandler extends BaseHandler implements Handler {
                 }
             }
             set.add(field);
-            ByteBuf fieldBuf = response.getCtx().alloc().buffer();
-            fieldBuf.writeBytes(field.getBytes());
+            ByteBuf fieldBuf = Unpooled.wrappedBuffer(field.getBytes());
             upperList.add(new FullBulkStringRedisMessage(fieldBuf));
 
             if (hrandfieldMessage.getWithValues()) {
-                ByteBuf valueBuf = response.getCtx().alloc().buffer();
-                valueBuf.writeBytes(hashValue.get(field).value());
+                ByteBuf valueBuf = Unpooled.wrappedBuffer(hashValue.get(field).value());
                 upperList.add(new FullBulkStringRedisMessage(valueBuf));
             }
 
@@ -14,9 +14,300 @@
  * limitations under the License.
  */
 
+
 package com.kronotop.redis.handlers.hash;
 
+import com.apple.foundationdb.tuple.Versionstamp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * HashValue represents the fields of a Redis hash.
+ * <p>
+ * Small hashes are kept in a compact encoding, a single byte array of consecutive entries with the
+ * following layout:
+ * <pre>
+ * [int fieldLength][field][int valueLength][value][long ttl][byte hasVersionstamp][12 bytes versionstamp, optional]
+ * </pre>
+ * The hash is converted to a map of field values when the number of fields exceeds {@link #MAX_COMPACT_ENTRIES}
+ * or a field or value longer than {@link #MAX_COMPACT_LENGTH} bytes is stored. The conversion is one way.
+ * <p>
+ * The expiration time of a hash belongs to the key, it is copied to the ttl of every field, so it survives the
+ * field-by-field persistence of hashes on the volume.
+ * <p>
+ * Field values returned from the compact encoding are copies, writers have to put the modified values back.
+ * HashValue is not thread-safe in the compact encoding, callers are expected to hold the striped lock of the key.
+ */
+public class HashValue {
+    public static final int MAX_COMPACT_ENTRIES = 128;
+    public static final int MAX_COMPACT_LENGTH = 64;
+    private static final byte[] EMPTY = new byte[0];
+    private static final int FIXED_ENTRY_SIZE = 4 + 4 + 8 + 1;
+
+    private byte[] compact = EMPTY;
+    private int compactSize;
+    private ConcurrentHashMap<String, HashFieldValue> map;
+    // Expiration time as a Unix time in milliseconds, 0 means the hash never expires.
+    private long ttl;
+
+    private static int entrySize(ByteBuffer buffer, int offset) {
+        int fieldLength = buffer.getInt(offset);
+        int valueOffset = offset + 4 + fieldLength;
+        int valueLength = buffer.getInt(valueOffset);
+        int flagOffset = valueOffset + 4 + valueLength + 8;
+        int size = FIXED_ENTRY_SIZE + fieldLength + valueLength;
+        if (buffer.get(flagOffset) == 1) {
+            size += Versionstamp.LENGTH;
+        }
+        return size;
+    }
+
+    private static byte[] encodeEntry(byte[] field, HashFieldValue value) {
+        Versionstamp versionstamp = value.versionstamp();
+        int size = FIXED_ENTRY_SIZE + field.length + value.value().length;
+        if (versionstamp != null) {
+            size += Versionstamp.LENGTH;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(field.length).put(field);
+        buffer.putInt(value.value().length).put(value.value());
+        buffer.putLong(value.ttl());
+        if (versionstamp == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1).put(versionstamp.getBytes());
+        }
+        return buffer.array();
+    }
+
+    private static String decodeField(ByteBuffer buffer, int offset) {
+        int fieldLength = buffer.getInt(offset);
+        return new String(buffer.array(), offset + 4, fieldLength, StandardCharsets.UTF_8);
+    }
+
+    private static HashFieldValue decodeValue(ByteBuffer buffer, int offset) {
+        int valueOffset = offset + 4 + buffer.getInt(offset);
+        byte[] value = new byte[buffer.getInt(valueOffset)];
+        buffer.get(valueOffset + 4, value);
+        int ttlOffset = valueOffset + 4 + value.length;
+        HashFieldValue hashFieldValue = new HashFieldValue(value, buffer.getLong(ttlOffset));
+        if (buffer.get(ttlOffset + 8) == 1) {
+            byte[] versionstamp = new byte[Versionstamp.LENGTH];
+            buffer.get(ttlOffset + 9, versionstamp);
+            hashFieldValue.setVersionstamp(Versionstamp.fromBytes(versionstamp));
+        }
+        return hashFieldValue;
+    }
+
+    private static boolean fieldEquals(ByteBuffer buffer, int offset, byte[] field) {
+        if (buffer.getInt(offset) != field.length) {
+            return false;
+        }
+        return Arrays.equals(buffer.array(), offset + 4, offset + 4 + field.length, field, 0, field.length);
+    }
+
+    /**
+     * Returns the offset of the given field in the compact encoding, or -1 if the field doesn't exist.
+     */
+    private int findEntry(byte[] field) {
+        ByteBuffer buffer = ByteBuffer.wrap(compact);
+        int offset = 0;
+        for (int i = 0; i < compactSize; i++) {
+            if (fieldEquals(buffer, offset, field)) {
+                return offset;
+            }
+            offset += entrySize(buffer, offset);
+        }
+        return -1;
+    }
+
+    private void forEachCompact(BiConsumer<String, HashFieldValue> action) {
+        ByteBuffer buffer = ByteBuffer.wrap(compact);
+        int offset = 0;
+        for (int i = 0; i < compactSize; i++) {
+            action.accept(decodeField(buffer, offset), decodeValue(buffer, offset));
+            offset += entrySize(buffer, offset);
+        }
+    }
+
+    private void convertToMap() {
+        ConcurrentHashMap<String, HashFieldValue> converted = new ConcurrentHashMap<>();
+        forEachCompact(converted::put);
+        map = converted;
+        compact = null;
+        compactSize = 0;
+    }
+
+    private static boolean fitsCompact(byte[] field, HashFieldValue value) {
+        return field.length <= MAX_COMPACT_LENGTH && value.value().length <= MAX_COMPACT_LENGTH;
+    }
+
+    private void replaceRegion(int offset, int length, byte[] replacement) {
+        byte[] updated = new byte[compact.length - length + replacement.length];
+        System.arraycopy(compact, 0, updated, 0, offset);
+        System.arraycopy(replacement, 0, updated, offset, replacement.length);
+        System.arraycopy(compact, offset + length, updated, offset + replacement.length, compact.length - offset - length);
+        compact = updated;
+    }
+
+    public long ttl() {
+        return ttl;
+    }
+
+    /**
+     * Sets the expiration time of the hash and copies it to all of its fields.
+     *
+     * @param ttl the expiration time as a Unix time in milliseconds, 0 means the hash never expires
+     */
+    public void setTTL(long ttl) {
+        this.ttl = ttl;
+        if (map != null) {
+            map.values().forEach(value -> value.setTTL(ttl));
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(compact);
+        int offset = 0;
+        for (int i = 0; i < compactSize; i++) {
+            int valueOffset = offset + 4 + buffer.getInt(offset);
+            buffer.putLong(valueOffset + 4 + buffer.getInt(valueOffset), ttl);
+            offset += entrySize(buffer, offset);
+        }
+    }
+
+    /**
+     * Checks whether the hash is kept in the compact encoding.
+     *
+     * @return true if the hash is compact, false if it has been converted to a map
+     */
+    public boolean isCompact() {
+        return map == null;
+    }
+
+    public HashFieldValue get(String field) {
+        if (map != null) {
+            return map.get(field);
+        }
+        int offset = findEntry(field.getBytes(StandardCharsets.UTF_8));
+        if (offset < 0) {
+            return null;
+        }
+        return decodeValue(ByteBuffer.wrap(compact), offset);
+    }
+
+    public boolean containsKey(String field) {
+        if (map != null) {
+            return map.containsKey(field);
+        }
+        return findEntry(field.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    public HashFieldValue put(String field, HashFieldValue value) {
+        value.setTTL(ttl);
+        if (map != null) {
+            return map.put(field, value);
+        }
+        byte[] fieldBytes = field.getBytes(StandardCharsets.UTF_8);
+        int offset = findEntry(fieldBytes);
+        if (!fitsCompact(fieldBytes, value) || (offset < 0 && compactSize >= MAX_COMPACT_ENTRIES)) {
+            convertToMap();
+            return map.put(field, value);
+        }
+        byte[] entry = encodeEntry(fieldBytes, value);
+        if (offset < 0) {
+            replaceRegion(compact.length, 0, entry);
+            compactSize++;
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(compact);
+        HashFieldValue previous = decodeValue(buffer, offset);
+        replaceRegion(offset, entrySize(buffer, offset), entry);
+        return previous;
+    }
+
+    public HashFieldValue remove(String field) {
+        if (map != null) {
+            return map.remove(field);
+        }
+        int offset = findEntry(field.getBytes(StandardCharsets.UTF_8));
+        if (offset < 0) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(compact);
+        HashFieldValue previous = decodeValue(buffer, offset);
+        replaceRegion(offset, entrySize(buffer, offset), EMPTY);
+        compactSize--;
+        return previous;
+    }
+
+    /**
+     * Computes a new value for the field if it exists. The returned value is stored back,
+     * so the changes made on a copy from the compact encoding are not lost.
+     */
+    public HashFieldValue computeIfPresent(String field, BiFunction<String, HashFieldValue, HashFieldValue> remappingFunction) {
+        if (map != null) {
+            return map.computeIfPresent(field, remappingFunction);
+        }
+        HashFieldValue existing = get(field);
+        if (existing == null) {
+            return null;
+        }
+        HashFieldValue result = remappingFunction.apply(field, existing);
+        if (result == null) {
+            remove(field);
+        } else {
+            put(field, result);
+        }
+        return result;
+    }
+
+    public int size() {
+        if (map != null) {
+            return map.size();
+        }
+        return compactSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Calls the given action for each field and its value.
+     */
+    public void forEach(BiConsumer<String, HashFieldValue> action) {
+        if (map != null) {
+            map.forEach(action);
+            return;
+        }
+        forEachCompact(action);
+    }
+
+    /**
+     * Returns the fields of the hash. The returned set is a snapshot if the hash is compact.
+     */
+    public Set<String> keySet() {
+        if (map != null) {
+            return map.keySet();
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        forEachCompact((field, value) -> fields.add(field));
+        return fields;
+    }
 
-public class HashValue extends ConcurrentHashMap<String, HashFieldValue> {
+    /**
+     * Returns the values of the hash. The returned collection is a snapshot if the hash is compact.
+     */
+    public Collection<HashFieldValue> values() {
+        if (map != null) {
+            return map.values();
+        }
+        List<HashFieldValue> values = new ArrayList<>(compactSize);
+        forEachCompact((field, value) -> values.add(value));
+        return values;
+    }
 }
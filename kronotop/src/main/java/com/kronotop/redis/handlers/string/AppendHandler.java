@@ -74,7 +74,7 @@ public class AppendHandler extends BaseStringHandler implements Handler {
         output.writeBytes(previousValue.value());
         output.writeBytes(message.getValue());
 
-        StringValue newValue = new StringValue(output.toByteArray());
+        StringValue newValue = new StringValue(output.toByteArray(), previousValue.ttl());
         shard.storage().put(message.getKey(), new RedisValueContainer(newValue));
         result.set(newValue.value().length);
         return previous;
@@ -28,6 +28,7 @@ import com.kronotop.server.annotation.MaximumParameterCount;
 import com.kronotop.server.annotation.MinimumParameterCount;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -60,8 +61,7 @@ public class GetHandler extends BaseStringHandler implements Handler {
             if (!container.kind().equals(RedisValueKind.STRING)) {
                 throw new WrongTypeException();
             }
-            ByteBuf buf = response.getCtx().alloc().buffer();
-            buf.writeBytes(container.string().value());
+            ByteBuf buf = Unpooled.wrappedBuffer(container.string().value());
             response.write(buf);
         } finally {
             lock.readLock().unlock();
@@ -31,6 +31,7 @@ import com.kronotop.server.annotation.MinimumParameterCount;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
 import com.kronotop.server.resp3.RedisMessage;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -73,8 +74,7 @@ public class MGetHandler extends BaseStringHandler implements Handler {
                     continue;
                 }
 
-                ByteBuf buf = response.getCtx().alloc().buffer();
-                buf.writeBytes(container.string().value());
+                ByteBuf buf = Unpooled.wrappedBuffer(container.string().value());
                 result.add(new FullBulkStringRedisMessage(buf));
             }
         } finally {
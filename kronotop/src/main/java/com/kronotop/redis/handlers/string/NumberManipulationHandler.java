@@ -58,7 +58,8 @@ public class NumberManipulationHandler<T> {
         }
 
         currentValue = logic.apply(currentValue);
-        StringValue value = new StringValue(encode.apply(currentValue));
+        // Keeps the expiration time of the key, if any.
+        StringValue value = new StringValue(encode.apply(currentValue), previous == null ? 0 : previous.expiresAt());
         shard.storage().put(key, new RedisValueContainer(value));
         return previous;
     }
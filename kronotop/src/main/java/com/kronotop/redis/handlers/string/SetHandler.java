@@ -57,7 +57,14 @@ public class SetHandler extends BaseStringHandler implements Handler {
     }
 
     private RedisValueContainer executeSetCommand(RedisShard shard, SetMessage message) {
-        StringValue stringValue = new StringValue(message.getValue());
+        long expiresAt = message.getExpiresAt();
+        if (message.isKeepTTL()) {
+            RedisValueContainer current = shard.storage().get(message.getKey());
+            if (current != null) {
+                expiresAt = current.expiresAt();
+            }
+        }
+        StringValue stringValue = new StringValue(message.getValue(), expiresAt);
         RedisValueContainer container = new RedisValueContainer(stringValue);
         return shard.storage().put(message.getKey(), container);
     }
@@ -86,7 +86,7 @@ public class SetRangeHandler extends BaseStringHandler implements Handler {
         buf.put(message.getValue());
 
         result.set(size);
-        RedisValueContainer container = new RedisValueContainer(new StringValue(buf.array()));
+        RedisValueContainer container = new RedisValueContainer(new StringValue(buf.array(), previous.expiresAt()));
         shard.storage().put(message.getKey(), container);
         return previous;
     }
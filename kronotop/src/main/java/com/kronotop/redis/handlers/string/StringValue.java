@@ -18,7 +18,16 @@ package com.kronotop.redis.handlers.string;
 
 import com.kronotop.redis.storage.BaseRedisValue;
 
+/**
+ * StringValue holds the value of a string key and its expiration time.
+ * <p>
+ * The stored byte array is immutable. Read commands wrap it into the response buffers
+ * without copying, so commands that modify a value, such as SETRANGE, APPEND or INCR,
+ * must allocate a new array and replace the StringValue instead of writing into the
+ * existing one.
+ */
 public class StringValue extends BaseRedisValue<byte[]> {
+    // Expiration time as a Unix time in milliseconds, 0 means the value never expires.
     private long ttl;
 
     public StringValue(byte[] value) {
@@ -16,7 +16,9 @@
 
 package com.kronotop.redis.handlers.string.protocol;
 
+import com.kronotop.KronotopException;
 import com.kronotop.server.ProtocolMessage;
+import com.kronotop.server.RESPError;
 import com.kronotop.server.Request;
 
 import java.util.List;
@@ -24,10 +26,12 @@ import java.util.List;
 public class SetMessage implements ProtocolMessage<String> {
     public static final String COMMAND = "SET";
     public static final int MINIMUM_PARAMETER_COUNT = 2;
-    public static final int MAXIMUM_PARAMETER_COUNT = 2;
+    public static final int MAXIMUM_PARAMETER_COUNT = 4;
     private final Request request;
     private String key;
     private byte[] value;
+    private long expiresAt;
+    private boolean keepTTL;
 
     public SetMessage(Request request) {
         this.request = request;
@@ -41,6 +45,51 @@ public class SetMessage implements ProtocolMessage<String> {
 
         value = new byte[request.getParams().get(1).readableBytes()];
         request.getParams().get(1).readBytes(value);
+
+        if (request.getParams().size() > 2) {
+            parseExpiration();
+        }
+    }
+
+    private String readParameter(int index) {
+        byte[] raw = new byte[request.getParams().get(index).readableBytes()];
+        request.getParams().get(index).readBytes(raw);
+        return new String(raw);
+    }
+
+    private void parseExpiration() {
+        String option = readParameter(2).toUpperCase();
+        if (option.equals("KEEPTTL")) {
+            if (request.getParams().size() != 3) {
+                throw new KronotopException("syntax error");
+            }
+            keepTTL = true;
+            return;
+        }
+
+        if (request.getParams().size() != 4) {
+            throw new KronotopException("syntax error");
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(readParameter(3));
+        } catch (NumberFormatException e) {
+            throw new KronotopException(RESPError.NUMBER_FORMAT_EXCEPTION_MESSAGE_INTEGER);
+        }
+        if (amount <= 0) {
+            throw new KronotopException("invalid expire time in 'set' command");
+        }
+        try {
+            expiresAt = switch (option) {
+                case "EX" -> Math.addExact(System.currentTimeMillis(), Math.multiplyExact(amount, 1000L));
+                case "PX" -> Math.addExact(System.currentTimeMillis(), amount);
+                case "EXAT" -> Math.multiplyExact(amount, 1000L);
+                case "PXAT" -> amount;
+                default -> throw new KronotopException("syntax error");
+            };
+        } catch (ArithmeticException e) {
+            throw new KronotopException("invalid expire time in 'set' command");
+        }
     }
 
     @Override
@@ -57,4 +106,17 @@ public class SetMessage implements ProtocolMessage<String> {
     public byte[] getValue() {
         return value;
     }
+
+    /**
+     * Returns the expiration time set by the EX, PX, EXAT or PXAT options.
+     *
+     * @return the expiration time as a Unix time in milliseconds, 0 if no expiration is given
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isKeepTTL() {
+        return keepTTL;
+    }
 }
\ No newline at end of file
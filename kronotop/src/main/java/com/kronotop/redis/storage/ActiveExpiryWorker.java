@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.redis.storage;
+
+import com.kronotop.Context;
+import com.kronotop.ServiceContext;
+import com.kronotop.cluster.Route;
+import com.kronotop.cluster.RoutingService;
+import com.kronotop.cluster.sharding.ShardKind;
+import com.kronotop.redis.RedisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The ActiveExpiryWorker class removes the expired keys from the Redis shards owned by this member.
+ * <p>
+ * Expired keys are already invisible to the readers, this worker frees the memory they hold and
+ * deletes their volume entries without waiting for a client to touch them. Only the primary owner
+ * of a shard removes keys, the standbys receive the deletions via replication.
+ */
+public class ActiveExpiryWorker implements Runnable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActiveExpiryWorker.class);
+    private final Context context;
+    private final RoutingService routing;
+    private final ServiceContext<RedisShard> redisContext;
+    private final int maxKeysPerCycle;
+
+    public ActiveExpiryWorker(Context context) {
+        this.context = context;
+        this.routing = context.getService(RoutingService.NAME);
+        this.redisContext = context.getServiceContext(RedisService.NAME);
+        this.maxKeysPerCycle = context.getConfig().getInt("redis.active_expiry.max_keys_per_cycle");
+    }
+
+    private boolean isPrimaryOwner(RedisShard shard) {
+        Route route = routing.findRoute(ShardKind.REDIS, shard.id());
+        return route != null && route.primary().equals(context.getMember());
+    }
+
+    @Override
+    public void run() {
+        redisContext.shards().forEach((shardId, shard) -> {
+            if (!shard.operable() || !isPrimaryOwner(shard)) {
+                return;
+            }
+            try {
+                int removed = shard.expireKeys(maxKeysPerCycle);
+                if (removed > 0 && LOGGER.isTraceEnabled()) {
+                    LOGGER.trace("{} expired keys have been removed from Redis shard: {}", removed, shardId);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Error while removing expired keys from Redis shard: {}", shardId, e);
+            }
+        });
+    }
+}
@@ -66,6 +66,14 @@ public interface RedisShard extends Shard {
      */
     Volume volume();
 
+    /**
+     * Removes the keys whose expiration time has passed from the storage, the index and the volume.
+     *
+     * @param limit the maximum number of expiration schedules to process
+     * @return the number of removed keys
+     */
+    int expireKeys(int limit);
+
     /**
      * Closes the shard and frees allocated resources.
      */
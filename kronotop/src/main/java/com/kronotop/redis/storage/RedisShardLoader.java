@@ -16,53 +16,67 @@
 
 package com.kronotop.redis.storage;
 
+import com.apple.foundationdb.FDBException;
 import com.apple.foundationdb.Transaction;
+import com.apple.foundationdb.tuple.Versionstamp;
 import com.kronotop.Context;
+import com.kronotop.KronotopException;
 import com.kronotop.internal.VersionstampUtils;
 import com.kronotop.redis.handlers.hash.HashValue;
 import com.kronotop.volume.KeyEntry;
 import com.kronotop.volume.Prefix;
+import com.kronotop.volume.VersionstampedKeySelector;
 import com.kronotop.volume.VolumeSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
 import java.util.concurrent.locks.ReadWriteLock;
 
 /**
  * The RedisShardLoader class is responsible for loading and processing data from a RedisShard's
  * storage volume into its operational state. It interacts with a Context and RedisShard to read,
  * process, and update data structures stored in the shard.
+ * <p>
+ * The volume is read in batches, each one in its own short FoundationDB transaction, so loading a
+ * large shard never hits the transaction time limit. The next batch is read while the current one
+ * is being decoded, and decoding is spread over a number of worker threads. Entries of the same key
+ * are always applied in the volume order, so the latest entry of a key wins.
  */
 public final class RedisShardLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(RedisShardLoader.class);
+    private static final int MAX_ATTEMPTS_PER_BATCH = 5;
     private final Context context;
     private final RedisShard shard;
     private final Prefix prefix;
+    private final int batchSize;
+    private final int workers;
 
     public RedisShardLoader(Context context, RedisShard shard) {
         this.context = context;
         this.shard = shard;
         this.prefix = new Prefix(context.getConfig().getString("redis.volume_syncer.prefix").getBytes());
+        this.batchSize = context.getConfig().getInt("redis.shard_loader.batch_size");
+        this.workers = Math.max(1, context.getConfig().getInt("redis.shard_loader.workers"));
     }
 
     /**
-     * Processes a StringPack object based on the provided KeyEntry. The method unpacks the given
-     * KeyEntry to retrieve StringPack data, acquires a write lock corresponding to the StringPack key,
-     * and stores the StringPack contents into the shard's storage. The StringPack's versionstamp is
-     * updated to match the KeyEntry's versionstamp.
+     * Stores the given StringPack into the shard's storage and links it with its volume entry.
      *
-     * @param entry the KeyEntry containing the data to be unpacked and processed
-     * @throws IOException if the KeyEntry cannot be unpacked or contains invalid data
+     * @param shard        the shard to load the StringPack into
+     * @param pack         the decoded StringPack
+     * @param versionstamp the versionstamped key of the volume entry
      */
-    public static void processStringPack(RedisShard shard, KeyEntry entry) throws IOException {
-        StringPack pack = StringPack.unpack(entry.entry());
+    private static void applyStringPack(RedisShard shard, StringPack pack, Versionstamp versionstamp) {
         ReadWriteLock lock = shard.striped().get(pack.key());
         lock.writeLock().lock();
         try {
             RedisValueContainer container = new RedisValueContainer(pack.stringValue());
-            container.string().setVersionstamp(entry.key());
+            container.string().setVersionstamp(versionstamp);
             shard.storage().put(pack.key(), container);
         } finally {
             lock.writeLock().unlock();
@@ -70,78 +84,217 @@ public final class RedisShardLoader {
     }
 
     /**
-     * Processes a HashFieldPack object based on the provided KeyEntry. The method unpacks the given
-     * KeyEntry to retrieve HashFieldPack data, acquires a write lock corresponding to the HashFieldPack
-     * key, and stores the HashFieldPack contents into the shard's storage. The HashFieldPack's versionstamp
-     * is updated to match the KeyEntry's versionstamp.
+     * Stores the given HashFieldPack into the shard's storage and links it with its volume entry.
      *
-     * @param entry the KeyEntry containing the data to be unpacked and processed
-     * @throws IOException if the KeyEntry cannot be unpacked or contains invalid data
+     * @param shard        the shard to load the HashFieldPack into
+     * @param pack         the decoded HashFieldPack
+     * @param versionstamp the versionstamped key of the volume entry
      */
-    public static void processHashFieldPack(RedisShard shard, KeyEntry entry) throws IOException {
-        HashFieldPack pack = HashFieldPack.unpack(entry.entry());
+    private static void applyHashFieldPack(RedisShard shard, HashFieldPack pack, Versionstamp versionstamp) {
         ReadWriteLock lock = shard.striped().get(pack.key());
         lock.writeLock().lock();
         try {
             RedisValueContainer container = shard.storage().get(pack.key());
             if (container == null) {
-                container = new RedisValueContainer(new HashValue());
+                HashValue hashValue = new HashValue();
+                // All fields of a hash carry the expiration time of the key.
+                hashValue.setTTL(pack.hashFieldValue().ttl());
+                container = new RedisValueContainer(hashValue);
                 shard.storage().put(pack.key(), container);
             }
-            pack.hashFieldValue().setVersionstamp(entry.key());
+            pack.hashFieldValue().setVersionstamp(versionstamp);
             container.hash().put(pack.field(), pack.hashFieldValue());
         } finally {
             lock.writeLock().unlock();
         }
     }
 
-    private void processStringPack(KeyEntry entry) throws IOException {
-        processStringPack(shard, entry);
+    /**
+     * Processes a StringPack object based on the provided KeyEntry. The method unpacks the given
+     * KeyEntry to retrieve StringPack data, acquires a write lock corresponding to the StringPack key,
+     * and stores the StringPack contents into the shard's storage. The StringPack's versionstamp is
+     * updated to match the KeyEntry's versionstamp.
+     *
+     * @param entry the KeyEntry containing the data to be unpacked and processed
+     * @throws IOException if the KeyEntry cannot be unpacked or contains invalid data
+     */
+    public static void processStringPack(RedisShard shard, KeyEntry entry) throws IOException {
+        applyStringPack(shard, StringPack.unpack(entry.entry()), entry.key());
     }
 
-    private void processHashFieldPack(KeyEntry entry) throws IOException {
-        processHashFieldPack(shard, entry);
+    /**
+     * Processes a HashFieldPack object based on the provided KeyEntry. The method unpacks the given
+     * KeyEntry to retrieve HashFieldPack data, acquires a write lock corresponding to the HashFieldPack
+     * key, and stores the HashFieldPack contents into the shard's storage. The HashFieldPack's versionstamp
+     * is updated to match the KeyEntry's versionstamp.
+     *
+     * @param entry the KeyEntry containing the data to be unpacked and processed
+     * @throws IOException if the KeyEntry cannot be unpacked or contains invalid data
+     */
+    public static void processHashFieldPack(RedisShard shard, KeyEntry entry) throws IOException {
+        applyHashFieldPack(shard, HashFieldPack.unpack(entry.entry()), entry.key());
     }
 
     /**
-     * Loads data from the shard's volume using the provided transaction. Iterates over all KeyEntry
-     * objects retrieved from the shard's volume and processes them based on their data structure type.
-     **/
-    private void loadFromVolume(Transaction tr) {
-        VolumeSession session = new VolumeSession(tr, prefix);
-        Iterable<KeyEntry> iterable = shard.volume().getRange(session);
-        iterable.forEach(entry -> {
+     * Decodes the given entry into a StringPack or a HashFieldPack.
+     *
+     * @return the decoded pack or null if the entry has an unknown data structure magic
+     */
+    private DataStructurePack decode(KeyEntry entry) {
+        try {
+            byte kind = entry.entry().get(0);
+            return switch (kind) {
+                case StringPack.MAGIC -> StringPack.unpack(entry.entry());
+                case HashFieldPack.MAGIC -> HashFieldPack.unpack(entry.entry());
+                default -> {
+                    LOGGER.error(
+                            "Invalid data structure magic, Versionstamped key = {}",
+                            VersionstampUtils.base32HexEncode(entry.key())
+                    );
+                    yield null;
+                }
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String keyOf(DataStructurePack pack) {
+        return switch (pack) {
+            case StringPack stringPack -> stringPack.key();
+            case HashFieldPack hashFieldPack -> hashFieldPack.key();
+            default -> throw new IllegalStateException("Unknown data structure pack: " + pack);
+        };
+    }
+
+    private void apply(DataStructurePack pack, Versionstamp versionstamp) {
+        switch (pack) {
+            case StringPack stringPack -> applyStringPack(shard, stringPack, versionstamp);
+            case HashFieldPack hashFieldPack -> applyHashFieldPack(shard, hashFieldPack, versionstamp);
+            default -> throw new IllegalStateException("Unknown data structure pack: " + pack);
+        }
+    }
+
+    /**
+     * Reads the next batch of entries from the shard's volume in a new transaction.
+     *
+     * @param cursor the versionstamped key of the last loaded entry, null to start from the beginning
+     * @return the entries that come after the cursor, at most batchSize entries
+     */
+    private List<KeyEntry> readBatch(Versionstamp cursor) {
+        List<KeyEntry> entries = new ArrayList<>();
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, prefix);
+            Iterable<KeyEntry> iterable;
+            if (cursor == null) {
+                iterable = shard.volume().getRange(session, batchSize);
+            } else {
+                iterable = shard.volume().getRange(session, VersionstampedKeySelector.firstGreaterThan(cursor), null, batchSize);
+            }
+            iterable.forEach(entries::add);
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the next batch and retries it from the same cursor if FoundationDB reports a retryable error.
+     */
+    private List<KeyEntry> readBatchWithRetry(Versionstamp cursor) {
+        for (int attempt = 1; ; attempt++) {
             try {
-                byte kind = entry.entry().get(0);
-                switch (kind) {
-                    case StringPack.MAGIC:
-                        processStringPack(entry);
-                        break;
-                    case HashFieldPack.MAGIC:
-                        processHashFieldPack(entry);
-                        break;
-                    default:
-                        LOGGER.error(
-                                "Invalid data structure magic, Versionstamped key = {}",
-                                VersionstampUtils.base32HexEncode(entry.key())
-                        );
+                return readBatch(cursor);
+            } catch (CompletionException e) {
+                if (attempt < MAX_ATTEMPTS_PER_BATCH && e.getCause() instanceof FDBException fdbException && fdbException.isRetryable()) {
+                    LOGGER.debug("Retrying to read a batch from Redis shard: {}, attempt: {}", shard.id(), attempt, e);
+                    continue;
                 }
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
+                throw e;
+            }
+        }
+    }
+
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
             }
-        });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KronotopException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new KronotopException(e.getCause());
+        }
+    }
+
+    /**
+     * Decodes the given batch on the worker threads, then applies the decoded entries. Each worker
+     * applies the entries of a disjoint set of keys in the volume order.
+     */
+    private void processBatch(ExecutorService executor, List<KeyEntry> batch) {
+        DataStructurePack[] packs = new DataStructurePack[batch.size()];
+
+        List<Callable<Void>> decoders = new ArrayList<>();
+        int chunkSize = (batch.size() + workers - 1) / workers;
+        for (int start = 0; start < batch.size(); start += chunkSize) {
+            int from = start;
+            int to = Math.min(batch.size(), start + chunkSize);
+            decoders.add(() -> {
+                for (int i = from; i < to; i++) {
+                    packs[i] = decode(batch.get(i));
+                }
+                return null;
+            });
+        }
+        invokeAll(executor, decoders);
+
+        List<Callable<Void>> appliers = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            int partition = worker;
+            appliers.add(() -> {
+                for (int i = 0; i < packs.length; i++) {
+                    DataStructurePack pack = packs[i];
+                    if (pack == null || Math.floorMod(keyOf(pack).hashCode(), workers) != partition) {
+                        continue;
+                    }
+                    apply(pack, batch.get(i).key());
+                }
+                return null;
+            });
+        }
+        invokeAll(executor, appliers);
     }
 
     /**
      * Loads data into the shard from its storage volume and sets its operable state to true.
-     * This method uses a FoundationDB transaction to retrieve and process the data stored
-     * in the shard's volume. It delegates the data-loading logic to the loadFromVolume method.
-     * Upon successful completion, the shard is marked as operable.
+     * <p>
+     * Batches are read in separate transactions, continuing from the versionstamped key of the
+     * last loaded entry. The next batch is prefetched while the current one is processed.
      */
     public void load() {
-        try (Transaction tr = context.getFoundationDB().createTransaction()) {
-            loadFromVolume(tr);
+        long entries = 0;
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("kr.redis.shard-loader-" + shard.id() + "-", 0L).factory())
+        ) {
+            CompletableFuture<List<KeyEntry>> next = CompletableFuture.supplyAsync(() -> readBatchWithRetry(null), executor);
+            while (true) {
+                List<KeyEntry> batch = next.join();
+                if (batch.isEmpty()) {
+                    break;
+                }
+                if (batch.size() < batchSize) {
+                    next = CompletableFuture.completedFuture(List.of());
+                } else {
+                    Versionstamp cursor = batch.getLast().key();
+                    next = CompletableFuture.supplyAsync(() -> readBatchWithRetry(cursor), executor);
+                }
+                processBatch(executor, batch);
+                entries += batch.size();
+            }
         }
+        LOGGER.debug("{} entries have been loaded into Redis shard: {}", entries, shard.id());
         shard.setOperable(true);
     }
-}
\ No newline at end of file
+}
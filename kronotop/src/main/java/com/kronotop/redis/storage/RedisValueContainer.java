@@ -57,6 +57,31 @@ public class RedisValueContainer {
         return hashFieldValue;
     }
 
+    /**
+     * Returns the expiration time of the value. Hash fields don't have a key of their own, they expire
+     * with their hash.
+     *
+     * @return the expiration time as a Unix time in milliseconds, 0 if the value never expires
+     */
+    public long expiresAt() {
+        return switch (kind) {
+            case STRING -> stringValue.ttl();
+            case HASH -> hashValue.ttl();
+            default -> 0;
+        };
+    }
+
+    /**
+     * Checks whether the value is expired at the given time.
+     *
+     * @param now the current Unix time in milliseconds
+     * @return true if the value is expired, false otherwise
+     */
+    public boolean isExpired(long now) {
+        long expiresAt = expiresAt();
+        return expiresAt > 0 && expiresAt <= now;
+    }
+
     public BaseRedisValue<?> baseRedisValue() {
         return switch (kind) {
             case STRING -> string();
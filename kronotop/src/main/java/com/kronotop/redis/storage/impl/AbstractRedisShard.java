@@ -43,16 +43,16 @@ public abstract class AbstractRedisShard extends ShardImpl implements RedisShard
     private final Index index;
     private final VolumeSyncQueue volumeSyncQueue;
     private final Striped<ReadWriteLock> striped = Striped.lazyWeakReadWriteLock(271);
-    private final ConcurrentMap<String, RedisValueContainer> storage;
+    private final Storage storage;
     private final Volume volume;
     private volatile boolean operable;
 
-    protected AbstractRedisShard(Context context, Integer id) {
+    protected AbstractRedisShard(Context context, Integer id, ConcurrentMap<String, RedisValueContainer> backend) {
         super(context, ShardKind.REDIS, id);
 
         this.volumeSyncQueue = new RedisShardVolumeSyncQueue(this);
         this.index = new RedisShardIndex(id, this);
-        this.storage = new Storage(this);
+        this.storage = new Storage(this, backend);
 
         VolumeConfig volumeConfig = new VolumeConfigGenerator(context, ShardKind.REDIS, id).volumeConfig();
         try {
@@ -95,6 +95,11 @@ public abstract class AbstractRedisShard extends ShardImpl implements RedisShard
         return volume;
     }
 
+    @Override
+    public int expireKeys(int limit) {
+        return storage.expireKeys(limit);
+    }
+
     @Override
     public void close() {
         volume.close();
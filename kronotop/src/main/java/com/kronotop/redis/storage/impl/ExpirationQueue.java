@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.redis.storage.impl;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+/**
+ * ExpirationQueue keeps the keys ordered by their expiration time.
+ * <p>
+ * There is at most one schedule per key. Scheduling a key again replaces its previous schedule,
+ * and the schedule of an overwritten, deleted or persisted key is removed, so the size of the queue
+ * is bounded by the number of keys with a time to live.
+ */
+class ExpirationQueue {
+    private final TreeSet<Entry> queue = new TreeSet<>(Comparator.comparingLong(Entry::expiresAt).thenComparing(Entry::key));
+    private final HashMap<String, Long> schedules = new HashMap<>();
+
+    /**
+     * Schedules the given key for expiration, replacing its previous schedule.
+     *
+     * @param key       the key to expire
+     * @param expiresAt the expiration time as a Unix time in milliseconds
+     */
+    synchronized void add(String key, long expiresAt) {
+        Long previous = schedules.put(key, expiresAt);
+        if (previous != null) {
+            if (previous == expiresAt) {
+                return;
+            }
+            queue.remove(new Entry(key, previous));
+        }
+        queue.add(new Entry(key, expiresAt));
+    }
+
+    /**
+     * Removes the schedule of the given key, if any.
+     *
+     * @param key the key
+     */
+    synchronized void remove(String key) {
+        Long previous = schedules.remove(key);
+        if (previous != null) {
+            queue.remove(new Entry(key, previous));
+        }
+    }
+
+    /**
+     * Retrieves and removes the entry with the earliest expiration time if it is due.
+     *
+     * @param now the current Unix time in milliseconds
+     * @return the due entry or null if there is no due entry
+     */
+    synchronized Entry pollExpired(long now) {
+        if (queue.isEmpty() || queue.first().expiresAt() > now) {
+            return null;
+        }
+        Entry head = queue.pollFirst();
+        schedules.remove(head.key());
+        return head;
+    }
+
+    synchronized int size() {
+        return queue.size();
+    }
+
+    synchronized void clear() {
+        queue.clear();
+        schedules.clear();
+    }
+
+    record Entry(String key, long expiresAt) {
+    }
+}
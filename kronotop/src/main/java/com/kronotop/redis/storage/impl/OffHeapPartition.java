@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.redis.storage.impl;
+
+import com.apple.foundationdb.tuple.Versionstamp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * OffHeapPartition stores string records in direct memory chunks and locates them with an
+ * open-addressing hash index that uses linear probing.
+ * <p>
+ * A record is appended to the active chunk with the following layout:
+ * <pre>
+ * [int keyLength][int valueLength][long ttl][byte hasVersionstamp][12 bytes versionstamp][key][value]
+ * </pre>
+ * The index only keeps the address of the record and the hash of its key, so the JVM heap doesn't hold
+ * anything per key. Overwritten and removed records become garbage, the partition compacts its chunks when
+ * the garbage exceeds the live data.
+ * <p>
+ * OffHeapPartition is thread-safe, every operation runs under the partition's read-write lock.
+ */
+final class OffHeapPartition {
+    static final int HEADER_SIZE = 4 + 4 + 8 + 1 + Versionstamp.LENGTH;
+    private static final int KEY_LENGTH_OFFSET = 0;
+    private static final int VALUE_LENGTH_OFFSET = 4;
+    private static final int TTL_OFFSET = 8;
+    private static final int HAS_VERSIONSTAMP_OFFSET = 16;
+    private static final int VERSIONSTAMP_OFFSET = 17;
+    private static final long EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private final int chunkSize;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer activeChunk;
+    private int activePosition;
+    private long usedBytes;
+    private long liveBytes;
+    private long[] addresses;
+    private int[] hashes;
+    private int size;
+
+    /**
+     * Returns the read-write lock of the partition. It is reentrant, so a holder of the write lock can
+     * call the operations of the partition.
+     *
+     * @return the lock of the partition
+     */
+    ReentrantReadWriteLock lock() {
+        return lock;
+    }
+
+    /**
+     * Constructs an empty OffHeapPartition.
+     *
+     * @param chunkSize the size of the direct memory chunks in bytes, larger records get their own chunk
+     */
+    OffHeapPartition(int chunkSize) {
+        this.chunkSize = chunkSize;
+        resetIndex(INITIAL_CAPACITY);
+    }
+
+    private static long address(int chunk, int offset) {
+        return ((long) chunk << 32) | (offset & 0xFFFFFFFFL);
+    }
+
+    private static int chunkIndex(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private void resetIndex(int capacity) {
+        addresses = new long[capacity];
+        hashes = new int[capacity];
+        Arrays.fill(addresses, EMPTY);
+        size = 0;
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get(chunkIndex(address));
+    }
+
+    private int recordLength(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        return HEADER_SIZE + chunk.getInt(offset + KEY_LENGTH_OFFSET) + chunk.getInt(offset + VALUE_LENGTH_OFFSET);
+    }
+
+    private boolean keyEquals(long address, byte[] key) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        if (chunk.getInt(offset + KEY_LENGTH_OFFSET) != key.length) {
+            return false;
+        }
+        int keyOffset = offset + HEADER_SIZE;
+        for (int i = 0; i < key.length; i++) {
+            if (chunk.get(keyOffset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the slot of the given key.
+     *
+     * @return the slot index if the key exists, otherwise {@code -(insertion point + 1)}
+     */
+    private int findSlot(byte[] key, int hash) {
+        int mask = addresses.length - 1;
+        int slot = hash & mask;
+        while (true) {
+            long address = addresses[slot];
+            if (address == EMPTY) {
+                return -(slot + 1);
+            }
+            if (hashes[slot] == hash && keyEquals(address, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private Record readRecord(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+        byte[] value = new byte[chunk.getInt(offset + VALUE_LENGTH_OFFSET)];
+        chunk.get(offset + HEADER_SIZE + keyLength, value);
+        long ttl = chunk.getLong(offset + TTL_OFFSET);
+        Versionstamp versionstamp = null;
+        if (chunk.get(offset + HAS_VERSIONSTAMP_OFFSET) == 1) {
+            byte[] bytes = new byte[Versionstamp.LENGTH];
+            chunk.get(offset + VERSIONSTAMP_OFFSET, bytes);
+            versionstamp = Versionstamp.fromBytes(bytes);
+        }
+        return new Record(value, ttl, versionstamp);
+    }
+
+    private byte[] readKey(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        byte[] key = new byte[chunk.getInt(offset + KEY_LENGTH_OFFSET)];
+        chunk.get(offset + HEADER_SIZE, key);
+        return key;
+    }
+
+    private static void writeVersionstamp(ByteBuffer chunk, int offset, Versionstamp versionstamp) {
+        if (versionstamp == null) {
+            chunk.put(offset + HAS_VERSIONSTAMP_OFFSET, (byte) 0);
+            return;
+        }
+        chunk.put(offset + HAS_VERSIONSTAMP_OFFSET, (byte) 1);
+        chunk.put(offset + VERSIONSTAMP_OFFSET, versionstamp.getBytes());
+    }
+
+    private void ensureCapacity(int length) {
+        if (activeChunk != null && activeChunk.capacity() - activePosition >= length) {
+            return;
+        }
+        activeChunk = ByteBuffer.allocateDirect(Math.max(chunkSize, length));
+        activePosition = 0;
+        chunks.add(activeChunk);
+    }
+
+    private long append(byte[] key, byte[] value, long ttl, Versionstamp versionstamp) {
+        int length = HEADER_SIZE + key.length + value.length;
+        ensureCapacity(length);
+        int offset = activePosition;
+        ByteBuffer chunk = activeChunk;
+        chunk.putInt(offset + KEY_LENGTH_OFFSET, key.length);
+        chunk.putInt(offset + VALUE_LENGTH_OFFSET, value.length);
+        chunk.putLong(offset + TTL_OFFSET, ttl);
+        writeVersionstamp(chunk, offset, versionstamp);
+        chunk.put(offset + HEADER_SIZE, key);
+        chunk.put(offset + HEADER_SIZE + key.length, value);
+        activePosition += length;
+        usedBytes += length;
+        liveBytes += length;
+        return address(chunks.size() - 1, offset);
+    }
+
+    /**
+     * Overwrites the record in place if the new value has the same length, which is the common case
+     * for counters and fixed-size values.
+     */
+    private boolean overwrite(long address, byte[] value, long ttl, Versionstamp versionstamp) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        if (chunk.getInt(offset + VALUE_LENGTH_OFFSET) != value.length) {
+            return false;
+        }
+        int keyLength = chunk.getInt(offset + KEY_LENGTH_OFFSET);
+        chunk.putLong(offset + TTL_OFFSET, ttl);
+        writeVersionstamp(chunk, offset, versionstamp);
+        chunk.put(offset + HEADER_SIZE + keyLength, value);
+        return true;
+    }
+
+    private void release(long address) {
+        liveBytes -= recordLength(address);
+    }
+
+    private void insertAt(int slot, int hash, long address) {
+        addresses[slot] = address;
+        hashes[slot] = hash;
+        size++;
+        if (size > addresses.length * LOAD_FACTOR) {
+            resize(addresses.length << 1);
+        }
+    }
+
+    private void resize(int capacity) {
+        long[] oldAddresses = addresses;
+        int[] oldHashes = hashes;
+        addresses = new long[capacity];
+        hashes = new int[capacity];
+        Arrays.fill(addresses, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] == EMPTY) {
+                continue;
+            }
+            int slot = oldHashes[i] & mask;
+            while (addresses[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            addresses[slot] = oldAddresses[i];
+            hashes[slot] = oldHashes[i];
+        }
+    }
+
+    /**
+     * Removes the slot with backward shift deletion, so the index never contains tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int mask = addresses.length - 1;
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (addresses[next] == EMPTY) {
+                break;
+            }
+            int ideal = hashes[next] & mask;
+            boolean stays = hole <= next ? (hole < ideal && ideal <= next) : (hole < ideal || ideal <= next);
+            if (stays) {
+                continue;
+            }
+            addresses[hole] = addresses[next];
+            hashes[hole] = hashes[next];
+            hole = next;
+        }
+        addresses[hole] = EMPTY;
+        size--;
+    }
+
+    private void compactIfNeeded() {
+        long garbage = usedBytes - liveBytes;
+        if (garbage < chunkSize || garbage < liveBytes) {
+            return;
+        }
+        List<ByteBuffer> oldChunks = new ArrayList<>(chunks);
+        chunks.clear();
+        activeChunk = null;
+        activePosition = 0;
+        usedBytes = 0;
+        for (int slot = 0; slot < addresses.length; slot++) {
+            long address = addresses[slot];
+            if (address == EMPTY) {
+                continue;
+            }
+            ByteBuffer source = oldChunks.get(chunkIndex(address));
+            int offset = offset(address);
+            int length = HEADER_SIZE + source.getInt(offset + KEY_LENGTH_OFFSET) + source.getInt(offset + VALUE_LENGTH_OFFSET);
+            ensureCapacity(length);
+            activeChunk.put(activePosition, source, offset, length);
+            addresses[slot] = address(chunks.size() - 1, activePosition);
+            activePosition += length;
+            usedBytes += length;
+        }
+        liveBytes = usedBytes;
+    }
+
+    /**
+     * Returns the record of the given key.
+     *
+     * @param key  the key
+     * @param hash the hash of the key
+     * @return the record or null if the key doesn't exist
+     */
+    Record get(byte[] key, int hash) {
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(key, hash);
+            if (slot < 0) {
+                return null;
+            }
+            return readRecord(addresses[slot]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Associates the given value with the key.
+     *
+     * @return the previous record or null if the key didn't exist
+     */
+    Record put(byte[] key, int hash, byte[] value, long ttl, Versionstamp versionstamp) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, hash);
+            if (slot < 0) {
+                insertAt(-(slot + 1), hash, append(key, value, ttl, versionstamp));
+                return null;
+            }
+            long address = addresses[slot];
+            Record previous = readRecord(address);
+            if (!overwrite(address, value, ttl, versionstamp)) {
+                release(address);
+                addresses[slot] = append(key, value, ttl, versionstamp);
+                compactIfNeeded();
+            }
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Associates the given value with the key if the key doesn't exist.
+     *
+     * @return the existing record or null if the value has been stored
+     */
+    Record putIfAbsent(byte[] key, int hash, byte[] value, long ttl, Versionstamp versionstamp) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, hash);
+            if (slot >= 0) {
+                return readRecord(addresses[slot]);
+            }
+            insertAt(-(slot + 1), hash, append(key, value, ttl, versionstamp));
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the given key.
+     *
+     * @return the removed record or null if the key didn't exist
+     */
+    Record remove(byte[] key, int hash) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, hash);
+            if (slot < 0) {
+                return null;
+            }
+            long address = addresses[slot];
+            Record previous = readRecord(address);
+            release(address);
+            deleteSlot(slot);
+            compactIfNeeded();
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates the versionstamp of the given key in place.
+     *
+     * @return true if the key exists, false otherwise
+     */
+    boolean setVersionstamp(byte[] key, int hash, Versionstamp versionstamp) {
+        lock.writeLock().lock();
+        try {
+            int slot = findSlot(key, hash);
+            if (slot < 0) {
+                return false;
+            }
+            long address = addresses[slot];
+            writeVersionstamp(chunk(address), offset(address), versionstamp);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Calls the given action for each key and its record. The partition is read-locked while iterating.
+     */
+    void forEach(BiConsumer<byte[], Record> action) {
+        lock.readLock().lock();
+        try {
+            for (long address : addresses) {
+                if (address != EMPTY) {
+                    action.accept(readKey(address), readRecord(address));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of direct memory bytes allocated by the partition.
+     */
+    long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (ByteBuffer chunk : chunks) {
+                total += chunk.capacity();
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all records and releases the chunks. Direct memory is returned to the operating
+     * system when the chunks are garbage collected.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            chunks.clear();
+            activeChunk = null;
+            activePosition = 0;
+            usedBytes = 0;
+            liveBytes = 0;
+            resetIndex(INITIAL_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A materialized off-heap record.
+     *
+     * @param value        the value
+     * @param ttl          the expiration time as a Unix time in milliseconds, 0 means the value never expires
+     * @param versionstamp the versionstamped key of the volume entry, null if the value hasn't been persisted yet
+     */
+    record Record(byte[] value, long ttl, Versionstamp versionstamp) {
+    }
+}
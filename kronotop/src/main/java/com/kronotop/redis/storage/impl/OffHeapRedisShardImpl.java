@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.redis.storage.impl;
+
+import com.kronotop.Context;
+import com.kronotop.redis.storage.RedisShard;
+
+/**
+ * This class represents an off-heap Redis shard implementation that extends the AbstractRedisShard class.
+ * String keys and values are stored in direct memory by an {@link OffHeapStorageMap}, which keeps large
+ * data sets out of the garbage collector's reach.
+ */
+public class OffHeapRedisShardImpl extends AbstractRedisShard implements RedisShard {
+    private final OffHeapStorageMap map;
+
+    public OffHeapRedisShardImpl(Context context, Integer id) {
+        this(context, id, new OffHeapStorageMap(
+                context.getConfig().getInt("redis.storage.off_heap.partitions"),
+                context.getConfig().getInt("redis.storage.off_heap.chunk_size")
+        ));
+    }
+
+    private OffHeapRedisShardImpl(Context context, Integer id, OffHeapStorageMap map) {
+        super(context, id, map);
+        this.map = map;
+    }
+
+    /**
+     * Returns the number of direct memory bytes allocated by this shard.
+     *
+     * @return the allocated direct memory in bytes
+     */
+    public long allocatedBytes() {
+        return map.allocatedBytes();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        // Drops the references to the direct memory chunks.
+        map.clear();
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.redis.storage.impl;
+
+import com.apple.foundationdb.tuple.Versionstamp;
+import com.kronotop.redis.handlers.string.StringValue;
+import com.kronotop.redis.storage.RedisValueContainer;
+import com.kronotop.redis.storage.RedisValueKind;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * OffHeapStorageMap is a key space that keeps string keys and values outside the JVM heap.
+ * <p>
+ * The keys are distributed over a fixed number of {@link OffHeapPartition}s, each one has its own lock,
+ * index and direct memory chunks. Values returned by this map are materialized copies of the off-heap
+ * records, writers have to put the modified values back. Hashes are composed of many small mutable
+ * objects, they are kept in an on-heap map.
+ * <p>
+ * The writers hold the write lock of the key's partition, so the compound operations of {@link ConcurrentMap}
+ * are atomic as in {@link ConcurrentHashMap}. The mapping functions run under that lock, they must not modify
+ * the other keys of the map.
+ */
+public class OffHeapStorageMap extends AbstractMap<String, RedisValueContainer> implements ConcurrentMap<String, RedisValueContainer> {
+    private final OffHeapPartition[] partitions;
+    private final int partitionShift;
+    private final ConcurrentHashMap<String, RedisValueContainer> heap = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an empty OffHeapStorageMap.
+     *
+     * @param partitions the number of partitions, must be a power of two
+     * @param chunkSize  the size of the direct memory chunks in bytes
+     */
+    public OffHeapStorageMap(int partitions, int chunkSize) {
+        if (partitions <= 0 || Integer.bitCount(partitions) != 1) {
+            throw new IllegalArgumentException("partitions must be a power of two");
+        }
+        if (chunkSize <= OffHeapPartition.HEADER_SIZE) {
+            throw new IllegalArgumentException("chunkSize is too small");
+        }
+        this.partitions = new OffHeapPartition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new OffHeapPartition(chunkSize);
+        }
+        this.partitionShift = 32 - Integer.numberOfTrailingZeros(partitions);
+    }
+
+    private static int hash(byte[] key) {
+        // Finalization mix of MurmurHash3, spreads the bits of the polynomial hash.
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private OffHeapPartition partition(int hash) {
+        // The high bits select the partition, the low bits select the slot in the partition's index.
+        if (partitionShift == 32) {
+            return partitions[0];
+        }
+        return partitions[hash >>> partitionShift];
+    }
+
+    private static byte[] encode(Object key) {
+        return ((String) key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private RedisValueContainer materialize(String key, OffHeapPartition.Record record) {
+        if (record == null) {
+            return null;
+        }
+        return new RedisValueContainer(new OffHeapStringValue(this, key, record));
+    }
+
+    private static boolean isString(RedisValueContainer container) {
+        return container.kind() == RedisValueKind.STRING;
+    }
+
+    private <T> T withWriteLock(Object key, Supplier<T> action) {
+        Lock lock = partition(hash(encode(key))).lock().writeLock();
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void setVersionstamp(String key, Versionstamp versionstamp) {
+        byte[] bytes = encode(key);
+        int hash = hash(bytes);
+        partition(hash).setVersionstamp(bytes, hash, versionstamp);
+    }
+
+    private RedisValueContainer removeOffHeap(String key) {
+        byte[] bytes = encode(key);
+        int hash = hash(bytes);
+        return materialize(key, partition(hash).remove(bytes, hash));
+    }
+
+    @Override
+    public RedisValueContainer get(Object key) {
+        RedisValueContainer container = heap.get(key);
+        if (container != null) {
+            return container;
+        }
+        byte[] bytes = encode(key);
+        int hash = hash(bytes);
+        return materialize((String) key, partition(hash).get(bytes, hash));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public RedisValueContainer put(@Nonnull String key, @Nonnull RedisValueContainer value) {
+        return withWriteLock(key, () -> putInternal(key, value));
+    }
+
+    private RedisValueContainer putInternal(String key, RedisValueContainer value) {
+        if (!isString(value)) {
+            RedisValueContainer previous = heap.put(key, value);
+            if (previous == null) {
+                previous = removeOffHeap(key);
+            }
+            return previous;
+        }
+        StringValue string = value.string();
+        byte[] bytes = encode(key);
+        int hash = hash(bytes);
+        OffHeapPartition.Record previous = partition(hash).put(bytes, hash, string.value(), string.ttl(), string.versionstamp());
+        if (previous == null) {
+            return heap.remove(key);
+        }
+        return materialize(key, previous);
+    }
+
+    @Override
+    public RedisValueContainer putIfAbsent(@Nonnull String key, @Nonnull RedisValueContainer value) {
+        return withWriteLock(key, () -> {
+            RedisValueContainer existing = get(key);
+            if (existing != null) {
+                return existing;
+            }
+            return putInternal(key, value);
+        });
+    }
+
+    @Override
+    public RedisValueContainer remove(Object key) {
+        return withWriteLock(key, () -> removeInternal(key));
+    }
+
+    private RedisValueContainer removeInternal(Object key) {
+        RedisValueContainer previous = heap.remove(key);
+        if (previous != null) {
+            return previous;
+        }
+        return removeOffHeap((String) key);
+    }
+
+    /**
+     * Removes the key if it's mapped to the given value. Off-heap values are materialized copies,
+     * they are compared by their content.
+     */
+    @Override
+    public boolean remove(@Nonnull Object key, Object value) {
+        return withWriteLock(key, () -> {
+            RedisValueContainer existing = get(key);
+            if (existing == null || !sameValue(existing, value)) {
+                return false;
+            }
+            removeInternal(key);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean replace(@Nonnull String key, @Nonnull RedisValueContainer oldValue, @Nonnull RedisValueContainer newValue) {
+        return withWriteLock(key, () -> {
+            RedisValueContainer existing = get(key);
+            if (existing == null || !sameValue(existing, oldValue)) {
+                return false;
+            }
+            putInternal(key, newValue);
+            return true;
+        });
+    }
+
+    @Override
+    public RedisValueContainer replace(@Nonnull String key, @Nonnull RedisValueContainer value) {
+        return withWriteLock(key, () -> {
+            if (get(key) == null) {
+                return null;
+            }
+            return putInternal(key, value);
+        });
+    }
+
+    private static boolean sameValue(RedisValueContainer existing, Object value) {
+        if (existing == value) {
+            return true;
+        }
+        if (!(value instanceof RedisValueContainer other) || !isString(existing) || !isString(other)) {
+            return false;
+        }
+        return existing.string().ttl() == other.string().ttl()
+                && Arrays.equals(existing.string().value(), other.string().value());
+    }
+
+    @Override
+    public RedisValueContainer compute(String key, @Nonnull BiFunction<? super String, ? super RedisValueContainer, ? extends RedisValueContainer> remappingFunction) {
+        return withWriteLock(key, () -> {
+            RedisValueContainer existing = get(key);
+            RedisValueContainer result = remappingFunction.apply(key, existing);
+            if (result == null) {
+                if (existing != null) {
+                    removeInternal(key);
+                }
+                return null;
+            }
+            putInternal(key, result);
+            return result;
+        });
+    }
+
+    @Override
+    public RedisValueContainer computeIfAbsent(String key, @Nonnull Function<? super String, ? extends RedisValueContainer> mappingFunction) {
+        return withWriteLock(key, () -> {
+            RedisValueContainer existing = get(key);
+            if (existing != null) {
+                return existing;
+            }
+            RedisValueContainer result = mappingFunction.apply(key);
+            if (result != null) {
+                putInternal(key, result);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public int size() {
+        int size = heap.size();
+        for (OffHeapPartition partition : partitions) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of direct memory bytes allocated by the partitions.
+     *
+     * @return the allocated direct memory in bytes
+     */
+    public long allocatedBytes() {
+        long total = 0;
+        for (OffHeapPartition partition : partitions) {
+            total += partition.allocatedBytes();
+        }
+        return total;
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+        for (OffHeapPartition partition : partitions) {
+            partition.clear();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the mappings. Changes made to the returned set are not reflected to the map.
+     */
+    @Nonnull
+    @Override
+    public Set<Map.Entry<String, RedisValueContainer>> entrySet() {
+        Set<Map.Entry<String, RedisValueContainer>> entries = new HashSet<>();
+        heap.forEach((key, container) -> entries.add(new SimpleImmutableEntry<>(key, container)));
+        for (OffHeapPartition partition : partitions) {
+            partition.forEach((key, record) -> {
+                String decoded = new String(key, StandardCharsets.UTF_8);
+                entries.add(new SimpleImmutableEntry<>(decoded, materialize(decoded, record)));
+            });
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.redis.storage.impl;
+
+import com.apple.foundationdb.tuple.Versionstamp;
+import com.kronotop.redis.handlers.string.StringValue;
+
+/**
+ * OffHeapStringValue is a string value materialized from an off-heap record.
+ * <p>
+ * Setting the versionstamp also updates the off-heap record, so the volume sync jobs can link the
+ * value with its volume entry like they do for the on-heap values.
+ */
+class OffHeapStringValue extends StringValue {
+    private final OffHeapStorageMap map;
+    private final String key;
+
+    OffHeapStringValue(OffHeapStorageMap map, String key, OffHeapPartition.Record record) {
+        super(record.value(), record.ttl());
+        this.map = map;
+        this.key = key;
+        super.setVersionstamp(record.versionstamp());
+    }
+
+    @Override
+    public void setVersionstamp(Versionstamp versionstamp) {
+        super.setVersionstamp(versionstamp);
+        map.setVersionstamp(key, versionstamp);
+    }
+}
@@ -19,12 +19,14 @@ package com.kronotop.redis.storage.impl;
 import com.kronotop.Context;
 import com.kronotop.redis.storage.RedisShard;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * This class represents an on-heap Redis shard implementation that extends the AbstractRedisShard class and implements the Shard interface.
  * It provides a concurrent map with additional functionality.
  */
 public class OnHeapRedisShardImpl extends AbstractRedisShard implements RedisShard {
     public OnHeapRedisShardImpl(Context context, Integer id) {
-        super(context, id);
+        super(context, id, new ConcurrentHashMap<>());
     }
 }
@@ -16,22 +16,44 @@
 
 package com.kronotop.redis.storage.impl;
 
+import com.apple.foundationdb.tuple.Versionstamp;
 import com.kronotop.cluster.sharding.ShardStatus;
 import com.kronotop.redis.storage.RedisShard;
 import com.kronotop.redis.storage.RedisValueContainer;
+import com.kronotop.redis.storage.RedisValueKind;
 import com.kronotop.redis.storage.ShardInoperableException;
 import com.kronotop.redis.storage.ShardReadOnlyException;
+import com.kronotop.redis.storage.syncer.jobs.DeleteByVersionstampJob;
 
 import javax.annotation.Nonnull;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.AbstractMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-public class Storage extends ConcurrentHashMap<String, RedisValueContainer> {
+/**
+ * Storage is the in-memory key space of a Redis shard.
+ * <p>
+ * Expired keys are invisible to the readers and they are removed lazily when a writer touches them.
+ * The remaining ones are removed by {@code expireKeys}, which is called periodically by the active
+ * expiry worker. Removing an expired key also removes it from the shard's index and deletes its
+ * entry from the shard's volume.
+ * <p>
+ * The keys and values are kept by a backend map, which is an on-heap {@code ConcurrentHashMap} or an
+ * off-heap map depending on the shard implementation.
+ * <p>
+ * Callers are expected to hold the striped lock of the key, like the rest of the Redis handlers.
+ */
+public class Storage extends AbstractMap<String, RedisValueContainer> implements ConcurrentMap<String, RedisValueContainer> {
     private final RedisShard shard;
+    private final ConcurrentMap<String, RedisValueContainer> backend;
+    private final ExpirationQueue expirationQueue = new ExpirationQueue();
 
-    public Storage(RedisShard shard) {
+    public Storage(RedisShard shard, ConcurrentMap<String, RedisValueContainer> backend) {
         this.shard = shard;
+        this.backend = backend;
     }
 
     private void checkShardStatus() {
@@ -43,33 +65,227 @@ public class Storage extends ConcurrentHashMap<String, RedisValueContainer> {
         }
     }
 
+    private static boolean isExpired(RedisValueContainer container) {
+        return container != null && container.expiresAt() > 0 && container.isExpired(System.currentTimeMillis());
+    }
+
+    private void scheduleExpiration(String key, RedisValueContainer container) {
+        if (container != null && container.expiresAt() > 0) {
+            expirationQueue.add(key, container.expiresAt());
+        } else {
+            // Removed, or overwritten by a value without a time to live.
+            expirationQueue.remove(key);
+        }
+    }
+
+    private void deleteFromVolume(Versionstamp versionstamp) {
+        if (versionstamp != null) {
+            shard.volumeSyncQueue().add(new DeleteByVersionstampJob(versionstamp));
+        }
+    }
+
+    private void deleteFromVolume(RedisValueContainer container) {
+        if (container.kind() == RedisValueKind.HASH) {
+            // Every field of a hash has its own volume entry.
+            container.hash().forEach((field, value) -> deleteFromVolume(value.versionstamp()));
+            return;
+        }
+        deleteFromVolume(container.baseRedisValue().versionstamp());
+    }
+
+    private void wipeOutExpiredKey(String key, RedisValueContainer container) {
+        shard.index().remove(key);
+        deleteFromVolume(container);
+    }
+
+    /**
+     * Returns the value of the given key, or null if the key doesn't exist or is expired.
+     */
+    @Override
+    public RedisValueContainer get(@Nonnull Object key) {
+        RedisValueContainer container = backend.get(key);
+        if (isExpired(container)) {
+            return null;
+        }
+        return container;
+    }
+
+    @Override
+    public boolean containsKey(@Nonnull Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return backend.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return backend.isEmpty();
+    }
+
+    @Nonnull
+    @Override
+    public Set<Entry<String, RedisValueContainer>> entrySet() {
+        return backend.entrySet();
+    }
+
     @Override
     public RedisValueContainer put(@Nonnull String key, @Nonnull RedisValueContainer value) {
         checkShardStatus();
-        return super.put(key, value);
+        RedisValueContainer previous = backend.put(key, value);
+        scheduleExpiration(key, value);
+        if (isExpired(previous)) {
+            // The key is still in the index, only its volume entry has to be deleted.
+            deleteFromVolume(previous);
+            return null;
+        }
+        return previous;
+    }
+
+    @Override
+    public RedisValueContainer putIfAbsent(@Nonnull String key, @Nonnull RedisValueContainer value) {
+        checkShardStatus();
+        RedisValueContainer existing = backend.get(key);
+        if (isExpired(existing)) {
+            backend.remove(key);
+            expirationQueue.remove(key);
+            deleteFromVolume(existing);
+        }
+        RedisValueContainer previous = backend.putIfAbsent(key, value);
+        if (previous == null) {
+            scheduleExpiration(key, value);
+        }
+        return previous;
     }
 
     @Override
     public RedisValueContainer remove(@Nonnull Object key) {
         checkShardStatus();
-        return super.remove(key);
+        RedisValueContainer previous = backend.remove(key);
+        if (previous != null) {
+            expirationQueue.remove((String) key);
+        }
+        if (isExpired(previous)) {
+            wipeOutExpiredKey((String) key, previous);
+            return null;
+        }
+        return previous;
     }
 
     @Override
     public boolean remove(@Nonnull Object key, Object value) {
         checkShardStatus();
-        return super.remove(key, value);
+        if (backend.remove(key, value)) {
+            expirationQueue.remove((String) key);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean replace(@Nonnull String key, @Nonnull RedisValueContainer oldValue, @Nonnull RedisValueContainer newValue) {
+        checkShardStatus();
+        if (backend.replace(key, oldValue, newValue)) {
+            scheduleExpiration(key, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public RedisValueContainer replace(@Nonnull String key, @Nonnull RedisValueContainer value) {
+        checkShardStatus();
+        if (get(key) == null) {
+            // Absent or expired, expired ones are removed lazily by the writers.
+            return null;
+        }
+        RedisValueContainer previous = backend.put(key, value);
+        scheduleExpiration(key, value);
+        return previous;
     }
 
     @Override
     public RedisValueContainer compute(String key, @Nonnull BiFunction<? super String, ? super RedisValueContainer, ? extends RedisValueContainer> remappingFunction) {
         checkShardStatus();
-        return super.compute(key, remappingFunction);
+        RedisValueContainer result = backend.compute(key, (k, existing) -> {
+            if (isExpired(existing)) {
+                deleteFromVolume(existing);
+                existing = null;
+            }
+            return remappingFunction.apply(k, existing);
+        });
+        scheduleExpiration(key, result);
+        return result;
     }
 
     @Override
     public RedisValueContainer computeIfAbsent(String key, @Nonnull Function<? super String, ? extends RedisValueContainer> mappingFunction) {
         checkShardStatus();
-        return super.computeIfAbsent(key, mappingFunction);
+        RedisValueContainer existing = backend.get(key);
+        if (isExpired(existing)) {
+            backend.remove(key);
+            expirationQueue.remove(key);
+            deleteFromVolume(existing);
+        }
+        RedisValueContainer result = backend.computeIfAbsent(key, mappingFunction);
+        if (result != existing) {
+            scheduleExpiration(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        backend.clear();
+        expirationQueue.clear();
+    }
+
+    /**
+     * Returns the number of keys scheduled for expiration.
+     *
+     * @return the number of schedules
+     */
+    public int scheduledExpirations() {
+        return expirationQueue.size();
+    }
+
+    /**
+     * Removes the keys whose expiration time has passed, starting from the earliest one.
+     * <p>
+     * A schedule that doesn't match the current value of its key is skipped.
+     * Keys are only removed while the shard is writable.
+     *
+     * @param limit the maximum number of schedules to process
+     * @return the number of removed keys
+     */
+    public int expireKeys(int limit) {
+        if (!shard.status().equals(ShardStatus.READWRITE)) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (int i = 0; i < limit; i++) {
+            ExpirationQueue.Entry entry = expirationQueue.pollExpired(now);
+            if (entry == null) {
+                break;
+            }
+            ReadWriteLock lock = shard.striped().get(entry.key());
+            lock.writeLock().lock();
+            try {
+                RedisValueContainer container = backend.get(entry.key());
+                if (container == null || container.expiresAt() != entry.expiresAt()) {
+                    // Rescheduled, persisted or deleted after the schedule was polled.
+                    continue;
+                }
+                backend.remove(entry.key());
+                wipeOutExpiredKey(entry.key(), container);
+                removed++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return removed;
     }
 }
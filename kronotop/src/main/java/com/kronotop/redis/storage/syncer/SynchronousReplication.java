@@ -24,8 +24,11 @@ import com.kronotop.cluster.client.protocol.PackedEntry;
 import com.kronotop.server.Response;
 import com.kronotop.volume.AppendResult;
 import com.kronotop.volume.AppendedEntry;
-import com.kronotop.volume.VolumeConfig;
+import com.kronotop.volume.EntryMetadata;
+import com.kronotop.volume.SegmentRange;
+import com.kronotop.volume.Volume;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
@@ -36,14 +39,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public class SynchronousReplication {
     private final Context context;
-    private final VolumeConfig volumeConfig;
+    private final Volume volume;
     private final Set<Member> members;
     private final AppendResult appendResult;
     private final List<ByteBuffer> entries;
 
-    public SynchronousReplication(Context context, VolumeConfig volumeConfig, Set<Member> members, List<ByteBuffer> entries, AppendResult appendResult) {
+    public SynchronousReplication(Context context, Volume volume, Set<Member> members, List<ByteBuffer> entries, AppendResult appendResult) {
         this.context = context;
-        this.volumeConfig = volumeConfig;
+        this.volume = volume;
         this.members = members;
         this.entries = entries;
         this.appendResult = appendResult;
@@ -84,17 +87,39 @@ public class SynchronousReplication {
         return entriesBySegment;
     }
 
+    /**
+     * Reads the entry back from the local segment as it's stored. The standbys must receive the compressed
+     * bytes, the segment has just been flushed, so the read is served from the page cache.
+     */
+    private byte[] readStoredEntry(EntryMetadata metadata) {
+        try {
+            SegmentRange range = new SegmentRange(metadata.position(), metadata.length());
+            ByteBuffer buffer = volume.getSegmentRange(metadata.segment(), new SegmentRange[]{range})[0];
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            return data;
+        } catch (IOException e) {
+            throw new KronotopException(e);
+        }
+    }
+
     public boolean run() {
         HashMap<String, PackedEntry[]> entriesBySegment = allocateEntriesBySegment(appendResult);
         HashMap<String, AtomicInteger> segmentIndexCounter = getSegmentIndexCounter(entriesBySegment.keySet());
         for (int index = 0; index < appendResult.getAppendedEntries().length; index++) {
             AppendedEntry appendedEntry = appendResult.getAppendedEntries()[index];
             PackedEntry[] packedEntries = entriesBySegment.get(appendedEntry.metadata().segment());
-            ByteBuffer buffer = entries.get(index);
-            buffer.flip();
+            byte[] data;
+            if (appendedEntry.metadata().isCompressed()) {
+                data = readStoredEntry(appendedEntry.metadata());
+            } else {
+                ByteBuffer buffer = entries.get(index);
+                buffer.flip();
+                data = buffer.array();
+            }
 
             int segmentIndex = segmentIndexCounter.get(appendedEntry.metadata().segment()).getAndIncrement();
-            packedEntries[segmentIndex] = new PackedEntry(appendedEntry.metadata().position(), buffer.array());
+            packedEntries[segmentIndex] = new PackedEntry(appendedEntry.metadata().position(), data);
         }
 
         CountDownLatch latch = new CountDownLatch(members.size());
@@ -139,7 +164,7 @@ public class SynchronousReplication {
         public void run() {
             StatefulInternalConnection<byte[], byte[]> connection = context.getInternalConnectionPool().get(member);
             entriesBySegment.forEach((segment, packedEntries) -> {
-                String status = connection.sync().segmentinsert(volumeConfig.name(), segment, packedEntries);
+                String status = connection.sync().segmentinsert(volume.getConfig().name(), segment, packedEntries);
                 if (!status.equals(Response.OK)) {
                     throw new KronotopException("Failed to replicate entries synchronously to " + member + " : " + status);
                 }
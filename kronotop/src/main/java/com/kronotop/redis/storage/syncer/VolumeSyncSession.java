@@ -103,7 +103,7 @@ public class VolumeSyncSession {
             return;
         }
 
-        SynchronousReplication sync = new SynchronousReplication(context, shard.volume().getConfig(), syncStandbys, entries, appendResult);
+        SynchronousReplication sync = new SynchronousReplication(context, shard.volume(), syncStandbys, entries, appendResult);
         if (sync.run()) {
             return;
         }
@@ -152,7 +152,7 @@ public class VolumeSyncSession {
             AppendResult appendResult = appendEntries(session);
             DeleteResult deleteResult = deleteEntries(session);
 
-            shard.volume().flush();
+            // Volume.append returns after the group commit flusher has forced the mutated segments.
             if (appendResult != null) {
                 synchronousReplication(appendResult);
             }
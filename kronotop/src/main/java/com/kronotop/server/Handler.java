@@ -41,6 +41,18 @@ public interface Handler {
         return true;
     }
 
+    /**
+     * Determines if the handler blocks the calling thread, e.g. by waiting on FoundationDB futures.
+     * <p>
+     * Blocking handlers are executed on virtual threads instead of the Netty event loop, so a slow
+     * command doesn't stall the other connections served by the same event loop.
+     *
+     * @return true if the handler blocks the calling thread, false otherwise
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+
     /**
      * Retrieves the list of keys associated with a given request.
      *
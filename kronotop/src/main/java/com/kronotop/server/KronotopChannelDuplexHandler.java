@@ -45,7 +45,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -70,6 +73,8 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * and `DISCARD` commands.
  * - Monitors and handles watched keys during transactions.
  * - Logs commands for debugging purposes if configured.
+ * - Runs blocking commands on virtual threads, keeping the event loop free for the other connections.
+ * Redis transactions are executed by EXEC on the event loop.
  * <p>
  * Preconditions:
  * - Requires `Context` and `CommandHandlerRegistry` objects during instantiation.
@@ -78,6 +83,9 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * Thread-Safety:
  * - A `ReadWriteLock` is used to synchronize command execution and transaction queuing.
  * - Locking ensures consistency during reading and modification of shared resources.
+ * - Commands of a connection are executed one at a time and in the order they are received. Once a
+ * blocking command is submitted to a virtual thread, the subsequent commands of the same connection
+ * are chained after it until the pending work is drained.
  * <p>
  * Error Handling:
  * - Handles incorrect number of arguments for commands through validations.
@@ -86,6 +94,11 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public class KronotopChannelDuplexHandler extends ChannelDuplexHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(KronotopChannelDuplexHandler.class);
+    // Bounds the number of replies that wait for channelReadComplete when a client pipelines many commands.
+    static final int MAX_READS_BEFORE_FLUSH = 256;
+    private static final Executor BLOCKING_COMMAND_EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("kr.server.blocking-command-", 0L).factory()
+    );
 
     private final Context context;
     private final ReadWriteLock transactionLock = new ReentrantReadWriteLock(true);
@@ -93,13 +106,30 @@ public class KronotopChannelDuplexHandler extends ChannelDuplexHandler {
     private final RedisService redisService;
     private final CommandHandlerRegistry commands;
     private final boolean logCommandForDebugging;
+    private final boolean blockingCommandsOnVirtualThreads;
     private boolean authEnabled = false;
+    private int readsSinceFlush;
+    // The last stage of the commands submitted to virtual threads, only accessed on the event loop.
+    private CompletableFuture<Void> pendingCommands;
 
     public KronotopChannelDuplexHandler(Context context, CommandHandlerRegistry commands) {
+        this(context, commands, context.getConfig().hasPath("network.blocking_commands_on_virtual_threads") &&
+                context.getConfig().getBoolean("network.blocking_commands_on_virtual_threads"));
+    }
+
+    /**
+     * Creates a handler that overrides the network.blocking_commands_on_virtual_threads setting.
+     *
+     * @param context                          the context of the running instance
+     * @param commands                         the registry of command handlers
+     * @param blockingCommandsOnVirtualThreads true to run blocking commands on virtual threads
+     */
+    public KronotopChannelDuplexHandler(Context context, CommandHandlerRegistry commands, boolean blockingCommandsOnVirtualThreads) {
         this.context = context;
         this.commands = commands;
         this.watcher = context.getService(Watcher.NAME);
         this.redisService = context.getService(RedisService.NAME);
+        this.blockingCommandsOnVirtualThreads = blockingCommandsOnVirtualThreads;
 
         Config config = context.getConfig();
         this.logCommandForDebugging = config.hasPath("log_command_for_debugging") && config.getBoolean("log_command_for_debugging");
@@ -141,15 +171,22 @@ public class KronotopChannelDuplexHandler extends ChannelDuplexHandler {
     @Override
     public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
         Session session = Session.extractSessionFromChannel(ctx.channel());
-        watcher.unwatchWatchedKeys(session);
-        session.channelUnregistered();
+        runAfterPendingCommands(ctx, () -> {
+            watcher.unwatchWatchedKeys(session);
+            session.channelUnregistered();
+        });
         super.channelUnregistered(ctx);
     }
 
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
         Session session = Session.extractSessionFromChannel(ctx.channel());
-        session.channelReadComplete();
+        session.attr(SessionAttributes.READ_IN_PROGRESS).set(false);
+        // Flush the replies of all commands read in this batch at once.
+        readsSinceFlush = 0;
+        ctx.flush();
+        // Auto-commit transactions must outlive the blocking commands read in this batch.
+        runAfterPendingCommands(ctx, session::channelReadComplete);
         super.channelReadComplete(ctx);
     }
 
@@ -394,8 +431,112 @@ public class KronotopChannelDuplexHandler extends ChannelDuplexHandler {
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object message) {
         Session session = Session.extractSessionFromChannel(ctx.channel());
+        if (readsSinceFlush == 0) {
+            // Replies are flushed in channelReadComplete from now on.
+            session.attr(SessionAttributes.READ_IN_PROGRESS).set(true);
+        }
+        try {
+            Request request = new RESP3Request(session, message);
+            if (pendingCommands != null || isBlocking(session, request)) {
+                submitToVirtualThread(ctx, () -> dispatch(ctx, session, request));
+            } else {
+                dispatch(ctx, session, request);
+            }
+        } catch (RuntimeException e) {
+            // The read is aborted, replies must not wait for a channelReadComplete that may never come.
+            session.attr(SessionAttributes.READ_IN_PROGRESS).set(false);
+            readsSinceFlush = 0;
+            ctx.flush();
+            throw e;
+        }
+        readsSinceFlush++;
+        if (readsSinceFlush >= MAX_READS_BEFORE_FLUSH) {
+            readsSinceFlush = 0;
+            ctx.flush();
+        }
+    }
 
-        Request request = new RESP3Request(session, message);
+    /**
+     * Checks whether the given request is served by a blocking handler. Commands queued in a
+     * Redis transaction are never considered blocking, they are executed by EXEC.
+     * <p>
+     * EXEC itself stays on the event loop, unless it is chained after the pending blocking commands
+     * of the connection. This is acceptable because only Redis-compatible commands can be queued
+     * in a transaction and none of them are blocking.
+     *
+     * @param session the session associated with the channel
+     * @param request the received request
+     * @return true if the request should be executed on a virtual thread, false otherwise
+     */
+    private boolean isBlocking(Session session, Request request) {
+        if (!blockingCommandsOnVirtualThreads) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(session.attr(SessionAttributes.MULTI).get())) {
+            return false;
+        }
+        try {
+            return commands.get(request.getCommand()).isBlocking();
+        } catch (Exception e) {
+            // Unknown or malformed commands are rejected by dispatch on the event loop.
+            return false;
+        }
+    }
+
+    /**
+     * Submits the given task to a virtual thread after the pending commands of this connection.
+     * <p>
+     * The pending stage completes on the event loop. Replies written by the task are scheduled on
+     * the event loop before the stage completes, so a reply written later by the event loop can
+     * never overtake them.
+     *
+     * @param ctx  the channel handler context of the connection
+     * @param task the task to run
+     */
+    private void submitToVirtualThread(ChannelHandlerContext ctx, Runnable task) {
+        chain(ctx, task, BLOCKING_COMMAND_EXECUTOR);
+    }
+
+    /**
+     * Runs the given task on the event loop immediately if there are no pending commands,
+     * otherwise after all of them are completed.
+     *
+     * @param ctx  the channel handler context of the connection
+     * @param task the task to run
+     */
+    private void runAfterPendingCommands(ChannelHandlerContext ctx, Runnable task) {
+        if (pendingCommands == null) {
+            task.run();
+            return;
+        }
+        chain(ctx, task, ctx.channel().eventLoop());
+    }
+
+    private void chain(ChannelHandlerContext ctx, Runnable task, Executor executor) {
+        CompletableFuture<Void> previous = pendingCommands == null ? CompletableFuture.completedFuture(null) : pendingCommands;
+        CompletableFuture<Void> stage = previous.thenRunAsync(task, executor).handleAsync((ignored, throwable) -> {
+            if (throwable != null) {
+                LOGGER.error("Unhandled exception caught while running a command", throwable);
+            }
+            return null;
+        }, ctx.channel().eventLoop());
+        pendingCommands = stage;
+        stage.thenRun(() -> {
+            if (pendingCommands == stage) {
+                // Drained, the next commands can be executed on the event loop again.
+                pendingCommands = null;
+            }
+        });
+    }
+
+    /**
+     * Dispatches the received request to the corresponding command handler.
+     *
+     * @param ctx     the channel handler context of the connection
+     * @param session the session associated with the channel
+     * @param request the received request
+     */
+    private void dispatch(ChannelHandlerContext ctx, Session session, Request request) {
         Response response = new RESP3Response(ctx);
 
         if (logCommandForDebugging) {
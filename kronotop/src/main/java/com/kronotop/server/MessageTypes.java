@@ -72,6 +72,11 @@ public class MessageTypes {
     public static final AttributeKey<RenameNXMessage> RENAMENX = AttributeKey.valueOf(RenameNXMessage.COMMAND);
     public static final AttributeKey<ScanMessage> SCAN = AttributeKey.valueOf(ScanMessage.COMMAND);
     public static final AttributeKey<TypeMessage> TYPE = AttributeKey.valueOf(TypeMessage.COMMAND);
+    public static final AttributeKey<ExpireMessage> EXPIRE = AttributeKey.valueOf(ExpireMessage.COMMAND);
+    public static final AttributeKey<PExpireMessage> PEXPIRE = AttributeKey.valueOf(PExpireMessage.COMMAND);
+    public static final AttributeKey<TTLMessage> TTL = AttributeKey.valueOf(TTLMessage.COMMAND);
+    public static final AttributeKey<PTTLMessage> PTTL = AttributeKey.valueOf(PTTLMessage.COMMAND);
+    public static final AttributeKey<PersistMessage> PERSIST = AttributeKey.valueOf(PersistMessage.COMMAND);
     public static final AttributeKey<ClusterMessage> CLUSTER = AttributeKey.valueOf(ClusterMessage.COMMAND);
     public static final AttributeKey<ClientMessage> CLIENT = AttributeKey.valueOf(ClientMessage.COMMAND);
     public static final AttributeKey<AuthMessage> AUTH = AttributeKey.valueOf(AuthMessage.COMMAND);
@@ -72,4 +72,6 @@ public class SessionAttributes {
     public static final AttributeKey<AtomicInteger> USER_VERSION_COUNTER = AttributeKey.valueOf("user_version_counter");
 
     public static final AttributeKey<ReplyContentType> REPLY_CONTENT_TYPE = AttributeKey.valueOf("reply_content_type");
+
+    public static final AttributeKey<Boolean> READ_IN_PROGRESS = AttributeKey.valueOf("read_in_progress");
 }
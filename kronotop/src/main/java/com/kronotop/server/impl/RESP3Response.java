@@ -18,6 +18,7 @@ package com.kronotop.server.impl;
 
 import com.kronotop.server.RESPError;
 import com.kronotop.server.Response;
+import com.kronotop.server.SessionAttributes;
 import com.kronotop.server.resp3.*;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -31,6 +32,11 @@ import java.util.Set;
 /**
  * The RespResponse class is an implementation of the Response interface.
  * It provides methods to write different types of Redis messages using the RESP (REdis Serialization Protocol).
+ * <p>
+ * Replies written on the event loop while the channel is reading are not flushed immediately.
+ * {@link com.kronotop.server.KronotopChannelDuplexHandler} flushes them at once when the read completes,
+ * so a pipelined batch of commands costs a single flush. Replies written from other threads are flushed
+ * immediately.
  */
 public class RESP3Response implements Response {
     private final ChannelHandlerContext ctx;
@@ -39,6 +45,21 @@ public class RESP3Response implements Response {
         this.ctx = ctx;
     }
 
+    /**
+     * Writes the given message to the channel and flushes it unless the flush is deferred
+     * to the end of the current read.
+     *
+     * @param message the message to be written
+     */
+    private void writeAndFlushIfNeeded(Object message) {
+        if (Boolean.TRUE.equals(ctx.channel().attr(SessionAttributes.READ_IN_PROGRESS).get()) && ctx.channel().eventLoop().inEventLoop()) {
+            // Will be flushed by KronotopChannelDuplexHandler.channelReadComplete
+            ctx.write(message);
+        } else {
+            ctx.writeAndFlush(message);
+        }
+    }
+
     /**
      * Writes a Redis message to the client.
      *
@@ -47,7 +68,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeRedisMessage(RedisMessage message) {
-        ctx.writeAndFlush(message);
+        writeAndFlushIfNeeded(message);
     }
 
     /**
@@ -80,7 +101,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeInteger(long value) {
-        ctx.writeAndFlush(new IntegerRedisMessage(value));
+        writeAndFlushIfNeeded(new IntegerRedisMessage(value));
     }
 
     /**
@@ -91,7 +112,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeDouble(long value) {
-        ctx.writeAndFlush(new DoubleRedisMessage(value));
+        writeAndFlushIfNeeded(new DoubleRedisMessage(value));
     }
 
     /**
@@ -106,7 +127,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeArray(List<RedisMessage> children) {
-        ctx.writeAndFlush(new ArrayRedisMessage(children));
+        writeAndFlushIfNeeded(new ArrayRedisMessage(children));
     }
 
     /**
@@ -121,7 +142,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeMap(Map<RedisMessage, RedisMessage> children) {
-        ctx.writeAndFlush(new MapRedisMessage(children));
+        writeAndFlushIfNeeded(new MapRedisMessage(children));
     }
 
     /**
@@ -132,7 +153,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeSimpleString(String msg) {
-        ctx.writeAndFlush(new SimpleStringRedisMessage(msg));
+        writeAndFlushIfNeeded(new SimpleStringRedisMessage(msg));
     }
 
     /**
@@ -143,7 +164,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void write(ByteBuf content) {
-        ctx.writeAndFlush(new FullBulkStringRedisMessage(content));
+        writeAndFlushIfNeeded(new FullBulkStringRedisMessage(content));
     }
 
     /**
@@ -154,18 +175,18 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeFullBulkString(FullBulkStringRedisMessage msg) {
-        ctx.writeAndFlush(msg);
+        writeAndFlushIfNeeded(msg);
     }
 
     /**
      * Writes a NULL Redis message to the client.
      * <p>
      * This method is used to write a NULL message to the client as a response.
-     * It calls the {@link ChannelHandlerContext#writeAndFlush(Object)} method with the {@link NullRedisMessage#INSTANCE}.
+     * It writes the {@link NullRedisMessage#INSTANCE} to the channel.
      */
     @Override
     public void writeNULL() {
-        ctx.writeAndFlush(NullRedisMessage.INSTANCE);
+        writeAndFlushIfNeeded(NullRedisMessage.INSTANCE);
     }
 
     /**
@@ -180,9 +201,9 @@ public class RESP3Response implements Response {
     @Override
     public void writeBoolean(boolean value) {
         if (value) {
-            ctx.writeAndFlush(BooleanRedisMessage.TRUE);
+            writeAndFlushIfNeeded(BooleanRedisMessage.TRUE);
         } else {
-            ctx.writeAndFlush(BooleanRedisMessage.FALSE);
+            writeAndFlushIfNeeded(BooleanRedisMessage.FALSE);
         }
     }
 
@@ -194,7 +215,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeBigNumber(BigInteger value) {
-        ctx.writeAndFlush(new BigNumberRedisMessage(value));
+        writeAndFlushIfNeeded(new BigNumberRedisMessage(value));
     }
 
     /**
@@ -205,7 +226,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeBigNumber(String value) {
-        ctx.writeAndFlush(new BigNumberRedisMessage(value));
+        writeAndFlushIfNeeded(new BigNumberRedisMessage(value));
     }
 
     /**
@@ -216,7 +237,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeBigNumber(byte[] value) {
-        ctx.writeAndFlush(new BigNumberRedisMessage(value));
+        writeAndFlushIfNeeded(new BigNumberRedisMessage(value));
     }
 
     /**
@@ -232,7 +253,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeVerbatimString(ByteBuf content) {
-        ctx.writeAndFlush(new FullBulkVerbatimStringRedisMessage(content));
+        writeAndFlushIfNeeded(new FullBulkVerbatimStringRedisMessage(content));
     }
 
     /**
@@ -243,7 +264,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public void writeSet(Set<RedisMessage> children) {
-        ctx.writeAndFlush(new SetRedisMessage(children));
+        writeAndFlushIfNeeded(new SetRedisMessage(children));
     }
 
     /**
@@ -278,7 +299,7 @@ public class RESP3Response implements Response {
      */
     @Override
     public <T> void writeError(T prefix, String content) {
-        ctx.writeAndFlush(new ErrorRedisMessage(String.format("%s %s", prefix, content)));
+        writeAndFlushIfNeeded(new ErrorRedisMessage(String.format("%s %s", prefix, content)));
     }
 
     /**
@@ -307,7 +328,7 @@ public class RESP3Response implements Response {
         String error = String.format("%s %s", prefix, content);
         ByteBuf buf = Unpooled.buffer().alloc().buffer(error.length());
         buf.writeBytes(error.getBytes());
-        ctx.writeAndFlush(new FullBulkErrorStringRedisMessage(buf));
+        writeAndFlushIfNeeded(new FullBulkErrorStringRedisMessage(buf));
     }
 
     /**
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A size-bounded cache of the entries read from the segments, kept outside the JVM heap.
+ * <p>
+ * The entries are cached as they are stored in the segments and keyed by their location, the segment ID and
+ * the position in the segment. A location is never rewritten with a different entry, an update or a vacuum
+ * stores the entry at a new location, so a cached entry can't become stale. The old locations are still
+ * invalidated to release the space early.
+ * <p>
+ * The cache is split into {@link #PARTITIONS} partitions, each one has its own lock and a direct memory arena
+ * that is filled like a ring buffer. When the arena is full, the oldest entries are evicted to make room.
+ * An entry is only admitted if it has been requested more than once recently, and if it's requested more
+ * frequently than the entries it would evict. The access frequencies are estimated with a count-min sketch.
+ * A range scan that touches every entry once doesn't evict the hot entries.
+ * <p>
+ * The {@link EntryCache} class is thread-safe.
+ */
+public class EntryCache {
+    static final int PARTITIONS = 16;
+    // The minimum estimated access frequency of an entry to be admitted into the cache.
+    static final int ADMISSION_THRESHOLD = 2;
+
+    private final long maxSize;
+    private final Partition[] partitions;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder admissionCount = new LongAdder();
+    private final LongAdder rejectionCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Constructs an EntryCache.
+     *
+     * @param maxSize the maximum total size of the cached entries in bytes
+     */
+    public EntryCache(long maxSize) {
+        if (maxSize < PARTITIONS || maxSize / PARTITIONS > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid entry cache size: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.partitions = new Partition[PARTITIONS];
+        for (int i = 0; i < PARTITIONS; i++) {
+            this.partitions[i] = new Partition((int) (maxSize / PARTITIONS));
+        }
+    }
+
+    private static long hash(long segmentId, long position) {
+        // Finalization mix of MurmurHash3
+        long h = segmentId * 0x9E3779B97F4A7C15L + position;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private Partition partition(long hash) {
+        return partitions[(int) (hash >>> 60) & (PARTITIONS - 1)];
+    }
+
+    /**
+     * Returns the cached entry stored at the given location and records the access.
+     *
+     * @param segmentId the ID of the segment
+     * @param position  the position of the entry in the segment
+     * @param length    the length of the entry in the segment
+     * @return a heap copy of the cached entry, or null if it's not cached
+     */
+    public ByteBuffer get(long segmentId, long position, long length) {
+        long hash = hash(segmentId, position);
+        Partition partition = partition(hash);
+        ByteBuffer entry;
+        partition.lock.lock();
+        try {
+            partition.sketch.increment(hash);
+            entry = partition.read(new Key(segmentId, position), length);
+        } finally {
+            partition.lock.unlock();
+        }
+        if (entry == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Offers the entry stored at the given location to the cache. The entry is only cached if it's accessed
+     * frequently enough, and it's not larger than a quarter of a partition.
+     *
+     * @param segmentId the ID of the segment
+     * @param position  the position of the entry in the segment
+     * @param entry     the entry as it's stored in the segment, its position is not changed
+     */
+    public void put(long segmentId, long position, ByteBuffer entry) {
+        long hash = hash(segmentId, position);
+        Partition partition = partition(hash);
+        partition.lock.lock();
+        try {
+            Key key = new Key(segmentId, position);
+            if (partition.index.containsKey(key)) {
+                return;
+            }
+            int length = entry.remaining();
+            int frequency = partition.sketch.frequency(hash);
+            if (length > partition.arena.capacity() / 4 || frequency < ADMISSION_THRESHOLD || frequency <= partition.victimFrequency(length)) {
+                rejectionCount.increment();
+                return;
+            }
+            partition.write(key, hash, entry);
+            admissionCount.increment();
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    /**
+     * Discards the cached entry stored at the given location.
+     *
+     * @param segmentId the ID of the segment
+     * @param position  the position of the entry in the segment
+     */
+    public void invalidate(long segmentId, long position) {
+        Partition partition = partition(hash(segmentId, position));
+        partition.lock.lock();
+        try {
+            partition.remove(new Key(segmentId, position));
+        } finally {
+            partition.lock.unlock();
+        }
+    }
+
+    /**
+     * Discards all cached entries of the given segment.
+     *
+     * @param segmentId the ID of the segment
+     */
+    public void invalidateSegment(long segmentId) {
+        for (Partition partition : partitions) {
+            partition.lock.lock();
+            try {
+                partition.index.values().removeIf(slot -> {
+                    if (slot.key().segmentId() == segmentId) {
+                        partition.size -= slot.length();
+                        return true;
+                    }
+                    return false;
+                });
+            } finally {
+                partition.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the statistics of this cache
+     */
+    public Stats stats() {
+        long size = 0;
+        long entries = 0;
+        for (Partition partition : partitions) {
+            partition.lock.lock();
+            try {
+                size += partition.size;
+                entries += partition.index.size();
+            } finally {
+                partition.lock.unlock();
+            }
+        }
+        long hits = hitCount.sum();
+        long lookups = hits + missCount.sum();
+        return new Stats(
+                size,
+                maxSize,
+                entries,
+                hits,
+                missCount.sum(),
+                lookups == 0 ? 1.0 : (double) hits / lookups,
+                admissionCount.sum(),
+                rejectionCount.sum(),
+                evictionCount.sum()
+        );
+    }
+
+    private record Key(long segmentId, long position) {
+    }
+
+    private record Slot(Key key, long hash, int offset, int length) {
+    }
+
+    /**
+     * A partition of the cache, guarded by its lock.
+     */
+    private final class Partition {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ByteBuffer arena;
+        private final HashMap<Key, Slot> index = new HashMap<>();
+        // The slots in the order they have been written to the arena, the first one is the oldest.
+        private final ArrayDeque<Slot> log = new ArrayDeque<>();
+        private final FrequencySketch sketch;
+        private int head;
+        private long size;
+
+        private Partition(int capacity) {
+            this.arena = ByteBuffer.allocateDirect(capacity);
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        private ByteBuffer read(Key key, long length) {
+            Slot slot = index.get(key);
+            if (slot == null || slot.length() != length) {
+                return null;
+            }
+            byte[] data = new byte[slot.length()];
+            arena.get(slot.offset(), data);
+            return ByteBuffer.wrap(data);
+        }
+
+        private boolean isLive(Slot slot) {
+            // The slot might have been invalidated
+            return index.get(slot.key()) == slot;
+        }
+
+        /**
+         * Returns the highest estimated access frequency of the live entries that have to be evicted to write
+         * an entry of the given length, 0 if no live entry has to be evicted.
+         */
+        private int victimFrequency(int length) {
+            boolean wrap = head + length > arena.capacity();
+            int start = wrap ? 0 : head;
+            int frequency = 0;
+            for (Slot slot : log) {
+                boolean victim = (wrap && slot.offset() >= head) || (slot.offset() >= start && slot.offset() < start + length);
+                if (!victim) {
+                    break;
+                }
+                if (isLive(slot)) {
+                    frequency = Math.max(frequency, sketch.frequency(slot.hash()));
+                }
+            }
+            return frequency;
+        }
+
+        private void write(Key key, long hash, ByteBuffer entry) {
+            int length = entry.remaining();
+            if (head + length > arena.capacity()) {
+                // Wrap around, the entries at the end of the arena are the oldest ones.
+                evictWhile(slot -> slot.offset() >= head);
+                head = 0;
+            }
+            int end = head + length;
+            evictWhile(slot -> slot.offset() >= head && slot.offset() < end);
+
+            arena.put(head, entry, entry.position(), length);
+            Slot slot = new Slot(key, hash, head, length);
+            index.put(key, slot);
+            log.addLast(slot);
+            size += length;
+            head = end;
+        }
+
+        private void evictWhile(Predicate<Slot> predicate) {
+            while (!log.isEmpty() && predicate.test(log.peekFirst())) {
+                Slot slot = log.pollFirst();
+                if (isLive(slot)) {
+                    index.remove(slot.key());
+                    size -= slot.length();
+                    evictionCount.increment();
+                }
+            }
+        }
+
+        private void remove(Key key) {
+            Slot slot = index.remove(key);
+            if (slot != null) {
+                size -= slot.length();
+            }
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters that estimates the recent access frequency of the entries.
+     * The counters are halved periodically, so the entries that are no longer accessed lose their history.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private final byte[] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int capacity) {
+            // One counter per 64 bytes of the arena
+            int width = Integer.highestOneBit(Math.max(1024, Math.min(1 << 24, capacity / 64)) * 2 - 1);
+            this.counters = new byte[width];
+            this.mask = width - 1;
+            this.sampleSize = width * 10;
+        }
+
+        private int indexOf(long hash, int depth) {
+            long h = (hash + SEEDS[depth]) * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 40) & mask;
+        }
+
+        private void increment(long hash) {
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = indexOf(hash, i);
+                if (counters[index] < MAX_COUNT) {
+                    counters[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int frequency(long hash) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[indexOf(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>>= 1;
+            }
+            additions /= 2;
+        }
+    }
+
+    /**
+     * Statistics of an {@link EntryCache}.
+     *
+     * @param size           the total size of the cached entries in bytes
+     * @param maxSize        the maximum total size of the cached entries in bytes
+     * @param entries        the number of cached entries
+     * @param hitCount       the number of lookups that found a cached entry
+     * @param missCount      the number of lookups that didn't find a cached entry
+     * @param hitRate        the ratio of the lookups that found a cached entry
+     * @param admissionCount the number of entries admitted into the cache
+     * @param rejectionCount the number of entries rejected by the admission policy
+     * @param evictionCount  the number of entries evicted to make room for the new ones
+     */
+    public record Stats(
+            long size,
+            long maxSize,
+            long entries,
+            long hitCount,
+            long missCount,
+            double hitRate,
+            long admissionCount,
+            long rejectionCount,
+            long evictionCount
+    ) {
+    }
+}
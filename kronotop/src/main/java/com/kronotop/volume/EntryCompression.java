@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import com.kronotop.KronotopException;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses and decompresses the entries stored in the segments with LZ4.
+ * <p>
+ * A compressed entry is stored in the following format:
+ * <pre>
+ * uncompressed length (4 bytes) | LZ4 block
+ * </pre>
+ * The entries are flagged with {@link EntryMetadata#FLAG_COMPRESSED} in their metadata, the segment files
+ * don't contain any information to distinguish a compressed entry from a raw one.
+ */
+public class EntryCompression {
+    public static final int HEADER_SIZE = 4;
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+
+    /**
+     * Compresses the remaining bytes of the given entry, the position of the entry is not changed.
+     *
+     * @param entry the entry to compress
+     * @return a buffer that contains the compressed entry, or null if the compressed entry is not smaller than the raw one
+     */
+    public static ByteBuffer compress(ByteBuffer entry) {
+        int length = entry.remaining();
+        ByteBuffer compressed = ByteBuffer.allocate(HEADER_SIZE + COMPRESSOR.maxCompressedLength(length));
+        compressed.putInt(0, length);
+        int compressedLength = COMPRESSOR.compress(entry, entry.position(), length, compressed, HEADER_SIZE, compressed.capacity() - HEADER_SIZE);
+        if (HEADER_SIZE + compressedLength >= length) {
+            return null;
+        }
+        return compressed.limit(HEADER_SIZE + compressedLength);
+    }
+
+    /**
+     * Decompresses the remaining bytes of the given buffer, the position of the buffer is not changed.
+     *
+     * @param compressed a buffer that contains an entry compressed by {@link #compress(ByteBuffer)}
+     * @return a buffer that contains the raw entry
+     * @throws KronotopException if the compressed entry is corrupted
+     */
+    public static ByteBuffer decompress(ByteBuffer compressed) {
+        int position = compressed.position();
+        int length = compressed.getInt(position);
+        if (length < 0) {
+            throw new KronotopException("Invalid uncompressed entry length: " + length);
+        }
+        ByteBuffer entry = ByteBuffer.allocate(length);
+        try {
+            int decompressed = DECOMPRESSOR.decompress(compressed, position + HEADER_SIZE, compressed.remaining() - HEADER_SIZE, entry, 0, length);
+            if (decompressed != length) {
+                throw new KronotopException("Compressed entry is corrupted, expected " + length + " bytes but got " + decompressed);
+            }
+        } catch (LZ4Exception e) {
+            throw new KronotopException("Compressed entry is corrupted", e);
+        }
+        return entry;
+    }
+}
@@ -14,62 +14,128 @@
  * limitations under the License.
  */
 
+
 package com.kronotop.volume;
 
+import com.kronotop.volume.segment.Segment;
+
 import java.nio.ByteBuffer;
 
 import static com.kronotop.volume.segment.Segment.SEGMENT_NAME_SIZE;
 
 /**
  * EntryMetadata is a record class representing the metadata attached to a specific entry
- * within a segmented storage system. This metadata includes information about the segment
- * name, the prefix used for organizing or identifying the entry, and its position and length
- * within the storage medium.
- * <p>
- * The segment name is stored as a string, while the prefix is a byte array, facilitating
- * efficient identification and retrieval operations. The position and length are long values
- * indicating where the associated data begins and its continuity in bytes.
+ * within a segmented storage system. This metadata includes the id of the segment, the prefix
+ * used for organizing or identifying the entry, and its position and length within the storage medium.
  * <p>
- * EntryMetadata also provides mechanisms for encoding and decoding this metadata to and from
- * ByteBuffers, enabling streamlined persistence or transmission of this information in a
- * binary format. The design supports fixed sizes for various components to ensure direct access
- * and manipulation efficiency.
+ * EntryMetadata is encoded in a compact, versioned binary format:
+ * <pre>
+ * version (1 byte) | segment id (8 bytes) | prefix (8 bytes) | position (8 bytes) | length (4 bytes) | id (4 bytes) | flags (1 byte)
+ * </pre>
+ * The flags byte is optional, the records written without it are decoded with no flags set. It's
+ * placed at the end so the keys of the entry metadata index still sort by segment id and prefix.
+ * The legacy format stores the segment as a 19-byte zero-padded decimal name followed by a separator.
+ * It is still decoded, so the volumes created before the compact format remain readable until
+ * their metadata is migrated. The first byte of a legacy record is always an ASCII digit, so it
+ * never collides with the version byte.
  */
-public record EntryMetadata(String segment, byte[] prefix, long position, long length, int id) {
+public record EntryMetadata(long segmentId, byte[] prefix, long position, long length, int id, byte flags) {
+    public static final byte FORMAT_VERSION = 0x01;
+    // The entry is stored in the segment as an LZ4 compressed block, see EntryCompression
+    public static final byte FLAG_COMPRESSED = 0x01;
     public static int ENTRY_PREFIX_SIZE = 8;
     public static int SUBSPACE_SEPARATOR_SIZE = 1;
+    // 34 = version (1 byte) + segment id (8 bytes) + prefix (8 bytes) + position (8 bytes) + length (4 bytes) + id (4 bytes) + flags (1 byte)
+    public static int ENTRY_METADATA_SIZE = 34;
     // 20 = position(8 bytes) + length (8 bytes) + id (4 bytes)
-    public static int ENTRY_METADATA_SIZE = SEGMENT_NAME_SIZE + ENTRY_PREFIX_SIZE + SUBSPACE_SEPARATOR_SIZE + 20;
+    public static int LEGACY_ENTRY_METADATA_SIZE = SEGMENT_NAME_SIZE + ENTRY_PREFIX_SIZE + SUBSPACE_SEPARATOR_SIZE + 20;
     static byte SUBSPACE_SEPARATOR = 0x0;
 
+    // Offsets in the compact format
+    static final int SEGMENT_ID_OFFSET = 1;
+    static final int PREFIX_OFFSET = 9;
+    static final int POSITION_OFFSET = 17;
+    static final int LENGTH_OFFSET = 25;
+    static final int ID_OFFSET = 29;
+    static final int FLAGS_OFFSET = 33;
+
+    // Offsets in the legacy format
+    static final int LEGACY_PREFIX_OFFSET = 20;
+    static final int LEGACY_POSITION_OFFSET = 28;
+    static final int LEGACY_LENGTH_OFFSET = 36;
+    static final int LEGACY_ID_OFFSET = 44;
+
+    public EntryMetadata(long segmentId, byte[] prefix, long position, long length, int id) {
+        this(segmentId, prefix, position, length, id, (byte) 0);
+    }
+
+    public EntryMetadata(String segment, byte[] prefix, long position, long length, int id) {
+        this(Segment.extractIdFromName(segment), prefix, position, length, id);
+    }
 
     /**
-     * Decodes a ByteBuffer to extract entry metadata, including the segment name, prefix,
-     * position, and length.
+     * Checks whether the given encoded entry metadata uses the legacy format.
+     *
+     * @param data the encoded entry metadata
+     * @return true if the data is encoded in the legacy format, false otherwise
+     */
+    public static boolean isLegacy(byte[] data) {
+        return data[0] != FORMAT_VERSION;
+    }
+
+    /**
+     * Parses a zero-padded decimal segment name without allocating a String.
+     */
+    static long parseLegacySegmentId(byte[] data, int offset) {
+        long segmentId = 0;
+        for (int i = offset; i < offset + SEGMENT_NAME_SIZE; i++) {
+            segmentId = segmentId * 10 + (data[i] - '0');
+        }
+        return segmentId;
+    }
+
+    /**
+     * Decodes a ByteBuffer to extract entry metadata, including the segment id, prefix,
+     * position, and length. Both the compact and the legacy formats are supported.
      *
      * @param buffer the ByteBuffer which contains the encoded entry metadata.
      *               The buffer should be positioned at the start of the entry metadata.
-     * @return an instance of EntryMetadata containing the decoded segment name, prefix,
+     * @return an instance of EntryMetadata containing the decoded segment id, prefix,
      * position, and length extracted from the provided ByteBuffer.
      */
     public static EntryMetadata decode(ByteBuffer buffer) {
-        byte[] rawSegment = new byte[SEGMENT_NAME_SIZE];
-        buffer.get(rawSegment);
+        if (buffer.get(buffer.position()) != FORMAT_VERSION) {
+            return decodeLegacy(buffer);
+        }
+        buffer.get(); // Consume the version
+        long segmentId = buffer.getLong();
+        byte[] prefix = new byte[ENTRY_PREFIX_SIZE];
+        buffer.get(prefix);
+        long position = buffer.getLong();
+        long length = Integer.toUnsignedLong(buffer.getInt());
+        int id = buffer.getInt();
+        byte flags = buffer.hasRemaining() ? buffer.get() : 0;
+        return new EntryMetadata(segmentId, prefix, position, length, id, flags);
+    }
+
+    private static EntryMetadata decodeLegacy(ByteBuffer buffer) {
+        long segmentId = 0;
+        for (int i = 0; i < SEGMENT_NAME_SIZE; i++) {
+            segmentId = segmentId * 10 + (buffer.get() - '0');
+        }
         buffer.get(); // Consume the separator
-        String segment = new String(rawSegment);
         byte[] prefix = new byte[ENTRY_PREFIX_SIZE];
         buffer.get(prefix);
         long position = buffer.getLong();
         long length = buffer.getLong();
         int id = buffer.getInt(); // position = 44
-        return new EntryMetadata(segment, prefix, position, length, id);
+        return new EntryMetadata(segmentId, prefix, position, length, id);
     }
 
     /**
-     * Extracts the ID from the specified ByteBuffer object. The method assumes
-     * that the ID is stored at a fixed offset (44) in the ByteBuffer. It
-     * retrieves the integer value from this position without altering the buffer's
-     * state, as it rewinds the buffer to its original position after the extraction.
+     * Extracts the ID from the specified ByteBuffer object. The offset of the ID depends on
+     * the format of the encoded entry metadata. The method retrieves the integer value without
+     * altering the buffer's state, as it rewinds the buffer to its original position after the extraction.
      *
      * @param buffer the ByteBuffer containing the encoded data. The buffer should
      *               have a valid layout where the ID can be read from the predefined
@@ -77,35 +143,55 @@ public record EntryMetadata(String segment, byte[] prefix, long position, long l
      * @return the integer value representing the extracted ID.
      */
     public static int extractId(ByteBuffer buffer) {
-        // The position of id is 44 in the current layout of encoded EntryMetadata
-        buffer = buffer.position(44);
+        int offset = buffer.get(0) == FORMAT_VERSION ? ID_OFFSET : LEGACY_ID_OFFSET;
+        buffer = buffer.position(offset);
         int id = buffer.getInt();
         buffer.rewind();
         return id;
     }
 
     /**
-     * Encodes the current state of the entry metadata into a ByteBuffer. The resulting ByteBuffer
-     * contains the segment name, subspace separator, prefix, position, and length in a binary format
-     * that is suitable for storage or transmission.
+     * Returns the name of the segment that stores the entry.
+     *
+     * @return the zero-padded name of the segment
+     */
+    public String segment() {
+        return Segment.generateName(segmentId);
+    }
+
+    /**
+     * Checks whether the entry is stored compressed in the segment.
+     *
+     * @return true if the entry is compressed, false otherwise
+     */
+    public boolean isCompressed() {
+        return (flags & FLAG_COMPRESSED) != 0;
+    }
+
+    /**
+     * Encodes the current state of the entry metadata into a ByteBuffer in the compact format.
      *
      * @return a ByteBuffer containing the binary representation of this EntryMetadata instance,
      * with the data elements sequentially packed in the specified order.
      * @throws IllegalArgumentException if the length of the prefix does not match the predefined
-     *                                  ENTRY_PREFIX_SIZE.
+     *                                  ENTRY_PREFIX_SIZE or the length doesn't fit in 32 bits.
      */
     public ByteBuffer encode() {
         if (prefix.length != ENTRY_PREFIX_SIZE) {
             throw new IllegalArgumentException("Invalid prefix length");
         }
+        if (length < 0 || length > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Invalid entry length");
+        }
         return ByteBuffer.
                 allocate(ENTRY_METADATA_SIZE).
-                put(segment.getBytes()).
-                put(SUBSPACE_SEPARATOR).
+                put(FORMAT_VERSION).
+                putLong(segmentId).
                 put(prefix).
                 putLong(position).
-                putLong(length).
+                putInt((int) length).
                 putInt(id).
+                put(flags).
                 flip();
     }
 }
@@ -14,54 +14,191 @@
  * limitations under the License.
  */
 
+
 package com.kronotop.volume;
 
 import com.apple.foundationdb.tuple.Versionstamp;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
 import com.kronotop.Context;
 
 import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * This class provides a caching mechanism for managing {@link EntryMetadata} objects
- * within a Volume. The cache is organized per {@link Prefix}, ensuring that each unique prefix
- * has its own {@link LoadingCache}. It leverages a {@link ConcurrentHashMap}
- * to store and manage these caches, and the caches themselves are configured with a
- * time-based expiration policy for efficient memory utilization.
+ * This class provides a caching mechanism for managing {@link EntryMetadata} objects within a Volume.
+ * <p>
+ * A single cache is shared by all prefixes of the Volume, and it's bounded by a maximum weight in bytes.
+ * The encoded entry metadata has a fixed size, so every cached entry weighs {@link #ENTRY_WEIGHT} bytes,
+ * an estimate of the heap retained by the key, the record and the cache's own bookkeeping. When the
+ * maximum weight is exceeded, the least recently used entries are evicted. The entries also expire after
+ * a period of inactivity.
  * <p>
- * The {@link EntryMetadataCache} class is designed to be thread-safe, making it suitable
- * for concurrent environments. Caches are lazily initialized upon first access using the
- * {@link #load(Prefix)} method, with new {@link LoadingCache} instances being created
- * if no cache currently exists for a given prefix.
+ * Misses are loaded from FoundationDB asynchronously. Concurrent loads of the same key share a single
+ * read, and a load that races with an invalidation doesn't populate the cache with stale metadata.
  * <p>
- * The caching mechanism ensures high performance by reducing the need to repeatedly fetch
- * or compute {@link EntryMetadata} for the same prefix and {@link Versionstamp}.
+ * The {@link EntryMetadataCache} class is thread-safe.
  */
 public class EntryMetadataCache {
+    // key (~56 bytes) + EntryMetadata and its prefix (~64 bytes) + cache entry (~72 bytes)
+    static final int ENTRY_WEIGHT = 192;
+
     private final Context context;
     private final VolumeSubspace subspace;
-    private final ConcurrentHashMap<Long, LoadingCache<Versionstamp, EntryMetadata>> cache = new ConcurrentHashMap<>();
+    private final Cache<Key, EntryMetadata> cache;
+    private final ConcurrentHashMap<Key, CompletableFuture<EntryMetadata>> loading = new ConcurrentHashMap<>();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
 
-    public EntryMetadataCache(@Nonnull Context context, @Nonnull VolumeSubspace subspace) {
+    /**
+     * Constructs an EntryMetadataCache.
+     *
+     * @param context           the context used to access FoundationDB
+     * @param subspace          the subspace of the owner Volume
+     * @param maximumWeight     the maximum total weight of the cached entries in bytes
+     * @param expireAfterAccess the time in milliseconds after which an entry expires if it has not been accessed
+     */
+    public EntryMetadataCache(@Nonnull Context context, @Nonnull VolumeSubspace subspace, long maximumWeight, long expireAfterAccess) {
         this.context = context;
         this.subspace = subspace;
+        this.cache = CacheBuilder.newBuilder().
+                maximumWeight(maximumWeight).
+                weigher((Key key, EntryMetadata metadata) -> ENTRY_WEIGHT).
+                expireAfterAccess(Duration.ofMillis(expireAfterAccess)).
+                recordStats().
+                build();
     }
 
     /**
-     * Loads a {@link LoadingCache} instance associated with the provided {@link Prefix}.
-     * If the cache for the given prefix does not already exist, a new cache is created
-     * and configured with an expiration policy.
+     * Returns the cached entry metadata of the given key, without loading it.
      *
-     * @param prefix the {@link Prefix} used to uniquely identify the cache entry.
-     * @return a {@link LoadingCache} instance mapped to the given {@link Prefix}.
+     * @param prefix the prefix of the entry
+     * @param key    the versionstamped key of the entry
+     * @return the cached entry metadata or null if it's not cached
      */
-    public LoadingCache<Versionstamp, EntryMetadata> load(Prefix prefix) {
-        return cache.computeIfAbsent(prefix.asLong(), prefixId -> CacheBuilder.
-                newBuilder().
-                expireAfterAccess(EntryMetadataCacheLoader.EXPIRE_AFTER_ACCESS).
-                build(new EntryMetadataCacheLoader(context, subspace, prefix)));
+    public EntryMetadata getIfPresent(Prefix prefix, Versionstamp key) {
+        return cache.getIfPresent(new Key(prefix.asLong(), key));
+    }
+
+    /**
+     * Returns the entry metadata of the given key, loading it from FoundationDB if it's not cached.
+     *
+     * @param prefix the prefix of the entry
+     * @param key    the versionstamped key of the entry
+     * @return a future that completes with the entry metadata, or null if the key doesn't exist in the Volume
+     */
+    public CompletableFuture<EntryMetadata> getAsync(Prefix prefix, Versionstamp key) {
+        Key cacheKey = new Key(prefix.asLong(), key);
+        EntryMetadata metadata = cache.getIfPresent(cacheKey);
+        if (metadata != null) {
+            return CompletableFuture.completedFuture(metadata);
+        }
+
+        CompletableFuture<EntryMetadata> future = new CompletableFuture<>();
+        CompletableFuture<EntryMetadata> inflight = loading.putIfAbsent(cacheKey, future);
+        if (inflight != null) {
+            return inflight;
+        }
+
+        long start = System.nanoTime();
+        byte[] entryKey = subspace.packEntryKey(prefix, key);
+        context.getFoundationDB().readAsync(tr -> tr.get(entryKey)).whenComplete((value, throwable) -> {
+            totalLoadTime.add(System.nanoTime() - start);
+            if (throwable != null) {
+                loadFailureCount.increment();
+                loading.remove(cacheKey, future);
+                future.completeExceptionally(throwable);
+                return;
+            }
+            loadSuccessCount.increment();
+            EntryMetadata loaded = value == null ? null : EntryMetadata.decode(ByteBuffer.wrap(value));
+            // If the key has been invalidated in the meantime, the loaded metadata might be stale. Don't cache it.
+            if (loading.remove(cacheKey, future) && loaded != null) {
+                cache.put(cacheKey, loaded);
+            }
+            future.complete(loaded);
+        });
+        return future;
+    }
+
+    /**
+     * Returns the entry metadata of the given key, loading it from FoundationDB if it's not cached.
+     *
+     * @param prefix the prefix of the entry
+     * @param key    the versionstamped key of the entry
+     * @return the entry metadata or null if the key doesn't exist in the Volume
+     */
+    public EntryMetadata get(Prefix prefix, Versionstamp key) {
+        return getAsync(prefix, key).join();
     }
-}
 
+    /**
+     * Puts the entry metadata of the given key into the cache.
+     */
+    public void put(Prefix prefix, Versionstamp key, EntryMetadata metadata) {
+        cache.put(new Key(prefix.asLong(), key), metadata);
+    }
+
+    /**
+     * Discards the cached entry metadata of the given key, including an ongoing load.
+     */
+    public void invalidate(Prefix prefix, Versionstamp key) {
+        Key cacheKey = new Key(prefix.asLong(), key);
+        loading.remove(cacheKey);
+        cache.invalidate(cacheKey);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     *
+     * @return the statistics of this cache
+     */
+    public Stats stats() {
+        CacheStats stats = cache.stats();
+        long loads = loadSuccessCount.sum() + loadFailureCount.sum();
+        return new Stats(
+                cache.size() * ENTRY_WEIGHT,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount(),
+                loadSuccessCount.sum(),
+                loadFailureCount.sum(),
+                loads == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLoadTime.sum() / loads)
+        );
+    }
+
+    private record Key(long prefix, Versionstamp versionstamp) {
+    }
+
+    /**
+     * Statistics of an {@link EntryMetadataCache}.
+     *
+     * @param weight             the estimated total weight of the cached entries in bytes
+     * @param hitCount           the number of lookups that found a cached entry
+     * @param missCount          the number of lookups that didn't find a cached entry
+     * @param hitRate            the ratio of the lookups that found a cached entry
+     * @param evictionCount      the number of entries evicted due to the weight limit or expiration
+     * @param loadSuccessCount   the number of completed loads from FoundationDB
+     * @param loadFailureCount   the number of failed loads from FoundationDB
+     * @param averageLoadPenalty the average time spent loading an entry, in microseconds
+     */
+    public record Stats(
+            long weight,
+            long hitCount,
+            long missCount,
+            double hitRate,
+            long evictionCount,
+            long loadSuccessCount,
+            long loadFailureCount,
+            long averageLoadPenalty
+    ) {
+    }
+}
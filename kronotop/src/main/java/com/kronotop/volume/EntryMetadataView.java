@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import static com.kronotop.volume.EntryMetadata.*;
+
+/**
+ * EntryMetadataView is a reusable, read-only view over encoded {@link EntryMetadata}.
+ * <p>
+ * Decoding an {@link EntryMetadata} allocates a record and a prefix array for every entry. The hot paths
+ * that only need a few fields, such as range scans or counter updates, wrap the encoded bytes with a view
+ * instead and read the fields in place. Both the compact and the legacy formats are supported.
+ * <p>
+ * EntryMetadataView is not thread-safe.
+ */
+public final class EntryMetadataView {
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    // Prefix.asLong reads the prefix bytes in little-endian order
+    private static final VarHandle PREFIX = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private byte[] data;
+    private int offset;
+    private boolean legacy;
+
+    /**
+     * Points this view to the encoded entry metadata in the given array.
+     *
+     * @param data the encoded entry metadata
+     * @return this view
+     */
+    public EntryMetadataView wrap(byte[] data) {
+        return wrap(data, 0);
+    }
+
+    /**
+     * Points this view to the encoded entry metadata that starts at the given offset.
+     *
+     * @param data   the array that contains the encoded entry metadata
+     * @param offset the offset of the encoded entry metadata in the array
+     * @return this view
+     */
+    public EntryMetadataView wrap(byte[] data, int offset) {
+        this.data = data;
+        this.offset = offset;
+        this.legacy = data[offset] != FORMAT_VERSION;
+        return this;
+    }
+
+    public boolean isLegacy() {
+        return legacy;
+    }
+
+    public long segmentId() {
+        if (legacy) {
+            return parseLegacySegmentId(data, offset);
+        }
+        return (long) LONG.get(data, offset + SEGMENT_ID_OFFSET);
+    }
+
+    /**
+     * Returns the prefix of the entry as a long, it can be turned into a {@link Prefix} with {@link Prefix#fromLong(long)}.
+     */
+    public long prefix() {
+        return (long) PREFIX.get(data, offset + (legacy ? LEGACY_PREFIX_OFFSET : PREFIX_OFFSET));
+    }
+
+    public long position() {
+        return (long) LONG.get(data, offset + (legacy ? LEGACY_POSITION_OFFSET : POSITION_OFFSET));
+    }
+
+    public long length() {
+        if (legacy) {
+            return (long) LONG.get(data, offset + LEGACY_LENGTH_OFFSET);
+        }
+        return Integer.toUnsignedLong((int) INT.get(data, offset + LENGTH_OFFSET));
+    }
+
+    public int id() {
+        return (int) INT.get(data, offset + (legacy ? LEGACY_ID_OFFSET : ID_OFFSET));
+    }
+
+    public boolean isCompressed() {
+        if (legacy || data.length <= offset + FLAGS_OFFSET) {
+            return false;
+        }
+        return (data[offset + FLAGS_OFFSET] & FLAG_COMPRESSED) != 0;
+    }
+}
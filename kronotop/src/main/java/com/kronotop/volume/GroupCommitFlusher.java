@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.volume;
+
+import com.kronotop.volume.segment.Segment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * GroupCommitFlusher collects flush requests issued by concurrent writers of a Volume and
+ * forces the mutated segments to the storage device once per commit window.
+ * <p>
+ * A commit window opens with the first pending request and closes when either the configured
+ * maximum wait time elapses or the number of pending bytes exceeds the configured threshold.
+ * Every segment mutated in the window is flushed exactly once, then all waiting callers are released.
+ */
+class GroupCommitFlusher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitFlusher.class);
+
+    private final String name;
+    private final long maxWaitNanos;
+    private final long maxBytes;
+    private final VolumeMetrics metrics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition thresholdExceeded = lock.newCondition();
+    private final Thread thread;
+    private Batch current;
+    private volatile boolean isShutdown;
+
+    /**
+     * Constructs a GroupCommitFlusher and starts its flusher thread.
+     *
+     * @param name     the name of the owner volume, used to name the flusher thread
+     * @param maxWait  the maximum time in milliseconds a commit window stays open
+     * @param maxBytes the number of pending bytes that closes a commit window early
+     */
+    GroupCommitFlusher(String name, long maxWait, long maxBytes) {
+        this(name, maxWait, maxBytes, new VolumeMetrics());
+    }
+
+    /**
+     * Constructs a GroupCommitFlusher that records the flushes to the given metrics and starts its flusher thread.
+     *
+     * @param name     the name of the owner volume, used to name the flusher thread
+     * @param maxWait  the maximum time in milliseconds a commit window stays open
+     * @param maxBytes the number of pending bytes that closes a commit window early
+     * @param metrics  the metrics of the owner volume
+     */
+    GroupCommitFlusher(String name, long maxWait, long maxBytes, VolumeMetrics metrics) {
+        this.name = name;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWait);
+        this.maxBytes = maxBytes;
+        this.metrics = metrics;
+        this.thread = Thread.ofVirtual().name("kr.volume.flusher-" + name).start(this::run);
+    }
+
+    /**
+     * Registers a flush request for the given segments and returns a future that completes
+     * after all of them have been forced to the storage device.
+     *
+     * @param segments the segments mutated by the caller
+     * @param bytes    the number of bytes written by the caller, used to close the commit window early
+     * @return a CompletableFuture that completes when the commit window covering this request is flushed
+     */
+    CompletableFuture<Void> submit(Iterable<Segment> segments, long bytes) {
+        lock.lock();
+        try {
+            if (isShutdown) {
+                return flushNow(segments);
+            }
+            if (current == null) {
+                current = new Batch(System.nanoTime());
+                pending.signal();
+            }
+            for (Segment segment : segments) {
+                current.segments.add(segment);
+            }
+            current.bytes += bytes;
+            if (current.bytes >= maxBytes) {
+                thresholdExceeded.signal();
+            }
+            return current.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the given segments on the caller thread. Used after the flusher has been shut down.
+     */
+    private CompletableFuture<Void> flushNow(Iterable<Segment> segments) {
+        Batch batch = new Batch(System.nanoTime());
+        for (Segment segment : segments) {
+            batch.segments.add(segment);
+        }
+        batch.commit(metrics);
+        return batch.future;
+    }
+
+    /**
+     * Waits for the next commit window to close and detaches it from the flusher.
+     *
+     * @return the detached batch or null if the flusher has been shut down and there is nothing left to flush
+     */
+    private Batch awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (current == null) {
+                if (isShutdown) {
+                    return null;
+                }
+                pending.await();
+            }
+            long deadline = current.createdAt + maxWaitNanos;
+            while (!isShutdown && current.bytes < maxBytes) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                thresholdExceeded.awaitNanos(remaining);
+            }
+            Batch batch = current;
+            current = null;
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Batch batch;
+            try {
+                batch = awaitBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (batch == null) {
+                break;
+            }
+            batch.commit(metrics);
+        }
+    }
+
+    /**
+     * Stops accepting new commit windows, flushes the pending one and waits for the flusher thread to exit.
+     */
+    void shutdown() {
+        lock.lock();
+        try {
+            isShutdown = true;
+            pending.signal();
+            thresholdExceeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting for the flusher of {} to stop", name);
+        }
+    }
+
+    private static class Batch {
+        private final long createdAt;
+        private final Set<Segment> segments = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private long bytes;
+
+        private Batch(long createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        private void commit(VolumeMetrics metrics) {
+            try {
+                for (Segment segment : segments) {
+                    long startedAt = System.nanoTime();
+                    // Forces any updates to this channel's file to be written to the storage device that contains it.
+                    segment.flush();
+                    metrics.recordFlush(startedAt);
+                }
+                future.complete(null);
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
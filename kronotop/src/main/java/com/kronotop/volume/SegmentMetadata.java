@@ -16,7 +16,11 @@
 
 package com.kronotop.volume;
 
+import com.apple.foundationdb.KeyValue;
 import com.apple.foundationdb.MutationType;
+import com.apple.foundationdb.Range;
+import com.apple.foundationdb.ReadTransaction;
+import com.apple.foundationdb.Transaction;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
@@ -25,6 +29,8 @@ import com.kronotop.KronotopException;
 import javax.annotation.Nonnull;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -32,37 +38,44 @@ import java.util.concurrent.TimeUnit;
  * SegmentMetadata handles the caching and retrieval of segment metadata information
  * like cardinality and used bytes. It utilizes a LoadingCache to cache Key
  * objects that represent specific segment metadata.
+ * <p>
+ * It also maintains the high-water mark of the segment, the end position of the furthest
+ * entry ever written to it. The volume uses it to find the tail of a segment on open
+ * without scanning the entry metadata.
+ * <p>
+ * The {@link SegmentStats} of the segment are stored as a set of counters that are shared by all
+ * prefixes, so the statistics of a segment can be loaded with a single range read. The counters are
+ * only valid if the initialized marker exists, the segments created before the statistics were
+ * introduced don't have it.
  */
 class SegmentMetadata {
     private static final byte[] INCREASE_BY_ONE_DELTA = new byte[]{1, 0, 0, 0}; // 1, byte order: little-endian
     private static final byte[] DECREASE_BY_ONE_DELTA = new byte[]{-1, -1, -1, -1}; // -1, byte order: little-endian
 
+    private static final int LIVE_ENTRIES = 0;
+    private static final int DEAD_ENTRIES = 1;
+    private static final int LIVE_BYTES = 2;
+    private static final int DEAD_BYTES = 3;
+    private static final int LAST_MODIFIED = 4;
+    private static final int INITIALIZED = 5;
+    private static final int STATS_FIELDS = 6;
+
     private final LoadingCache<Prefix, Key> keys;
+    private final byte[] highWaterMarkKey;
+    private final byte[][] statsKeys = new byte[STATS_FIELDS][];
+    private final Range statsRange;
 
     SegmentMetadata(VolumeSubspace subspace, String name) {
+        this.highWaterMarkKey = subspace.packSegmentHighWaterMarkKey(name);
+        for (int field = 0; field < STATS_FIELDS; field++) {
+            this.statsKeys[field] = subspace.packSegmentStatsKey(name, field);
+        }
+        this.statsRange = subspace.segmentStatsRange(name);
         this.keys = CacheBuilder.newBuilder()
                 .expireAfterAccess(10, TimeUnit.MINUTES)
                 .build(new KeysLoader(subspace, name));
     }
 
-    /**
-     * Increases the cardinality value associated with the given session by one.
-     *
-     * @param session The session object containing the current transaction and prefix information.
-     */
-    void increaseCardinalityByOne(VolumeSession session) {
-        increaseCardinality(session, INCREASE_BY_ONE_DELTA);
-    }
-
-    /**
-     * Decreases the cardinality value associated with the given session by one.
-     *
-     * @param session The session object containing the current transaction and prefix information.
-     */
-    void decreaseCardinalityByOne(VolumeSession session) {
-        increaseCardinality(session, DECREASE_BY_ONE_DELTA);
-    }
-
     /**
      * Increases the cardinality value associated with the given session by the specified delta.
      *
@@ -79,6 +92,22 @@ class SegmentMetadata {
         }
     }
 
+    /**
+     * Increases the cardinality value associated with the given session by the specified delta.
+     *
+     * @param session The session object containing the current transaction and prefix information.
+     * @param delta   The value to add to the cardinality, can be negative.
+     */
+    void increaseCardinality(VolumeSession session, int delta) {
+        if (delta == 1) {
+            increaseCardinality(session, INCREASE_BY_ONE_DELTA);
+        } else if (delta == -1) {
+            increaseCardinality(session, DECREASE_BY_ONE_DELTA);
+        } else {
+            increaseCardinality(session, ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(delta).array());
+        }
+    }
+
     /**
      * Resets the cardinality value associated with the given session by clearing it in the transaction.
      *
@@ -159,6 +188,134 @@ class SegmentMetadata {
         }
     }
 
+    /**
+     * Advances the high-water mark of the segment to the given position. The mark never moves
+     * backwards, concurrent transactions don't conflict on it.
+     *
+     * @param tr       The transaction to perform the mutation in.
+     * @param position The end position of an entry written to the segment.
+     */
+    void advanceHighWaterMark(Transaction tr, long position) {
+        byte[] param = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(position).array();
+        tr.mutate(MutationType.MAX, highWaterMarkKey, param);
+    }
+
+    /**
+     * Decodes a high-water mark read from FoundationDB.
+     *
+     * @param data The raw value, may be <code>null</code>.
+     * @return the high-water mark, or <code>null</code> if it has never been written.
+     */
+    static Long decodeHighWaterMark(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    private static byte[] encodeLong(long value) {
+        return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array();
+    }
+
+    private static long decodeLong(byte[] data) {
+        return data == null ? 0 : ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    /**
+     * Applies the given changes to the statistics of the segment with atomic mutations and sets the
+     * last modification time. Concurrent transactions don't conflict on the statistics.
+     *
+     * @param tr          The transaction to perform the mutations in.
+     * @param liveEntries The change in the number of live entries.
+     * @param deadEntries The change in the number of dead entries.
+     * @param liveBytes   The change in the length of the live entries.
+     * @param deadBytes   The change in the length of the dead entries.
+     */
+    void updateStats(Transaction tr, long liveEntries, long deadEntries, long liveBytes, long deadBytes) {
+        long[] deltas = {liveEntries, deadEntries, liveBytes, deadBytes};
+        for (int field = 0; field < deltas.length; field++) {
+            if (deltas[field] != 0) {
+                tr.mutate(MutationType.ADD, statsKeys[field], encodeLong(deltas[field]));
+            }
+        }
+        tr.mutate(MutationType.MAX, statsKeys[LAST_MODIFIED], encodeLong(System.currentTimeMillis()));
+    }
+
+    /**
+     * Overwrites the statistics of the segment and marks them as initialized.
+     *
+     * @param tr    The transaction to perform the writes in.
+     * @param stats The statistics of the segment.
+     */
+    void initializeStats(Transaction tr, SegmentStats stats) {
+        tr.set(statsKeys[LIVE_ENTRIES], encodeLong(stats.liveEntries()));
+        tr.set(statsKeys[DEAD_ENTRIES], encodeLong(stats.deadEntries()));
+        tr.set(statsKeys[LIVE_BYTES], encodeLong(stats.liveBytes()));
+        tr.set(statsKeys[DEAD_BYTES], encodeLong(stats.deadBytes()));
+        tr.set(statsKeys[LAST_MODIFIED], encodeLong(stats.lastModified()));
+        tr.set(statsKeys[INITIALIZED], encodeLong(1));
+    }
+
+    /**
+     * Loads the statistics of the segment with a single range read.
+     *
+     * @param tr The transaction to read from.
+     * @return a future that completes with the statistics, or <code>null</code> if they have never been initialized.
+     */
+    CompletableFuture<SegmentStats> loadStats(ReadTransaction tr) {
+        return tr.getRange(statsRange).asList().thenApply((keyValues) -> {
+            byte[][] values = new byte[STATS_FIELDS][];
+            for (KeyValue keyValue : keyValues) {
+                for (int field = 0; field < STATS_FIELDS; field++) {
+                    if (Arrays.equals(keyValue.getKey(), statsKeys[field])) {
+                        values[field] = keyValue.getValue();
+                        break;
+                    }
+                }
+            }
+            if (values[INITIALIZED] == null) {
+                return null;
+            }
+            return new SegmentStats(
+                    decodeLong(values[LIVE_ENTRIES]),
+                    decodeLong(values[DEAD_ENTRIES]),
+                    decodeLong(values[LIVE_BYTES]),
+                    decodeLong(values[DEAD_BYTES]),
+                    decodeLong(values[LAST_MODIFIED])
+            );
+        });
+    }
+
+    /**
+     * Removes the statistics of the segment.
+     *
+     * @param tr The transaction to perform the mutation in.
+     */
+    void clearStats(Transaction tr) {
+        tr.clear(statsRange);
+    }
+
+    /**
+     * Moves the entries of the session's prefix from the live counters to the dead counters of the
+     * segment statistics. It's called before the entries of a prefix are cleared from the segment.
+     *
+     * @param session The session object containing the current transaction and prefix information.
+     * @throws KronotopException if an execution exception occurs while reading the counters of the prefix.
+     */
+    void markPrefixAsDead(VolumeSession session) {
+        try {
+            Key key = keys.get(session.prefix());
+            byte[] cardinality = session.transaction().get(key.cardinality()).join();
+            long entries = cardinality == null ? 0 : ByteBuffer.wrap(cardinality).order(ByteOrder.LITTLE_ENDIAN).getInt();
+            long bytes = decodeLong(session.transaction().get(key.usedBytes()).join());
+            if (entries != 0 || bytes != 0) {
+                updateStats(session.transaction(), -entries, entries, -bytes, bytes);
+            }
+        } catch (ExecutionException e) {
+            throw new KronotopException(e);
+        }
+    }
+
     /**
      * A cache loader that is responsible for loading keys from a given subspace and segment within that subspace.
      * The keys represent specific metadata such as cardinality and used bytes associated with a given prefix.
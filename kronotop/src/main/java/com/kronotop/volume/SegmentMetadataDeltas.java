@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SegmentMetadataDeltas accumulates the changes made on the segment counters by a single volume operation,
+ * then writes them with one atomic ADD per counter instead of one per entry.
+ * <p>
+ * The counters are the cardinality and used bytes of a segment for the session's prefix, and the
+ * cardinality of the segment log. A counter is only written if it has been touched by the operation.
+ * The high-water mark of a segment is advanced once to the furthest end position seen. The changes
+ * in the live and dead entries are applied to the {@link SegmentStats} of the segment as well.
+ * <p>
+ * SegmentMetadataDeltas is not thread-safe.
+ */
+final class SegmentMetadataDeltas {
+    private final Map<SegmentContainer, Delta> deltas = new LinkedHashMap<>();
+
+    private Delta delta(SegmentContainer segmentContainer) {
+        return deltas.computeIfAbsent(segmentContainer, (k) -> new Delta());
+    }
+
+    /**
+     * Adds the given value to the cardinality of the segment.
+     */
+    void increaseCardinality(SegmentContainer segmentContainer, int delta) {
+        Delta entry = delta(segmentContainer);
+        entry.cardinality += delta;
+        entry.cardinalityTouched = true;
+    }
+
+    /**
+     * Adds the given value to the used bytes of the segment.
+     */
+    void increaseUsedBytes(SegmentContainer segmentContainer, long delta) {
+        Delta entry = delta(segmentContainer);
+        entry.usedBytes += delta;
+        entry.usedBytesTouched = true;
+    }
+
+    /**
+     * Records an entry of the segment that is no longer referenced. The caller decreases the cardinality
+     * and used bytes separately.
+     */
+    void increaseDeadEntries(SegmentContainer segmentContainer, long length) {
+        Delta entry = delta(segmentContainer);
+        entry.deadEntries++;
+        entry.deadBytes += length;
+    }
+
+    /**
+     * Records an entry appended to the segment log without touching its cardinality key.
+     */
+    void increaseSegmentLogCardinality(SegmentContainer segmentContainer) {
+        delta(segmentContainer).segmentLogCardinality++;
+    }
+
+    /**
+     * Records the end position of an entry written to the segment.
+     */
+    void advanceHighWaterMark(SegmentContainer segmentContainer, long position) {
+        Delta entry = delta(segmentContainer);
+        entry.highWaterMark = Math.max(entry.highWaterMark, position);
+    }
+
+    /**
+     * Checks whether any counter has been touched.
+     *
+     * @return true if there is nothing to write, false otherwise
+     */
+    boolean isEmpty() {
+        return deltas.isEmpty();
+    }
+
+    /**
+     * Writes the accumulated deltas to the session's transaction.
+     *
+     * @param session the volume session that runs the operation
+     */
+    void apply(VolumeSession session) {
+        for (Map.Entry<SegmentContainer, Delta> entry : deltas.entrySet()) {
+            SegmentContainer segmentContainer = entry.getKey();
+            Delta delta = entry.getValue();
+            if (delta.cardinalityTouched) {
+                segmentContainer.metadata().increaseCardinality(session, delta.cardinality);
+            }
+            if (delta.usedBytesTouched) {
+                segmentContainer.metadata().increaseUsedBytes(session, delta.usedBytes);
+            }
+            if (delta.segmentLogCardinality > 0) {
+                segmentContainer.log().increaseCardinality(session.transaction(), delta.segmentLogCardinality);
+            }
+            if (delta.highWaterMark > 0) {
+                segmentContainer.metadata().advanceHighWaterMark(session.transaction(), delta.highWaterMark);
+            }
+            if (delta.cardinalityTouched || delta.usedBytesTouched || delta.deadEntries > 0) {
+                segmentContainer.metadata().updateStats(
+                        session.transaction(),
+                        delta.cardinality,
+                        delta.deadEntries,
+                        delta.usedBytes,
+                        delta.deadBytes
+                );
+            }
+        }
+        deltas.clear();
+    }
+
+    private static class Delta {
+        private int cardinality;
+        private long usedBytes;
+        private int segmentLogCardinality;
+        private long highWaterMark;
+        private int deadEntries;
+        private long deadBytes;
+        private boolean cardinalityTouched;
+        private boolean usedBytesTouched;
+    }
+}
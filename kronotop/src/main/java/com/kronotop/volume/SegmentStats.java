@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+/**
+ * SegmentStats holds the statistics of a segment, maintained incrementally by the volume operations.
+ * <p>
+ * An entry becomes dead when it's deleted, updated or moved to another segment by vacuum. Its bytes stay
+ * in the segment file until the segment is vacuumed.
+ *
+ * @param liveEntries  the number of entries in the segment that are still referenced
+ * @param deadEntries  the number of entries in the segment that are no longer referenced
+ * @param liveBytes    the total length of the live entries in bytes
+ * @param deadBytes    the total length of the dead entries in bytes
+ * @param lastModified the time of the latest change in milliseconds since the epoch
+ */
+public record SegmentStats(long liveEntries, long deadEntries, long liveBytes, long deadBytes, long lastModified) {
+}
@@ -26,4 +26,7 @@ public class Subspaces {
     public static final byte REPLICATION_SLOT_SUBSPACE = 0x7;
     public static final byte STREAMING_SUBSCRIBERS_SUBSPACE = 0x8;
     public static final byte MEMBER_REPLICATION_SLOT_SUBSPACE = 0x9;
+    public static final byte COMPACT_ENTRY_METADATA_SUBSPACE = 0xA;
+    public static final byte SEGMENT_HIGH_WATER_MARK_SUBSPACE = 0xB;
+    public static final byte SEGMENT_STATS_SUBSPACE = 0xC;
 }
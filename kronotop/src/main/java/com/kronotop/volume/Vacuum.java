@@ -17,14 +17,24 @@
 package com.kronotop.volume;
 
 import com.apple.foundationdb.Transaction;
+import com.google.common.util.concurrent.RateLimiter;
 import com.kronotop.Context;
+import com.kronotop.KronotopException;
 import com.kronotop.volume.segment.SegmentAnalysis;
+import com.typesafe.config.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -34,6 +44,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * <p>
  * The Vacuum is initialized with a given context, volume, and metadata,
  * and can be started or stopped as required.
+ * <p>
+ * In compaction mode, the segments that exceed the allowed garbage ratio are compacted in parallel,
+ * their live entries are copied into a dedicated compaction segment instead of the writable one. The
+ * parallelism and the I/O rate are configured by the {@code volume.vacuum.compaction} settings.
  */
 class Vacuum {
     private static final Logger LOGGER = LoggerFactory.getLogger(Vacuum.class);
@@ -74,13 +88,33 @@ class Vacuum {
      * @throws IOException if an I/O error occurs during the vacuum process.
      */
     List<String> start() throws IOException {
+        try {
+            return vacuum();
+        } finally {
+            volume.getMetrics().recordVacuumFinished();
+        }
+    }
+
+    private List<String> vacuum() throws IOException {
         List<SegmentAnalysis> segmentAnalysisList = analyze();
         if (segmentAnalysisList.isEmpty()) {
             LOGGER.warn("No segments found on volume '{}'", volume.getConfig().name());
             return List.of();
         }
 
+        if (vacuumMetadata.isCompaction()) {
+            compact(segmentAnalysisList);
+            if (stop.get()) {
+                LOGGER.info("Stopping Vacuum on volume '{}'", volume.getConfig().name());
+                return List.of();
+            }
+            return volume.cleanupStaleSegments();
+        }
+
         LOGGER.info("Starting Vacuum on volume '{}'", volume.getConfig().name());
+        volume.getMetrics().recordVacuumStarted((int) segmentAnalysisList.stream().filter(
+                (segmentAnalysis) -> segmentAnalysis.garbageRatio() >= vacuumMetadata.getAllowedGarbageRatio()
+        ).count());
         for (SegmentAnalysis segmentAnalysis : segmentAnalysisList) {
             if (stop.get()) {
                 LOGGER.info("Stopping Vacuum on volume '{}'", volume.getConfig().name());
@@ -96,10 +130,102 @@ class Vacuum {
             LOGGER.info("Vacuuming segment: '{}' on volume '{}'", segmentAnalysis.name(), volume.getConfig().name());
             VacuumContext vacuumContext = new VacuumContext(segmentAnalysis.name(), stop);
             volume.vacuumSegment(vacuumContext);
+            volume.getMetrics().recordVacuumSegmentCompleted();
         }
         return volume.cleanupStaleSegments();
     }
 
+    /**
+     * Compacts the segments that exceed the allowed garbage ratio, the segments with the highest garbage
+     * ratio come first. The latest segment is writable, so it's never compacted.
+     *
+     * @param segmentAnalysisList the analysis of the segments of the volume, ordered by segment id
+     * @throws IOException if an I/O error occurs during the compaction.
+     */
+    private void compact(List<SegmentAnalysis> segmentAnalysisList) throws IOException {
+        List<SegmentAnalysis> candidates = new ArrayList<>();
+        for (SegmentAnalysis segmentAnalysis : segmentAnalysisList.subList(0, segmentAnalysisList.size() - 1)) {
+            if (segmentAnalysis.garbageRatio() >= vacuumMetadata.getAllowedGarbageRatio()) {
+                candidates.add(segmentAnalysis);
+            }
+        }
+        if (candidates.isEmpty()) {
+            LOGGER.info("No segments exceed the allowed garbage ratio on volume '{}'", volume.getConfig().name());
+            return;
+        }
+        candidates.sort(Comparator.comparingDouble(SegmentAnalysis::garbageRatio).reversed());
+        volume.getMetrics().recordVacuumStarted(candidates.size());
+
+        Config config = context.getConfig().getConfig("volume.vacuum.compaction");
+        int parallelism = Math.min(config.getInt("parallelism"), candidates.size());
+        long maxBytesPerSecond = config.getLong("max_bytes_per_second");
+        // Shared by all workers, the limit applies to the whole compaction.
+        RateLimiter rateLimiter = maxBytesPerSecond > 0 ? RateLimiter.create(maxBytesPerSecond) : null;
+
+        LOGGER.info("Starting compaction of {} segments with {} workers on volume '{}'",
+                candidates.size(),
+                parallelism,
+                volume.getConfig().name()
+        );
+        ExecutorService executor = Executors.newFixedThreadPool(
+                parallelism,
+                Thread.ofVirtual().name("kr.vacuum-compaction-" + volume.getConfig().name() + "-", 0).factory()
+        );
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (SegmentAnalysis segmentAnalysis : candidates) {
+                futures.add(executor.submit(() -> {
+                    if (stop.get()) {
+                        return;
+                    }
+                    LOGGER.info("Compacting segment: '{}' on volume '{}'", segmentAnalysis.name(), volume.getConfig().name());
+                    try {
+                        volume.compactSegment(new VacuumContext(segmentAnalysis.name(), stop), rateLimiter);
+                        volume.getMetrics().recordVacuumSegmentCompleted();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            awaitCompaction(futures);
+        } finally {
+            // Waits for the workers, a worker might still be appending to the compaction segment.
+            executor.close();
+            volume.releaseCompactionSegment();
+        }
+    }
+
+    /**
+     * Waits for the compaction workers, if a worker fails, the rest is stopped and the error is rethrown.
+     */
+    private void awaitCompaction(List<Future<?>> futures) throws IOException {
+        Throwable failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                    stop.set(true);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop.set(true);
+                throw new KronotopException(e);
+            }
+        }
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        throw new KronotopException(failure);
+    }
+
     /**
      * Stops the vacuum process gracefully by setting the stop signal.
      * This method triggers a flag indicating that the vacuum process should terminate.
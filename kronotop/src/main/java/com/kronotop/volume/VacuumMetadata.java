@@ -24,13 +24,19 @@ import com.kronotop.internal.JSONUtils;
 public class VacuumMetadata {
     private String taskName;
     private double allowedGarbageRatio;
+    private boolean compaction;
 
     VacuumMetadata() {
     }
 
     public VacuumMetadata(String volumeName, double allowedGarbageRatio) {
+        this(volumeName, allowedGarbageRatio, false);
+    }
+
+    public VacuumMetadata(String volumeName, double allowedGarbageRatio, boolean compaction) {
         this.taskName = VacuumTaskName(volumeName);
         this.allowedGarbageRatio = allowedGarbageRatio;
+        this.compaction = compaction;
     }
 
     public static String VacuumTaskName(String volumeName) {
@@ -66,6 +72,10 @@ public class VacuumMetadata {
         return allowedGarbageRatio;
     }
 
+    public boolean isCompaction() {
+        return compaction;
+    }
+
     public void save(Transaction tr, DirectorySubspace volumeSubspace) {
         byte[] metadataKey = getMetadataKey(volumeSubspace);
         tr.set(metadataKey, JSONUtils.writeValueAsBytes(this));
@@ -17,11 +17,10 @@
 package com.kronotop.volume;
 
 import com.apple.foundationdb.*;
-import com.apple.foundationdb.async.AsyncIterable;
 import com.apple.foundationdb.tuple.ByteArrayUtil;
 import com.apple.foundationdb.tuple.Tuple;
 import com.apple.foundationdb.tuple.Versionstamp;
-import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.RateLimiter;
 import com.kronotop.Context;
 import com.kronotop.KronotopException;
 import com.kronotop.volume.handlers.PackedEntry;
@@ -40,19 +39,21 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.StampedLock;
 
-import static com.kronotop.volume.EntryMetadata.*;
 import static com.kronotop.volume.Subspaces.*;
-import static com.kronotop.volume.segment.Segment.SEGMENT_NAME_SIZE;
 
 /**
  * Volume implements a transactional key/value store based on append-only log files
@@ -62,16 +63,40 @@ public class Volume {
     private static final Logger LOGGER = LoggerFactory.getLogger(Volume.class);
     private static final byte[] INCREASE_BY_ONE_DELTA = new byte[]{1, 0, 0, 0}; // 1, byte order: little-endian
     private static final int SEGMENT_VACUUM_BATCH_SIZE = 100;
+    // The maximum number of entry metadata reads in flight while deleting or updating entries.
+    private static final int METADATA_READ_WINDOW = 1024;
+    // The maximum length of a single segment read issued by getMany after merging adjacent entries.
+    private static final long MAX_MERGED_READ_LENGTH = 4 * 1024 * 1024;
+    // The maximum gap between two entries merged into a single segment read, the gap is read and discarded.
+    private static final long MAX_MERGED_READ_GAP = 4 * 1024;
+    // The maximum number of entries moved by a single compaction transaction.
+    private static final int COMPACTION_BATCH_SIZE = 1000;
+    // The maximum number of bytes moved by a single compaction transaction.
+    private static final long COMPACTION_BATCH_MAX_BYTES = 16 * 1024 * 1024;
 
     private final Context context;
     private final VolumeConfig config;
     private final VolumeSubspace subspace;
     private final EntryMetadataCache entryMetadataCache;
+    // entryCache keeps the frequently read entries off-heap, null if it's disabled.
+    private final EntryCache entryCache;
+    private final VolumeMetrics metrics = new VolumeMetrics();
+    // segmentStats is the in-memory statistics table of the segments, refreshed by analyze.
+    private final ConcurrentHashMap<Long, SegmentStats> segmentStats = new ConcurrentHashMap<>();
+    private final GroupCommitFlusher flusher;
+    // ioExecutor runs the segment reads and writes issued by the asynchronous API.
+    private final ExecutorService ioExecutor;
     private final byte[] streamingSubscribersTriggerKey;
 
     // segmentsLock protects segments map
     private final StampedLock segmentsLock = new StampedLock();
-    private final TreeMap<String, SegmentContainer> segments = new TreeMap<>();
+    private final TreeMap<Long, SegmentContainer> segments = new TreeMap<>();
+    // standbySegment is the next writable segment, prepared in the background before the current one fills up.
+    // It's registered in the volume metadata but not available to the rest of the Volume until it's promoted.
+    private final AtomicReference<CompletableFuture<Segment>> standbySegment = new AtomicReference<>();
+    // compactionSegment receives the live entries copied by compaction, the foreground appends never use it.
+    // Protected by segmentsLock.
+    private Segment compactionSegment;
 
     private final ReadWriteLock statusLock = new ReentrantReadWriteLock();
     // The "attributes" variable is used to set, get and unset runtime attributes of the Volume
@@ -84,30 +109,106 @@ public class Volume {
         this.context = context;
         this.config = config;
         this.subspace = new VolumeSubspace(config.subspace());
-        this.status = loadStatusFromMetadata();
-        this.entryMetadataCache = new EntryMetadataCache(context, subspace);
+        this.status = openSegments();
+        this.entryMetadataCache = new EntryMetadataCache(
+                context,
+                subspace,
+                config.entryMetadataCacheMaxWeight(),
+                config.entryMetadataCacheExpireAfterAccess()
+        );
+        this.entryCache = config.entryCacheMaxSize() > 0 ? new EntryCache(config.entryCacheMaxSize()) : null;
+        this.flusher = new GroupCommitFlusher(config.name(), config.groupCommitMaxWait(), config.groupCommitMaxBytes(), metrics);
         this.streamingSubscribersTriggerKey = this.config.subspace().pack(Tuple.from(STREAMING_SUBSCRIBERS_SUBSPACE));
+        this.ioExecutor = Executors.newFixedThreadPool(
+                config.ioThreads(),
+                Thread.ofVirtual().name("kr.volume-io-" + config.name() + "-", 0).factory()
+        );
     }
 
-    private SegmentContainer getSegmentContainer(String segmentName) {
+    private SegmentContainer getSegmentContainer(long segmentId) {
         long stamp = segmentsLock.readLock();
         try {
-            return segments.get(segmentName);
+            return segments.get(segmentId);
         } finally {
             segmentsLock.unlockRead(stamp);
         }
     }
 
     /**
-     * Loads the status of the volume from the metadata stored in the Volume's subspace.
-     * The method creates a transaction to read the metadata and retrieves the volume status.
+     * Discovers the segments of the volume and opens them, then returns the status of the volume.
+     * <p>
+     * The volume metadata and the tail positions of all segments are read in a single transaction,
+     * the tail position reads are issued concurrently. After that, the segment files are opened in parallel
+     * and all segments except the latest one are sealed.
      *
      * @return the status of the volume as retrieved from the metadata
+     * @throws IOException if an I/O error occurs while opening a segment
      */
-    private VolumeStatus loadStatusFromMetadata() {
+    private VolumeStatus openSegments() throws IOException {
+        VolumeMetadata volumeMetadata;
+        Map<Long, Long> positions = new HashMap<>();
         try (Transaction tr = context.getFoundationDB().createTransaction()) {
-            return VolumeMetadata.load(tr, config.subspace()).getStatus();
+            volumeMetadata = VolumeMetadata.load(tr, config.subspace());
+            Map<Long, CompletableFuture<Long>> futures = new HashMap<>();
+            for (long segmentId : volumeMetadata.getSegments()) {
+                futures.put(segmentId, loadSegmentPosition(tr, segmentId));
+            }
+            for (Map.Entry<Long, CompletableFuture<Long>> entry : futures.entrySet()) {
+                positions.put(entry.getKey(), entry.getValue().join());
+            }
+        }
+
+        List<Long> segmentIds = volumeMetadata.getSegments();
+        List<Future<Segment>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long segmentId : segmentIds) {
+                futures.add(executor.submit(() -> {
+                    SegmentConfig segmentConfig = new SegmentConfig(segmentId, config.dataDir(), config.segmentSize(), config.directIO());
+                    Segment segment = new Segment(segmentConfig, positions.get(segmentId));
+                    if (segmentId != segmentIds.getLast()) {
+                        // There is a newer segment, this one is not writable anymore.
+                        sealSegment(segment);
+                    }
+                    return segment;
+                }));
+            }
+        }
+
+        List<Segment> opened = new ArrayList<>();
+        Throwable failure = null;
+        for (Future<Segment> future : futures) {
+            try {
+                opened.add(future.get());
+            } catch (ExecutionException e) {
+                failure = failure == null ? e.getCause() : failure;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure == null ? e : failure;
+            }
+        }
+        if (failure != null) {
+            for (Segment segment : opened) {
+                try {
+                    segment.close();
+                } catch (IOException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+            if (failure instanceof IOException e) {
+                throw e;
+            }
+            throw new KronotopException(failure);
+        }
+
+        long stamp = segmentsLock.writeLock();
+        try {
+            for (Segment segment : opened) {
+                addSegment(segment);
+            }
+        } finally {
+            segmentsLock.unlockWrite(stamp);
         }
+        return volumeMetadata.getStatus();
     }
 
     /**
@@ -224,11 +325,52 @@ public class Volume {
         tr.mutate(MutationType.ADD, streamingSubscribersTriggerKey, INCREASE_BY_ONE_DELTA);
     }
 
-    private void flushMutatedSegments(EntryMetadata[] entryMetadataList) throws IOException {
-        // Forces any updates to this channel's file to be written to the storage device that contains it.
+    /**
+     * Submits the segments mutated by the given entries to the group commit flusher.
+     *
+     * @param entryMetadataList the metadata of the entries that have been written to the segments
+     * @return a CompletableFuture that completes when all mutated segments have been flushed
+     * @throws IOException if an I/O error occurs while opening a segment
+     */
+    private CompletableFuture<Void> flushMutatedSegments(EntryMetadata[] entryMetadataList) throws IOException {
+        Map<Long, Segment> mutated = new LinkedHashMap<>();
+        long bytes = 0;
         for (EntryMetadata entryMetadata : entryMetadataList) {
-            Segment segment = getOrOpenSegmentByName(entryMetadata.segment());
-            segment.flush();
+            if (!mutated.containsKey(entryMetadata.segmentId())) {
+                mutated.put(entryMetadata.segmentId(), getOrOpenSegment(entryMetadata.segmentId()));
+            }
+            bytes += entryMetadata.length();
+        }
+        return flusher.submit(mutated.values(), bytes);
+    }
+
+    /**
+     * Waits for a flush request submitted to the group commit flusher.
+     *
+     * @param future the future returned by the group commit flusher
+     * @throws IOException if flushing one of the segments has failed
+     */
+    private void awaitFlush(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ex) {
+                throw ex;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Seals the given segment. A sealed segment no longer accepts appends, so it can be mapped
+     * into memory to serve reads without copying if the volume is configured to do so.
+     *
+     * @param segment the segment to seal
+     * @throws IOException if an I/O error occurs while mapping the segment
+     */
+    private void sealSegment(Segment segment) throws IOException {
+        if (config.mmapSealedSegments()) {
+            segment.map();
         }
     }
 
@@ -244,11 +386,11 @@ public class Volume {
      */
     private Segment openSegment(long segmentId, long position) throws IOException {
         // NOTE: must be protected by segmentsLock
-        SegmentConfig segmentConfig = new SegmentConfig(segmentId, config.dataDir(), config.segmentSize());
+        SegmentConfig segmentConfig = new SegmentConfig(segmentId, config.dataDir(), config.segmentSize(), config.directIO());
         Segment segment = new Segment(segmentConfig, position);
         SegmentLog segmentLog = new SegmentLog(segment.getName(), config.subspace());
         SegmentMetadata segmentMetadata = new SegmentMetadata(subspace, segment.getName());
-        segments.put(segment.getName(), new SegmentContainer(segment, segmentLog, segmentMetadata));
+        segments.put(segment.getId(), new SegmentContainer(segment, segmentLog, segmentMetadata));
         return segment;
     }
 
@@ -272,36 +414,150 @@ public class Volume {
     }
 
     /**
-     * Creates a new segment in the volume. This method handles the initialization
-     * of segment configuration, segment creation on physical medium, updating
-     * volume metadata in FoundationDB, and making the segment available for the
-     * rest of the volume.
+     * Creates a new segment on the physical medium and registers it in the volume metadata.
+     * The segment is not available for the rest of the volume until it's added to the segments map.
+     * <p>
+     * Calls must not run concurrently, otherwise they may allocate the same segment ID.
      *
      * @return the Segment instance that has been created.
      * @throws IOException if an I/O error occurs during the creation of the segment.
      */
-    private Segment createSegment() throws IOException {
-        // createsSegment protected by segmentsLock
+    private Segment newSegment() throws IOException {
         long segmentId = getAndIncreaseSegmentId();
-        SegmentConfig segmentConfig = new SegmentConfig(segmentId, config.dataDir(), config.segmentSize());
+        SegmentConfig segmentConfig = new SegmentConfig(segmentId, config.dataDir(), config.segmentSize(), config.directIO());
         Segment segment = new Segment(segmentConfig, 0);
+        if (entryCache != null) {
+            // The ID of a deleted segment might be reused, discard the entries cached from the deleted one.
+            entryCache.invalidateSegment(segmentId);
+        }
 
         // After this point, the Segment has been created on the physical medium.
 
         // Update the volume metadata on FoundationDB
         context.getFoundationDB().run(tr -> {
             VolumeMetadata.compute(tr, config.subspace(), (volumeMetadata) -> volumeMetadata.addSegment(segmentId));
+            new SegmentMetadata(subspace, segment.getName()).initializeStats(tr, new SegmentStats(0, 0, 0, 0, System.currentTimeMillis()));
             return null;
         });
+        return segment;
+    }
 
-        // Make it available for the rest of the Volume.
+    /**
+     * Makes the given segment available for the rest of the Volume.
+     * <p>
+     * This method must be protected by the `segmentsLock`.
+     */
+    private Segment addSegment(Segment segment) {
         SegmentLog segmentLog = new SegmentLog(segment.getName(), config.subspace());
         SegmentMetadata segmentMetadata = new SegmentMetadata(subspace, segment.getName());
-        segments.put(segment.getName(), new SegmentContainer(segment, segmentLog, segmentMetadata));
-
+        segments.put(segment.getId(), new SegmentContainer(segment, segmentLog, segmentMetadata));
         return segment;
     }
 
+    /**
+     * Creates a new segment in the volume. This method handles the initialization
+     * of segment configuration, segment creation on physical medium, updating
+     * volume metadata in FoundationDB, and making the segment available for the
+     * rest of the volume.
+     * <p>
+     * If a standby segment has been prepared, it's promoted instead of creating a new one.
+     *
+     * @return the Segment instance that has been created.
+     * @throws IOException if an I/O error occurs during the creation of the segment.
+     */
+    private Segment createSegment() throws IOException {
+        // createsSegment protected by segmentsLock
+        Segment standby = takeStandbySegment();
+        if (standby != null) {
+            return addSegment(standby);
+        }
+        return addSegment(newSegment());
+    }
+
+    /**
+     * Detaches the standby segment from the volume, waiting for its preparation if it's still in progress.
+     *
+     * @return the standby segment, or null if there is no standby segment or its preparation failed
+     */
+    private Segment takeStandbySegment() {
+        CompletableFuture<Segment> future = standbySegment.getAndSet(null);
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            LOGGER.warn("Failed to prepare a standby segment for Volume: {}", config.name(), e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Starts preparing the next writable segment in the background if the given segment has passed
+     * the configured fill threshold.
+     * <p>
+     * Must be called while holding the `segmentsLock`, so the preparation never runs concurrently
+     * with {@code createSegment}.
+     *
+     * @param segment the current writable segment
+     */
+    private void prepareStandbySegmentIfNeeded(Segment segment) {
+        double threshold = config.standbySegmentThreshold();
+        if (threshold <= 0 || isClosed || standbySegment.get() != null) {
+            return;
+        }
+        long usedBytes = segment.getSize() - segment.getFreeBytes();
+        if (usedBytes < segment.getSize() * threshold) {
+            return;
+        }
+        CompletableFuture<Segment> future = new CompletableFuture<>();
+        if (!standbySegment.compareAndSet(null, future)) {
+            return;
+        }
+        Thread.ofVirtual().name("kr.volume.standby-segment-" + config.name()).start(() -> {
+            try {
+                future.complete(newSegment());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+    }
+
+    /**
+     * Removes the unused standby segment from the volume metadata and deletes its file.
+     */
+    private void dropStandbySegment() {
+        Segment standby = takeStandbySegment();
+        if (standby == null) {
+            return;
+        }
+        try {
+            context.getFoundationDB().run(tr -> {
+                VolumeMetadata.compute(tr, config.subspace(), (volumeMetadata) -> volumeMetadata.removeSegment(standby.getConfig().id()));
+                return null;
+            });
+            standby.delete();
+        } catch (Exception e) {
+            LOGGER.error("Failed to drop the standby segment: {} of Volume: {}", standby.getName(), config.name(), e);
+        }
+    }
+
+    /**
+     * Returns the latest segment that accepts the foreground appends, the compaction segment is skipped.
+     * <p>
+     * Must be called while holding the `segmentsLock`.
+     *
+     * @return the latest writable segment, or null if there is no such segment
+     */
+    private Segment latestWritableSegment() {
+        for (SegmentContainer segmentContainer : segments.descendingMap().values()) {
+            if (segmentContainer.segment() != compactionSegment) {
+                return segmentContainer.segment();
+            }
+        }
+        return null;
+    }
+
     /**
      * Retrieves the writable segment. If no segments exist or the latest segment
      * does not have enough free space to accommodate the specified size, a new segment
@@ -314,13 +570,14 @@ public class Volume {
     private Segment getOrCreateWritableSegment(int size) throws IOException {
         long stamp = segmentsLock.writeLock();
         try {
-            Map.Entry<String, SegmentContainer> entry = segments.lastEntry();
-            if (entry == null) {
+            Segment segment = latestWritableSegment();
+            if (segment == null) {
                 return createSegment();
             }
 
-            Segment segment = entry.getValue().segment();
             if (size > segment.getFreeBytes()) {
+                sealSegment(segment);
+                metrics.recordSegmentRollover();
                 return createSegment();
             }
             return segment;
@@ -340,10 +597,10 @@ public class Volume {
     private Segment getWritableSegment(int size) throws IOException {
         long stamp = segmentsLock.readLock();
         try {
-            Map.Entry<String, SegmentContainer> entry = segments.lastEntry();
-            if (entry != null) {
-                Segment latest = entry.getValue().segment();
+            Segment latest = latestWritableSegment();
+            if (latest != null) {
                 if (size < latest.getFreeBytes()) {
+                    prepareStandbySegmentIfNeeded(latest);
                     return latest;
                 }
             }
@@ -360,17 +617,18 @@ public class Volume {
      *
      * @param prefix the prefix associated with the entry.
      * @param entry  the byte buffer containing the entry to be appended.
+     * @param flags  the flags of the entry metadata, see {@link EntryMetadata#FLAG_COMPRESSED}.
      * @return an EntryMetadata object containing metadata about the appended entry.
      * @throws IOException if an I/O error occurs during the segment retrieval or creation.
      */
-    private EntryMetadata tryAppend(Prefix prefix, ByteBuffer entry) throws IOException {
+    private EntryMetadata tryAppend(Prefix prefix, ByteBuffer entry, byte flags) throws IOException {
         int size = entry.remaining();
         while (true) {
             Segment segment = getWritableSegment(size);
             try {
                 SegmentAppendResult result = segment.append(entry);
                 int id = EntryMetadataIdGenerator.generate(segment.getConfig().id(), result.position());
-                return new EntryMetadata(segment.getName(), prefix.asBytes(), result.position(), result.length(), id);
+                return new EntryMetadata(segment.getId(), prefix.asBytes(), result.position(), result.length(), id, flags);
             } catch (NotEnoughSpaceException e) {
                 if (LOGGER.isDebugEnabled()) {
                     LOGGER.debug("Trying to find a new segment with length {}", size);
@@ -383,29 +641,48 @@ public class Volume {
      * Appends a segment log entry to the given session.
      *
      * @param session       the session object containing the current transaction.
+     * @param deltas        the counter deltas of the running operation, the segment log cardinality is added to it.
      * @param kind          the kind of operation being logged.
      * @param entryMetadata metadata of the entry being appended to the segment.
      */
-    private void appendSegmentLog(VolumeSession session, OperationKind kind, Versionstamp versionstamp, EntryMetadata entryMetadata) {
-        appendSegmentLog(session.transaction(), kind, versionstamp, session.getAndIncrementUserVersion(), session.prefix().asLong(), entryMetadata);
+    private void appendSegmentLog(VolumeSession session, SegmentMetadataDeltas deltas, OperationKind kind, Versionstamp versionstamp, EntryMetadata entryMetadata) {
+        appendSegmentLog(session.transaction(), deltas, kind, versionstamp, session.getAndIncrementUserVersion(), session.prefix().asLong(), entryMetadata);
     }
 
     /**
      * Appends a segment log entry to the specified transaction.
      *
      * @param tr            the transaction object to which the log entry is appended.
+     * @param deltas        the counter deltas of the running operation, the segment log cardinality is added to it.
      * @param kind          the kind of operation being logged (e.g., APPEND, DELETE, VACUUM).
      * @param userVersion   the user-defined version associated with the operation.
      * @param entryMetadata metadata of the entry being appended, which includes segment, position, and length information.
      * @throws IllegalStateException if the segment specified in the entry metadata cannot be found.
      */
-    private void appendSegmentLog(Transaction tr, OperationKind kind, Versionstamp versionstamp, int userVersion, long prefix, EntryMetadata entryMetadata) {
-        SegmentContainer segmentContainer = getSegmentContainer(entryMetadata.segment());
+    private void appendSegmentLog(Transaction tr, SegmentMetadataDeltas deltas, OperationKind kind, Versionstamp versionstamp, int userVersion, long prefix, EntryMetadata entryMetadata) {
+        appendSegmentLog(tr, deltas, kind, versionstamp, userVersion, prefix, entryMetadata.segmentId(), entryMetadata.position(), entryMetadata.length());
+    }
+
+    /**
+     * Appends a segment log entry for the entry described by the given encoded entry metadata.
+     *
+     * @param session  the session object containing the current transaction.
+     * @param deltas   the counter deltas of the running operation, the segment log cardinality is added to it.
+     * @param kind     the kind of operation being logged.
+     * @param metadata a view over the encoded metadata of the entry.
+     */
+    private void appendSegmentLog(VolumeSession session, SegmentMetadataDeltas deltas, OperationKind kind, Versionstamp versionstamp, EntryMetadataView metadata) {
+        appendSegmentLog(session.transaction(), deltas, kind, versionstamp, session.getAndIncrementUserVersion(), session.prefix().asLong(), metadata.segmentId(), metadata.position(), metadata.length());
+    }
+
+    private void appendSegmentLog(Transaction tr, SegmentMetadataDeltas deltas, OperationKind kind, Versionstamp versionstamp, int userVersion, long prefix, long segmentId, long position, long length) {
+        SegmentContainer segmentContainer = getSegmentContainer(segmentId);
         if (segmentContainer == null) {
-            throw new IllegalStateException("Segment " + entryMetadata.segment() + " not found");
+            throw new IllegalStateException("Segment " + Segment.generateName(segmentId) + " not found");
         }
-        SegmentLogValue value = new SegmentLogValue(kind, prefix, entryMetadata.position(), entryMetadata.length());
-        segmentContainer.log().append(tr, versionstamp, userVersion, value);
+        SegmentLogValue value = new SegmentLogValue(kind, prefix, position, length);
+        segmentContainer.log().appendWithoutCardinality(tr, versionstamp, userVersion, value);
+        deltas.increaseSegmentLogCardinality(segmentContainer);
     }
 
     /**
@@ -419,6 +696,7 @@ public class Volume {
     private WriteMetadataResult writeMetadata(VolumeSession session, EntryMetadata[] entries) {
         AppendedEntry[] appendedEntries = new AppendedEntry[entries.length];
         Transaction tr = session.transaction();
+        SegmentMetadataDeltas deltas = new SegmentMetadataDeltas();
 
         for (int index = 0; index < entries.length; index++) {
             EntryMetadata entryMetadata = entries[index];
@@ -437,24 +715,31 @@ public class Volume {
                     Tuple.from(Versionstamp.incomplete(userVersion)).packWithVersionstamp()
             );
 
-            SegmentContainer segmentContainer = getSegmentContainer(entryMetadata.segment());
+            SegmentContainer segmentContainer = getSegmentContainer(entryMetadata.segmentId());
             if (segmentContainer == null) {
                 throw new IllegalStateException("Segment " + entryMetadata.segment() + " not found");
             }
-            segmentContainer.metadata().increaseCardinalityByOne(session);
-            segmentContainer.metadata().increaseUsedBytes(session, entryMetadata.length());
+            deltas.increaseCardinality(segmentContainer, 1);
+            deltas.increaseUsedBytes(segmentContainer, entryMetadata.length());
+            deltas.advanceHighWaterMark(segmentContainer, entryMetadata.position() + entryMetadata.length());
 
             // Passing versionstamp as null because we don't have any key for this entry for now.
             // It will be automatically filled by FDB during the commit. It'll be the same versionstamp with entry's key.
-            appendSegmentLog(tr, OperationKind.APPEND, null, userVersion, session.prefix().asLong(), entryMetadata);
+            appendSegmentLog(tr, deltas, OperationKind.APPEND, null, userVersion, session.prefix().asLong(), entryMetadata);
         }
 
+        // One atomic mutation per counter, instead of one per entry.
+        deltas.apply(session);
         triggerStreamingSubscribers(tr);
         return new WriteMetadataResult(appendedEntries, tr.getVersionstamp());
     }
 
     /**
      * Appends multiple entries to the given prefix and returns their metadata.
+     * <p>
+     * If compression is enabled, the entries larger than the configured minimum size are compressed
+     * with LZ4 and flagged in their metadata. An entry is stored as is if compression doesn't make it smaller.
+     * The entries are consumed in both cases.
      *
      * @param prefix  the prefix associated with the entries.
      * @param entries an array of ByteBuffers containing the entries to be appended.
@@ -465,7 +750,18 @@ public class Volume {
         EntryMetadata[] appendedEntries = new EntryMetadata[entries.length];
         int index = 0;
         for (ByteBuffer entry : entries) {
-            EntryMetadata entryMetadata = tryAppend(prefix, entry);
+            ByteBuffer compressed = null;
+            if (config.compressionEnabled() && entry.remaining() >= config.compressionMinSize()) {
+                compressed = EntryCompression.compress(entry);
+            }
+
+            EntryMetadata entryMetadata;
+            if (compressed != null) {
+                entryMetadata = tryAppend(prefix, compressed, EntryMetadata.FLAG_COMPRESSED);
+                entry.position(entry.limit());
+            } else {
+                entryMetadata = tryAppend(prefix, entry, (byte) 0);
+            }
             appendedEntries[index] = entryMetadata;
             index++;
         }
@@ -482,59 +778,121 @@ public class Volume {
      * @throws IOException If an I/O error occurs during the append operation.
      */
     public AppendResult append(@Nonnull VolumeSession session, @Nonnull ByteBuffer... entries) throws IOException {
-        if (entries.length == 0) {
-            throw new IllegalArgumentException("Empty entries array");
-        }
-        if (entries.length > UserVersion.MAX_VALUE) {
-            throw new TooManyEntriesException();
-        }
-
+        checkAppendEntries(entries);
+        long startedAt = System.nanoTime();
         EntryMetadata[] appendEntries = appendEntries(session.prefix(), entries);
+        CompletableFuture<AppendResult> result = completeAppend(session, appendEntries, startedAt);
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ex) {
+                throw ex;
+            }
+            if (e.getCause() instanceof RuntimeException ex) {
+                throw ex;
+            }
+            throw e;
+        }
+    }
 
-        Thread asyncFlush = Thread.ofVirtual().start(() -> {
-            // Forces any updates to this channel's file to be written to the storage device that contains it.
+    /**
+     * Appends multiple entries asynchronously, the segment writes run on the I/O executor of the volume.
+     * <p>
+     * The returned future completes after the entries have been flushed to the storage device and
+     * their metadata has been written to the session's transaction, the caller commits the transaction.
+     *
+     * @param session The session object specifying the transactional context for the append operation.
+     * @param entries An array of ByteBuffers containing the entries to be appended.
+     * @return a CompletableFuture that completes with the result of the append operation
+     */
+    public CompletableFuture<AppendResult> appendAsync(@Nonnull VolumeSession session, @Nonnull ByteBuffer... entries) {
+        long startedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(() -> {
+            checkAppendEntries(entries);
             try {
-                flushMutatedSegments(appendEntries);
+                return appendEntries(session.prefix(), entries);
             } catch (IOException e) {
-                throw new UncheckedIOException(e);
+                throw new CompletionException(e);
             }
-        });
+        }, ioExecutor).thenCompose((appendEntries) -> completeAppend(session, appendEntries, startedAt));
+    }
 
-        WriteMetadataResult result = writeMetadata(session, appendEntries);
+    private void checkAppendEntries(ByteBuffer[] entries) {
+        if (entries.length == 0) {
+            throw new IllegalArgumentException("Empty entries array");
+        }
+        if (entries.length > UserVersion.MAX_VALUE) {
+            throw new TooManyEntriesException();
+        }
+    }
 
+    /**
+     * Writes the metadata of the appended entries while the group commit flusher forces the mutated segments.
+     *
+     * @return a CompletableFuture that completes with the result of the append operation after the flush
+     */
+    private CompletableFuture<AppendResult> completeAppend(VolumeSession session, EntryMetadata[] appendEntries, long startedAt) {
+        CompletableFuture<Void> flushed;
         try {
-            asyncFlush.join();
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            flushed = flushMutatedSegments(appendEntries);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        WriteMetadataResult result = writeMetadata(session, appendEntries);
+        return flushed.thenApply((ignored) -> {
+            raiseExceptionIfVolumeReadOnly();
+            metrics.recordAppend(startedAt, appendEntries.length, totalLength(appendEntries));
+            return new AppendResult(result.versionstampFuture(), result.entries(), (key, metadata) -> entryMetadataCache.put(session.prefix(), key, metadata));
+        });
+    }
 
-        raiseExceptionIfVolumeReadOnly();
-        return new AppendResult(result.versionstampFuture(), result.entries(), entryMetadataCache.load(session.prefix())::put);
+    /**
+     * Loads the tail position of a segment from its persisted high-water mark.
+     * <p>
+     * Volumes written before the high-water mark was introduced don't have one, the position is
+     * computed from the entry metadata for them.
+     *
+     * @param tr        the transaction to perform the reads in
+     * @param segmentId the id of the segment whose position is being determined
+     * @return a future that completes with the position of the segment
+     */
+    private CompletableFuture<Long> loadSegmentPosition(Transaction tr, long segmentId) {
+        byte[] key = subspace.packSegmentHighWaterMarkKey(Segment.generateName(segmentId));
+        return tr.get(key).thenCompose((data) -> {
+            Long highWaterMark = SegmentMetadata.decodeHighWaterMark(data);
+            if (highWaterMark != null) {
+                return CompletableFuture.completedFuture(highWaterMark);
+            }
+            return findSegmentPosition(tr, segmentId);
+        });
     }
 
     /**
-     * Finds the position of a segment based on its name. The method interacts with FDB
+     * Finds the position of a segment based on its id. The method interacts with FDB
      * to retrieve metadata related to the segment and computes its position.
+     * <p>
+     * Both the compact and the legacy entry metadata keys are consulted, a segment may contain
+     * entries of both formats until the volume is migrated.
      *
-     * @param name the name of the segment whose position is being determined
-     * @return the position of the segment as a long value
+     * @param tr        the transaction to perform the reads in
+     * @param segmentId the id of the segment whose position is being determined
+     * @return a future that completes with the position of the segment
      */
-    private long findSegmentPosition(String name) {
-        try (Transaction tr = context.getFoundationDB().createTransaction()) {
-            byte[] begin = config.subspace().pack(Tuple.from(ENTRY_METADATA_SUBSPACE, name.getBytes()));
-            byte[] end = ByteArrayUtil.strinc(begin);
-
-            AsyncIterable<KeyValue> iterable = tr.getRange(new Range(begin, end), 1, true);
-            List<KeyValue> result = iterable.asList().join();
-            if (result.isEmpty()) {
-                // No entries found
-                return 0;
+    private CompletableFuture<Long> findSegmentPosition(Transaction tr, long segmentId) {
+        CompletableFuture<List<KeyValue>> compact = tr.getRange(subspace.entryMetadataRange(segmentId), 1, true).asList();
+        CompletableFuture<List<KeyValue>> legacy = tr.getRange(subspace.legacyEntryMetadataRange(segmentId), 1, true).asList();
+        return compact.thenCombine(legacy, (compactResult, legacyResult) -> {
+            long position = 0; // No entries found
+            EntryMetadataView view = new EntryMetadataView();
+            for (List<KeyValue> result : List.of(compactResult, legacyResult)) {
+                if (result.isEmpty()) {
+                    continue;
+                }
+                view.wrap(subspace.unpackEntryMetadataKey(result.getFirst().getKey()));
+                position = Math.max(position, view.position() + view.length());
             }
-            byte[] data = (byte[]) config.subspace().unpack(result.getFirst().getKey()).get(1);
-            EntryMetadata last = EntryMetadata.decode(ByteBuffer.wrap(data));
-
-            return last.position() + last.length();
-        }
+            return position;
+        });
     }
 
     /**
@@ -547,9 +905,22 @@ public class Volume {
      * @throws SegmentNotFoundException if the specified segment cannot be found.
      */
     private Segment getOrOpenSegmentByName(String name) throws IOException, SegmentNotFoundException {
+        return getOrOpenSegment(Segment.extractIdFromName(name));
+    }
+
+    /**
+     * Retrieves an existing segment by its id or opens it if it's not open yet.
+     * This method ensures thread safety by using read and write locks.
+     *
+     * @param segmentId the id of the segment to retrieve or open.
+     * @return the Segment instance corresponding to the specified id.
+     * @throws IOException              if an I/O error occurs while opening a new segment.
+     * @throws SegmentNotFoundException if the specified segment cannot be found.
+     */
+    private Segment getOrOpenSegment(long segmentId) throws IOException, SegmentNotFoundException {
         long stamp = segmentsLock.readLock();
         try {
-            SegmentContainer segmentContainer = segments.get(name);
+            SegmentContainer segmentContainer = segments.get(segmentId);
             if (segmentContainer != null) {
                 return segmentContainer.segment();
             }
@@ -557,26 +928,35 @@ public class Volume {
             segmentsLock.unlockRead(stamp);
         }
 
+        // Read the metadata before taking the write lock, the rest of the volume
+        // must not wait for FoundationDB.
+        VolumeMetadata volumeMetadata;
+        long position;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            CompletableFuture<Long> positionFuture = loadSegmentPosition(tr, segmentId);
+            volumeMetadata = VolumeMetadata.load(tr, config.subspace());
+            boolean has = volumeMetadata.getSegments().stream().anyMatch(
+                    existingSegmentId -> Objects.equals(existingSegmentId, segmentId)
+            );
+            if (!has) {
+                throw new SegmentNotFoundException(Segment.generateName(segmentId));
+            }
+            position = positionFuture.join();
+        }
+
         // Try to open the segment but check it first
         long writeStamp = segmentsLock.writeLock();
         try {
-            SegmentContainer segmentContainer = segments.get(name);
+            SegmentContainer segmentContainer = segments.get(segmentId);
             if (segmentContainer != null) {
                 return segmentContainer.segment();
             }
-            long segmentId = Segment.extractIdFromName(name);
-            try (Transaction tr = context.getFoundationDB().createTransaction()) {
-                VolumeMetadata volumeMetadata = VolumeMetadata.load(tr, config.subspace());
-                boolean has = volumeMetadata.getSegments().stream().anyMatch(
-                        existingSegmentId -> Objects.equals(existingSegmentId, segmentId)
-                );
-                if (!has) {
-                    throw new SegmentNotFoundException(name);
-                }
-
-                long position = findSegmentPosition(name);
-                return openSegment(segmentId, position);
+            Segment segment = openSegment(segmentId, position);
+            if (segmentId != volumeMetadata.getSegments().getLast()) {
+                // There is a newer segment, this one is not writable anymore.
+                sealSegment(segment);
             }
+            return segment;
         } finally {
             segmentsLock.unlockWrite(writeStamp);
         }
@@ -592,12 +972,10 @@ public class Volume {
      */
     private EntryMetadata loadEntryMetadataFromCache(Prefix prefix, Versionstamp key) {
         try {
-            return entryMetadataCache.load(prefix).get(key);
-        } catch (CacheLoader.InvalidCacheLoadException e) {
-            // The requested key doesn't exist in this Volume.
-            return null;
-        } catch (ExecutionException e) {
-            throw new KronotopException("Failed to load entry metadata from FoundationDB", e);
+            // Returns null if the requested key doesn't exist in this Volume.
+            return entryMetadataCache.get(prefix, key);
+        } catch (CompletionException e) {
+            throw new KronotopException("Failed to load entry metadata from FoundationDB", e.getCause());
         }
     }
 
@@ -607,22 +985,70 @@ public class Volume {
      * @param prefix        the prefix used for the entry metadata cache
      * @param key           the versionstamp key to invalidate in cache if segment is not found
      * @param entryMetadata the metadata containing segment name, position, and length of entry
-     * @return a ByteBuffer containing the data specified by the entry metadata
+     * @return a ByteBuffer containing the data specified by the entry metadata, decompressed if the entry is compressed
      * @throws IOException if an I/O error occurs while accessing the segment
      */
     protected ByteBuffer getByEntryMetadata(Prefix prefix, Versionstamp key, EntryMetadata entryMetadata) throws IOException {
         Segment segment;
         try {
-            segment = getOrOpenSegmentByName(entryMetadata.segment());
+            segment = getOrOpenSegment(entryMetadata.segmentId());
         } catch (SegmentNotFoundException e) {
             // Invalidate the cache and try again.
             // It will load the EntryMetadata from FoundationDB.
             // Possible cause: cleanup up filled segments.
-            entryMetadataCache.load(prefix).invalidate(key);
-            segment = getOrOpenSegmentByName(entryMetadata.segment());
+            entryMetadataCache.invalidate(prefix, key);
+            segment = getOrOpenSegment(entryMetadata.segmentId());
+        }
+
+        return decodeEntry(entryMetadata, readStoredEntry(segment, entryMetadata));
+    }
+
+    /**
+     * Reads the given entry as it's stored in the segment, the entry cache is consulted first if it's enabled.
+     */
+    private ByteBuffer readStoredEntry(Segment segment, EntryMetadata entryMetadata) throws IOException {
+        if (entryCache == null) {
+            return segment.get(entryMetadata.position(), entryMetadata.length());
+        }
+        ByteBuffer cached = entryCache.get(entryMetadata.segmentId(), entryMetadata.position(), entryMetadata.length());
+        if (cached != null) {
+            return cached;
+        }
+        ByteBuffer stored = segment.get(entryMetadata.position(), entryMetadata.length());
+        entryCache.put(entryMetadata.segmentId(), entryMetadata.position(), stored);
+        return stored;
+    }
+
+    /**
+     * Discards the cached entry stored at the given location, if the entry cache is enabled.
+     */
+    private void invalidateEntryCache(long segmentId, long position) {
+        if (entryCache != null) {
+            entryCache.invalidate(segmentId, position);
+        }
+    }
+
+    /**
+     * Returns the total length of the given entries as stored in the segments, null elements are skipped.
+     */
+    private static long totalLength(EntryMetadata[] entries) {
+        long length = 0;
+        for (EntryMetadata entryMetadata : entries) {
+            if (entryMetadata != null) {
+                length += entryMetadata.length();
+            }
         }
+        return length;
+    }
 
-        return segment.get(entryMetadata.position(), entryMetadata.length());
+    /**
+     * Returns the raw entry of the given stored entry, decompresses it if the entry is flagged as compressed.
+     */
+    private ByteBuffer decodeEntry(EntryMetadata entryMetadata, ByteBuffer stored) {
+        if (entryMetadata.isCompressed()) {
+            return EntryCompression.decompress(stored);
+        }
+        return stored;
     }
 
     /**
@@ -634,24 +1060,235 @@ public class Volume {
      * @throws IOException if an I/O error occurs during the operation
      */
     public ByteBuffer get(@Nonnull VolumeSession session, @Nonnull Versionstamp key) throws IOException {
+        long startedAt = System.nanoTime();
         EntryMetadata metadata;
         if (session.transaction() == null) {
             metadata = loadEntryMetadataFromCache(session.prefix(), key);
-            if (metadata == null) {
-                return null;
-            }
         } else {
             byte[] value = session.transaction().get(subspace.packEntryKey(session.prefix(), key)).join();
-            if (value == null) {
-                return null;
+            metadata = value == null ? null : EntryMetadata.decode(ByteBuffer.wrap(value));
+        }
+        return readEntry(session.prefix(), key, metadata, startedAt);
+    }
+
+    /**
+     * Retrieves the value associated with the specified key asynchronously.
+     * <p>
+     * If the session has a transaction, the entry metadata is read with an asynchronous FoundationDB read.
+     * Otherwise, it's resolved from the cache without blocking, a cache miss is loaded with an asynchronous
+     * FoundationDB read. The segment read runs on the I/O executor.
+     *
+     * @param session the session to be used for the operation, must not be null
+     * @param key     the key associated with the value to retrieve, must not be null
+     * @return a CompletableFuture that completes with the value, or null if no value is found
+     */
+    public CompletableFuture<ByteBuffer> getAsync(@Nonnull VolumeSession session, @Nonnull Versionstamp key) {
+        long startedAt = System.nanoTime();
+        CompletableFuture<EntryMetadata> metadata;
+        if (session.transaction() == null) {
+            metadata = entryMetadataCache.getAsync(session.prefix(), key).exceptionally((throwable) -> {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                throw new KronotopException("Failed to load entry metadata from FoundationDB", cause);
+            });
+        } else {
+            metadata = session.transaction().get(subspace.packEntryKey(session.prefix(), key)).thenApply(
+                    (value) -> value == null ? null : EntryMetadata.decode(ByteBuffer.wrap(value))
+            );
+        }
+        return metadata.thenApplyAsync((entryMetadata) -> {
+            try {
+                return readEntry(session.prefix(), key, entryMetadata, startedAt);
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
-            metadata = EntryMetadata.decode(ByteBuffer.wrap(value));
+        }, ioExecutor);
+    }
+
+    private ByteBuffer readEntry(Prefix prefix, Versionstamp key, EntryMetadata metadata, long startedAt) throws IOException {
+        if (metadata == null) {
+            metrics.recordGet(startedAt, 0);
+            return null;
+        }
+        ByteBuffer entry = getByEntryMetadata(prefix, key, metadata);
+        metrics.recordGet(startedAt, metadata.length());
+        return entry;
+    }
+
+    /**
+     * Retrieves the values associated with the specified keys.
+     * <p>
+     * The entry metadata is resolved from the cache if the session has no transaction, the misses are
+     * read from FoundationDB in a single batch. The entries are then grouped by segment and read in
+     * position order, nearby entries in the same segment are fetched with a single read.
+     *
+     * @param session the session to be used for the operation, must not be null
+     * @param keys    the keys associated with the values to retrieve, must not be null
+     * @return an array of ByteBuffers in the order of the given keys, the element is null if no value is found
+     * @throws IOException if an I/O error occurs during the operation
+     */
+    public ByteBuffer[] getMany(@Nonnull VolumeSession session, @Nonnull Versionstamp... keys) throws IOException {
+        long startedAt = System.nanoTime();
+        EntryMetadata[] metadataList = loadEntryMetadata(session, keys);
+        ByteBuffer[] result = readEntries(session.prefix(), keys, metadataList);
+        metrics.recordGet(startedAt, totalLength(metadataList));
+        return result;
+    }
+
+    /**
+     * Reads the entries of the given keys from the segments. The entries are grouped by segment and read
+     * in position order, nearby entries in the same segment are fetched with a single read.
+     *
+     * @param prefix       the prefix of the keys, used to invalidate the entry metadata cache
+     * @param keys         the keys of the entries
+     * @param metadataList the entry metadata of the keys in the same order, null elements are skipped
+     * @return an array of ByteBuffers in the order of the given keys, the element is null if its metadata is null
+     * @throws IOException if an I/O error occurs while reading the segments
+     */
+    ByteBuffer[] readEntries(Prefix prefix, Versionstamp[] keys, EntryMetadata[] metadataList) throws IOException {
+        ByteBuffer[] result = new ByteBuffer[metadataList.length];
+        Map<Long, List<Integer>> segmentEntries = new HashMap<>();
+        for (int i = 0; i < metadataList.length; i++) {
+            EntryMetadata metadata = metadataList[i];
+            if (metadata == null) {
+                continue;
+            }
+            if (entryCache != null) {
+                result[i] = entryCache.get(metadata.segmentId(), metadata.position(), metadata.length());
+                if (result[i] != null) {
+                    continue;
+                }
+            }
+            segmentEntries.computeIfAbsent(metadata.segmentId(), (segmentId) -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<Long, List<Integer>> entry : segmentEntries.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            Segment segment;
+            try {
+                segment = getOrOpenSegment(entry.getKey());
+            } catch (SegmentNotFoundException e) {
+                // See getByEntryMetadata
+                for (int index : indexes) {
+                    entryMetadataCache.invalidate(prefix, keys[index]);
+                }
+                segment = getOrOpenSegment(entry.getKey());
+            }
+            readSegmentEntries(segment, metadataList, indexes, result);
+            if (entryCache != null) {
+                for (int index : indexes) {
+                    EntryMetadata metadata = metadataList[index];
+                    entryCache.put(metadata.segmentId(), metadata.position(), result[index]);
+                }
+            }
+        }
+        for (int i = 0; i < result.length; i++) {
+            if (result[i] != null) {
+                result[i] = decodeEntry(metadataList[i], result[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the entry metadata of the given keys. If the session has a transaction, the metadata is read
+     * within that transaction. Otherwise, the cache is consulted first and the misses are read from
+     * FoundationDB in a single batch, then put into the cache.
+     *
+     * @param session the session to be used for the operation
+     * @param keys    the keys to resolve
+     * @return the entry metadata of the keys in the same order, null for the missing keys
+     */
+    private EntryMetadata[] loadEntryMetadata(VolumeSession session, Versionstamp[] keys) {
+        EntryMetadata[] metadataList = new EntryMetadata[keys.length];
+        if (session.transaction() != null) {
+            byte[][] entryKeys = new byte[keys.length][];
+            for (int i = 0; i < keys.length; i++) {
+                entryKeys[i] = subspace.packEntryKey(session.prefix(), keys[i]);
+            }
+            byte[][] values = readEntryMetadata(session.transaction(), entryKeys);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    metadataList[i] = EntryMetadata.decode(ByteBuffer.wrap(values[i]));
+                }
+            }
+            return metadataList;
+        }
+
+        List<Integer> misses = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            metadataList[i] = entryMetadataCache.getIfPresent(session.prefix(), keys[i]);
+            if (metadataList[i] == null) {
+                misses.add(i);
+            }
+        }
+        if (misses.isEmpty()) {
+            return metadataList;
+        }
+
+        byte[][] entryKeys = new byte[misses.size()][];
+        for (int i = 0; i < misses.size(); i++) {
+            entryKeys[i] = subspace.packEntryKey(session.prefix(), keys[misses.get(i)]);
+        }
+        byte[][] values = context.getFoundationDB().run(tr -> readEntryMetadata(tr, entryKeys));
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                // The requested key doesn't exist in this Volume.
+                continue;
+            }
+            int index = misses.get(i);
+            metadataList[index] = EntryMetadata.decode(ByteBuffer.wrap(values[i]));
+            entryMetadataCache.put(session.prefix(), keys[index], metadataList[index]);
+        }
+        return metadataList;
+    }
+
+    /**
+     * Reads the given entries of a segment in position order. Entries that are adjacent, overlapping or
+     * separated by at most {@code MAX_MERGED_READ_GAP} bytes in the segment file are merged into a single read,
+     * up to {@code MAX_MERGED_READ_LENGTH} bytes, and
+     * the values are returned as slices of the merged buffer. The entries are returned as they are stored,
+     * compressed entries are not decompressed.
+     *
+     * @param segment      the segment to read from
+     * @param metadataList the entry metadata of all requested keys
+     * @param indexes      the indexes of the entries stored in this segment
+     * @param result       the array to store the values at the same indexes
+     * @throws IOException if an I/O error occurs while reading the segment
+     */
+    private void readSegmentEntries(Segment segment, EntryMetadata[] metadataList, List<Integer> indexes, ByteBuffer[] result) throws IOException {
+        indexes.sort(Comparator.comparingLong(index -> metadataList[index].position()));
+
+        int start = 0;
+        while (start < indexes.size()) {
+            EntryMetadata first = metadataList[indexes.get(start)];
+            long begin = first.position();
+            long end = first.position() + first.length();
+
+            int next = start + 1;
+            while (next < indexes.size()) {
+                EntryMetadata metadata = metadataList[indexes.get(next)];
+                long metadataEnd = metadata.position() + metadata.length();
+                if (metadata.position() > end + MAX_MERGED_READ_GAP || Math.max(end, metadataEnd) - begin > MAX_MERGED_READ_LENGTH) {
+                    break;
+                }
+                end = Math.max(end, metadataEnd);
+                next++;
+            }
+
+            ByteBuffer buffer = segment.get(begin, end - begin);
+            for (int i = start; i < next; i++) {
+                int index = indexes.get(i);
+                EntryMetadata metadata = metadataList[index];
+                result[index] = buffer.slice((int) (metadata.position() - begin), (int) metadata.length());
+            }
+            start = next;
         }
-        return getByEntryMetadata(session.prefix(), key, metadata);
     }
 
     /**
      * Retrieves an array of ByteBuffers from the specified segment based on the given segment ranges.
+     * <p>
+     * The bytes are returned as they are stored in the segment, compressed entries are not decompressed.
      *
      * @param segmentName   the name of the segment from which to retrieve the ByteBuffers
      * @param segmentRanges an array of SegmentRange objects specifying the positions and lengths of the segments to retrieve
@@ -663,9 +1300,51 @@ public class Volume {
         ByteBuffer[] entries = new ByteBuffer[segmentRanges.length];
         for (int i = 0; i < segmentRanges.length; i++) {
             SegmentRange segmentRange = segmentRanges[i];
+            if (entryCache != null) {
+                entries[i] = entryCache.get(segment.getId(), segmentRange.position(), segmentRange.length());
+                if (entries[i] != null) {
+                    continue;
+                }
+            }
             entries[i] = segment.get(segmentRange.position(), segmentRange.length());
+            if (entryCache != null) {
+                entryCache.put(segment.getId(), segmentRange.position(), entries[i]);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the entry metadata of the given keys. The reads are issued in windows of {@code METADATA_READ_WINDOW}
+     * keys without waiting for each other, so a batch costs a few round trips instead of one per key.
+     *
+     * @param tr        the transaction to read from
+     * @param entryKeys the packed entry keys
+     * @return the encoded entry metadata of the keys in the same order, null for the missing keys
+     */
+    private byte[][] readEntryMetadata(Transaction tr, byte[][] entryKeys) {
+        return readEntryMetadataAsync(tr, entryKeys).join();
+    }
+
+    /**
+     * Asynchronous version of {@link #readEntryMetadata(Transaction, byte[][])}, the windows are read one after another.
+     */
+    private CompletableFuture<byte[][]> readEntryMetadataAsync(Transaction tr, byte[][] entryKeys) {
+        byte[][] result = new byte[entryKeys.length][];
+        return readEntryMetadataWindow(tr, entryKeys, result, 0).thenApply((ignored) -> result);
+    }
+
+    private CompletableFuture<Void> readEntryMetadataWindow(Transaction tr, byte[][] entryKeys, byte[][] result, int start) {
+        if (start >= entryKeys.length) {
+            return CompletableFuture.completedFuture(null);
         }
-        return entries;
+        int end = Math.min(start + METADATA_READ_WINDOW, entryKeys.length);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[end - start];
+        for (int i = start; i < end; i++) {
+            int index = i;
+            futures[i - start] = tr.get(entryKeys[i]).thenAccept((value) -> result[index] = value);
+        }
+        return CompletableFuture.allOf(futures).thenCompose((ignored) -> readEntryMetadataWindow(tr, entryKeys, result, end));
     }
 
     /**
@@ -680,33 +1359,79 @@ public class Volume {
         if (keys.length == 0) {
             throw new IllegalArgumentException("Empty keys array");
         }
-        Transaction tr = session.transaction();
+        byte[][] entryKeys = packEntryKeys(session.prefix(), keys);
+        return applyDelete(session, keys, entryKeys, readEntryMetadata(session.transaction(), entryKeys));
+    }
+
+    /**
+     * Deletes the entries associated with the given keys asynchronously, the entry metadata is read with
+     * asynchronous FoundationDB reads.
+     *
+     * @param session The session within which the delete operation is to be performed. Must not be null.
+     * @param keys    The versionstamps of the entries to be deleted. Must not be null.
+     * @return a CompletableFuture that completes with the result of the deletion operation
+     */
+    public CompletableFuture<DeleteResult> deleteAsync(@Nonnull VolumeSession session, @Nonnull Versionstamp... keys) {
+        if (keys.length == 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Empty keys array"));
+        }
+        byte[][] entryKeys = packEntryKeys(session.prefix(), keys);
+        return readEntryMetadataAsync(session.transaction(), entryKeys).thenApply(
+                (encodedEntryMetadataList) -> applyDelete(session, keys, entryKeys, encodedEntryMetadataList)
+        );
+    }
+
+    private byte[][] packEntryKeys(Prefix prefix, Versionstamp[] keys) {
+        byte[][] entryKeys = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            entryKeys[i] = subspace.packEntryKey(prefix, keys[i]);
+        }
+        return entryKeys;
+    }
 
-        DeleteResult result = new DeleteResult(keys.length, entryMetadataCache.load(session.prefix())::invalidate);
+    /**
+     * Writes the deletion of the given keys to the session's transaction, the entry metadata has already been read.
+     */
+    private DeleteResult applyDelete(VolumeSession session, Versionstamp[] keys, byte[][] entryKeys, byte[][] encodedEntryMetadataList) {
+        Transaction tr = session.transaction();
+        DeleteResult result = new DeleteResult(keys.length, (key) -> entryMetadataCache.invalidate(session.prefix(), key));
+        SegmentMetadataDeltas deltas = new SegmentMetadataDeltas();
 
+        Set<Versionstamp> deleted = new HashSet<>();
+        EntryMetadataView entryMetadata = new EntryMetadataView();
         int index = 0;
-        for (Versionstamp key : keys) {
-            byte[] entryKey = subspace.packEntryKey(session.prefix(), key);
-            byte[] encodedEntryMetadata = tr.get(entryKey).join();
+        for (int i = 0; i < keys.length; i++) {
+            Versionstamp key = keys[i];
+            byte[] entryKey = entryKeys[i];
+            byte[] encodedEntryMetadata = encodedEntryMetadataList[i];
             if (encodedEntryMetadata == null) {
                 // Already deleted by a previously committed transaction.
                 continue;
             }
+            if (!deleted.add(key)) {
+                // Duplicate key, already deleted by this call.
+                continue;
+            }
             tr.clear(entryKey);
             tr.clear(subspace.packEntryMetadataKey(encodedEntryMetadata));
 
-            EntryMetadata entryMetadata = EntryMetadata.decode(ByteBuffer.wrap(encodedEntryMetadata));
+            entryMetadata.wrap(encodedEntryMetadata);
+            invalidateEntryCache(entryMetadata.segmentId(), entryMetadata.position());
 
-            SegmentContainer segmentContainer = segments.get(entryMetadata.segment());
-            segmentContainer.metadata().decreaseCardinalityByOne(session);
-            segmentContainer.metadata().increaseUsedBytes(session, -1 * entryMetadata.length());
+            SegmentContainer segmentContainer = segments.get(entryMetadata.segmentId());
+            deltas.increaseCardinality(segmentContainer, -1);
+            deltas.increaseUsedBytes(segmentContainer, -1 * entryMetadata.length());
+            deltas.increaseDeadEntries(segmentContainer, entryMetadata.length());
 
-            appendSegmentLog(session, OperationKind.DELETE, key, entryMetadata);
-            triggerStreamingSubscribers(tr);
+            appendSegmentLog(session, deltas, OperationKind.DELETE, key, entryMetadata);
 
             result.add(index, key);
             index++;
         }
+        if (!deltas.isEmpty()) {
+            deltas.apply(session);
+            triggerStreamingSubscribers(tr);
+        }
         raiseExceptionIfVolumeReadOnly();
         return result;
     }
@@ -725,50 +1450,134 @@ public class Volume {
             throw new IllegalArgumentException("Empty key pairs array");
         }
 
+        long startedAt = System.nanoTime();
+        EntryMetadata[] entryMetadataList = appendEntries(session.prefix(), entriesOf(pairs));
+        awaitFlush(flushMutatedSegments(entryMetadataList));
+
+        byte[][] packedKeys = packEntryKeys(session.prefix(), keysOf(pairs));
+        byte[][] encodedPrevEntryMetadataList = readEntryMetadata(session.transaction(), packedKeys);
+        return applyUpdate(session, pairs, entryMetadataList, packedKeys, encodedPrevEntryMetadataList, startedAt);
+    }
+
+    /**
+     * Updates the given key entries asynchronously. The segment writes run on the I/O executor of the volume,
+     * the previous entry metadata is read with asynchronous FoundationDB reads while the segments are flushed.
+     * <p>
+     * The returned future completes exceptionally with a {@link KeyNotFoundException}, wrapped in a
+     * {@link CompletionException}, if a key is not found.
+     *
+     * @param session The current session running the update transaction.
+     * @param pairs   The key entries to be updated.
+     * @return a CompletableFuture that completes with the result of the update operation
+     */
+    public CompletableFuture<UpdateResult> updateAsync(@Nonnull VolumeSession session, @Nonnull KeyEntry... pairs) {
+        if (pairs.length == 0) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Empty key pairs array"));
+        }
+
+        long startedAt = System.nanoTime();
+        byte[][] packedKeys = packEntryKeys(session.prefix(), keysOf(pairs));
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return appendEntries(session.prefix(), entriesOf(pairs));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ioExecutor).thenCompose((entryMetadataList) -> {
+            CompletableFuture<Void> flushed;
+            try {
+                flushed = flushMutatedSegments(entryMetadataList);
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return flushed.thenCombine(readEntryMetadataAsync(session.transaction(), packedKeys), (ignored, encodedPrevEntryMetadataList) -> {
+                try {
+                    return applyUpdate(session, pairs, entryMetadataList, packedKeys, encodedPrevEntryMetadataList, startedAt);
+                } catch (KeyNotFoundException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        });
+    }
+
+    private static ByteBuffer[] entriesOf(KeyEntry[] pairs) {
         ByteBuffer[] entries = new ByteBuffer[pairs.length];
         for (int i = 0; i < pairs.length; i++) {
             entries[i] = pairs[i].entry();
         }
-        EntryMetadata[] entryMetadataList = appendEntries(session.prefix(), entries);
-        flushMutatedSegments(entryMetadataList);
+        return entries;
+    }
+
+    private static Versionstamp[] keysOf(KeyEntry[] pairs) {
+        Versionstamp[] keys = new Versionstamp[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            keys[i] = pairs[i].key();
+        }
+        return keys;
+    }
 
+    /**
+     * Writes the new entry metadata of the updated keys to the session's transaction, the entries have
+     * already been appended and flushed and the previous entry metadata has been read.
+     */
+    private UpdateResult applyUpdate(
+            VolumeSession session,
+            KeyEntry[] pairs,
+            EntryMetadata[] entryMetadataList,
+            byte[][] packedKeys,
+            byte[][] encodedPrevEntryMetadataList,
+            long startedAt
+    ) throws KeyNotFoundException {
         Transaction tr = session.transaction();
+
+        // The reads have been issued before the writes, a key updated more than once by this call
+        // must see the metadata written by the previous update.
+        Map<Versionstamp, byte[]> written = new HashMap<>();
+        SegmentMetadataDeltas deltas = new SegmentMetadataDeltas();
+        EntryMetadataView prevEntryMetadata = new EntryMetadataView();
         int index = 0;
         for (KeyEntry keyEntry : pairs) {
             Versionstamp key = keyEntry.key();
-            byte[] packedKey = subspace.packEntryKey(session.prefix(), key);
-            byte[] encodedPrevEntryMetadata = tr.get(packedKey).join();
+            byte[] packedKey = packedKeys[index];
+            byte[] encodedPrevEntryMetadata = written.getOrDefault(key, encodedPrevEntryMetadataList[index]);
             if (encodedPrevEntryMetadata == null) {
                 throw new KeyNotFoundException(key);
             }
 
-            EntryMetadata prevEntryMetadata = EntryMetadata.decode(ByteBuffer.wrap(encodedPrevEntryMetadata));
-            SegmentContainer prevSegmentContainer = segments.get(prevEntryMetadata.segment());
+            prevEntryMetadata.wrap(encodedPrevEntryMetadata);
+            invalidateEntryCache(prevEntryMetadata.segmentId(), prevEntryMetadata.position());
+            SegmentContainer prevSegmentContainer = segments.get(prevEntryMetadata.segmentId());
 
             EntryMetadata entryMetadata = entryMetadataList[index];
-            SegmentContainer segmentContainer = segments.get(entryMetadata.segment());
+            SegmentContainer segmentContainer = segments.get(entryMetadata.segmentId());
 
-            if (!prevEntryMetadata.segment().equals(entryMetadata.segment())) {
-                prevSegmentContainer.metadata().decreaseCardinalityByOne(session);
-                segmentContainer.metadata().increaseCardinalityByOne(session);
-                prevSegmentContainer.metadata().increaseUsedBytes(session, -1 * prevEntryMetadata.length());
+            if (prevEntryMetadata.segmentId() != entryMetadata.segmentId()) {
+                deltas.increaseCardinality(prevSegmentContainer, -1);
+                deltas.increaseCardinality(segmentContainer, 1);
+                deltas.increaseUsedBytes(prevSegmentContainer, -1 * prevEntryMetadata.length());
             } else {
-                segmentContainer.metadata().increaseUsedBytes(session, -1 * entryMetadata.length());
+                deltas.increaseUsedBytes(segmentContainer, -1 * prevEntryMetadata.length());
             }
-            segmentContainer.metadata().increaseUsedBytes(session, entryMetadata.length());
+            deltas.increaseUsedBytes(segmentContainer, entryMetadata.length());
+            deltas.increaseDeadEntries(prevSegmentContainer, prevEntryMetadata.length());
+            deltas.advanceHighWaterMark(segmentContainer, entryMetadata.position() + entryMetadata.length());
 
+            byte[] encodedEntryMetadata = entryMetadata.encode().array();
             tr.clear(subspace.packEntryMetadataKey(encodedPrevEntryMetadata));
-            tr.set(packedKey, entryMetadata.encode().array());
+            tr.set(packedKey, encodedEntryMetadata);
+            written.put(key, encodedEntryMetadata);
 
-            appendSegmentLog(session, OperationKind.DELETE, key, prevEntryMetadata);
-            appendSegmentLog(session, OperationKind.APPEND, key, entryMetadata);
-            triggerStreamingSubscribers(tr);
+            appendSegmentLog(session, deltas, OperationKind.DELETE, key, prevEntryMetadata);
+            appendSegmentLog(session, deltas, OperationKind.APPEND, key, entryMetadata);
 
             index++;
         }
+        deltas.apply(session);
+        triggerStreamingSubscribers(tr);
 
         raiseExceptionIfVolumeReadOnly();
-        return new UpdateResult(pairs, entryMetadataCache.load(session.prefix())::invalidate);
+        metrics.recordUpdate(startedAt, totalLength(entryMetadataList));
+        return new UpdateResult(pairs, (key) -> entryMetadataCache.invalidate(session.prefix(), key));
     }
 
     /**
@@ -788,11 +1597,13 @@ public class Volume {
     public void flush() {
         long stamp = segmentsLock.readLock();
         try {
-            for (Map.Entry<String, SegmentContainer> entry : segments.entrySet()) {
+            for (Map.Entry<Long, SegmentContainer> entry : segments.entrySet()) {
                 try {
+                    long startedAt = System.nanoTime();
                     entry.getValue().segment().flush();
+                    metrics.recordFlush(startedAt);
                 } catch (IOException e) {
-                    LOGGER.error("Failed to flush Segment: {}", entry.getKey(), e);
+                    LOGGER.error("Failed to flush Segment: {}", entry.getValue().segment().getName(), e);
                 }
             }
         } finally {
@@ -807,21 +1618,28 @@ public class Volume {
      * <p>
      * The method ensures the following steps:
      * - Marks the instance as closed.
+     * - Flushes the pending group commit window and stops the flusher.
+     * - Drops the standby segment if it has never been promoted.
      * - Acquires a read lock on the segments.
      * - Iterates through the segments and closes each one.
      * - Logs any IOExceptions encountered during the close process.
      */
     public void close() {
         isClosed = true;
+        // Flush the pending commit window, if any, before closing the segments.
+        flusher.shutdown();
+        ioExecutor.shutdown();
+        // The standby segment has never been written, don't leave an empty segment behind.
+        dropStandbySegment();
         long stamp = segmentsLock.readLock();
         try {
-            for (Map.Entry<String, SegmentContainer> entry : segments.entrySet()) {
+            for (Map.Entry<Long, SegmentContainer> entry : segments.entrySet()) {
                 Segment segment = entry.getValue().segment();
                 try {
                     // This also flushes the underlying files with metadata = true.
                     segment.close();
                 } catch (IOException e) {
-                    LOGGER.error("Failed to close Segment: {}", entry.getKey(), e);
+                    LOGGER.error("Failed to close Segment: {}", segment.getName(), e);
                 }
             }
         } finally {
@@ -922,31 +1740,71 @@ public class Volume {
     }
 
     /**
-     * Analyzes the given segment in the context of the provided transaction.
+     * Retrieves the entries within the specified range asynchronously. The range is read with an asynchronous
+     * FoundationDB range read, then the entries are read from the segments on the I/O executor.
+     * <p>
+     * Unlike {@link #getRange}, the whole range is materialized in memory, the limit should be set accordingly.
+     *
+     * @param session the session to be used for the operation, must not be null
+     * @param begin   the start of the range, null means the beginning of the prefix
+     * @param end     the end of the range, null means the end of the prefix
+     * @param limit   the maximum number of entries to retrieve
+     * @param reverse whether to retrieve the entries in reverse order
+     * @return a CompletableFuture that completes with the entries within the specified range
+     */
+    public CompletableFuture<List<KeyEntry>> getRangeAsync(@Nonnull VolumeSession session, VersionstampedKeySelector begin, VersionstampedKeySelector end, int limit, boolean reverse) {
+        return VolumeIterable.rangeRead(this, session, begin, end, limit, reverse).asList().thenApplyAsync(
+                (keyValues) -> Arrays.asList(VolumeIterable.readEntries(this, session, keyValues)),
+                ioExecutor
+        );
+    }
+
+    /**
+     * Returns the executor that runs the segment reads and writes issued by the asynchronous API.
+     */
+    ExecutorService ioExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Rebuilds the statistics of a segment that has no statistics yet from the counters of its prefixes,
+     * and persists them. The segments created before the statistics were introduced are rebuilt once.
+     * <p>
+     * The number of dead entries can't be recovered, all bytes written to the segment that aren't used
+     * by the live entries are counted as dead bytes.
      *
-     * @param tr               the transaction associated with the segment analysis
-     * @param segmentContainer the container holding the segment to be analyzed
-     * @return a SegmentAnalysis object containing details about the segment
+     * @param segmentContainer the container holding the segment
+     * @return the statistics of the segment
      */
-    private SegmentAnalysis analyzeSegment(Transaction tr, SegmentContainer segmentContainer) {
-        byte[] begin = config.subspace().pack(Tuple.from(SEGMENT_CARDINALITY_SUBSPACE, segmentContainer.segment().getName()));
-        byte[] end = ByteArrayUtil.strinc(begin);
+    private SegmentStats rebuildSegmentStats(SegmentContainer segmentContainer) {
+        return context.getFoundationDB().run(tr -> {
+            SegmentStats stats = segmentContainer.metadata().loadStats(tr).join();
+            if (stats != null) {
+                // Rebuilt by another caller in the meantime
+                return stats;
+            }
 
-        int cardinality = 0;
-        long usedBytes = 0;
+            byte[] begin = config.subspace().pack(Tuple.from(SEGMENT_CARDINALITY_SUBSPACE, segmentContainer.segment().getName()));
+            byte[] end = ByteArrayUtil.strinc(begin);
 
-        for (KeyValue keyValue : tr.getRange(begin, end)) {
-            Tuple tuple = config.subspace().unpack(keyValue.getKey());
-            byte[] prefixBytes = tuple.getBytes(2);
-            Prefix prefix = Prefix.fromBytes(prefixBytes);
-            VolumeSession session = new VolumeSession(tr, prefix);
+            long cardinality = 0;
+            long usedBytes = 0;
+            for (KeyValue keyValue : tr.getRange(begin, end)) {
+                Tuple tuple = config.subspace().unpack(keyValue.getKey());
+                byte[] prefixBytes = tuple.getBytes(2);
+                Prefix prefix = Prefix.fromBytes(prefixBytes);
+                VolumeSession session = new VolumeSession(tr, prefix);
 
-            cardinality += segmentContainer.metadata().cardinality(session);
-            usedBytes += segmentContainer.metadata().usedBytes(session);
-        }
+                cardinality += segmentContainer.metadata().cardinality(session);
+                usedBytes += segmentContainer.metadata().usedBytes(session);
+            }
 
-        Segment segment = segmentContainer.segment();
-        return new SegmentAnalysis(segment.getName(), segment.getSize(), usedBytes, segment.getFreeBytes(), cardinality);
+            Segment segment = segmentContainer.segment();
+            long writtenBytes = segment.getSize() - segment.getFreeBytes();
+            stats = new SegmentStats(cardinality, 0, usedBytes, Math.max(0, writtenBytes - usedBytes), System.currentTimeMillis());
+            segmentContainer.metadata().initializeStats(tr, stats);
+            return stats;
+        });
     }
 
     /**
@@ -954,6 +1812,11 @@ public class Volume {
      * <p>
      * This method performs a read-only analysis of the current segments,
      * creating a shallow copy to avoid holding locks for an extended period.
+     * <p>
+     * The statistics of the segments are maintained incrementally by the volume operations, they are
+     * loaded with one small range read per segment and the reads are issued concurrently. So the cost
+     * of an analysis depends on the number of segments, not the number of entries. The in-memory
+     * statistics table of the volume is refreshed with the loaded statistics.
      *
      * @param tr The transaction context used for the analysis.
      * @return A list of SegmentAnalysis objects containing the analysis results.
@@ -962,23 +1825,54 @@ public class Volume {
     public List<SegmentAnalysis> analyze(Transaction tr) {
         // Create a read-only copy of segments to prevent acquiring segmentsLock for a long time.
         // Read-only access to the segments is not an issue. A segment can only be removed by the Vacuum daemon.
-        TreeMap<String, SegmentContainer> swallowCopy;
+        TreeMap<Long, SegmentContainer> swallowCopy;
         List<SegmentAnalysis> result = new ArrayList<>();
         long stamp = segmentsLock.readLock();
         try {
             if (segments.isEmpty()) {
                 return result;
             }
-            swallowCopy = (TreeMap<String, SegmentContainer>) segments.clone();
+            swallowCopy = (TreeMap<Long, SegmentContainer>) segments.clone();
         } finally {
             segmentsLock.unlockRead(stamp);
         }
-        for (Map.Entry<String, SegmentContainer> entry : swallowCopy.entrySet()) {
-            result.add(analyzeSegment(tr, entry.getValue()));
+
+        List<CompletableFuture<SegmentStats>> futures = new ArrayList<>(swallowCopy.size());
+        for (SegmentContainer segmentContainer : swallowCopy.values()) {
+            futures.add(segmentContainer.metadata().loadStats(tr));
+        }
+
+        int index = 0;
+        for (SegmentContainer segmentContainer : swallowCopy.values()) {
+            SegmentStats stats = futures.get(index++).join();
+            if (stats == null) {
+                stats = rebuildSegmentStats(segmentContainer);
+            }
+            Segment segment = segmentContainer.segment();
+            segmentStats.put(segment.getId(), stats);
+            result.add(new SegmentAnalysis(
+                    segment.getName(),
+                    segment.getSize(),
+                    stats.liveBytes(),
+                    segment.getFreeBytes(),
+                    (int) stats.liveEntries(),
+                    stats.deadEntries(),
+                    stats.deadBytes(),
+                    stats.lastModified()
+            ));
         }
         return result;
     }
 
+    /**
+     * Returns the in-memory statistics table of the segments, as of the latest analysis.
+     *
+     * @return an unmodifiable copy of the statistics, keyed by segment ID
+     */
+    public Map<Long, SegmentStats> getSegmentStats() {
+        return Map.copyOf(segmentStats);
+    }
+
     /**
      * Analyzes the segments within a transaction context obtained from the FoundationDB database.
      *
@@ -1006,17 +1900,33 @@ public class Volume {
      */
     protected void vacuumSegment(VacuumContext vacuumContext) throws IOException {
         Segment segment = getOrOpenSegmentByName(vacuumContext.segment());
-        byte[] begin = config.subspace().pack(Tuple.from(ENTRY_METADATA_SUBSPACE, segment.getName().getBytes()));
-        byte[] end = ByteArrayUtil.strinc(begin);
+        // The entries written before the compact entry metadata format are indexed by the legacy keys.
+        vacuumSegmentRange(vacuumContext, segment, subspace.legacyEntryMetadataRange(segment.getId()));
+        vacuumSegmentRange(vacuumContext, segment, subspace.entryMetadataRange(segment.getId()));
+    }
+
+    /**
+     * Moves the live entries indexed in the given entry metadata range of a segment to the writable segment.
+     *
+     * @param vacuumContext the context of the running vacuum process
+     * @param segment       the segment to vacuum
+     * @param segmentRange  the range of the entry metadata keys of the segment
+     * @throws IOException If an I/O error occurs during the vacuum process.
+     */
+    private void vacuumSegmentRange(VacuumContext vacuumContext, Segment segment, Range segmentRange) throws IOException {
+        byte[] begin = segmentRange.begin;
+        byte[] end = segmentRange.end;
 
         while (!vacuumContext.stop()) {
             raiseExceptionIfVolumeReadOnly();
 
             try (Transaction tr = context.getFoundationDB().createTransaction()) {
                 int batchSize = 0;
+                long batchBytes = 0;
                 Range range = new Range(begin, end);
                 HashMap<Prefix, List<KeyEntry>> pairsByPrefix = new HashMap<>();
-                for (KeyValue keyValue : tr.getRange(range)) {
+                // begin is inclusive, fetch one more key to fill the batch in a single round trip.
+                for (KeyValue keyValue : tr.getRange(range, SEGMENT_VACUUM_BATCH_SIZE + 1)) {
                     if (vacuumContext.stop()) {
                         break;
                     }
@@ -1031,7 +1941,7 @@ public class Volume {
                     byte[] trVersion = Arrays.copyOfRange(value, 0, 10);
                     int userVersion = ByteBuffer.wrap(Arrays.copyOfRange(keyValue.getValue(), 11, 13)).getShort();
 
-                    byte[] encodedEntryMetadata = (byte[]) config.subspace().unpack(key).get(1);
+                    byte[] encodedEntryMetadata = subspace.unpackEntryMetadataKey(key);
                     EntryMetadata entryMetadata = EntryMetadata.decode(ByteBuffer.wrap(encodedEntryMetadata));
 
                     Prefix prefix = Prefix.fromBytes(entryMetadata.prefix());
@@ -1041,6 +1951,7 @@ public class Volume {
                     ByteBuffer buffer = getByEntryMetadata(prefix, versionstampedKey, entryMetadata);
                     pairs.add(new KeyEntry(versionstampedKey, buffer));
                     batchSize++;
+                    batchBytes += buffer.remaining();
                     if (batchSize >= SEGMENT_VACUUM_BATCH_SIZE) {
                         break;
                     }
@@ -1063,6 +1974,7 @@ public class Volume {
                 for (UpdateResult updateResult : results) {
                     updateResult.complete();
                 }
+                metrics.recordVacuumMoved(batchSize, batchBytes);
             } catch (CompletionException e) {
                 if (e.getCause() instanceof FDBException fdbException) {
                     if (fdbException.getCode() == 1007) {
@@ -1084,12 +1996,336 @@ public class Volume {
                 throw e;
             } catch (Exception e) {
                 // Catch all exceptions and start from scratch
-                begin = config.subspace().pack(Tuple.from(ENTRY_METADATA_SUBSPACE, segment.getName().getBytes()));
+                begin = segmentRange.begin;
                 LOGGER.error("Vacuum on {}, Segment: {} has failed", config.name(), segment.getName(), e);
             }
         }
     }
 
+    /**
+     * Compacts a segment by copying its live entries into the compaction segment, the entries are not
+     * appended to the writable segment and don't compete with the foreground appends.
+     * <p>
+     * The entries are processed in batches of at most {@code COMPACTION_BATCH_SIZE} entries and
+     * {@code COMPACTION_BATCH_MAX_BYTES} bytes. A batch is read from the segment with large sequential reads,
+     * written to the compaction segment with a gathering write and flushed. Then the entry metadata is
+     * repointed in a single transaction. An entry that has been updated or deleted in the meantime is
+     * skipped, its copy becomes garbage in the compaction segment.
+     * <p>
+     * This method is safe to run concurrently for different segments.
+     *
+     * @param vacuumContext Provides the context for the vacuum process, including the segment to compact
+     *                      and a stop signal.
+     * @param rateLimiter   limits the number of bytes read and written per second, null disables throttling.
+     * @throws IOException If an I/O error occurs while reading or writing the segments.
+     */
+    protected void compactSegment(VacuumContext vacuumContext, RateLimiter rateLimiter) throws IOException {
+        Segment segment = getOrOpenSegmentByName(vacuumContext.segment());
+        compactSegmentRange(vacuumContext, segment, subspace.legacyEntryMetadataRange(segment.getId()), rateLimiter);
+        compactSegmentRange(vacuumContext, segment, subspace.entryMetadataRange(segment.getId()), rateLimiter);
+    }
+
+    private void compactSegmentRange(VacuumContext vacuumContext, Segment segment, Range segmentRange, RateLimiter rateLimiter) throws IOException {
+        KeySelector end = KeySelector.firstGreaterOrEqual(segmentRange.end);
+        KeySelector begin = KeySelector.firstGreaterOrEqual(segmentRange.begin);
+
+        while (!vacuumContext.stop()) {
+            raiseExceptionIfVolumeReadOnly();
+
+            KeySelector batchBegin = begin;
+            List<KeyValue> batch = context.getFoundationDB().run(tr -> readCompactionBatch(tr, batchBegin, end));
+            if (batch.isEmpty()) {
+                // End of the segment
+                break;
+            }
+
+            try {
+                moveEntries(segment, batch, rateLimiter);
+                begin = KeySelector.firstGreaterThan(batch.getLast().getKey());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof FDBException fdbException) {
+                    // Conflicts with the foreground operations, read the batch again.
+                    LOGGER.trace("Compaction on '{}', Segment: '{}' - Transaction has failed with code {}, retrying",
+                            config.name(),
+                            segment.getName(),
+                            fdbException.getCode()
+                    );
+                    continue;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reads the next batch of entry metadata index keys to compact.
+     */
+    private List<KeyValue> readCompactionBatch(Transaction tr, KeySelector begin, KeySelector end) {
+        List<KeyValue> batch = new ArrayList<>();
+        EntryMetadataView view = new EntryMetadataView();
+        long bytes = 0;
+        for (KeyValue keyValue : tr.snapshot().getRange(begin, end, COMPACTION_BATCH_SIZE)) {
+            batch.add(keyValue);
+            bytes += view.wrap(subspace.unpackEntryMetadataKey(keyValue.getKey())).length();
+            if (bytes >= COMPACTION_BATCH_MAX_BYTES) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Copies the entries of the given batch into the compaction segment and repoints their metadata.
+     *
+     * @param segment     the segment being compacted
+     * @param batch       the entry metadata index keys of the entries
+     * @param rateLimiter limits the number of bytes read and written per second, null disables throttling.
+     * @throws IOException if an I/O error occurs while reading or writing the segments
+     */
+    private void moveEntries(Segment segment, List<KeyValue> batch, RateLimiter rateLimiter) throws IOException {
+        int size = batch.size();
+        byte[][] encodedSources = new byte[size][];
+        EntryMetadata[] sources = new EntryMetadata[size];
+        List<Integer> indexes = new ArrayList<>(size);
+        int bytes = 0;
+        for (int i = 0; i < size; i++) {
+            encodedSources[i] = subspace.unpackEntryMetadataKey(batch.get(i).getKey());
+            sources[i] = EntryMetadata.decode(ByteBuffer.wrap(encodedSources[i]));
+            indexes.add(i);
+            bytes += (int) sources[i].length();
+        }
+
+        if (rateLimiter != null && bytes > 0) {
+            // Both reading and writing the entries count.
+            rateLimiter.acquire(bytes);
+        }
+        ByteBuffer[] entries = new ByteBuffer[size];
+        readSegmentEntries(segment, sources, indexes, entries);
+
+        if (rateLimiter != null && bytes > 0) {
+            rateLimiter.acquire(bytes);
+        }
+        EntryMetadata[] targets = appendCompactedEntries(sources, entries);
+        awaitFlush(flushMutatedSegments(targets));
+
+        repointEntries(batch, encodedSources, sources, targets);
+    }
+
+    /**
+     * Returns the compaction segment if it has enough free space for the given size, otherwise
+     * seals it and creates a new one.
+     *
+     * @param size the size that needs to be accommodated in the compaction segment
+     * @return the compaction segment
+     * @throws IOException if an I/O error occurs while creating a new segment
+     */
+    private Segment getCompactionSegment(int size) throws IOException {
+        long stamp = segmentsLock.readLock();
+        try {
+            if (compactionSegment != null && size < compactionSegment.getFreeBytes()) {
+                return compactionSegment;
+            }
+        } finally {
+            segmentsLock.unlockRead(stamp);
+        }
+
+        stamp = segmentsLock.writeLock();
+        try {
+            if (compactionSegment != null) {
+                if (size < compactionSegment.getFreeBytes()) {
+                    return compactionSegment;
+                }
+                sealSegment(compactionSegment);
+            }
+            compactionSegment = createSegment();
+            return compactionSegment;
+        } finally {
+            segmentsLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Releases the compaction segment, it becomes a regular segment of the volume.
+     */
+    protected void releaseCompactionSegment() {
+        long stamp = segmentsLock.writeLock();
+        try {
+            compactionSegment = null;
+        } finally {
+            segmentsLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Appends the given entries to the compaction segment as they are stored, the consecutive entries
+     * that fit into the segment are written with a single gathering write.
+     *
+     * @param sources the metadata of the entries in the segment being compacted
+     * @param entries the entries to append
+     * @return the metadata of the copied entries, in the same order
+     * @throws IOException if an I/O error occurs while writing the entries
+     */
+    private EntryMetadata[] appendCompactedEntries(EntryMetadata[] sources, ByteBuffer[] entries) throws IOException {
+        EntryMetadata[] targets = new EntryMetadata[entries.length];
+        int start = 0;
+        while (start < entries.length) {
+            Segment target = getCompactionSegment(entries[start].remaining());
+            long freeBytes = target.getFreeBytes();
+            int end = start;
+            long length = 0;
+            while (end < entries.length && length + entries[end].remaining() < freeBytes) {
+                length += entries[end].remaining();
+                end++;
+            }
+            if (end == start) {
+                // Another compaction worker has filled the segment in the meantime.
+                continue;
+            }
+
+            try {
+                SegmentAppendResult[] results = target.append(Arrays.copyOfRange(entries, start, end));
+                for (int i = start; i < end; i++) {
+                    SegmentAppendResult result = results[i - start];
+                    EntryMetadata source = sources[i];
+                    int id = EntryMetadataIdGenerator.generate(target.getId(), result.position());
+                    targets[i] = new EntryMetadata(target.getId(), source.prefix(), result.position(), result.length(), id, source.flags());
+                }
+                start = end;
+            } catch (NotEnoughSpaceException e) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Trying to find a new compaction segment with length {}", length);
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Points the metadata of the given entries to their copies in the compaction segment in a single transaction.
+     * <p>
+     * The entry keys are read in the transaction, an entry is only repointed if its metadata hasn't changed
+     * since the batch was read, so a concurrent update or delete makes the transaction conflict or skips the entry.
+     *
+     * @param batch          the entry metadata index keys of the entries
+     * @param encodedSources the encoded metadata of the entries in the segment being compacted
+     * @param sources        the metadata of the entries in the segment being compacted
+     * @param targets        the metadata of the copied entries
+     */
+    private void repointEntries(List<KeyValue> batch, byte[][] encodedSources, EntryMetadata[] sources, EntryMetadata[] targets) {
+        int size = batch.size();
+        Prefix[] prefixes = new Prefix[size];
+        Versionstamp[] keys = new Versionstamp[size];
+        byte[][] entryKeys = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            prefixes[i] = Prefix.fromBytes(sources[i].prefix());
+            keys[i] = Tuple.fromBytes(batch.get(i).getValue()).getVersionstamp(0);
+            entryKeys[i] = subspace.packEntryKey(prefixes[i], keys[i]);
+        }
+
+        List<Integer> moved = new ArrayList<>();
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            byte[][] current = readEntryMetadata(tr, entryKeys);
+
+            Map<Prefix, SegmentMetadataDeltas> deltasByPrefix = new HashMap<>();
+            int userVersion = 0;
+            for (int i = 0; i < size; i++) {
+                if (!Arrays.equals(current[i], encodedSources[i])) {
+                    // Updated or deleted after the batch was read.
+                    continue;
+                }
+
+                EntryMetadata source = sources[i];
+                EntryMetadata target = targets[i];
+                byte[] encodedTarget = target.encode().array();
+                tr.set(entryKeys[i], encodedTarget);
+                tr.clear(batch.get(i).getKey());
+                tr.set(subspace.packEntryMetadataKey(encodedTarget), batch.get(i).getValue());
+
+                SegmentContainer sourceContainer = getSegmentContainer(source.segmentId());
+                SegmentContainer targetContainer = getSegmentContainer(target.segmentId());
+                if (sourceContainer == null || targetContainer == null) {
+                    throw new IllegalStateException("Segment " + (sourceContainer == null ? source.segment() : target.segment()) + " not found");
+                }
+                SegmentMetadataDeltas deltas = deltasByPrefix.computeIfAbsent(prefixes[i], (prefix) -> new SegmentMetadataDeltas());
+                deltas.increaseCardinality(sourceContainer, -1);
+                deltas.increaseUsedBytes(sourceContainer, -1 * source.length());
+                deltas.increaseDeadEntries(sourceContainer, source.length());
+                deltas.increaseCardinality(targetContainer, 1);
+                deltas.increaseUsedBytes(targetContainer, target.length());
+                deltas.advanceHighWaterMark(targetContainer, target.position() + target.length());
+
+                appendSegmentLog(tr, deltas, OperationKind.DELETE, keys[i], userVersion++, prefixes[i].asLong(), source);
+                appendSegmentLog(tr, deltas, OperationKind.APPEND, keys[i], userVersion++, prefixes[i].asLong(), target);
+                moved.add(i);
+            }
+
+            if (moved.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<Prefix, SegmentMetadataDeltas> entry : deltasByPrefix.entrySet()) {
+                entry.getValue().apply(new VolumeSession(tr, entry.getKey()));
+            }
+            triggerStreamingSubscribers(tr);
+            commitVacuumIfVolumeWritable(tr);
+        }
+
+        long movedBytes = 0;
+        for (int i : moved) {
+            entryMetadataCache.invalidate(prefixes[i], keys[i]);
+            invalidateEntryCache(sources[i].segmentId(), sources[i].position());
+            movedBytes += targets[i].length();
+        }
+        metrics.recordVacuumMoved(moved.size(), movedBytes);
+    }
+
+    /**
+     * Rewrites the entry metadata stored in the legacy format in the compact format.
+     * <p>
+     * The legacy index keys of every segment are scanned in batches. For each entry, the entry key is
+     * updated to the compact encoding and the index key is moved to the compact entry metadata subspace.
+     * The segment files are not touched, and the decoded metadata doesn't change, so the cached entry
+     * metadata stays valid. It's safe to run this method while the volume is serving requests,
+     * the batches are retried on conflicts.
+     *
+     * @return the number of migrated entries
+     */
+    public long migrateEntryMetadata() {
+        List<Long> segmentIds;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            segmentIds = VolumeMetadata.load(tr, config.subspace()).getSegments();
+        }
+
+        long total = 0;
+        for (long segmentId : segmentIds) {
+            Range range = subspace.legacyEntryMetadataRange(segmentId);
+            while (true) {
+                raiseExceptionIfVolumeReadOnly();
+                int migrated = context.getFoundationDB().run(tr -> migrateEntryMetadataBatch(tr, range));
+                if (migrated == 0) {
+                    break;
+                }
+                total += migrated;
+            }
+        }
+        return total;
+    }
+
+    private int migrateEntryMetadataBatch(Transaction tr, Range range) {
+        int migrated = 0;
+        for (KeyValue keyValue : tr.getRange(range, SEGMENT_VACUUM_BATCH_SIZE)) {
+            byte[] encodedEntryMetadata = subspace.unpackEntryMetadataKey(keyValue.getKey());
+            EntryMetadata entryMetadata = EntryMetadata.decode(ByteBuffer.wrap(encodedEntryMetadata));
+            Versionstamp key = Tuple.fromBytes(keyValue.getValue()).getVersionstamp(0);
+
+            byte[] compactEntryMetadata = entryMetadata.encode().array();
+            tr.clear(keyValue.getKey());
+            tr.set(subspace.packEntryMetadataKey(compactEntryMetadata), keyValue.getValue());
+            tr.set(subspace.packEntryKey(Prefix.fromBytes(entryMetadata.prefix()), key), compactEntryMetadata);
+            migrated++;
+        }
+        return migrated;
+    }
+
     /**
      * Cleans up a stale segment by removing its associated metadata, files, and references.
      * <p>
@@ -1108,12 +2344,19 @@ public class Volume {
             VolumeMetadata.compute(tr, config.subspace(), (volumeMetadata) -> {
                 volumeMetadata.removeSegment(segment.getConfig().id());
             });
+            tr.clear(subspace.packSegmentHighWaterMarkKey(segment.getName()));
+            new SegmentMetadata(subspace, segment.getName()).clearStats(tr);
             return null;
         });
         long stamp = segmentsLock.writeLock();
-        segments.remove(name);
+        segments.remove(segment.getId());
         segmentsLock.unlockWrite(stamp);
-        return segment.delete();
+        segmentStats.remove(segment.getId());
+        String deletedFile = segment.delete();
+        if (entryCache != null) {
+            entryCache.invalidateSegment(segment.getId());
+        }
+        return deletedFile;
     }
 
     /**
@@ -1128,11 +2371,27 @@ public class Volume {
         List<String> result = new ArrayList<>();
         List<SegmentAnalysis> analyses = analyze();
         analyses.sort(Comparator.comparing(SegmentAnalysis::name));
+
+        // The compaction segment may not be the latest one, the writable segment is kept as well.
+        Set<String> inUse = new HashSet<>();
+        long stamp = segmentsLock.readLock();
+        try {
+            Segment writable = latestWritableSegment();
+            if (writable != null) {
+                inUse.add(writable.getName());
+            }
+            if (compactionSegment != null) {
+                inUse.add(compactionSegment.getName());
+            }
+        } finally {
+            segmentsLock.unlockRead(stamp);
+        }
+
         for (int i = 0; i < analyses.size() - 1; i++) {
             // found stale segments by iteration over segments and trying to find segments with zero cardinality
             // the latest segment is writable, don't touch it.
             SegmentAnalysis analysis = analyses.get(i);
-            if (analysis.cardinality() == 0) {
+            if (analysis.cardinality() == 0 && !inUse.contains(analysis.name())) {
                 try {
                     String deletedFile = cleanupStaleSegment(analysis.name());
                     result.add(deletedFile);
@@ -1156,18 +2415,11 @@ public class Volume {
         for (long id : volumeMetadata.getSegments()) {
             String segmentName = Segment.generateName(id);
 
-            int capacity = SEGMENT_NAME_SIZE + ENTRY_PREFIX_SIZE + SUBSPACE_SEPARATOR_SIZE;
-            ByteBuffer buffer = ByteBuffer.
-                    allocate(capacity).
-                    put(segmentName.getBytes()).
-                    put(SUBSPACE_SEPARATOR).
-                    put(session.prefix().asBytes()).flip();
-
-            byte[] begin = config.subspace().pack(Tuple.from(ENTRY_METADATA_SUBSPACE, buffer.array()));
-            byte[] end = ByteArrayUtil.strinc(begin);
-            session.transaction().clear(begin, end);
+            session.transaction().clear(subspace.entryMetadataRange(id, session.prefix()));
+            session.transaction().clear(subspace.legacyEntryMetadataRange(id, session.prefix()));
 
             SegmentMetadata metadata = new SegmentMetadata(subspace, segmentName);
+            metadata.markPrefixAsDead(session);
             metadata.resetCardinality(session);
             metadata.resetUsedBytes(session);
         }
@@ -1194,9 +2446,8 @@ public class Volume {
     }
 
     /**
-     * Inserts the given entries into the specified segment.
-     * <p>
-     * Assumed that callers of this method call flush after a successful return.
+     * Inserts the given entries into the specified segment and waits until the segment is flushed
+     * by the group commit flusher.
      *
      * @param segmentName the name of the segment into which entries will be inserted
      * @param entries     the entries to be inserted into the segment
@@ -1207,16 +2458,19 @@ public class Volume {
             throw new IllegalArgumentException("Empty entries array");
         }
         Segment segment = getOrOpenSegmentByName(segmentName);
+        long bytes = 0;
         for (PackedEntry entry : entries) {
             try {
                 raiseExceptionIfVolumeReadOnly();
                 segment.insert(ByteBuffer.wrap(entry.data()), entry.position());
-                // Assumed that callers of this method call flush after a successful return.
+                invalidateEntryCache(segment.getId(), entry.position());
+                bytes += entry.data().length;
             } catch (NotEnoughSpaceException e) {
                 // This should never happen.
                 throw new KronotopException(e);
             }
         }
+        awaitFlush(flusher.submit(List.of(segment), bytes));
     }
 
     /**
@@ -1226,7 +2480,44 @@ public class Volume {
      * @param key    The specific key within the given prefix whose metadata cache should be invalidated.
      */
     public void invalidateEntryMetadataCacheEntry(Prefix prefix, Versionstamp key) {
-        entryMetadataCache.load(prefix).invalidate(key);
+        entryMetadataCache.invalidate(prefix, key);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the entry metadata cache of this Volume.
+     *
+     * @return the statistics of the entry metadata cache
+     */
+    public EntryMetadataCache.Stats getEntryMetadataCacheStats() {
+        return entryMetadataCache.stats();
+    }
+
+    /**
+     * Discards the cached entry stored at the given location of a segment of this Volume.
+     *
+     * @param segmentId the ID of the segment
+     * @param position  the position of the entry in the segment
+     */
+    public void invalidateEntryCacheEntry(long segmentId, long position) {
+        invalidateEntryCache(segmentId, position);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the entry cache of this Volume.
+     *
+     * @return the statistics of the entry cache, or null if the entry cache is disabled
+     */
+    public EntryCache.Stats getEntryCacheStats() {
+        return entryCache == null ? null : entryCache.stats();
+    }
+
+    /**
+     * Returns the runtime metrics of this Volume.
+     *
+     * @return the metrics of this Volume
+     */
+    public VolumeMetrics getMetrics() {
+        return metrics;
     }
 
     @Override
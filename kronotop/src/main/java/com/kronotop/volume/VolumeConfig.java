@@ -18,10 +18,74 @@ package com.kronotop.volume;
 
 import com.apple.foundationdb.directory.DirectorySubspace;
 
+/**
+ * VolumeConfig holds the settings of a Volume.
+ *
+ * @param subspace            the FoundationDB directory subspace that stores the volume's metadata
+ * @param name                the name of the volume
+ * @param dataDir             the directory where the segment files are stored
+ * @param segmentSize         the size of a segment file in bytes
+ * @param groupCommitMaxWait  the maximum time in milliseconds a group commit window stays open
+ * @param groupCommitMaxBytes the number of pending bytes that closes a group commit window early
+ * @param mmapSealedSegments  whether sealed segments are mapped into memory to serve reads
+ * @param standbySegmentThreshold the fill ratio of the writable segment that triggers the preparation of the
+ *                            next segment in the background, 0 disables it
+ * @param entryMetadataCacheMaxWeight the maximum total weight of the entry metadata cache in bytes
+ * @param entryMetadataCacheExpireAfterAccess the time in milliseconds after which an unused entry metadata
+ *                            expires from the cache
+ * @param compressionEnabled  whether the entries are compressed with LZ4 before they are appended to a segment
+ * @param compressionMinSize  the minimum size of an entry in bytes to be compressed
+ * @param ioThreads           the maximum number of concurrent segment reads and writes issued by the
+ *                            asynchronous API
+ * @param directIO            whether the segment files are accessed with direct I/O, bypassing the page cache
+ * @param entryCacheMaxSize   the maximum total size of the entries cached off-heap in bytes, 0 disables the cache
+ */
 public record VolumeConfig(
         DirectorySubspace subspace,
         String name,
         String dataDir,
-        Long segmentSize
+        Long segmentSize,
+        long groupCommitMaxWait,
+        long groupCommitMaxBytes,
+        boolean mmapSealedSegments,
+        double standbySegmentThreshold,
+        long entryMetadataCacheMaxWeight,
+        long entryMetadataCacheExpireAfterAccess,
+        boolean compressionEnabled,
+        int compressionMinSize,
+        int ioThreads,
+        boolean directIO,
+        long entryCacheMaxSize
 ) {
+    public static final long DEFAULT_GROUP_COMMIT_MAX_WAIT = 1; // milliseconds
+    public static final long DEFAULT_GROUP_COMMIT_MAX_BYTES = 1048576;
+    public static final boolean DEFAULT_MMAP_SEALED_SEGMENTS = false;
+    public static final double DEFAULT_STANDBY_SEGMENT_THRESHOLD = 0.75;
+    public static final long DEFAULT_ENTRY_METADATA_CACHE_MAX_WEIGHT = 33554432; // bytes
+    public static final long DEFAULT_ENTRY_METADATA_CACHE_EXPIRE_AFTER_ACCESS = 900000; // milliseconds
+    public static final boolean DEFAULT_COMPRESSION_ENABLED = false;
+    public static final int DEFAULT_COMPRESSION_MIN_SIZE = 512; // bytes
+    public static final int DEFAULT_IO_THREADS = 8;
+    public static final boolean DEFAULT_DIRECT_IO = false;
+    public static final long DEFAULT_ENTRY_CACHE_MAX_SIZE = 0; // bytes, disabled
+
+    public VolumeConfig(DirectorySubspace subspace, String name, String dataDir, Long segmentSize) {
+        this(
+                subspace,
+                name,
+                dataDir,
+                segmentSize,
+                DEFAULT_GROUP_COMMIT_MAX_WAIT,
+                DEFAULT_GROUP_COMMIT_MAX_BYTES,
+                DEFAULT_MMAP_SEALED_SEGMENTS,
+                DEFAULT_STANDBY_SEGMENT_THRESHOLD,
+                DEFAULT_ENTRY_METADATA_CACHE_MAX_WEIGHT,
+                DEFAULT_ENTRY_METADATA_CACHE_EXPIRE_AFTER_ACCESS,
+                DEFAULT_COMPRESSION_ENABLED,
+                DEFAULT_COMPRESSION_MIN_SIZE,
+                DEFAULT_IO_THREADS,
+                DEFAULT_DIRECT_IO,
+                DEFAULT_ENTRY_CACHE_MAX_SIZE
+        );
+    }
 }
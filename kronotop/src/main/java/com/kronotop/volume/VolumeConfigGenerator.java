@@ -122,14 +122,55 @@ public class VolumeConfigGenerator {
         String name = volumeName(ShardKind.REDIS, shardId);
         Config config = context.getConfig().getConfig("redis.volume_syncer");
         long segmentSize = config.getLong("segment_size");
-        return new VolumeConfig(subspace, name, dataDir, segmentSize);
+        return newVolumeConfig(subspace, name, dataDir, segmentSize);
     }
 
     private VolumeConfig newBucketShardVolumeConfig(DirectorySubspace subspace, String dataDir) {
         String name = volumeName(ShardKind.BUCKET, shardId);
         Config config = context.getConfig().getConfig("bucket");
         long segmentSize = config.getLong("volume.segment_size");
-        return new VolumeConfig(subspace, name, dataDir, segmentSize);
+        return newVolumeConfig(subspace, name, dataDir, segmentSize);
+    }
+
+    /**
+     * Creates a VolumeConfig and applies the storage engine settings shared by all volume kinds.
+     *
+     * @param subspace    the DirectorySubspace associated with the volume configuration
+     * @param name        the name of the volume
+     * @param dataDir     the directory path where the volume's data will be stored
+     * @param segmentSize the size of a segment file in bytes
+     * @return a VolumeConfig object
+     */
+    private VolumeConfig newVolumeConfig(DirectorySubspace subspace, String name, String dataDir, long segmentSize) {
+        Config config = context.getConfig().getConfig("volume");
+        long groupCommitMaxWait = config.getLong("group_commit.max_wait");
+        long groupCommitMaxBytes = config.getLong("group_commit.max_bytes");
+        boolean mmapSealedSegments = config.getBoolean("mmap_sealed_segments");
+        double standbySegmentThreshold = config.getDouble("standby_segment_threshold");
+        long entryMetadataCacheMaxWeight = config.getLong("entry_metadata_cache.max_weight");
+        long entryMetadataCacheExpireAfterAccess = config.getLong("entry_metadata_cache.expire_after_access");
+        boolean compressionEnabled = config.getBoolean("compression.enabled");
+        int compressionMinSize = config.getInt("compression.min_size");
+        int ioThreads = config.getInt("io_threads");
+        boolean directIO = config.getBoolean("direct_io");
+        long entryCacheMaxSize = config.getLong("entry_cache.max_size");
+        return new VolumeConfig(
+                subspace,
+                name,
+                dataDir,
+                segmentSize,
+                groupCommitMaxWait,
+                groupCommitMaxBytes,
+                mmapSealedSegments,
+                standbySegmentThreshold,
+                entryMetadataCacheMaxWeight,
+                entryMetadataCacheExpireAfterAccess,
+                compressionEnabled,
+                compressionMinSize,
+                ioThreads,
+                directIO,
+                entryCacheMaxSize
+        );
     }
 
     /**
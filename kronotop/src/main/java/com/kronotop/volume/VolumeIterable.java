@@ -25,12 +25,26 @@ import com.apple.foundationdb.tuple.Versionstamp;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-
+/**
+ * VolumeIterable iterates over the entries of a prefix in key order.
+ * <p>
+ * The iterator reads ahead: it takes a batch of entry keys from the range read and reads their values
+ * with {@link Volume#readEntries}, nearby entries in the same segment are fetched with a single read.
+ * While a batch is consumed, the next one is loaded on the I/O executor of the volume.
+ */
 class VolumeIterable implements Iterable<KeyEntry> {
+    // The maximum number of entries read ahead by a single batch.
+    private static final int READ_AHEAD_BATCH_SIZE = 128;
+
     private final AsyncIterable<KeyValue> asyncIterable;
     private final Volume volume;
     private final VolumeSession session;
@@ -42,10 +56,13 @@ class VolumeIterable implements Iterable<KeyEntry> {
         this.session = session;
         this.limit = limit;
         this.reverse = reverse;
-        this.asyncIterable = createAsyncIterable(session, begin, end);
+        this.asyncIterable = rangeRead(volume, session, begin, end, limit, reverse);
     }
 
-    private AsyncIterable<KeyValue> createAsyncIterable(VolumeSession session, VersionstampedKeySelector begin, VersionstampedKeySelector end) {
+    /**
+     * Creates the range read over the entry keys of the session's prefix.
+     */
+    static AsyncIterable<KeyValue> rangeRead(Volume volume, VolumeSession session, VersionstampedKeySelector begin, VersionstampedKeySelector end, int limit, boolean reverse) {
         VolumeSubspace subspace = volume.getSubspace();
         KeySelector beginKeySelector;
         if (begin == null) {
@@ -56,13 +73,43 @@ class VolumeIterable implements Iterable<KeyEntry> {
 
         KeySelector endKeySelector;
         if (end == null) {
-            endKeySelector = KeySelector.firstGreaterOrEqual(ByteArrayUtil.strinc(beginKeySelector.getKey()));
+            // Scan until the end of the prefix, the begin selector may point to a key in the middle of it.
+            endKeySelector = KeySelector.firstGreaterOrEqual(ByteArrayUtil.strinc(subspace.packEntryKeyPrefix(session.prefix())));
         } else {
             endKeySelector = new KeySelector(subspace.packEntryKey(session.prefix(), end.getKey()), end.orEqual(), end.getOffset());
         }
         return session.transaction().getRange(beginKeySelector, endKeySelector, limit, reverse);
     }
 
+    /**
+     * Reads the entries of the given entry keys returned by a range read, nearby entries in the same
+     * segment are fetched with a single read.
+     *
+     * @return the entries in the order of the given key-values
+     * @throws UncheckedIOException if an I/O error occurs while reading the segments
+     */
+    static KeyEntry[] readEntries(Volume volume, VolumeSession session, List<KeyValue> keyValues) {
+        Versionstamp[] keys = new Versionstamp[keyValues.size()];
+        EntryMetadata[] metadataList = new EntryMetadata[keyValues.size()];
+        for (int i = 0; i < keyValues.size(); i++) {
+            KeyValue keyValue = keyValues.get(i);
+            keys[i] = (Versionstamp) volume.getConfig().subspace().unpack(keyValue.getKey()).get(2);
+            metadataList[i] = EntryMetadata.decode(ByteBuffer.wrap(keyValue.getValue()));
+        }
+
+        ByteBuffer[] entries;
+        try {
+            entries = volume.readEntries(session.prefix(), keys, metadataList);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        KeyEntry[] result = new KeyEntry[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            result[i] = new KeyEntry(keys[i], entries[i]);
+        }
+        return result;
+    }
+
     @Nonnull
     @Override
     public Iterator<KeyEntry> iterator() {
@@ -70,9 +117,15 @@ class VolumeIterable implements Iterable<KeyEntry> {
     }
 
     private static class VolumeIterator implements Iterator<KeyEntry> {
+        private static final KeyEntry[] EMPTY_BATCH = new KeyEntry[0];
         private final Volume volume;
         private final VolumeSession session;
         private final AsyncIterator<KeyValue> asyncIterator;
+        private KeyEntry[] batch = EMPTY_BATCH;
+        private int index;
+        // The next batch, loading in the background. Only one batch is loaded at a time,
+        // the async iterator is never accessed concurrently.
+        private CompletableFuture<KeyEntry[]> nextBatch;
 
         VolumeIterator(Volume volume, VolumeSession session, AsyncIterator<KeyValue> asyncIterator) {
             this.volume = volume;
@@ -80,6 +133,37 @@ class VolumeIterable implements Iterable<KeyEntry> {
             this.asyncIterator = asyncIterator;
         }
 
+        /**
+         * Takes the next batch of entry keys from the range read and reads their values.
+         *
+         * @return the entries of the batch, an empty array if the range read is exhausted
+         */
+        private KeyEntry[] loadBatch() {
+            List<KeyValue> keyValues = new ArrayList<>(READ_AHEAD_BATCH_SIZE);
+            while (keyValues.size() < READ_AHEAD_BATCH_SIZE && asyncIterator.hasNext()) {
+                keyValues.add(asyncIterator.next());
+            }
+            if (keyValues.isEmpty()) {
+                return EMPTY_BATCH;
+            }
+            return readEntries(volume, session, keyValues);
+        }
+
+        private CompletableFuture<KeyEntry[]> loadBatchAsync() {
+            return CompletableFuture.supplyAsync(this::loadBatch, volume.ioExecutor());
+        }
+
+        private KeyEntry[] awaitBatch(CompletableFuture<KeyEntry[]> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
         /**
          * Returns {@code true} if the iteration has more elements.
          * (In other words, returns {@code true} if {@link #next} would
@@ -89,7 +173,23 @@ class VolumeIterable implements Iterable<KeyEntry> {
          */
         @Override
         public boolean hasNext() {
-            return asyncIterator.hasNext();
+            if (index < batch.length) {
+                return true;
+            }
+            if (batch.length == 0 && nextBatch != null) {
+                // The previous batch was empty, the range read is exhausted.
+                return false;
+            }
+            // The first batch is loaded on the caller thread, there is nothing to overlap it with.
+            batch = nextBatch == null ? loadBatch() : awaitBatch(nextBatch);
+            index = 0;
+            if (batch.length == 0) {
+                nextBatch = CompletableFuture.completedFuture(EMPTY_BATCH);
+                return false;
+            }
+            // Read ahead while the current batch is consumed.
+            nextBatch = batch.length < READ_AHEAD_BATCH_SIZE ? CompletableFuture.completedFuture(EMPTY_BATCH) : loadBatchAsync();
+            return true;
         }
 
         /**
@@ -100,15 +200,10 @@ class VolumeIterable implements Iterable<KeyEntry> {
          */
         @Override
         public KeyEntry next() {
-            KeyValue keyValue = asyncIterator.next();
-            Versionstamp key = (Versionstamp) volume.getConfig().subspace().unpack(keyValue.getKey()).get(2);
-            EntryMetadata entryMetadata = EntryMetadata.decode(ByteBuffer.wrap(keyValue.getValue()));
-            try {
-                ByteBuffer entry = volume.getByEntryMetadata(session.prefix(), key, entryMetadata);
-                return new KeyEntry(key, entry);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
+            return batch[index++];
         }
     }
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * VolumeMetrics collects the runtime metrics of a {@link Volume}: the latencies of the append, get and
+ * update operations, the duration and the frequency of the flushes, the number of bytes written and read,
+ * the size of the append batches, the segment rollovers and the progress of the vacuum process.
+ * <p>
+ * The counters are {@link LongAdder}s and the histograms have fixed power-of-two buckets, recording a value
+ * never allocates or takes a lock. The latencies are recorded in microseconds.
+ */
+public final class VolumeMetrics {
+    private final Histogram appendLatency = new Histogram();
+    private final Histogram getLatency = new Histogram();
+    private final Histogram updateLatency = new Histogram();
+    private final Histogram flushLatency = new Histogram();
+    private final Histogram entriesPerBatch = new Histogram();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder segmentRollovers = new LongAdder();
+    private final AtomicLong vacuumSegments = new AtomicLong();
+    private final AtomicLong vacuumCompletedSegments = new AtomicLong();
+    private final LongAdder vacuumMovedEntries = new LongAdder();
+    private final LongAdder vacuumMovedBytes = new LongAdder();
+    private volatile boolean vacuumRunning;
+
+    private static long elapsedMicros(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt);
+    }
+
+    /**
+     * Records a completed append operation.
+     *
+     * @param startedAt the value of {@link System#nanoTime()} when the operation started
+     * @param entries   the number of appended entries
+     * @param bytes     the number of bytes written to the segments
+     */
+    void recordAppend(long startedAt, int entries, long bytes) {
+        appendLatency.record(elapsedMicros(startedAt));
+        entriesPerBatch.record(entries);
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Records a completed get operation.
+     *
+     * @param startedAt the value of {@link System#nanoTime()} when the operation started
+     * @param bytes     the number of bytes read from the segments
+     */
+    void recordGet(long startedAt, long bytes) {
+        getLatency.record(elapsedMicros(startedAt));
+        bytesRead.add(bytes);
+    }
+
+    /**
+     * Records a completed update operation.
+     *
+     * @param startedAt the value of {@link System#nanoTime()} when the operation started
+     * @param bytes     the number of bytes written to the segments
+     */
+    void recordUpdate(long startedAt, long bytes) {
+        updateLatency.record(elapsedMicros(startedAt));
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Records a segment flush, forcing the segment's content to the storage device.
+     *
+     * @param startedAt the value of {@link System#nanoTime()} when the flush started
+     */
+    void recordFlush(long startedAt) {
+        flushLatency.record(elapsedMicros(startedAt));
+    }
+
+    /**
+     * Records that the writable segment is full and a new one has taken its place.
+     */
+    void recordSegmentRollover() {
+        segmentRollovers.increment();
+    }
+
+    /**
+     * Records the start of a vacuum process.
+     *
+     * @param segments the number of segments that will be vacuumed
+     */
+    void recordVacuumStarted(int segments) {
+        vacuumSegments.set(segments);
+        vacuumCompletedSegments.set(0);
+        vacuumRunning = true;
+    }
+
+    /**
+     * Records that the vacuum process has finished a segment.
+     */
+    void recordVacuumSegmentCompleted() {
+        vacuumCompletedSegments.incrementAndGet();
+    }
+
+    /**
+     * Records the entries moved by the vacuum process.
+     *
+     * @param entries the number of moved entries
+     * @param bytes   the number of moved bytes
+     */
+    void recordVacuumMoved(int entries, long bytes) {
+        vacuumMovedEntries.add(entries);
+        vacuumMovedBytes.add(bytes);
+    }
+
+    /**
+     * Records the end of a vacuum process, completed or stopped.
+     */
+    void recordVacuumFinished() {
+        vacuumRunning = false;
+    }
+
+    /**
+     * Returns a snapshot of the metrics. The values are read without synchronization,
+     * they may not be consistent with each other under concurrent updates.
+     *
+     * @return a snapshot of the metrics
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(
+                appendLatency.snapshot(),
+                getLatency.snapshot(),
+                updateLatency.snapshot(),
+                flushLatency.snapshot(),
+                entriesPerBatch.snapshot(),
+                bytesWritten.sum(),
+                bytesRead.sum(),
+                segmentRollovers.sum(),
+                new VacuumSnapshot(
+                        vacuumRunning,
+                        vacuumSegments.get(),
+                        vacuumCompletedSegments.get(),
+                        vacuumMovedEntries.sum(),
+                        vacuumMovedBytes.sum()
+                )
+        );
+    }
+
+    /**
+     * A histogram with power-of-two buckets, the bucket <code>i</code> counts the values in the range
+     * <code>[2^(i-1), 2^i)</code> and the bucket 0 counts zeros. The percentiles are estimated as the upper
+     * bound of the bucket that contains them.
+     */
+    static final class Histogram {
+        private static final int NUMBER_OF_BUCKETS = 64;
+        private final LongAdder[] buckets = new LongAdder[NUMBER_OF_BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            if (value < 0) {
+                value = 0;
+            }
+            buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        HistogramSnapshot snapshot() {
+            long[] counts = new long[NUMBER_OF_BUCKETS];
+            long total = 0;
+            for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            long maxValue = max.get();
+            return new HistogramSnapshot(
+                    total,
+                    total == 0 ? 0 : (double) sum.sum() / total,
+                    percentile(counts, total, 0.50, maxValue),
+                    percentile(counts, total, 0.90, maxValue),
+                    percentile(counts, total, 0.99, maxValue),
+                    maxValue
+            );
+        }
+
+        private static long percentile(long[] counts, long total, double quantile, long maxValue) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= rank) {
+                    long upperBound = i == 0 ? 0 : (1L << i) - 1;
+                    return Math.min(upperBound, maxValue);
+                }
+            }
+            return maxValue;
+        }
+    }
+
+    /**
+     * A snapshot of a histogram.
+     *
+     * @param count the number of recorded values
+     * @param mean  the mean of the recorded values
+     * @param p50   the estimated median
+     * @param p90   the estimated 90th percentile
+     * @param p99   the estimated 99th percentile
+     * @param max   the maximum recorded value
+     */
+    public record HistogramSnapshot(long count, double mean, long p50, long p90, long p99, long max) {
+    }
+
+    /**
+     * A snapshot of the progress of the vacuum process.
+     *
+     * @param running           true if a vacuum process is running on the volume
+     * @param segments          the number of segments to vacuum in the latest run
+     * @param completedSegments the number of segments vacuumed in the latest run
+     * @param movedEntries      the total number of entries moved by the vacuum process
+     * @param movedBytes        the total number of bytes moved by the vacuum process
+     */
+    public record VacuumSnapshot(boolean running, long segments, long completedSegments, long movedEntries, long movedBytes) {
+    }
+
+    /**
+     * A snapshot of the metrics of a volume.
+     *
+     * @param appendLatency    the latency of the append operations, in microseconds
+     * @param getLatency       the latency of the get operations, in microseconds
+     * @param updateLatency    the latency of the update operations, in microseconds
+     * @param flushLatency     the duration of the segment flushes, in microseconds, the count is the number of flushes
+     * @param entriesPerBatch  the number of entries per append operation
+     * @param bytesWritten     the number of bytes written to the segments by the append and update operations
+     * @param bytesRead        the number of bytes read from the segments by the get operations
+     * @param segmentRollovers the number of times the writable segment was full and a new one took its place
+     * @param vacuum           the progress of the vacuum process
+     */
+    public record Snapshot(
+            HistogramSnapshot appendLatency,
+            HistogramSnapshot getLatency,
+            HistogramSnapshot updateLatency,
+            HistogramSnapshot flushLatency,
+            HistogramSnapshot entriesPerBatch,
+            long bytesWritten,
+            long bytesRead,
+            long segmentRollovers,
+            VacuumSnapshot vacuum
+    ) {
+    }
+}
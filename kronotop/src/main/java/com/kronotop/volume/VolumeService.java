@@ -215,22 +215,34 @@ public class VolumeService extends CommandHandlerService implements KronotopServ
      * @throws IOException if an I/O error occurs during the creation of the directory or volume
      */
     public Volume newVolume(VolumeConfig config) throws IOException {
+        lock.readLock().lock();
+        try {
+            Volume volume = volumes.get(config.name());
+            if (volume != null && !volume.isClosed()) {
+                // Already have the volume
+                return volume;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Opening a volume reads its metadata and opens all of its segments, it's done without holding
+        // the lock to not block the other volumes.
+        checkAndCreateDataDir(config.dataDir());
+        // TODO: Create folders for this specific volume in the constructor.
+        Volume created = new Volume(context, config);
+
         lock.writeLock().lock();
         try {
-            if (volumes.containsKey(config.name())) {
-                Volume volume = volumes.get(config.name());
-                if (!volume.isClosed()) {
-                    // Already have the volume
-                    return volume;
-                }
+            Volume volume = volumes.get(config.name());
+            if (volume != null && !volume.isClosed()) {
+                // Another thread has opened the same volume in the meantime.
+                created.close();
+                return volume;
             }
-            // Create a new volume.
-            checkAndCreateDataDir(config.dataDir());
-            // TODO: Create folders for this specific volume in the constructor.
-            Volume volume = new Volume(context, config);
-            submitVacuumTaskIfAny(volume);
-            volumes.put(config.name(), volume);
-            return volume;
+            submitVacuumTaskIfAny(created);
+            volumes.put(config.name(), created);
+            return created;
         } finally {
             lock.writeLock().unlock();
         }
@@ -16,19 +16,27 @@
 
 package com.kronotop.volume;
 
+import com.apple.foundationdb.Range;
 import com.apple.foundationdb.directory.DirectorySubspace;
+import com.apple.foundationdb.tuple.ByteArrayUtil;
 import com.apple.foundationdb.tuple.Tuple;
 import com.apple.foundationdb.tuple.Versionstamp;
+import com.kronotop.volume.segment.Segment;
 
 import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
+import static com.kronotop.volume.EntryMetadata.*;
 import static com.kronotop.volume.Subspaces.*;
 
 public class VolumeSubspace {
     private final DirectorySubspace subspace;
+    private final byte[] compactEntryMetadataPrefix;
 
     VolumeSubspace(@Nonnull DirectorySubspace subspace) {
         this.subspace = subspace;
+        this.compactEntryMetadataPrefix = subspace.pack(Tuple.from(COMPACT_ENTRY_METADATA_SUBSPACE));
     }
 
     byte[] packEntryKeyPrefix(Prefix prefix) {
@@ -46,8 +54,64 @@ public class VolumeSubspace {
         return subspace.packWithVersionstamp(tuple);
     }
 
+    /**
+     * Packs the key that indexes the given encoded entry metadata by segment.
+     * <p>
+     * Compact entry metadata is appended to the subspace prefix as is, it has a fixed length and
+     * doesn't need the escaping of the tuple layer. Legacy entry metadata keeps its original key.
+     */
     byte[] packEntryMetadataKey(byte[] data) {
-        return subspace.pack(Tuple.from(ENTRY_METADATA_SUBSPACE, data));
+        if (EntryMetadata.isLegacy(data)) {
+            return subspace.pack(Tuple.from(ENTRY_METADATA_SUBSPACE, data));
+        }
+        return ByteArrayUtil.join(compactEntryMetadataPrefix, data);
+    }
+
+    /**
+     * Extracts the encoded entry metadata from a key packed by {@link #packEntryMetadataKey(byte[])}.
+     */
+    byte[] unpackEntryMetadataKey(byte[] key) {
+        if (ByteArrayUtil.startsWith(key, compactEntryMetadataPrefix)) {
+            return Arrays.copyOfRange(key, compactEntryMetadataPrefix.length, key.length);
+        }
+        return (byte[]) subspace.unpack(key).get(1);
+    }
+
+    /**
+     * Returns the range of the compact entry metadata keys of the given segment.
+     */
+    Range entryMetadataRange(long segmentId) {
+        byte[] begin = ByteArrayUtil.join(compactEntryMetadataPrefix, new byte[]{FORMAT_VERSION}, ByteBuffer.allocate(8).putLong(segmentId).array());
+        return new Range(begin, ByteArrayUtil.strinc(begin));
+    }
+
+    /**
+     * Returns the range of the compact entry metadata keys of the given segment and prefix.
+     */
+    Range entryMetadataRange(long segmentId, Prefix prefix) {
+        byte[] begin = ByteArrayUtil.join(compactEntryMetadataPrefix, new byte[]{FORMAT_VERSION}, ByteBuffer.allocate(8).putLong(segmentId).array(), prefix.asBytes());
+        return new Range(begin, ByteArrayUtil.strinc(begin));
+    }
+
+    /**
+     * Returns the range of the legacy entry metadata keys of the given segment.
+     */
+    Range legacyEntryMetadataRange(long segmentId) {
+        byte[] begin = subspace.pack(Tuple.from(ENTRY_METADATA_SUBSPACE, Segment.generateName(segmentId).getBytes()));
+        return new Range(begin, ByteArrayUtil.strinc(begin));
+    }
+
+    /**
+     * Returns the range of the legacy entry metadata keys of the given segment and prefix.
+     */
+    Range legacyEntryMetadataRange(long segmentId, Prefix prefix) {
+        ByteBuffer buffer = ByteBuffer.
+                allocate(Segment.SEGMENT_NAME_SIZE + ENTRY_PREFIX_SIZE + SUBSPACE_SEPARATOR_SIZE).
+                put(Segment.generateName(segmentId).getBytes()).
+                put(SUBSPACE_SEPARATOR).
+                put(prefix.asBytes()).flip();
+        byte[] begin = subspace.pack(Tuple.from(ENTRY_METADATA_SUBSPACE, buffer.array()));
+        return new Range(begin, ByteArrayUtil.strinc(begin));
     }
 
     byte[] packSegmentCardinalityKey(String segment, Prefix prefix) {
@@ -57,4 +121,16 @@ public class VolumeSubspace {
     byte[] packSegmentUsedBytesKey(String segment, Prefix prefix) {
         return subspace.pack(Tuple.from(SEGMENT_USED_BYTES_SUBSPACE, segment, prefix.asBytes()));
     }
+
+    byte[] packSegmentHighWaterMarkKey(String segment) {
+        return subspace.pack(Tuple.from(SEGMENT_HIGH_WATER_MARK_SUBSPACE, segment));
+    }
+
+    byte[] packSegmentStatsKey(String segment, int field) {
+        return subspace.pack(Tuple.from(SEGMENT_STATS_SUBSPACE, segment, field));
+    }
+
+    Range segmentStatsRange(String segment) {
+        return Range.startsWith(subspace.pack(Tuple.from(SEGMENT_STATS_SUBSPACE, segment)));
+    }
 }
@@ -33,4 +33,9 @@ public abstract class BaseVolumeHandler implements Handler {
     public boolean isRedisCompatible() {
         return false;
     }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
 }
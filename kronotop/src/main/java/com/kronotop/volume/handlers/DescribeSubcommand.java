@@ -22,8 +22,11 @@ import com.kronotop.redis.server.SubcommandHandler;
 import com.kronotop.server.Request;
 import com.kronotop.server.Response;
 import com.kronotop.server.resp3.*;
+import com.kronotop.volume.EntryCache;
+import com.kronotop.volume.EntryMetadataCache;
 import com.kronotop.volume.Volume;
 import com.kronotop.volume.VolumeConfig;
+import com.kronotop.volume.VolumeMetrics;
 import com.kronotop.volume.VolumeService;
 import com.kronotop.volume.segment.SegmentAnalysis;
 import io.netty.buffer.ByteBuf;
@@ -61,13 +64,76 @@ class DescribeSubcommand extends BaseSubcommandHandler implements SubcommandHand
             segment.put(new SimpleStringRedisMessage("used_bytes"), new IntegerRedisMessage(analysis.usedBytes()));
             segment.put(new SimpleStringRedisMessage("garbage_ratio"), new DoubleRedisMessage(analysis.garbageRatio()));
             segment.put(new SimpleStringRedisMessage("cardinality"), new IntegerRedisMessage(analysis.cardinality()));
+            segment.put(new SimpleStringRedisMessage("dead_entries"), new IntegerRedisMessage(analysis.deadEntries()));
+            segment.put(new SimpleStringRedisMessage("dead_bytes"), new IntegerRedisMessage(analysis.deadBytes()));
+            segment.put(new SimpleStringRedisMessage("last_modified"), new IntegerRedisMessage(analysis.lastModified()));
 
             segmentAnalysis.put(new SimpleStringRedisMessage(analysis.name()), new MapRedisMessage(segment));
         }
         result.put(new SimpleStringRedisMessage("segments"), new MapRedisMessage(segmentAnalysis));
+
+        EntryMetadataCache.Stats stats = volume.getEntryMetadataCacheStats();
+        Map<RedisMessage, RedisMessage> entryMetadataCache = new LinkedHashMap<>();
+        entryMetadataCache.put(new SimpleStringRedisMessage("weight"), new IntegerRedisMessage(stats.weight()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("max_weight"), new IntegerRedisMessage(config.entryMetadataCacheMaxWeight()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("hit_count"), new IntegerRedisMessage(stats.hitCount()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("miss_count"), new IntegerRedisMessage(stats.missCount()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("hit_rate"), new DoubleRedisMessage(stats.hitRate()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("eviction_count"), new IntegerRedisMessage(stats.evictionCount()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("load_success_count"), new IntegerRedisMessage(stats.loadSuccessCount()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("load_failure_count"), new IntegerRedisMessage(stats.loadFailureCount()));
+        entryMetadataCache.put(new SimpleStringRedisMessage("average_load_penalty"), new IntegerRedisMessage(stats.averageLoadPenalty()));
+        result.put(new SimpleStringRedisMessage("entry_metadata_cache"), new MapRedisMessage(entryMetadataCache));
+
+        EntryCache.Stats entryCacheStats = volume.getEntryCacheStats();
+        if (entryCacheStats != null) {
+            Map<RedisMessage, RedisMessage> entryCache = new LinkedHashMap<>();
+            entryCache.put(new SimpleStringRedisMessage("size"), new IntegerRedisMessage(entryCacheStats.size()));
+            entryCache.put(new SimpleStringRedisMessage("max_size"), new IntegerRedisMessage(entryCacheStats.maxSize()));
+            entryCache.put(new SimpleStringRedisMessage("entries"), new IntegerRedisMessage(entryCacheStats.entries()));
+            entryCache.put(new SimpleStringRedisMessage("hit_count"), new IntegerRedisMessage(entryCacheStats.hitCount()));
+            entryCache.put(new SimpleStringRedisMessage("miss_count"), new IntegerRedisMessage(entryCacheStats.missCount()));
+            entryCache.put(new SimpleStringRedisMessage("hit_rate"), new DoubleRedisMessage(entryCacheStats.hitRate()));
+            entryCache.put(new SimpleStringRedisMessage("admission_count"), new IntegerRedisMessage(entryCacheStats.admissionCount()));
+            entryCache.put(new SimpleStringRedisMessage("rejection_count"), new IntegerRedisMessage(entryCacheStats.rejectionCount()));
+            entryCache.put(new SimpleStringRedisMessage("eviction_count"), new IntegerRedisMessage(entryCacheStats.evictionCount()));
+            result.put(new SimpleStringRedisMessage("entry_cache"), new MapRedisMessage(entryCache));
+        }
+
+        VolumeMetrics.Snapshot snapshot = volume.getMetrics().snapshot();
+        Map<RedisMessage, RedisMessage> metrics = new LinkedHashMap<>();
+        metrics.put(new SimpleStringRedisMessage("append_latency"), histogram(snapshot.appendLatency()));
+        metrics.put(new SimpleStringRedisMessage("get_latency"), histogram(snapshot.getLatency()));
+        metrics.put(new SimpleStringRedisMessage("update_latency"), histogram(snapshot.updateLatency()));
+        metrics.put(new SimpleStringRedisMessage("flush_latency"), histogram(snapshot.flushLatency()));
+        metrics.put(new SimpleStringRedisMessage("entries_per_batch"), histogram(snapshot.entriesPerBatch()));
+        metrics.put(new SimpleStringRedisMessage("bytes_written"), new IntegerRedisMessage(snapshot.bytesWritten()));
+        metrics.put(new SimpleStringRedisMessage("bytes_read"), new IntegerRedisMessage(snapshot.bytesRead()));
+        metrics.put(new SimpleStringRedisMessage("segment_rollovers"), new IntegerRedisMessage(snapshot.segmentRollovers()));
+
+        VolumeMetrics.VacuumSnapshot vacuumSnapshot = snapshot.vacuum();
+        Map<RedisMessage, RedisMessage> vacuum = new LinkedHashMap<>();
+        vacuum.put(new SimpleStringRedisMessage("running"), vacuumSnapshot.running() ? BooleanRedisMessage.TRUE : BooleanRedisMessage.FALSE);
+        vacuum.put(new SimpleStringRedisMessage("segments"), new IntegerRedisMessage(vacuumSnapshot.segments()));
+        vacuum.put(new SimpleStringRedisMessage("completed_segments"), new IntegerRedisMessage(vacuumSnapshot.completedSegments()));
+        vacuum.put(new SimpleStringRedisMessage("moved_entries"), new IntegerRedisMessage(vacuumSnapshot.movedEntries()));
+        vacuum.put(new SimpleStringRedisMessage("moved_bytes"), new IntegerRedisMessage(vacuumSnapshot.movedBytes()));
+        metrics.put(new SimpleStringRedisMessage("vacuum"), new MapRedisMessage(vacuum));
+        result.put(new SimpleStringRedisMessage("metrics"), new MapRedisMessage(metrics));
         response.writeMap(result);
     }
 
+    private MapRedisMessage histogram(VolumeMetrics.HistogramSnapshot snapshot) {
+        Map<RedisMessage, RedisMessage> histogram = new LinkedHashMap<>();
+        histogram.put(new SimpleStringRedisMessage("count"), new IntegerRedisMessage(snapshot.count()));
+        histogram.put(new SimpleStringRedisMessage("mean"), new DoubleRedisMessage(snapshot.mean()));
+        histogram.put(new SimpleStringRedisMessage("p50"), new IntegerRedisMessage(snapshot.p50()));
+        histogram.put(new SimpleStringRedisMessage("p90"), new IntegerRedisMessage(snapshot.p90()));
+        histogram.put(new SimpleStringRedisMessage("p99"), new IntegerRedisMessage(snapshot.p99()));
+        histogram.put(new SimpleStringRedisMessage("max"), new IntegerRedisMessage(snapshot.max()));
+        return new MapRedisMessage(histogram);
+    }
+
     private static class DescribeParameters {
         private final String name;
 
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume.handlers;
+
+import com.kronotop.cluster.handlers.InvalidNumberOfParametersException;
+import com.kronotop.internal.ByteBufUtils;
+import com.kronotop.internal.JSONUtils;
+import com.kronotop.redis.server.SubcommandHandler;
+import com.kronotop.server.Request;
+import com.kronotop.server.Response;
+import com.kronotop.volume.Volume;
+import com.kronotop.volume.VolumeService;
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+
+/**
+ * Replies with the runtime metrics of a volume as a JSON document, for the tools that collect them periodically.
+ * The same metrics are also part of the DESCRIBE output.
+ */
+class MetricsSubcommand extends BaseSubcommandHandler implements SubcommandHandler {
+    MetricsSubcommand(VolumeService service) {
+        super(service);
+    }
+
+    @Override
+    public void execute(Request request, Response response) {
+        MetricsParameters parameters = new MetricsParameters(request.getParams());
+        Volume volume = service.findVolume(parameters.name);
+
+        ByteBuf buf = response.getCtx().alloc().buffer();
+        buf.writeBytes(JSONUtils.writeValueAsBytes(volume.getMetrics().snapshot()));
+        response.write(buf);
+    }
+
+    private static class MetricsParameters {
+        private final String name;
+
+        private MetricsParameters(ArrayList<ByteBuf> params) {
+            if (params.size() != 2) {
+                throw new InvalidNumberOfParametersException();
+            }
+
+            name = ByteBufUtils.readAsString(params.get(1));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume.handlers;
+
+import com.kronotop.KronotopException;
+import com.kronotop.cluster.handlers.InvalidNumberOfParametersException;
+import com.kronotop.internal.ByteBufUtils;
+import com.kronotop.redis.server.SubcommandHandler;
+import com.kronotop.server.Request;
+import com.kronotop.server.Response;
+import com.kronotop.volume.ClosedVolumeException;
+import com.kronotop.volume.Volume;
+import com.kronotop.volume.VolumeNotOpenException;
+import com.kronotop.volume.VolumeService;
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+
+/**
+ * Rewrites the entry metadata of a volume stored in the legacy format in the compact format
+ * and replies with the number of migrated entries.
+ */
+class MigrateEntryMetadataSubcommand extends BaseSubcommandHandler implements SubcommandHandler {
+    MigrateEntryMetadataSubcommand(VolumeService service) {
+        super(service);
+    }
+
+    @Override
+    public void execute(Request request, Response response) {
+        MigrateEntryMetadataParameters parameters = new MigrateEntryMetadataParameters(request.getParams());
+        long migrated;
+        try {
+            Volume volume = service.findVolume(parameters.volumeName);
+            if (!service.hasVolumeOwnership(volume)) {
+                throw new KronotopException("Volume " + volume.getConfig().name() + " is not owned by this member");
+            }
+            migrated = volume.migrateEntryMetadata();
+        } catch (ClosedVolumeException | VolumeNotOpenException e) {
+            throw new KronotopException(e);
+        }
+        response.writeInteger(migrated);
+    }
+
+    private static class MigrateEntryMetadataParameters {
+        private final String volumeName;
+
+        private MigrateEntryMetadataParameters(ArrayList<ByteBuf> params) {
+            if (params.size() != 2) {
+                throw new InvalidNumberOfParametersException();
+            }
+
+            volumeName = ByteBufUtils.readAsString(params.get(1));
+        }
+    }
+}
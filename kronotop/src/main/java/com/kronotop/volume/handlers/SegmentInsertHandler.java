@@ -48,7 +48,6 @@ public class SegmentInsertHandler extends BaseVolumeHandler implements Handler {
         try {
             Volume volume = service.findVolume(message.getVolume());
             volume.insert(message.getSegment(), message.getPackedEntries());
-            volume.flush();
         } catch (VolumeNotOpenException | ClosedVolumeException e) {
             throw new KronotopException(e.getMessage(), e);
         }
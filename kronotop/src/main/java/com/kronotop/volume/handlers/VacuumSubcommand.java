@@ -40,7 +40,7 @@ class VacuumSubcommand extends BaseSubcommandHandler implements SubcommandHandle
             if (vacuumMetadata != null) {
                 throw new KronotopException("Vacuum task on volume " + volume.getConfig().name() + " already exists");
             }
-            vacuumMetadata = new VacuumMetadata(volume.getConfig().name(), parameters.allowedGarbageRatio);
+            vacuumMetadata = new VacuumMetadata(volume.getConfig().name(), parameters.allowedGarbageRatio, parameters.compaction);
             vacuumMetadata.save(tr, volume.getConfig().subspace());
             tr.commit().join();
             return vacuumMetadata;
@@ -68,14 +68,24 @@ class VacuumSubcommand extends BaseSubcommandHandler implements SubcommandHandle
     private static class VacuumParameters {
         private final String volumeName;
         private final double allowedGarbageRatio;
+        private final boolean compaction;
 
         private VacuumParameters(ArrayList<ByteBuf> params) {
-            if (params.size() != 3) {
+            if (params.size() != 3 && params.size() != 4) {
                 throw new InvalidNumberOfParametersException();
             }
 
             volumeName = ByteBufUtils.readAsString(params.get(1));
             allowedGarbageRatio = ByteBufUtils.readAsDouble(params.get(2));
+            if (params.size() == 4) {
+                String option = ByteBufUtils.readAsString(params.get(3));
+                if (!option.equalsIgnoreCase("COMPACT")) {
+                    throw new KronotopException("Unknown vacuum option: " + option);
+                }
+                compaction = true;
+            } else {
+                compaction = false;
+            }
         }
     }
 }
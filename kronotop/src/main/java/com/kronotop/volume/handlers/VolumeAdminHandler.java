@@ -43,6 +43,8 @@ public class VolumeAdminHandler extends BaseSubcommandHandler implements Handler
         handlers.put(VolumeAdminSubcommand.STOP_VACUUM, new StopVacuumSubcommand(service));
         handlers.put(VolumeAdminSubcommand.CLEANUP_ORPHAN_FILES, new CleanupOrphanFilesSubcommand(service));
         handlers.put(VolumeAdminSubcommand.MARK_STALE_PREFIXES, new MarkStalePrefixesSubcommand(service));
+        handlers.put(VolumeAdminSubcommand.MIGRATE_ENTRY_METADATA, new MigrateEntryMetadataSubcommand(service));
+        handlers.put(VolumeAdminSubcommand.METRICS, new MetricsSubcommand(service));
     }
 
     @Override
@@ -50,6 +52,11 @@ public class VolumeAdminHandler extends BaseSubcommandHandler implements Handler
         return false;
     }
 
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
     @Override
     public void beforeExecute(Request request) {
         request.attr(MessageTypes.VOLUMEADMIN).set(new VolumeAdminMessage(request));
@@ -24,7 +24,9 @@ public enum VolumeAdminSubcommand {
     VACUUM("vacuum"),
     STOP_VACUUM("stop-vacuum"),
     CLEANUP_ORPHAN_FILES("cleanup-orphan-files"),
-    MARK_STALE_PREFIXES("mark-stale-prefixes");
+    MARK_STALE_PREFIXES("mark-stale-prefixes"),
+    MIGRATE_ENTRY_METADATA("migrate-entry-metadata"),
+    METRICS("metrics");
 
     private final String value;
 
@@ -124,7 +124,7 @@ public class ReplicationStageRunner {
 
         // Invalidate the cache for fetched entries.
         for (SegmentLogEntry entry : segmentLogEntries) {
-            invalidateEntryMetadataCacheEntry(entry);
+            invalidateEntryMetadataCacheEntry(segment, entry);
         }
 
         return new IterationResult(segmentLogEntries.getLast().key(), segmentLogEntries.size());
@@ -151,15 +151,18 @@ public class ReplicationStageRunner {
     /**
      * Invalidates the metadata cache for a specific segment log entry. The method resolves
      * the prefix associated with the entry and retrieves the corresponding volume instance
-     * before invalidating the entry's metadata in the cache.
+     * before invalidating the entry's metadata in the cache. The entry cached at the inserted
+     * location is discarded too, it might have been read before the entry was replicated.
      *
-     * @param entry the segment log entry containing the key and prefix information
+     * @param segment the segment that the entry has been inserted into
+     * @param entry   the segment log entry containing the key and prefix information
      */
-    private void invalidateEntryMetadataCacheEntry(SegmentLogEntry entry) {
+    private void invalidateEntryMetadataCacheEntry(Segment segment, SegmentLogEntry entry) {
         try {
             Prefix prefix = Prefix.fromLong(entry.value().prefix());
             Volume volume = volumeService.findVolume(config.volumeConfig().name());
             volume.invalidateEntryMetadataCacheEntry(prefix, entry.entryKey());
+            volume.invalidateEntryCacheEntry(segment.getId(), entry.value().position());
         } catch (ClosedVolumeException | VolumeNotOpenException e) {
             // We can ignore these exceptions
         }
@@ -66,7 +66,7 @@ public class SegmentLog {
      * @param value       The log entry value to be encoded and appended.
      */
     public void append(Transaction tr, int userVersion, SegmentLogValue value) {
-        append_internal(tr, null, userVersion, value);
+        append(tr, null, userVersion, value);
     }
 
     /**
@@ -79,12 +79,37 @@ public class SegmentLog {
      */
     public void append(Transaction tr, Versionstamp versionstamp, int userVersion, SegmentLogValue value) {
         append_internal(tr, versionstamp, userVersion, value);
+        increaseCardinality(tr, 1);
+    }
+
+    /**
+     * Appends a new log entry to the segment log without updating its cardinality. The caller is
+     * responsible for calling {@code increaseCardinality} with the number of appended entries, so a batch
+     * of entries emits a single atomic mutation on the cardinality key.
+     *
+     * @param tr           The transaction to use for this operation.
+     * @param versionstamp The versionstamp to associate with this log entry, can be null.
+     * @param userVersion  The user version to associate with this log entry.
+     * @param value        The log entry value to be encoded and appended.
+     */
+    public void appendWithoutCardinality(Transaction tr, Versionstamp versionstamp, int userVersion, SegmentLogValue value) {
+        append_internal(tr, versionstamp, userVersion, value);
+    }
+
+    /**
+     * Increases the cardinality of the segment log by the given delta.
+     *
+     * @param tr    The transaction to use for this operation.
+     * @param delta The number of appended log entries.
+     */
+    public void increaseCardinality(Transaction tr, int delta) {
+        byte[] param = delta == 1 ? CARDINALITY_INCREASE_DELTA : ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(delta).array();
+        tr.mutate(MutationType.ADD, cardinalityKey, param);
     }
 
     /**
      * Appends a log entry to the segment log with the provided transaction, versionstamp,
-     * user version, and log value. This method internally updates the log entry,
-     * manages the cardinality, and updates the secondary index.
+     * user version, and log value. The cardinality of the segment log is updated by the callers.
      *
      * @param tr           The transaction used for this operation.
      * @param versionstamp The versionstamp associated with the log entry.
@@ -112,7 +137,6 @@ public class SegmentLog {
         }
         key = subspace.packWithVersionstamp(preKey);
         tr.mutate(MutationType.SET_VERSIONSTAMPED_KEY, key, value.encode().array());
-        tr.mutate(MutationType.ADD, cardinalityKey, CARDINALITY_INCREASE_DELTA);
     }
 
     /**
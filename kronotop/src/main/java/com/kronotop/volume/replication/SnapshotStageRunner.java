@@ -73,7 +73,7 @@ public class SnapshotStageRunner extends ReplicationStageRunner implements Stage
 
         Segment segment = openSegments.get(segmentId);
         if (segment == null) {
-            SegmentConfig segmentConfig = new SegmentConfig(segmentId, volumeConfig.dataDir(), volumeConfig.segmentSize());
+            SegmentConfig segmentConfig = new SegmentConfig(segmentId, volumeConfig.dataDir(), volumeConfig.segmentSize(), volumeConfig.directIO());
             segment = new Segment(segmentConfig);
             openSegments.put(segmentId, segment);
         }
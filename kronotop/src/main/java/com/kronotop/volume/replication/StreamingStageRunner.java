@@ -25,7 +25,7 @@ import com.apple.foundationdb.tuple.Tuple;
 import com.apple.foundationdb.tuple.Versionstamp;
 import com.kronotop.Context;
 import com.kronotop.KronotopException;
-import com.kronotop.volume.EntryMetadata;
+import com.kronotop.volume.EntryMetadataView;
 import com.kronotop.volume.NotEnoughSpaceException;
 import com.kronotop.volume.VersionstampedKeySelector;
 import com.kronotop.volume.segment.Segment;
@@ -34,7 +34,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
@@ -68,7 +67,7 @@ public class StreamingStageRunner extends ReplicationStageRunner implements Stag
     private IterationResult iterateSegmentLogEntries(Transaction tr, long segmentId, Versionstamp key) throws IOException, NotEnoughSpaceException {
         Segment segment = openSegments.get(segmentId);
         if (segment == null) {
-            SegmentConfig segmentConfig = new SegmentConfig(segmentId, volumeConfig.dataDir(), volumeConfig.segmentSize());
+            SegmentConfig segmentConfig = new SegmentConfig(segmentId, volumeConfig.dataDir(), volumeConfig.segmentSize(), volumeConfig.directIO());
             segment = new Segment(segmentConfig);
             openSegments.put(segmentId, segment);
         }
@@ -103,8 +102,7 @@ public class StreamingStageRunner extends ReplicationStageRunner implements Stag
         AsyncIterable<KeyValue> iterable = tr.getRange(begin, end, 1);
 
         for (KeyValue keyValue : iterable) {
-            EntryMetadata metadata = EntryMetadata.decode(ByteBuffer.wrap(keyValue.getValue()));
-            return Segment.extractIdFromName(metadata.segment());
+            return new EntryMetadataView().wrap(keyValue.getValue()).segmentId();
         }
         throw new NoSegmentExistsException();
     }
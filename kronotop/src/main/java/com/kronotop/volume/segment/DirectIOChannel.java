@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume.segment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file channel opened with {@code O_DIRECT} that bypasses the page cache.
+ * <p>
+ * Direct I/O requires the file position, the length and the memory address of every transfer to be aligned
+ * to the block size of the file system. This class hides that requirement: the writes are applied as
+ * read-modify-write of the aligned blocks they cover, in chunks of at most {@link #CHUNK_SIZE} bytes. The
+ * partially filled blocks at both ends of a write are padded with the bytes that are already on disk, or
+ * with zeros beyond the end of the written data, so the entries stay packed back-to-back in the file. The
+ * last written block is kept in memory, consecutive appends don't read it back from the disk.
+ * <p>
+ * The writes are serialized, the reads run concurrently.
+ */
+final class DirectIOChannel {
+    static final int CHUNK_SIZE = 1048576;
+    private static final Logger LOGGER = LoggerFactory.getLogger(DirectIOChannel.class);
+    private static final OpenOption DIRECT = resolveDirectOpenOption();
+    private final FileChannel channel;
+    private final int blockSize;
+    private final ByteBuffer staging;
+    private final ByteBuffer tailBlock;
+    private final byte[] zeroBlock;
+    private long tailBlockPosition = -1;
+    private long writtenEnd;
+
+    private DirectIOChannel(FileChannel channel, int blockSize, long writtenEnd) {
+        this.channel = channel;
+        this.blockSize = blockSize;
+        this.writtenEnd = writtenEnd;
+        this.staging = allocateAligned(CHUNK_SIZE - CHUNK_SIZE % blockSize, blockSize);
+        this.tailBlock = allocateAligned(blockSize, blockSize);
+        this.zeroBlock = new byte[blockSize];
+    }
+
+    /**
+     * Opens the given segment file for direct I/O.
+     *
+     * @param path     the path of the segment file
+     * @param size     the size of the segment file in bytes
+     * @param position the end of the data that has already been appended to the file
+     * @return the opened channel, or null if the file system doesn't support direct I/O for the file
+     * @throws IOException if an I/O error occurs while querying the file store
+     */
+    static DirectIOChannel open(Path path, long size, long position) throws IOException {
+        if (DIRECT == null) {
+            LOGGER.warn("Direct I/O is not supported by the runtime, falling back to buffered I/O for {}", path);
+            return null;
+        }
+        long blockSize;
+        try {
+            blockSize = Files.getFileStore(path).getBlockSize();
+        } catch (UnsupportedOperationException e) {
+            LOGGER.warn("Block size of the file store is unknown, direct I/O is disabled for {}", path);
+            return null;
+        }
+        if (blockSize <= 0 || blockSize > CHUNK_SIZE || size % blockSize != 0) {
+            LOGGER.warn("Segment size {} is not aligned to the block size {}, direct I/O is disabled for {}", size, blockSize, path);
+            return null;
+        }
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, DIRECT);
+            return new DirectIOChannel(channel, (int) blockSize, position);
+        } catch (UnsupportedOperationException | IOException e) {
+            LOGGER.warn("Direct I/O is not supported for {}, falling back to buffered I/O: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the JDK specific {@code DIRECT} open option reflectively, referencing it directly makes javac
+     * warn about the use of an internal proprietary API.
+     *
+     * @return the open option, or null if the runtime doesn't provide it
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static OpenOption resolveDirectOpenOption() {
+        try {
+            Class type = Class.forName("com.sun.nio.file.ExtendedOpenOption");
+            return (OpenOption) Enum.valueOf(type, "DIRECT");
+        } catch (ReflectiveOperationException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer allocateAligned(int capacity, int alignment) {
+        return ByteBuffer.allocateDirect(capacity + alignment).alignedSlice(alignment).slice(0, capacity);
+    }
+
+    /**
+     * Retrieves the block size that the transfers are aligned to.
+     *
+     * @return the block size in bytes
+     */
+    int getBlockSize() {
+        return blockSize;
+    }
+
+    private long alignDown(long position) {
+        return position - position % blockSize;
+    }
+
+    private long alignUp(long position) {
+        return alignDown(position + blockSize - 1);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int nr = channel.read(buffer, position + buffer.position());
+            if (nr < 0) {
+                throw new EOFException("Unexpected end of segment file at position " + (position + buffer.position()));
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Loads the current content of the block at the given position into the staging buffer. For appends, a
+     * block that lies entirely beyond the written data is zero-filled instead of being read from the disk.
+     */
+    private void loadBlock(long blockPosition, int offset, boolean append) throws IOException {
+        ByteBuffer block = staging.duplicate().clear().position(offset).limit(offset + blockSize);
+        if (blockPosition == tailBlockPosition) {
+            block.put(tailBlock.duplicate().clear());
+        } else if (append && blockPosition >= alignUp(writtenEnd)) {
+            block.put(zeroBlock);
+        } else {
+            readFully(block.slice(), blockPosition);
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the given buffers back-to-back, starting at the given position.
+     * The positions of the buffers are advanced by the number of bytes written.
+     *
+     * @param sources  the buffers to write
+     * @param position the position in the file where the first byte is written
+     * @param length   the total number of remaining bytes in the buffers
+     * @param append   whether the range has been reserved by an append, so no data exists beyond the
+     *                 end of the data written through this channel
+     * @throws IOException if an I/O error occurs while reading or writing the blocks
+     */
+    synchronized void write(ByteBuffer[] sources, long position, long length, boolean append) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        long start = alignDown(position);
+        long end = alignUp(position + length);
+        long lastBlock = end - blockSize;
+
+        int source = 0;
+        long cursor = start;
+        while (cursor < end) {
+            long chunkEnd = Math.min(end, cursor + staging.capacity());
+            int chunkLength = (int) (chunkEnd - cursor);
+            staging.clear().limit(chunkLength);
+
+            boolean headLoaded = false;
+            if (cursor == start && position != start) {
+                loadBlock(start, 0, append);
+                headLoaded = true;
+            }
+            if (chunkEnd == end && position + length != end && !(headLoaded && lastBlock == start)) {
+                loadBlock(lastBlock, chunkLength - blockSize, append);
+            }
+
+            // Overlay the data that falls into this chunk
+            long dataStart = Math.max(position, cursor);
+            long dataEnd = Math.min(position + length, chunkEnd);
+            int offset = (int) (dataStart - cursor);
+            int remaining = (int) (dataEnd - dataStart);
+            while (remaining > 0) {
+                ByteBuffer src = sources[source];
+                int n = Math.min(src.remaining(), remaining);
+                staging.put(offset, src, src.position(), n);
+                src.position(src.position() + n);
+                offset += n;
+                remaining -= n;
+                if (!src.hasRemaining()) {
+                    source++;
+                }
+            }
+
+            writeFully(staging.position(0), cursor);
+            if (chunkEnd == end) {
+                writtenEnd = Math.max(writtenEnd, position + length);
+                tailBlock.clear().put(staging.clear().position(chunkLength - blockSize).limit(chunkLength)).clear();
+                tailBlockPosition = lastBlock;
+            }
+            cursor = chunkEnd;
+        }
+    }
+
+    /**
+     * Reads the given range of the file into a heap buffer.
+     *
+     * @param position the position of the first byte to read
+     * @param length   the number of bytes to read
+     * @return a heap buffer that contains the requested bytes, ready to be read
+     * @throws IOException if an I/O error occurs while reading the blocks
+     */
+    ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer result = ByteBuffer.allocate(length);
+        if (length == 0) {
+            return result;
+        }
+        long start = alignDown(position);
+        long end = alignUp(position + length);
+        ByteBuffer aligned = allocateAligned((int) Math.min(end - start, staging.capacity()), blockSize);
+        long cursor = start;
+        while (cursor < end) {
+            int chunkLength = (int) Math.min(end - cursor, aligned.capacity());
+            aligned.clear().limit(chunkLength);
+            readFully(aligned, cursor);
+            long dataStart = Math.max(position, cursor);
+            long dataEnd = Math.min(position + length, cursor + chunkLength);
+            result.put(aligned.clear().position((int) (dataStart - cursor)).limit((int) (dataEnd - cursor)));
+            cursor += chunkLength;
+        }
+        return result.flip();
+    }
+
+    /**
+     * Forces the written blocks to the storage device.
+     *
+     * @param metaData whether the file metadata is also forced
+     * @throws IOException if an I/O error occurs
+     */
+    void force(boolean metaData) throws IOException {
+        channel.force(metaData);
+    }
+
+    /**
+     * Closes the underlying file channel.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void close() throws IOException {
+        channel.close();
+    }
+}
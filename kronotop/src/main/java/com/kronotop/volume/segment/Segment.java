@@ -28,6 +28,8 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -48,9 +50,14 @@ public class Segment {
     private final String name;
     private final long size;
     private final Object flushLock = new Object();
+    // Gathering writes use the position of the file channel
+    private final Object gatheringWriteLock = new Object();
     private final RandomAccessFile file;
     private final AtomicInteger flushCounter = new AtomicInteger(0);
     private final AtomicLong atomicPosition = new AtomicLong(0);
+    // Not null if the segment file is accessed with direct I/O
+    private final DirectIOChannel directChannel;
+    private volatile MappedByteBuffer mappedBuffer;
 
     public Segment(SegmentConfig config) throws IOException {
         // for clarity
@@ -63,6 +70,7 @@ public class Segment {
         this.file = createOrOpenSegmentFile();
         this.size = this.file.length();
         this.atomicPosition.set(position);
+        this.directChannel = config.directIO() ? openDirectChannel(position) : null;
     }
 
     /**
@@ -104,6 +112,15 @@ public class Segment {
         return config;
     }
 
+    /**
+     * Retrieves the id of the segment.
+     *
+     * @return the id of the segment
+     */
+    public long getId() {
+        return config.id();
+    }
+
     /**
      * Retrieves the name of the segment.
      *
@@ -151,6 +168,25 @@ public class Segment {
         }
     }
 
+    private DirectIOChannel openDirectChannel(long position) throws IOException {
+        try {
+            return DirectIOChannel.open(getSegmentFilePath(), size, position);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the segment file is accessed with direct I/O. Direct I/O is only enabled if it's
+     * requested by the configuration and the file system supports it for the segment file.
+     *
+     * @return true if the segment file is accessed with direct I/O, false otherwise
+     */
+    public boolean isDirectIO() {
+        return directChannel != null;
+    }
+
     /**
      * Advances the metadata position in the segment configuration by the specified length.
      * If the resulting position exceeds the total size of the segment, a {@code NotEnoughSpaceException}
@@ -176,6 +212,15 @@ public class Segment {
         }
     }
 
+    private int write(ByteBuffer entry, long position, boolean append) throws IOException {
+        if (directChannel != null) {
+            int length = entry.remaining();
+            directChannel.write(new ByteBuffer[]{entry}, position, length, append);
+            return length;
+        }
+        return file.getChannel().write(entry, position);
+    }
+
     /**
      * Appends the specified entry to the segment.
      * This method writes the data represented by the provided {@code ByteBuffer}
@@ -192,7 +237,7 @@ public class Segment {
     public SegmentAppendResult append(ByteBuffer entry) throws NotEnoughSpaceException, IOException {
         try {
             long position = forwardMetadataPosition(entry.remaining());
-            int length = file.getChannel().write(entry, position);
+            int length = write(entry, position, true);
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace("{} bytes has been written to segment {}", length, getName());
             }
@@ -203,6 +248,58 @@ public class Segment {
         }
     }
 
+    /**
+     * Appends the specified entries to the segment with a single gathering write. The space for all
+     * entries is reserved at once, so the entries are stored back-to-back in the given order.
+     *
+     * @param entries the entries to append
+     * @return the positions and the lengths of the appended entries, in the same order
+     * @throws NotEnoughSpaceException if there is insufficient space to append all the entries
+     * @throws IOException             if an I/O error occurs during the append operation
+     */
+    public SegmentAppendResult[] append(ByteBuffer[] entries) throws NotEnoughSpaceException, IOException {
+        long total = 0;
+        for (ByteBuffer entry : entries) {
+            total += entry.remaining();
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Entries are too large to append at once: " + total + " bytes");
+        }
+        try {
+            long position = forwardMetadataPosition((int) total);
+            SegmentAppendResult[] results = new SegmentAppendResult[entries.length];
+            long cursor = position;
+            for (int i = 0; i < entries.length; i++) {
+                results[i] = new SegmentAppendResult(cursor, entries[i].remaining());
+                cursor += entries[i].remaining();
+            }
+
+            if (directChannel != null) {
+                directChannel.write(entries, position, total, true);
+                if (LOGGER.isTraceEnabled()) {
+                    LOGGER.trace("{} bytes has been written to segment {}", total, getName());
+                }
+                return results;
+            }
+
+            FileChannel channel = file.getChannel();
+            synchronized (gatheringWriteLock) {
+                channel.position(position);
+                long written = 0;
+                while (written < total) {
+                    written += channel.write(entries);
+                }
+            }
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("{} bytes has been written to segment {}", total, getName());
+            }
+            return results;
+        } finally {
+            // Now this segment requires a flush.
+            flushCounter.incrementAndGet();
+        }
+    }
+
     /**
      * Inserts a {@code ByteBuffer} entry into the segment at the specified position.
      * This method writes data to the segment file and marks the segment as requiring a flush.
@@ -214,7 +311,7 @@ public class Segment {
      */
     public void insert(ByteBuffer entry, long position) throws IOException, NotEnoughSpaceException {
         try {
-            int length = file.getChannel().write(entry, position);
+            int length = write(entry, position, false);
             if (LOGGER.isTraceEnabled()) {
                 LOGGER.trace("{} bytes has been inserted to segment {}", length, getName());
             }
@@ -224,8 +321,52 @@ public class Segment {
         }
     }
 
+    /**
+     * Maps the segment file into memory in read-only mode. After a successful call,
+     * {@code get} returns read-only slices of the mapped region instead of copying the
+     * data into a heap buffer.
+     * <p>
+     * This method is intended for sealed segments, which no longer accept appends. Segments
+     * larger than {@code Integer.MAX_VALUE} bytes cannot be mapped as a single region and
+     * keep using positional reads. A segment that is accessed with direct I/O is never mapped, since the
+     * mapping would bring its content back into the page cache.
+     *
+     * @return true if the segment file is mapped, false otherwise
+     * @throws IOException if an I/O error occurs while mapping the file
+     */
+    public boolean map() throws IOException {
+        if (mappedBuffer != null) {
+            return true;
+        }
+        if (size > Integer.MAX_VALUE || directChannel != null) {
+            return false;
+        }
+        synchronized (this) {
+            if (mappedBuffer == null) {
+                mappedBuffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Segment {} has been mapped into memory", getName());
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the segment file is mapped into memory.
+     *
+     * @return true if the segment file is mapped, false otherwise
+     */
+    public boolean isMapped() {
+        return mappedBuffer != null;
+    }
+
     /**
      * Reads a portion of the segment's data from the specified position with the given length.
+     * <p>
+     * If the segment is mapped into memory, the returned buffer is a read-only slice of the
+     * mapped region and no data is copied. If the segment is accessed with direct I/O, the aligned
+     * blocks that cover the range are read and the requested bytes are copied into a heap buffer.
      *
      * @param position the starting position in the segment from where the data should be read
      * @param length   the number of bytes to read from the segment
@@ -238,6 +379,13 @@ public class Segment {
             String message = String.format("position: %d, length: %d but size: %d", position, length, config.size());
             throw new EntryOutOfBoundException(message);
         }
+        MappedByteBuffer mapped = mappedBuffer;
+        if (mapped != null) {
+            return mapped.slice((int) position, (int) length);
+        }
+        if (directChannel != null) {
+            return directChannel.read(position, (int) length);
+        }
         ByteBuffer buffer = ByteBuffer.allocate((int) length);
         int nr = file.getChannel().read(buffer, position);
         if (LOGGER.isTraceEnabled()) {
@@ -248,14 +396,14 @@ public class Segment {
 
     /**
      * Ensures that any pending changes to the segment data are written to the storage
-     * and the file descriptor is synchronized. This method performs the flush operation
-     * in a thread-safe manner, using a write lock to protect the process. If no changes
-     * need to be flushed (i.e., the flush counter is zero), the method returns immediately.
+     * device. This method performs the flush operation in a thread-safe manner, using a
+     * lock to protect the process. If no changes need to be flushed (i.e., the flush counter
+     * is zero), the method returns immediately.
      * <p>
-     * During the flush operation, this method attempts to synchronize the underlying
-     * file descriptor. If this operation fails, an error is logged, and the pending
-     * flush count is not updated. On successful synchronization, the flush counter
-     * is decremented by the number of pending changes that were written to the storage.
+     * The segment file is pre-allocated, so only the file content is forced. Metadata
+     * updates are written by {@code close()}. If this operation fails, an error is logged,
+     * the pending flush count is not updated and the exception is rethrown. On successful synchronization, the flush
+     * counter is decremented by the number of pending changes that were written to the storage.
      *
      * @throws IOException if an I/O error occurs while synchronizing the file descriptor
      */
@@ -270,16 +418,17 @@ public class Segment {
             if (count == 0) {
                 return;
             }
-            boolean success = true;
             try {
-                file.getFD().sync();
-            } catch (Exception e) {
+                if (directChannel != null) {
+                    directChannel.force(false);
+                } else {
+                    file.getChannel().force(false);
+                }
+            } catch (IOException e) {
                 LOGGER.error("Calling sync failed", e);
-                success = false;
-            }
-            if (success) {
-                flushCounter.updateAndGet(waiting -> waiting - count);
+                throw e;
             }
+            flushCounter.updateAndGet(waiting -> waiting - count);
         }
     }
 
@@ -300,6 +449,12 @@ public class Segment {
      */
     public void close() throws IOException {
         flush();
+        file.getChannel().force(true);
+        // The mapping stays valid until the buffer is garbage collected.
+        mappedBuffer = null;
+        if (directChannel != null) {
+            directChannel.close();
+        }
         file.close();
     }
 
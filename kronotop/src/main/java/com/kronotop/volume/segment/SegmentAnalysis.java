@@ -16,7 +16,28 @@
 
 package com.kronotop.volume.segment;
 
-public record SegmentAnalysis(String name, long size, long usedBytes, long freeBytes, int cardinality) {
+/**
+ * SegmentAnalysis describes the usage of a segment.
+ *
+ * @param name         the name of the segment
+ * @param size         the size of the segment file in bytes
+ * @param usedBytes    the total length of the live entries in bytes
+ * @param freeBytes    the number of bytes that haven't been written yet
+ * @param cardinality  the number of live entries
+ * @param deadEntries  the number of entries that are no longer referenced
+ * @param deadBytes    the total length of the dead entries in bytes
+ * @param lastModified the time of the latest change in milliseconds since the epoch
+ */
+public record SegmentAnalysis(
+        String name,
+        long size,
+        long usedBytes,
+        long freeBytes,
+        int cardinality,
+        long deadEntries,
+        long deadBytes,
+        long lastModified
+) {
 
     public float garbageRatio() {
         return (float) (100 * ((size - freeBytes) - usedBytes)) / size;
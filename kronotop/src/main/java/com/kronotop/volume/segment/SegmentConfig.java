@@ -16,5 +16,16 @@
 
 package com.kronotop.volume.segment;
 
-public record SegmentConfig(long id, String dataDir, long size) {
+/**
+ * SegmentConfig holds the settings of a segment file.
+ *
+ * @param id       the id of the segment
+ * @param dataDir  the directory where the segment files are stored
+ * @param size     the size of the segment file in bytes
+ * @param directIO whether the segment file is accessed with direct I/O, bypassing the page cache
+ */
+public record SegmentConfig(long id, String dataDir, long size, boolean directIO) {
+    public SegmentConfig(long id, String dataDir, long size) {
+        this(id, dataDir, size, false);
+    }
 }
@@ -110,12 +110,17 @@ public class KronotopTestInstance extends KronotopInstance {
     }
 
     public EmbeddedChannel newChannel() {
+        // EmbeddedChannel based tests read the replies synchronously.
+        return newChannel(false);
+    }
+
+    public EmbeddedChannel newChannel(boolean blockingCommandsOnVirtualThreads) {
         return new EmbeddedChannel(
                 new RedisDecoder(false),
                 new RedisBulkStringAggregator(),
                 new RedisArrayAggregator(),
                 new RedisMapAggregator(),
-                new KronotopChannelDuplexHandler(super.context, mergeCommandHandlerRegistries())
+                new KronotopChannelDuplexHandler(super.context, mergeCommandHandlerRegistries(), blockingCommandsOnVirtualThreads)
         );
     }
 
@@ -17,9 +17,11 @@
 package com.kronotop.commandbuilder.kronotop;
 
 import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.IntegerOutput;
 import io.lettuce.core.output.MapOutput;
 import io.lettuce.core.output.StatusOutput;
 import io.lettuce.core.output.StringListOutput;
+import io.lettuce.core.output.ValueOutput;
 import io.lettuce.core.protocol.Command;
 import io.lettuce.core.protocol.CommandArgs;
 import io.lettuce.core.protocol.ProtocolKeyword;
@@ -61,6 +63,14 @@ public class VolumeAdminCommandBuilder<K, V> extends BaseKronotopCommandBuilder<
         return createCommand(CommandType.VOLUME_ADMIN, new StatusOutput<>(codec), args);
     }
 
+    public Command<K, V, String> vacuum(String volumeName, double allowedGarbageRatio, boolean compact) {
+        CommandArgs<K, V> args = new CommandArgs<>(codec).add(CommandKeyword.VACUUM).add(volumeName).add(allowedGarbageRatio);
+        if (compact) {
+            args.add(CommandKeyword.COMPACT);
+        }
+        return createCommand(CommandType.VOLUME_ADMIN, new StatusOutput<>(codec), args);
+    }
+
     public Command<K, V, String> stopVacuum(String volumeName) {
         CommandArgs<K, V> args = new CommandArgs<>(codec).add(CommandKeyword.STOP_VACUUM).add(volumeName);
         return createCommand(CommandType.VOLUME_ADMIN, new StatusOutput<>(codec), args);
@@ -71,6 +81,16 @@ public class VolumeAdminCommandBuilder<K, V> extends BaseKronotopCommandBuilder<
         return createCommand(CommandType.VOLUME_ADMIN, new StatusOutput<>(codec), args);
     }
 
+    public Command<K, V, Long> migrateEntryMetadata(String volumeName) {
+        CommandArgs<K, V> args = new CommandArgs<>(codec).add(CommandKeyword.MIGRATE_ENTRY_METADATA).add(volumeName);
+        return createCommand(CommandType.VOLUME_ADMIN, new IntegerOutput<>(codec), args);
+    }
+
+    public Command<K, V, V> metrics(String volumeName) {
+        CommandArgs<K, V> args = new CommandArgs<>(codec).add(CommandKeyword.METRICS).add(volumeName);
+        return createCommand(CommandType.VOLUME_ADMIN, new ValueOutput<>(codec), args);
+    }
+
     public Command<K, V, String> markStalePrefixes(String operation) {
         CommandArgs<K, V> args = new CommandArgs<>(codec).add(CommandKeyword.MARK_STALE_PREFIXES).add(operation);
         return createCommand(CommandType.VOLUME_ADMIN, new StatusOutput<>(codec), args);
@@ -99,7 +119,10 @@ public class VolumeAdminCommandBuilder<K, V> extends BaseKronotopCommandBuilder<
         VACUUM("VACUUM"),
         STOP_VACUUM("STOP-VACUUM"),
         CLEANUP_ORPHAN_FILES("CLEANUP-ORPHAN-FILES"),
-        MARK_STALE_PREFIXES("MARK-STALE-PREFIXES");
+        MARK_STALE_PREFIXES("MARK-STALE-PREFIXES"),
+        MIGRATE_ENTRY_METADATA("MIGRATE-ENTRY-METADATA"),
+        METRICS("METRICS"),
+        COMPACT("COMPACT");
 
         public final byte[] bytes;
 
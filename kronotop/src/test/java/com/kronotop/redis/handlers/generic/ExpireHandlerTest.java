@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.redis.handlers.generic;
+
+import com.kronotop.cluster.sharding.ShardStatus;
+import com.kronotop.commandbuilder.redis.RedisCommandBuilder;
+import com.kronotop.redis.RedisService;
+import com.kronotop.redis.handlers.BaseRedisHandlerTest;
+import com.kronotop.redis.storage.impl.Storage;
+import com.kronotop.server.Response;
+import com.kronotop.server.resp3.FullBulkStringRedisMessage;
+import com.kronotop.server.resp3.IntegerRedisMessage;
+import com.kronotop.server.resp3.SimpleStringRedisMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpireHandlerTest extends BaseRedisHandlerTest {
+
+    @Test
+    public void test_EXPIRE_TTL() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("mykey", "myvalue").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+            SimpleStringRedisMessage actualMessage = (SimpleStringRedisMessage) msg;
+            assertEquals(Response.OK, actualMessage.content());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.expire("mykey", 100, null).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(1, actualMessage.value());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.ttl("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(100, actualMessage.value());
+        }
+    }
+
+    @Test
+    public void test_EXPIRE_key_not_exists() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.expire("mykey", 100, null).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(0, actualMessage.value());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.ttl("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(-2, actualMessage.value());
+        }
+    }
+
+    @Test
+    public void test_EXPIRE_non_positive_deletes_the_key() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("mykey", "myvalue").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+            SimpleStringRedisMessage actualMessage = (SimpleStringRedisMessage) msg;
+            assertEquals(Response.OK, actualMessage.content());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.expire("mykey", 0, null).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(1, actualMessage.value());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.get("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(FullBulkStringRedisMessage.class, msg);
+            assertEquals(FullBulkStringRedisMessage.NULL_INSTANCE, msg);
+        }
+    }
+
+    @Test
+    public void test_TTL_without_expiration() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("mykey", "myvalue").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+            SimpleStringRedisMessage actualMessage = (SimpleStringRedisMessage) msg;
+            assertEquals(Response.OK, actualMessage.content());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.ttl("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(-1, actualMessage.value());
+        }
+    }
+
+    @Test
+    public void test_EXPIRE_keeps_one_schedule_per_key() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("mykey", "myvalue").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+        }
+
+        for (int i = 1; i <= 100; i++) {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.expire("mykey", 3600 + i, null).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(1, actualMessage.value());
+        }
+
+        RedisService service = context.getService(RedisService.NAME);
+        Storage storage = (Storage) service.findShard("mykey", ShardStatus.READONLY).storage();
+        assertEquals(1, storage.scheduledExpirations());
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.persist("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+        }
+        assertEquals(0, storage.scheduledExpirations());
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.expire("mykey", 3600, null).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+        }
+        assertEquals(1, storage.scheduledExpirations());
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.del("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+        }
+        assertEquals(0, storage.scheduledExpirations());
+    }
+
+    @Test
+    public void test_EXPIRE_hash_key() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.hset("myhash", "field", "value").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.expire("myhash", 100, null).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(1, actualMessage.value());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.ttl("myhash").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(100, actualMessage.value());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.hget("myhash", "field").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(FullBulkStringRedisMessage.class, msg);
+            FullBulkStringRedisMessage actualMessage = (FullBulkStringRedisMessage) msg;
+            assertEquals("value", actualMessage.content().toString(CharsetUtil.US_ASCII));
+        }
+    }
+
+    @Test
+    public void test_EXPIRE_hash_key_expires() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.hset("myhash", "field", "value").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.pexpire("myhash", 1, null).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(1, actualMessage.value());
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.hget("myhash", "field").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            return msg instanceof FullBulkStringRedisMessage message && message == FullBulkStringRedisMessage.NULL_INSTANCE;
+        });
+    }
+}
@@ -22,11 +22,16 @@ import com.kronotop.redis.handlers.BaseRedisHandlerTest;
 import com.kronotop.server.Response;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
 import com.kronotop.server.resp3.SimpleStringRedisMessage;
+import io.lettuce.core.SetArgs;
 import io.lettuce.core.codec.StringCodec;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class RandomKeyHandlerTest extends BaseRedisHandlerTest {
@@ -70,4 +75,43 @@ public class RandomKeyHandlerTest extends BaseRedisHandlerTest {
         FullBulkStringRedisMessage actualMessage = (FullBulkStringRedisMessage) msg;
         assertEquals(FullBulkStringRedisMessage.NULL_INSTANCE, actualMessage);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRANDOMKEY_skips_expired_keys() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("persistent", "myvalue").encode(buf);
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("expiring", "myvalue", SetArgs.Builder.px(1)).encode(buf);
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.get("expiring").encode(buf);
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            return FullBulkStringRedisMessage.NULL_INSTANCE.equals(msg);
+        });
+
+        for (int i = 0; i < 20; i++) {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.randomkey().encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(FullBulkStringRedisMessage.class, msg);
+            FullBulkStringRedisMessage actualMessage = (FullBulkStringRedisMessage) msg;
+            assertEquals("persistent", actualMessage.content().toString(CharsetUtil.US_ASCII));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.redis.handlers.hash;
+
+import com.apple.foundationdb.tuple.Versionstamp;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashValueTest {
+
+    @Test
+    public void test_put_get_compact() {
+        HashValue hashValue = new HashValue();
+        assertNull(hashValue.put("field", new HashFieldValue("value".getBytes())));
+
+        assertTrue(hashValue.isCompact());
+        assertEquals(1, hashValue.size());
+        assertTrue(hashValue.containsKey("field"));
+        assertArrayEquals("value".getBytes(), hashValue.get("field").value());
+        assertNull(hashValue.get("missing"));
+    }
+
+    @Test
+    public void test_put_returns_previous_value() {
+        HashValue hashValue = new HashValue();
+        hashValue.put("field", new HashFieldValue("foo".getBytes()));
+        hashValue.put("other", new HashFieldValue("baz".getBytes()));
+
+        HashFieldValue previous = hashValue.put("field", new HashFieldValue("barbar".getBytes()));
+        assertArrayEquals("foo".getBytes(), previous.value());
+        assertArrayEquals("barbar".getBytes(), hashValue.get("field").value());
+        assertArrayEquals("baz".getBytes(), hashValue.get("other").value());
+        assertEquals(2, hashValue.size());
+    }
+
+    @Test
+    public void test_remove() {
+        HashValue hashValue = new HashValue();
+        hashValue.put("field-1", new HashFieldValue("value-1".getBytes()));
+        hashValue.put("field-2", new HashFieldValue("value-2".getBytes()));
+        hashValue.put("field-3", new HashFieldValue("value-3".getBytes()));
+
+        HashFieldValue removed = hashValue.remove("field-2");
+        assertArrayEquals("value-2".getBytes(), removed.value());
+        assertNull(hashValue.remove("field-2"));
+        assertEquals(Set.of("field-1", "field-3"), hashValue.keySet());
+        assertArrayEquals("value-3".getBytes(), hashValue.get("field-3").value());
+    }
+
+    @Test
+    public void test_computeIfPresent_stores_versionstamp() {
+        HashValue hashValue = new HashValue();
+        hashValue.put("field", new HashFieldValue("value".getBytes()));
+
+        Versionstamp versionstamp = Versionstamp.complete(new byte[10], 1);
+        hashValue.computeIfPresent("field", (field, hashFieldValue) -> {
+            hashFieldValue.setVersionstamp(versionstamp);
+            return hashFieldValue;
+        });
+        assertEquals(versionstamp, hashValue.get("field").versionstamp());
+        assertNull(hashValue.computeIfPresent("missing", (field, hashFieldValue) -> hashFieldValue));
+    }
+
+    @Test
+    public void test_convert_to_map_when_entries_exceed_threshold() {
+        HashValue hashValue = new HashValue();
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i <= HashValue.MAX_COMPACT_ENTRIES; i++) {
+            assertTrue(hashValue.isCompact());
+            hashValue.put("field-" + i, new HashFieldValue(("value-" + i).getBytes()));
+            expected.put("field-" + i, "value-" + i);
+        }
+        assertFalse(hashValue.isCompact());
+
+        assertEquals(expected.size(), hashValue.size());
+        hashValue.forEach((field, value) -> assertArrayEquals(expected.get(field).getBytes(), value.value()));
+    }
+
+    @Test
+    public void test_convert_to_map_when_value_exceeds_threshold() {
+        HashValue hashValue = new HashValue();
+        hashValue.put("field", new HashFieldValue("value".getBytes()));
+
+        byte[] large = new byte[HashValue.MAX_COMPACT_LENGTH + 1];
+        hashValue.put("large", new HashFieldValue(large));
+        assertFalse(hashValue.isCompact());
+        assertArrayEquals("value".getBytes(), hashValue.get("field").value());
+        assertArrayEquals(large, hashValue.get("large").value());
+    }
+
+    @Test
+    public void test_setTTL_compact() {
+        HashValue hashValue = new HashValue();
+        hashValue.put("field-1", new HashFieldValue("value-1".getBytes()));
+        hashValue.put("field-2", new HashFieldValue("value-2".getBytes()));
+
+        hashValue.setTTL(1234);
+        assertTrue(hashValue.isCompact());
+        assertEquals(1234, hashValue.ttl());
+        hashValue.forEach((field, value) -> assertEquals(1234, value.ttl()));
+        assertArrayEquals("value-2".getBytes(), hashValue.get("field-2").value());
+
+        // New fields inherit the expiration time of the hash
+        hashValue.put("field-3", new HashFieldValue("value-3".getBytes()));
+        assertEquals(1234, hashValue.get("field-3").ttl());
+
+        hashValue.setTTL(0);
+        hashValue.forEach((field, value) -> assertEquals(0, value.ttl()));
+    }
+
+    @Test
+    public void test_setTTL_map() {
+        HashValue hashValue = new HashValue();
+        hashValue.put("field", new HashFieldValue("value".getBytes()));
+        hashValue.put("large", new HashFieldValue(new byte[HashValue.MAX_COMPACT_LENGTH + 1]));
+        assertFalse(hashValue.isCompact());
+
+        hashValue.setTTL(1234);
+        hashValue.forEach((field, value) -> assertEquals(1234, value.ttl()));
+
+        hashValue.put("field", new HashFieldValue("other".getBytes()));
+        assertEquals(1234, hashValue.get("field").ttl());
+    }
+}
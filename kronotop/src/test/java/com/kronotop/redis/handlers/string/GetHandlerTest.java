@@ -21,6 +21,7 @@ import com.kronotop.commandbuilder.redis.RedisCommandBuilder;
 import com.kronotop.redis.handlers.BaseRedisHandlerTest;
 import com.kronotop.server.Response;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
+import com.kronotop.server.resp3.IntegerRedisMessage;
 import com.kronotop.server.resp3.SimpleStringRedisMessage;
 import io.lettuce.core.codec.StringCodec;
 import io.netty.buffer.ByteBuf;
@@ -70,4 +71,60 @@ public class GetHandlerTest extends BaseRedisHandlerTest {
             assertEquals("myvalue", actualMessage.content().toString(CharsetUtil.US_ASCII));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_GET_reply_not_changed_by_SETRANGE_and_APPEND() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("mykey", "Hello World").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+        }
+
+        FullBulkStringRedisMessage reply;
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.get("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(FullBulkStringRedisMessage.class, msg);
+            reply = (FullBulkStringRedisMessage) msg;
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.setrange("mykey", 6, "Kronotop").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.append("mykey", "!").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+        }
+
+        // The reply wraps the stored array, it must still hold the value at the time of GET.
+        assertEquals("Hello World", reply.content().toString(CharsetUtil.US_ASCII));
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.get("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(FullBulkStringRedisMessage.class, msg);
+            FullBulkStringRedisMessage actualMessage = (FullBulkStringRedisMessage) msg;
+            assertEquals("Hello Kronotop!", actualMessage.content().toString(CharsetUtil.US_ASCII));
+        }
+    }
+}
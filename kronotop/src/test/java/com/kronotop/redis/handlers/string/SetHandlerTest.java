@@ -21,7 +21,9 @@ import com.kronotop.commandbuilder.redis.RedisCommandBuilder;
 import com.kronotop.redis.handlers.BaseRedisHandlerTest;
 import com.kronotop.server.Response;
 import com.kronotop.server.resp3.FullBulkStringRedisMessage;
+import com.kronotop.server.resp3.IntegerRedisMessage;
 import com.kronotop.server.resp3.SimpleStringRedisMessage;
+import io.lettuce.core.SetArgs;
 import io.lettuce.core.codec.StringCodec;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -71,4 +73,30 @@ public class SetHandlerTest extends BaseRedisHandlerTest {
             assertEquals("myvalue", actualMessage.content().toString(CharsetUtil.US_ASCII));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_SET_EX() {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.set("mykey", "myvalue", SetArgs.Builder.ex(100)).encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+            SimpleStringRedisMessage actualMessage = (SimpleStringRedisMessage) msg;
+            assertEquals(Response.OK, actualMessage.content());
+        }
+
+        {
+            ByteBuf buf = Unpooled.buffer();
+            cmd.ttl("mykey").encode(buf);
+
+            channel.writeInbound(buf);
+            Object msg = channel.readOutbound();
+            assertInstanceOf(IntegerRedisMessage.class, msg);
+            IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+            assertEquals(100, actualMessage.value());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.redis.storage;
+
+import com.apple.foundationdb.tuple.Versionstamp;
+import com.kronotop.redis.handlers.hash.HashValue;
+import com.kronotop.redis.handlers.string.StringValue;
+import com.kronotop.redis.storage.impl.OffHeapStorageMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapStorageMapTest {
+
+    private RedisValueContainer string(String value) {
+        return new RedisValueContainer(new StringValue(value.getBytes()));
+    }
+
+    @Test
+    public void test_put_get() {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        assertNull(map.put("key", new RedisValueContainer(new StringValue("value".getBytes(), 1234))));
+
+        RedisValueContainer container = map.get("key");
+        assertNotNull(container);
+        assertEquals(RedisValueKind.STRING, container.kind());
+        assertArrayEquals("value".getBytes(), container.string().value());
+        assertEquals(1234, container.string().ttl());
+        assertNull(container.string().versionstamp());
+        assertNull(map.get("missing"));
+    }
+
+    @Test
+    public void test_put_returns_previous_value() {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        map.put("key", string("foo"));
+
+        RedisValueContainer previous = map.put("key", string("barbaz"));
+        assertArrayEquals("foo".getBytes(), previous.string().value());
+        assertArrayEquals("barbaz".getBytes(), map.get("key").string().value());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void test_putIfAbsent() {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        assertNull(map.putIfAbsent("key", string("foo")));
+
+        RedisValueContainer existing = map.putIfAbsent("key", string("bar"));
+        assertArrayEquals("foo".getBytes(), existing.string().value());
+        assertArrayEquals("foo".getBytes(), map.get("key").string().value());
+    }
+
+    @Test
+    public void test_remove() {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        map.put("key", string("foo"));
+
+        RedisValueContainer removed = map.remove("key");
+        assertArrayEquals("foo".getBytes(), removed.string().value());
+        assertNull(map.get("key"));
+        assertNull(map.remove("key"));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void test_setVersionstamp_writes_through() {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        map.put("key", string("foo"));
+
+        Versionstamp versionstamp = Versionstamp.complete(new byte[10], 1);
+        map.get("key").string().setVersionstamp(versionstamp);
+        assertEquals(versionstamp, map.get("key").string().versionstamp());
+    }
+
+    @Test
+    public void test_hash_values_stay_on_heap() {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        map.put("key", string("foo"));
+
+        HashValue hashValue = new HashValue();
+        RedisValueContainer previous = map.put("key", new RedisValueContainer(hashValue));
+        assertArrayEquals("foo".getBytes(), previous.string().value());
+        assertSame(hashValue, map.get("key").hash());
+        assertEquals(1, map.size());
+
+        previous = map.put("key", string("bar"));
+        assertSame(hashValue, previous.hash());
+        assertEquals(RedisValueKind.STRING, map.get("key").kind());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void test_many_keys_with_overwrites_and_removes() {
+        OffHeapStorageMap map = new OffHeapStorageMap(8, 4096);
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            String key = "key-" + i;
+            String value = "value-" + i;
+            map.put(key, string(value));
+            expected.put(key, value);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            String key = "key-" + i;
+            String value = "a-longer-value-" + i;
+            map.put(key, string(value));
+            expected.put(key, value);
+        }
+        for (int i = 0; i < 10_000; i += 3) {
+            String key = "key-" + i;
+            map.remove(key);
+            expected.remove(key);
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int i = 0; i < 10_000; i++) {
+            String key = "key-" + i;
+            RedisValueContainer container = map.get(key);
+            if (expected.containsKey(key)) {
+                assertNotNull(container, key);
+                assertArrayEquals(expected.get(key).getBytes(), container.string().value());
+            } else {
+                assertNull(container, key);
+            }
+        }
+        assertEquals(expected.size(), map.entrySet().size());
+    }
+
+    @Test
+    public void test_clear() {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        for (int i = 0; i < 100; i++) {
+            map.put("key-" + i, string("value-" + i));
+        }
+        assertTrue(map.allocatedBytes() > 0);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.allocatedBytes());
+        assertNull(map.get("key-1"));
+    }
+
+    @Test
+    public void test_concurrent_putIfAbsent() throws InterruptedException {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        int threads = 8;
+        int keys = 1000;
+        AtomicInteger inserted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String value = "value-" + t;
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < keys; i++) {
+                    if (map.putIfAbsent("key-" + i, string(value)) == null) {
+                        inserted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // Exactly one writer wins for every key.
+        assertEquals(keys, inserted.get());
+        assertEquals(keys, map.size());
+    }
+
+    @Test
+    public void test_concurrent_compute() throws InterruptedException {
+        OffHeapStorageMap map = new OffHeapStorageMap(4, 1024);
+        int threads = 8;
+        int increments = 1000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < increments; i++) {
+                    map.compute("counter", (key, existing) -> {
+                        long current = existing == null ? 0 : Long.parseLong(new String(existing.string().value()));
+                        return string(Long.toString(current + 1));
+                    });
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // No increment is lost.
+        assertEquals(Long.toString((long) threads * increments), new String(map.get("counter").string().value()));
+    }
+}
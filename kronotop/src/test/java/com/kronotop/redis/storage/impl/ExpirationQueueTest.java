@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.redis.storage.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpirationQueueTest {
+    @Test
+    public void test_add_same_key_replaces_schedule() {
+        ExpirationQueue queue = new ExpirationQueue();
+        for (int i = 0; i < 3600; i++) {
+            queue.add("key-1", 3_600_000L + i * 1000L);
+        }
+        assertEquals(1, queue.size());
+
+        // Only the last schedule is due at its own time.
+        assertNull(queue.pollExpired(3_600_000L + 3598 * 1000L));
+        ExpirationQueue.Entry entry = queue.pollExpired(3_600_000L + 3599 * 1000L);
+        assertNotNull(entry);
+        assertEquals("key-1", entry.key());
+        assertEquals(3_600_000L + 3599 * 1000L, entry.expiresAt());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void test_add_same_expiration_time() {
+        ExpirationQueue queue = new ExpirationQueue();
+        queue.add("key-1", 100);
+        queue.add("key-1", 100);
+        queue.add("key-2", 100);
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    public void test_remove() {
+        ExpirationQueue queue = new ExpirationQueue();
+        queue.add("key-1", 100);
+        queue.add("key-2", 200);
+
+        queue.remove("key-1");
+        queue.remove("key-3");
+        assertEquals(1, queue.size());
+
+        ExpirationQueue.Entry entry = queue.pollExpired(1000);
+        assertNotNull(entry);
+        assertEquals("key-2", entry.key());
+        assertNull(queue.pollExpired(1000));
+    }
+
+    @Test
+    public void test_pollExpired_in_expiration_order() {
+        ExpirationQueue queue = new ExpirationQueue();
+        queue.add("key-3", 300);
+        queue.add("key-1", 100);
+        queue.add("key-2", 200);
+
+        assertNull(queue.pollExpired(99));
+        assertEquals("key-1", queue.pollExpired(1000).key());
+        assertEquals("key-2", queue.pollExpired(1000).key());
+        assertEquals("key-3", queue.pollExpired(1000).key());
+        assertNull(queue.pollExpired(1000));
+    }
+
+    @Test
+    public void test_add_after_poll() {
+        ExpirationQueue queue = new ExpirationQueue();
+        queue.add("key-1", 100);
+        assertNotNull(queue.pollExpired(100));
+
+        queue.add("key-1", 100);
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    public void test_clear() {
+        ExpirationQueue queue = new ExpirationQueue();
+        queue.add("key-1", 100);
+        queue.add("key-2", 200);
+        queue.clear();
+        assertEquals(0, queue.size());
+
+        queue.add("key-1", 100);
+        assertEquals(1, queue.size());
+    }
+}
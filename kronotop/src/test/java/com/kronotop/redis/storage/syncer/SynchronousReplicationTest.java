@@ -54,7 +54,7 @@ class SynchronousReplicationTest extends BaseNetworkedVolumeIntegrationTest {
 
         Set<Member> members = new HashSet<>();
         members.add(secondInstance.getMember());
-        SynchronousReplication synchronousReplication = new SynchronousReplication(context, volumeConfig, members, List.of(entries), appendResult);
+        SynchronousReplication synchronousReplication = new SynchronousReplication(context, volume, members, List.of(entries), appendResult);
         boolean result = synchronousReplication.run();
         assertTrue(result);
 
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.server;
+
+import com.kronotop.BaseTest;
+import com.kronotop.KronotopTestInstance;
+import com.kronotop.network.Address;
+import com.kronotop.server.resp3.ArrayRedisMessage;
+import com.kronotop.server.resp3.FullBulkStringRedisMessage;
+import com.kronotop.server.resp3.RedisMapAggregator;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValueFactory;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the commands over a TCP connection with network.blocking_commands_on_virtual_threads enabled.
+ */
+class BlockingCommandsOnVirtualThreadsTest extends BaseTest {
+    private KronotopTestInstance instance;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        Config config = loadConfig("test.conf").withValue(
+                "network.blocking_commands_on_virtual_threads", ConfigValueFactory.fromAnyRef(true)
+        );
+        instance = new KronotopTestInstance(config, true);
+        instance.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (instance != null) {
+            instance.shutdown();
+        }
+    }
+
+    private static byte[] encode(String... command) {
+        StringBuilder builder = new StringBuilder();
+        builder.append('*').append(command.length).append("\r\n");
+        for (String part : command) {
+            builder.append('$').append(part.length()).append("\r\n").append(part).append("\r\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = input.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException();
+            }
+            line.write(b);
+        }
+        assertEquals('\n', input.read());
+        return line.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads a single RESP reply, aggregate types are returned as lists and errors are prefixed with "-".
+     */
+    private static Object readReply(InputStream input) throws IOException {
+        String line = readLine(input);
+        String value = line.substring(1);
+        return switch (line.charAt(0)) {
+            case '+', ',', '(' -> value;
+            case '-' -> line;
+            case ':' -> Long.parseLong(value);
+            case '_' -> null;
+            case '#' -> value.equals("t");
+            case '$' -> {
+                int length = Integer.parseInt(value);
+                if (length < 0) {
+                    yield null;
+                }
+                byte[] content = input.readNBytes(length);
+                readLine(input);
+                yield new String(content, StandardCharsets.US_ASCII);
+            }
+            case '*', '~', '%' -> {
+                int size = Integer.parseInt(value);
+                if (line.charAt(0) == '%') {
+                    size *= 2;
+                }
+                List<Object> children = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    children.add(readReply(input));
+                }
+                yield children;
+            }
+            default -> fail("unexpected reply: " + line);
+        };
+    }
+
+    @Test
+    public void test_pipelined_replies_in_request_order() throws IOException {
+        Address address = instance.getMember().getExternalAddress();
+        try (Socket socket = new Socket(address.getHost(), address.getPort())) {
+            socket.setSoTimeout(10000);
+            OutputStream output = socket.getOutputStream();
+            InputStream input = new BufferedInputStream(socket.getInputStream());
+
+            // Non-blocking Redis commands interleaved with blocking volume commands, sent in a single write.
+            ByteArrayOutputStream pipeline = new ByteArrayOutputStream();
+            for (int i = 0; i < 10; i++) {
+                pipeline.write(encode("SET", "mykey", "value-" + i));
+                pipeline.write(encode("VOLUME.ADMIN", "LIST"));
+                pipeline.write(encode("GET", "mykey"));
+                pipeline.write(encode("PING"));
+            }
+            output.write(pipeline.toByteArray());
+            output.flush();
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals("OK", readReply(input));
+                assertInstanceOf(List.class, readReply(input));
+                assertEquals("value-" + i, readReply(input));
+                assertEquals("PONG", readReply(input));
+            }
+
+            // The connection is still usable once the pending commands are drained.
+            output.write(encode("GET", "mykey"));
+            output.flush();
+            assertEquals("value-9", readReply(input));
+        }
+    }
+
+    @Test
+    public void test_message_released_once_on_virtual_thread() {
+        EmbeddedChannel channel = instance.newChannel(true);
+        ArrayRedisMessage message = new ArrayRedisMessage(List.of(
+                new FullBulkStringRedisMessage(Unpooled.copiedBuffer("VOLUME.ADMIN", CharsetUtil.US_ASCII)),
+                new FullBulkStringRedisMessage(Unpooled.copiedBuffer("LIST", CharsetUtil.US_ASCII))
+        ));
+        // Keep a reference to inspect the message after the handler is done with it.
+        message.retain();
+
+        channel.pipeline().context(RedisMapAggregator.class).fireChannelRead(message);
+        channel.pipeline().fireChannelReadComplete();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            channel.runPendingTasks();
+            return message.refCnt() <= 1;
+        });
+        channel.runPendingTasks();
+        assertEquals(1, message.refCnt());
+
+        // EmbeddedEventLoop claims every thread, the reply may have been written without a flush.
+        channel.flush();
+        Object reply = channel.readOutbound();
+        assertInstanceOf(ArrayRedisMessage.class, reply);
+        message.release();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.server;
+
+import com.kronotop.BaseHandlerTest;
+import com.kronotop.commandbuilder.redis.RedisCommandBuilder;
+import com.kronotop.server.impl.RESP3Response;
+import com.kronotop.server.resp3.RedisMapAggregator;
+import com.kronotop.server.resp3.SimpleStringRedisMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KronotopChannelDuplexHandlerTest extends BaseHandlerTest {
+
+    private ByteBuf pipelinedPings(int count) {
+        RedisCommandBuilder<String, String> cmd = new RedisCommandBuilder<>(StringCodec.ASCII);
+        ByteBuf buf = Unpooled.buffer();
+        for (int i = 0; i < count; i++) {
+            cmd.ping().encode(buf);
+        }
+        return buf;
+    }
+
+    private int readPongs() {
+        int count = 0;
+        Object msg;
+        while ((msg = channel.readOutbound()) != null) {
+            assertInstanceOf(SimpleStringRedisMessage.class, msg);
+            assertEquals("PONG", ((SimpleStringRedisMessage) msg).content());
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void test_pipelined_replies_flushed_on_channelReadComplete() {
+        // fireChannelRead doesn't trigger channelReadComplete, unlike EmbeddedChannel.writeInbound
+        channel.pipeline().fireChannelRead(pipelinedPings(3));
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+
+        Session session = Session.extractSessionFromChannel(channel);
+        assertEquals(true, session.attr(SessionAttributes.READ_IN_PROGRESS).get());
+
+        channel.pipeline().fireChannelReadComplete();
+        assertEquals(3, readPongs());
+        assertEquals(false, session.attr(SessionAttributes.READ_IN_PROGRESS).get());
+    }
+
+    @Test
+    public void test_flush_forced_after_MAX_READS_BEFORE_FLUSH() {
+        int max = KronotopChannelDuplexHandler.MAX_READS_BEFORE_FLUSH;
+        channel.pipeline().fireChannelRead(pipelinedPings(max + 1));
+        channel.runPendingTasks();
+        assertEquals(max, readPongs());
+
+        channel.pipeline().fireChannelReadComplete();
+        assertEquals(1, readPongs());
+    }
+
+    @Test
+    public void test_reply_written_outside_read_flushed_immediately() {
+        channel.writeInbound(pipelinedPings(1));
+        assertEquals(1, readPongs());
+
+        Session session = Session.extractSessionFromChannel(channel);
+        assertEquals(false, session.attr(SessionAttributes.READ_IN_PROGRESS).get());
+
+        // Simulates the reply of an asynchronously completed command.
+        ChannelHandlerContext ctx = channel.pipeline().context(KronotopChannelDuplexHandler.class);
+        new RESP3Response(ctx).writeSimpleString("PONG");
+        assertEquals(1, readPongs());
+    }
+
+    @Test
+    public void test_READ_IN_PROGRESS_cleared_after_exception_in_channelRead() {
+        channel.pipeline().fireChannelRead(pipelinedPings(2));
+        channel.runPendingTasks();
+
+        Session session = Session.extractSessionFromChannel(channel);
+        assertEquals(true, session.attr(SessionAttributes.READ_IN_PROGRESS).get());
+
+        // Not a RedisMessage, RESP3Request rejects it and the handler closes the channel.
+        channel.pipeline().context(RedisMapAggregator.class).fireChannelRead("corrupt");
+        assertFalse(channel.isOpen());
+
+        assertEquals(false, session.attr(SessionAttributes.READ_IN_PROGRESS).get());
+        // The replies of the commands read before the failure are flushed as well.
+        assertEquals(2, readPongs());
+    }
+}
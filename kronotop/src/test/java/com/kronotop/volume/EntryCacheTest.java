@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryCacheTest {
+    private static final long MAX_SIZE = 16 * 65536;
+
+    private ByteBuffer entry(int size, byte value) {
+        byte[] data = new byte[size];
+        Arrays.fill(data, value);
+        return ByteBuffer.wrap(data);
+    }
+
+    private void read(EntryCache cache, long segmentId, long position, ByteBuffer entry) {
+        if (cache.get(segmentId, position, entry.remaining()) == null) {
+            cache.put(segmentId, position, entry);
+        }
+    }
+
+    @Test
+    void test_admit_after_second_access() {
+        EntryCache cache = new EntryCache(MAX_SIZE);
+        ByteBuffer entry = entry(100, (byte) 1);
+
+        read(cache, 1, 0, entry);
+        assertNull(cache.get(1, 0, 100));
+        read(cache, 1, 0, entry);
+
+        ByteBuffer cached = cache.get(1, 0, 100);
+        assertNotNull(cached);
+        assertEquals(entry, cached);
+        assertEquals(0, entry.position());
+
+        EntryCache.Stats stats = cache.stats();
+        assertEquals(1, stats.entries());
+        assertEquals(100, stats.size());
+        assertEquals(1, stats.admissionCount());
+        assertEquals(1, stats.rejectionCount());
+        assertTrue(stats.hitCount() > 0);
+        assertTrue(stats.missCount() > 0);
+    }
+
+    @Test
+    void test_length_mismatch_is_a_miss() {
+        EntryCache cache = new EntryCache(MAX_SIZE);
+        ByteBuffer entry = entry(100, (byte) 1);
+        read(cache, 1, 0, entry);
+        read(cache, 1, 0, entry);
+        assertNull(cache.get(1, 0, 50));
+    }
+
+    @Test
+    void test_invalidate() {
+        EntryCache cache = new EntryCache(MAX_SIZE);
+        ByteBuffer entry = entry(100, (byte) 1);
+        read(cache, 1, 0, entry);
+        read(cache, 1, 0, entry);
+        read(cache, 2, 0, entry);
+        read(cache, 2, 0, entry);
+
+        cache.invalidate(1, 0);
+        assertNull(cache.get(1, 0, 100));
+        assertNotNull(cache.get(2, 0, 100));
+
+        cache.invalidateSegment(2);
+        assertNull(cache.get(2, 0, 100));
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void test_scan_does_not_evict_hot_entries() {
+        EntryCache cache = new EntryCache(MAX_SIZE);
+        ByteBuffer hot = entry(1000, (byte) 1);
+        for (int i = 0; i < 5; i++) {
+            read(cache, 1, 0, hot);
+        }
+
+        // Scan entries ten times the cache size, every entry is read once
+        for (long position = 1000; position < 10 * MAX_SIZE; position += 1000) {
+            read(cache, 1, position, entry(1000, (byte) 2));
+        }
+        assertEquals(hot, cache.get(1, 0, 1000));
+        EntryCache.Stats stats = cache.stats();
+        assertTrue(stats.rejectionCount() > stats.admissionCount());
+    }
+
+    @Test
+    void test_evict_oldest_entries_when_full() {
+        EntryCache cache = new EntryCache(MAX_SIZE);
+        for (int round = 0; round < 2; round++) {
+            for (long position = 0; position < 4 * MAX_SIZE; position += 1000) {
+                read(cache, 1, position, entry(1000, (byte) position));
+            }
+        }
+        EntryCache.Stats stats = cache.stats();
+        assertTrue(stats.evictionCount() > 0);
+        assertTrue(stats.size() <= MAX_SIZE);
+        for (long position = 0; position < 4 * MAX_SIZE; position += 1000) {
+            ByteBuffer cached = cache.get(1, position, 1000);
+            if (cached != null) {
+                assertEquals(entry(1000, (byte) position), cached);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import com.kronotop.KronotopException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryCompressionTest {
+
+    @Test
+    void should_compress_and_decompress() {
+        byte[] data = "foobar".repeat(1000).getBytes();
+        ByteBuffer entry = ByteBuffer.wrap(data);
+
+        ByteBuffer compressed = EntryCompression.compress(entry);
+        assertNotNull(compressed);
+        assertTrue(compressed.remaining() < data.length);
+        // The position of the entry is not changed
+        assertEquals(0, entry.position());
+
+        ByteBuffer decompressed = EntryCompression.decompress(compressed);
+        assertArrayEquals(data, decompressed.array());
+    }
+
+    @Test
+    void should_return_null_when_entry_is_not_compressible() {
+        byte[] data = new byte[1024];
+        new Random(42).nextBytes(data);
+        assertNull(EntryCompression.compress(ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    void should_throw_KronotopException_when_entry_is_corrupted() {
+        ByteBuffer compressed = EntryCompression.compress(ByteBuffer.wrap("foobar".repeat(1000).getBytes()));
+        assertNotNull(compressed);
+        compressed.putInt(0, 10);
+        assertThrows(KronotopException.class, () -> EntryCompression.decompress(compressed));
+    }
+}
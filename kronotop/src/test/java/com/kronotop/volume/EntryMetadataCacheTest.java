@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import com.apple.foundationdb.Transaction;
+import com.apple.foundationdb.tuple.Versionstamp;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryMetadataCacheTest extends BaseVolumeIntegrationTest {
+
+    private EntryMetadataCache newEntryMetadataCache(long maximumWeight) {
+        return new EntryMetadataCache(context, new VolumeSubspace(volume.getConfig().subspace()), maximumWeight, 60000);
+    }
+
+    private Versionstamp[] appendEntries(int number) throws IOException {
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.append(session, getEntries(number));
+            tr.commit().join();
+        }
+        return result.getVersionstampedKeys();
+    }
+
+    @Test
+    void should_load_entry_metadata_on_miss() throws IOException {
+        Versionstamp key = appendEntries(1)[0];
+        EntryMetadataCache cache = newEntryMetadataCache(1048576);
+
+        assertNull(cache.getIfPresent(redisVolumeSyncerPrefix, key));
+        EntryMetadata metadata = cache.get(redisVolumeSyncerPrefix, key);
+        assertNotNull(metadata);
+        assertSame(metadata, cache.getIfPresent(redisVolumeSyncerPrefix, key));
+
+        EntryMetadataCache.Stats stats = cache.stats();
+        assertEquals(1, stats.loadSuccessCount());
+        assertEquals(1, stats.hitCount());
+        assertEquals(EntryMetadataCache.ENTRY_WEIGHT, stats.weight());
+    }
+
+    @Test
+    void should_return_null_for_missing_key() {
+        EntryMetadataCache cache = newEntryMetadataCache(1048576);
+        Versionstamp key = Versionstamp.complete(new byte[10]);
+
+        assertNull(cache.get(redisVolumeSyncerPrefix, key));
+        // Missing keys are not cached.
+        assertEquals(0, cache.stats().weight());
+    }
+
+    @Test
+    void should_invalidate_entry_metadata() throws IOException {
+        Versionstamp key = appendEntries(1)[0];
+        EntryMetadataCache cache = newEntryMetadataCache(1048576);
+
+        assertNotNull(cache.get(redisVolumeSyncerPrefix, key));
+        cache.invalidate(redisVolumeSyncerPrefix, key);
+        assertNull(cache.getIfPresent(redisVolumeSyncerPrefix, key));
+    }
+
+    @Test
+    void should_evict_entries_when_maximum_weight_exceeded() throws IOException {
+        Versionstamp[] keys = appendEntries(100);
+        EntryMetadataCache cache = newEntryMetadataCache(10L * EntryMetadataCache.ENTRY_WEIGHT);
+
+        for (Versionstamp key : keys) {
+            assertNotNull(cache.get(redisVolumeSyncerPrefix, key));
+        }
+
+        EntryMetadataCache.Stats stats = cache.stats();
+        assertTrue(stats.weight() <= 10L * EntryMetadataCache.ENTRY_WEIGHT);
+        assertTrue(stats.evictionCount() >= 90);
+    }
+
+    @Test
+    void should_serve_reads_from_volume_after_eviction() throws IOException {
+        ByteBuffer[] entries = getEntries(1);
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.append(session, entries);
+            tr.commit().join();
+        }
+        Versionstamp key = result.getVersionstampedKeys()[0];
+        volume.invalidateEntryMetadataCacheEntry(redisVolumeSyncerPrefix, key);
+
+        VolumeSession session = new VolumeSession(redisVolumeSyncerPrefix);
+        ByteBuffer buffer = volume.get(session, key);
+        assertNotNull(buffer);
+        assertArrayEquals(entries[0].array(), buffer.array());
+        assertTrue(volume.getEntryMetadataCacheStats().loadSuccessCount() >= 1);
+    }
+}
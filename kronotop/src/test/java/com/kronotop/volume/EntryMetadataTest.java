@@ -20,9 +20,10 @@ import com.kronotop.volume.segment.Segment;
 import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class EntryMetadataTest {
 
@@ -33,7 +34,7 @@ class EntryMetadataTest {
         String segment = Segment.generateName(10);
         long position = 1L;
         long length = 1L;
-        ByteBuffer buffer = ByteBuffer.allocate(EntryMetadata.ENTRY_METADATA_SIZE); // Including space for position and length
+        ByteBuffer buffer = ByteBuffer.allocate(EntryMetadata.LEGACY_ENTRY_METADATA_SIZE); // Including space for position and length
         buffer.put(segment.getBytes()).put(EntryMetadata.SUBSPACE_SEPARATOR).put(prefix.asBytes()).putLong(position).putLong(length).putInt(10).flip();
 
         // Invoke method on test
@@ -91,4 +92,80 @@ class EntryMetadataTest {
         EntryMetadata decoded = EntryMetadata.decode(result);
         assertThat(entry).usingRecursiveComparison().isEqualTo(decoded);
     }
+
+    @Test
+    void encode_should_use_compact_format() {
+        Prefix prefix = new Prefix("test");
+        EntryMetadata entry = new EntryMetadata(10L, prefix.asBytes(), 1L, 1L, 10);
+
+        byte[] encoded = entry.encode().array();
+        assertEquals(EntryMetadata.ENTRY_METADATA_SIZE, encoded.length);
+        assertFalse(EntryMetadata.isLegacy(encoded));
+        assertEquals(Segment.generateName(10), EntryMetadata.decode(ByteBuffer.wrap(encoded)).segment());
+    }
+
+    @Test
+    void should_extract_id_from_legacy_entry_metadata() {
+        Prefix prefix = new Prefix("test");
+        ByteBuffer buffer = ByteBuffer.allocate(EntryMetadata.LEGACY_ENTRY_METADATA_SIZE);
+        buffer.put(Segment.generateName(10).getBytes()).put(EntryMetadata.SUBSPACE_SEPARATOR).put(prefix.asBytes()).putLong(1L).putLong(1L).putInt(42).flip();
+
+        assertTrue(EntryMetadata.isLegacy(buffer.array()));
+        assertEquals(42, EntryMetadata.extractId(buffer));
+    }
+
+    @Test
+    void view_should_read_compact_entry_metadata() {
+        Prefix prefix = new Prefix("test");
+        EntryMetadata entry = new EntryMetadata(12345L, prefix.asBytes(), 1048576L, 4096L, 7);
+
+        EntryMetadataView view = new EntryMetadataView().wrap(entry.encode().array());
+        assertFalse(view.isLegacy());
+        assertEquals(12345L, view.segmentId());
+        assertEquals(prefix, Prefix.fromLong(view.prefix()));
+        assertEquals(1048576L, view.position());
+        assertEquals(4096L, view.length());
+        assertEquals(7, view.id());
+    }
+
+    @Test
+    void view_should_read_legacy_entry_metadata() {
+        Prefix prefix = new Prefix("test");
+        ByteBuffer buffer = ByteBuffer.allocate(EntryMetadata.LEGACY_ENTRY_METADATA_SIZE);
+        buffer.put(Segment.generateName(12345).getBytes()).put(EntryMetadata.SUBSPACE_SEPARATOR).put(prefix.asBytes()).putLong(1048576L).putLong(4096L).putInt(7).flip();
+
+        EntryMetadataView view = new EntryMetadataView().wrap(buffer.array());
+        assertTrue(view.isLegacy());
+        assertEquals(12345L, view.segmentId());
+        assertEquals(prefix, Prefix.fromLong(view.prefix()));
+        assertEquals(1048576L, view.position());
+        assertEquals(4096L, view.length());
+        assertEquals(7, view.id());
+    }
+
+    @Test
+    void should_encode_and_decode_flags() {
+        Prefix prefix = new Prefix("test");
+        EntryMetadata entry = new EntryMetadata(10L, prefix.asBytes(), 1L, 1L, 10, EntryMetadata.FLAG_COMPRESSED);
+
+        byte[] encoded = entry.encode().array();
+        EntryMetadata decoded = EntryMetadata.decode(ByteBuffer.wrap(encoded));
+        assertTrue(decoded.isCompressed());
+        assertTrue(new EntryMetadataView().wrap(encoded).isCompressed());
+        assertFalse(new EntryMetadata(10L, prefix.asBytes(), 1L, 1L, 10).isCompressed());
+    }
+
+    @Test
+    void should_decode_compact_entry_metadata_without_flags() {
+        Prefix prefix = new Prefix("test");
+        EntryMetadata entry = new EntryMetadata(10L, prefix.asBytes(), 1L, 1L, 10, EntryMetadata.FLAG_COMPRESSED);
+
+        // The records written before the flags byte was introduced
+        byte[] encoded = Arrays.copyOf(entry.encode().array(), EntryMetadata.ENTRY_METADATA_SIZE - 1);
+        EntryMetadata decoded = EntryMetadata.decode(ByteBuffer.wrap(encoded));
+        assertEquals(10L, decoded.segmentId());
+        assertEquals(10, decoded.id());
+        assertFalse(decoded.isCompressed());
+        assertFalse(new EntryMetadataView().wrap(encoded).isCompressed());
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.kronotop.volume;
+
+import com.kronotop.volume.segment.Segment;
+import com.kronotop.volume.segment.SegmentConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitFlusherTest {
+    @TempDir
+    Path dataDir;
+
+    private Segment newSegment(long id) throws Exception {
+        return new Segment(new SegmentConfig(id, dataDir.toString(), 1048576));
+    }
+
+    private void appendEntry(Segment segment) throws Exception {
+        segment.append(ByteBuffer.wrap("foobar".getBytes()));
+    }
+
+    @Test
+    void should_flush_all_submitted_segments() throws Exception {
+        GroupCommitFlusher flusher = new GroupCommitFlusher("test", 1, 1048576);
+        Segment first = newSegment(0);
+        Segment second = newSegment(1);
+        try {
+            appendEntry(first);
+            appendEntry(second);
+            CompletableFuture<Void> future = flusher.submit(List.of(first, second), 12);
+            assertDoesNotThrow(() -> future.get(5, TimeUnit.SECONDS));
+        } finally {
+            flusher.shutdown();
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    void should_share_commit_window_between_concurrent_requests() throws Exception {
+        GroupCommitFlusher flusher = new GroupCommitFlusher("test", 1000, Long.MAX_VALUE);
+        Segment segment = newSegment(0);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                appendEntry(segment);
+                futures.add(flusher.submit(List.of(segment), 6));
+            }
+            for (CompletableFuture<Void> future : futures) {
+                assertSame(futures.getFirst(), future);
+            }
+        } finally {
+            flusher.shutdown();
+            segment.close();
+        }
+    }
+
+    @Test
+    void should_close_commit_window_when_max_bytes_exceeded() throws Exception {
+        GroupCommitFlusher flusher = new GroupCommitFlusher("test", TimeUnit.MINUTES.toMillis(1), 6);
+        Segment segment = newSegment(0);
+        try {
+            appendEntry(segment);
+            CompletableFuture<Void> future = flusher.submit(List.of(segment), 6);
+            assertDoesNotThrow(() -> future.get(5, TimeUnit.SECONDS));
+        } finally {
+            flusher.shutdown();
+            segment.close();
+        }
+    }
+
+    @Test
+    void should_flush_pending_window_on_shutdown() throws Exception {
+        GroupCommitFlusher flusher = new GroupCommitFlusher("test", TimeUnit.MINUTES.toMillis(1), Long.MAX_VALUE);
+        Segment segment = newSegment(0);
+        try {
+            appendEntry(segment);
+            CompletableFuture<Void> future = flusher.submit(List.of(segment), 6);
+            flusher.shutdown();
+            assertTrue(future.isDone());
+            assertFalse(future.isCompletedExceptionally());
+
+            // Requests after shutdown are flushed on the caller thread.
+            appendEntry(segment);
+            assertTrue(flusher.submit(List.of(segment), 6).isDone());
+        } finally {
+            segment.close();
+        }
+    }
+
+    @Test
+    void should_fail_waiters_when_flush_fails() throws Exception {
+        GroupCommitFlusher flusher = new GroupCommitFlusher("test", 1000, Long.MAX_VALUE);
+        AtomicBoolean failing = new AtomicBoolean(true);
+        Segment segment = new Segment(new SegmentConfig(0, dataDir.toString(), 1048576)) {
+            @Override
+            public void flush() throws IOException {
+                if (failing.get()) {
+                    throw new IOException("sync failed");
+                }
+                super.flush();
+            }
+        };
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                appendEntry(segment);
+                futures.add(flusher.submit(List.of(segment), 6));
+            }
+            flusher.shutdown();
+            for (CompletableFuture<Void> future : futures) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IOException.class, e.getCause());
+            }
+        } finally {
+            failing.set(false);
+            segment.close();
+        }
+    }
+}
@@ -132,4 +132,59 @@ class VacuumTest extends BaseVolumeIntegrationTest {
             return true;
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_vacuum_compaction() throws IOException {
+        int bufferSize = 100480;
+        long segmentSize = VolumeConfiguration.segmentSize;
+        int numIterations = (int) (2 * (segmentSize / bufferSize));
+
+        ByteBuffer[] entries = new ByteBuffer[numIterations];
+        AppendResult appendResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, prefix);
+            for (int i = 0; i < numIterations; i++) {
+                entries[i] = randomBytes(bufferSize);
+            }
+            appendResult = volume.append(session, entries);
+            tr.commit().join();
+        }
+
+        // Delete every other entry to create garbage in all segments
+        Versionstamp[] versionstampedKeys = appendResult.getVersionstampedKeys();
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, prefix);
+            for (int i = 0; i < versionstampedKeys.length; i += 2) {
+                volume.delete(session, versionstampedKeys[i]);
+            }
+            tr.commit().join();
+        }
+
+        List<SegmentAnalysis> beforeVacuum = volume.analyze();
+
+        VacuumMetadata vacuumMetadata = new VacuumMetadata(volume.getConfig().name(), 0, true);
+        Vacuum vacuum = new Vacuum(context, volume, vacuumMetadata);
+        List<String> files = assertDoesNotThrow(vacuum::start);
+        assertFalse(files.isEmpty());
+
+        // The compacted segments have been deleted, the writable segment is never compacted.
+        List<SegmentAnalysis> afterVacuum = volume.analyze();
+        for (SegmentAnalysis before : beforeVacuum.subList(0, beforeVacuum.size() - 1)) {
+            for (SegmentAnalysis after : afterVacuum) {
+                assertNotEquals(before.name(), after.name());
+            }
+        }
+
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, prefix);
+            for (int i = 0; i < versionstampedKeys.length; i++) {
+                ByteBuffer buffer = volume.get(session, versionstampedKeys[i]);
+                if (i % 2 == 0) {
+                    assertNull(buffer);
+                } else {
+                    assertArrayEquals(entries[i].array(), buffer.array());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VolumeMetricsTest {
+
+    @Test
+    void test_histogram_empty() {
+        VolumeMetrics.HistogramSnapshot snapshot = new VolumeMetrics.Histogram().snapshot();
+        assertEquals(0, snapshot.count());
+        assertEquals(0, snapshot.mean());
+        assertEquals(0, snapshot.p50());
+        assertEquals(0, snapshot.p99());
+        assertEquals(0, snapshot.max());
+    }
+
+    @Test
+    void test_histogram_percentiles() {
+        VolumeMetrics.Histogram histogram = new VolumeMetrics.Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10);
+        }
+        histogram.record(1000);
+
+        VolumeMetrics.HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count());
+        assertEquals(19.9, snapshot.mean(), 0.0001);
+        // 10 falls into the [8, 16) bucket, the percentile is the upper bound of the bucket.
+        assertEquals(15, snapshot.p50());
+        assertEquals(15, snapshot.p99());
+        assertEquals(1000, snapshot.max());
+    }
+
+    @Test
+    void test_histogram_percentile_capped_by_max() {
+        VolumeMetrics.Histogram histogram = new VolumeMetrics.Histogram();
+        histogram.record(9);
+        VolumeMetrics.HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(9, snapshot.p50());
+        assertEquals(9, snapshot.max());
+    }
+
+    @Test
+    void test_snapshot() {
+        VolumeMetrics metrics = new VolumeMetrics();
+        metrics.recordAppend(System.nanoTime(), 3, 300);
+        metrics.recordUpdate(System.nanoTime(), 100);
+        metrics.recordGet(System.nanoTime(), 50);
+        metrics.recordSegmentRollover();
+        metrics.recordVacuumStarted(2);
+        metrics.recordVacuumMoved(10, 1000);
+        metrics.recordVacuumSegmentCompleted();
+
+        VolumeMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.appendLatency().count());
+        assertEquals(1, snapshot.updateLatency().count());
+        assertEquals(1, snapshot.getLatency().count());
+        assertEquals(3, snapshot.entriesPerBatch().max());
+        assertEquals(400, snapshot.bytesWritten());
+        assertEquals(50, snapshot.bytesRead());
+        assertEquals(1, snapshot.segmentRollovers());
+        assertEquals(new VolumeMetrics.VacuumSnapshot(true, 2, 1, 10, 1000), snapshot.vacuum());
+
+        metrics.recordVacuumFinished();
+        assertFalse(metrics.snapshot().vacuum().running());
+    }
+}
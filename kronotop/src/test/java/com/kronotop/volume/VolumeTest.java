@@ -29,12 +29,16 @@ import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 
 class VolumeTest extends BaseVolumeIntegrationTest {
@@ -83,6 +87,111 @@ class VolumeTest extends BaseVolumeIntegrationTest {
         }
     }
 
+    @Test
+    void test_getMany() throws IOException {
+        ByteBuffer[] entries = getEntries(10);
+
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.append(session, entries);
+            tr.commit().join();
+        }
+
+        Versionstamp[] versionstampedKeys = result.getVersionstampedKeys();
+        Versionstamp[] keys = {versionstampedKeys[7], versionstampedKeys[2], versionstampedKeys[3], versionstampedKeys[2]};
+        ByteBuffer[] retrievedEntries;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            retrievedEntries = volume.getMany(session, keys);
+        }
+
+        int[] expected = {7, 2, 3, 2};
+        assertEquals(expected.length, retrievedEntries.length);
+        for (int i = 0; i < expected.length; i++) {
+            byte[] data = new byte[retrievedEntries[i].remaining()];
+            retrievedEntries[i].get(data);
+            assertArrayEquals(entries[expected[i]].array(), data);
+        }
+    }
+
+    @Test
+    void test_getMany_without_transaction() throws IOException {
+        ByteBuffer[] entries = getEntries(3);
+
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.append(session, entries);
+            tr.commit().join();
+        }
+
+        Versionstamp[] versionstampedKeys = result.getVersionstampedKeys();
+        Versionstamp missingKey = Versionstamp.complete(new byte[10]);
+        VolumeSession session = new VolumeSession(redisVolumeSyncerPrefix);
+        ByteBuffer[] retrievedEntries = volume.getMany(session, versionstampedKeys[0], missingKey, versionstampedKeys[2]);
+
+        assertNull(retrievedEntries[1]);
+        for (int i : new int[]{0, 2}) {
+            byte[] data = new byte[retrievedEntries[i].remaining()];
+            retrievedEntries[i].get(data);
+            assertArrayEquals(entries[i].array(), data);
+        }
+    }
+
+    @Test
+    void test_append_compressed_entries() throws IOException {
+        VolumeConfig config = volume.getConfig();
+        volume.close();
+        volume = new Volume(context, new VolumeConfig(
+                config.subspace(),
+                config.name(),
+                config.dataDir(),
+                config.segmentSize(),
+                config.groupCommitMaxWait(),
+                config.groupCommitMaxBytes(),
+                config.mmapSealedSegments(),
+                config.standbySegmentThreshold(),
+                config.entryMetadataCacheMaxWeight(),
+                config.entryMetadataCacheExpireAfterAccess(),
+                true,
+                64,
+                config.ioThreads(),
+                config.directIO(),
+                config.entryCacheMaxSize()
+        ));
+
+        byte[] compressible = "foobar".repeat(1000).getBytes();
+        byte[] small = "barfoo".getBytes();
+        ByteBuffer[] entries = new ByteBuffer[]{ByteBuffer.wrap(compressible), ByteBuffer.wrap(small)};
+
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.append(session, entries);
+            tr.commit().join();
+        }
+
+        AppendedEntry[] appendedEntries = result.getAppendedEntries();
+        assertTrue(appendedEntries[0].metadata().isCompressed());
+        assertTrue(appendedEntries[0].metadata().length() < compressible.length);
+        // Smaller than the minimum size
+        assertFalse(appendedEntries[1].metadata().isCompressed());
+
+        Versionstamp[] versionstampedKeys = result.getVersionstampedKeys();
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            assertArrayEquals(compressible, volume.get(session, versionstampedKeys[0]).array());
+            assertArrayEquals(small, volume.get(session, versionstampedKeys[1]).array());
+        }
+
+        VolumeSession session = new VolumeSession(redisVolumeSyncerPrefix);
+        ByteBuffer[] retrievedEntries = volume.getMany(session, versionstampedKeys);
+        byte[] data = new byte[retrievedEntries[0].remaining()];
+        retrievedEntries[0].get(data);
+        assertArrayEquals(compressible, data);
+    }
+
     @Test
     void test_delete() throws IOException {
         ByteBuffer[] entries = getEntries(2);
@@ -124,6 +233,36 @@ class VolumeTest extends BaseVolumeIntegrationTest {
         }
     }
 
+    @Test
+    void test_get_served_from_entry_cache_and_invalidated_by_update() throws IOException, KeyNotFoundException {
+        AppendResult appendResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            appendResult = volume.append(session, ByteBuffer.wrap("foobar".getBytes()));
+            tr.commit().join();
+        }
+        Versionstamp key = appendResult.getVersionstampedKeys()[0];
+
+        VolumeSession session = new VolumeSession(redisVolumeSyncerPrefix);
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals("foobar".getBytes(), volume.get(session, key).array());
+        }
+        EntryCache.Stats stats = volume.getEntryCacheStats();
+        assertNotNull(stats);
+        assertEquals(1, stats.entries());
+        assertTrue(stats.hitCount() > 0);
+
+        UpdateResult updateResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            updateResult = volume.update(new VolumeSession(tr, redisVolumeSyncerPrefix), new KeyEntry(key, ByteBuffer.wrap("barfoo".getBytes())));
+            tr.commit().join();
+        }
+        updateResult.complete();
+
+        assertArrayEquals("barfoo".getBytes(), volume.get(session, key).array());
+        assertEquals(0, volume.getEntryCacheStats().entries());
+    }
+
     @Test
     void test_update() throws IOException, KeyNotFoundException {
         Versionstamp[] versionstampedKeys;
@@ -279,6 +418,134 @@ class VolumeTest extends BaseVolumeIntegrationTest {
         }
     }
 
+    @Test
+    void test_reopen_continues_from_high_water_mark() throws IOException {
+        AppendResult firstResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            firstResult = volume.append(session, getEntries(2));
+            tr.commit().join();
+        }
+
+        // Delete the tail entry, its space must not be reused after reopening the volume.
+        DeleteResult deleteResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            deleteResult = volume.delete(session, firstResult.getVersionstampedKeys()[1]);
+            tr.commit().join();
+        }
+        deleteResult.complete();
+
+        volume.close();
+
+        Volume reopenedVolume = service.newVolume(volume.getConfig());
+        // All segments are opened eagerly.
+        assertEquals(1, reopenedVolume.analyze().size());
+
+        AppendResult secondResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            secondResult = reopenedVolume.append(session, getEntries(1));
+            tr.commit().join();
+        }
+
+        EntryMetadata tail = firstResult.getAppendedEntries()[1].metadata();
+        EntryMetadata appended = secondResult.getAppendedEntries()[0].metadata();
+        // Continues in the same segment, after the deleted tail entry.
+        assertEquals(tail.segmentId(), appended.segmentId());
+        assertEquals(tail.position() + tail.length(), appended.position());
+        assertEquals(1, reopenedVolume.analyze().size());
+    }
+
+    @Test
+    void test_appendAsync_then_getAsync() {
+        ByteBuffer[] entries = getEntries(3);
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.appendAsync(session, entries).join();
+            tr.commit().join();
+        }
+
+        Versionstamp[] versionstampedKeys = result.getVersionstampedKeys();
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            List<CompletableFuture<ByteBuffer>> futures = new ArrayList<>();
+            for (Versionstamp key : versionstampedKeys) {
+                futures.add(volume.getAsync(session, key));
+            }
+            for (int i = 0; i < entries.length; i++) {
+                ByteBuffer buffer = futures.get(i).join();
+                byte[] data = new byte[buffer.remaining()];
+                buffer.get(data);
+                assertArrayEquals(entries[i].array(), data);
+            }
+        }
+
+        List<KeyEntry> retrieved;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            retrieved = volume.getRangeAsync(session, null, null, 10, true).join();
+        }
+        assertEquals(entries.length, retrieved.size());
+        // Reverse order
+        assertEquals(versionstampedKeys[2], retrieved.getFirst().key());
+        assertEquals(versionstampedKeys[0], retrieved.getLast().key());
+    }
+
+    @Test
+    void test_updateAsync_then_deleteAsync() throws IOException {
+        ByteBuffer[] entries = getEntries(2);
+        AppendResult appendResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            appendResult = volume.append(session, entries);
+            tr.commit().join();
+        }
+        Versionstamp[] versionstampedKeys = appendResult.getVersionstampedKeys();
+
+        ByteBuffer updated = ByteBuffer.wrap("updated".getBytes());
+        UpdateResult updateResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            updateResult = volume.updateAsync(session, new KeyEntry(versionstampedKeys[0], updated)).join();
+            tr.commit().join();
+        }
+        updateResult.complete();
+
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            ByteBuffer buffer = volume.get(session, versionstampedKeys[0]);
+            assertEquals("updated", new String(buffer.array()));
+        }
+
+        DeleteResult deleteResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            deleteResult = volume.deleteAsync(session, versionstampedKeys).join();
+            tr.commit().join();
+        }
+        deleteResult.complete();
+
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            for (Versionstamp key : versionstampedKeys) {
+                assertNull(volume.getAsync(session, key).join());
+            }
+        }
+    }
+
+    @Test
+    void test_updateAsync_key_not_found() {
+        Versionstamp key = Versionstamp.complete(new byte[10], 0);
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            CompletableFuture<UpdateResult> future = volume.updateAsync(session, new KeyEntry(key, ByteBuffer.wrap("value".getBytes())));
+            CompletionException exception = assertThrows(CompletionException.class, future::join);
+            assertInstanceOf(KeyNotFoundException.class, exception.getCause());
+        }
+    }
+
     @Test
     void test_create_new_segments() throws IOException {
         long bufferSize = 100480;
@@ -296,6 +563,61 @@ class VolumeTest extends BaseVolumeIntegrationTest {
         assertEquals(2, volume.analyze().size());
     }
 
+    private int numberOfRegisteredSegments() {
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            return VolumeMetadata.load(tr, volume.getConfig().subspace()).getSegments().size();
+        }
+    }
+
+    @Test
+    void test_standby_segment_promoted_on_rollover() throws IOException {
+        long bufferSize = 100480;
+        long segmentSize = VolumeConfiguration.segmentSize;
+
+        // Fill the first segment past the standby segment threshold.
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            for (int i = 1; i <= (segmentSize / bufferSize) - 1; i++) {
+                VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+                volume.append(session, randomBytes((int) bufferSize));
+            }
+            tr.commit().join();
+        }
+
+        // The standby segment is registered but it's not available for the rest of the volume yet.
+        await().atMost(5, TimeUnit.SECONDS).until(() -> numberOfRegisteredSegments() == 2);
+        assertEquals(1, volume.analyze().size());
+
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            for (int i = 1; i <= 2; i++) {
+                VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+                volume.append(session, randomBytes((int) bufferSize));
+            }
+            tr.commit().join();
+        }
+
+        List<SegmentAnalysis> analysis = volume.analyze();
+        assertEquals(2, analysis.size());
+        assertEquals(2, numberOfRegisteredSegments());
+    }
+
+    @Test
+    void test_close_drops_standby_segment() throws IOException {
+        long bufferSize = 100480;
+        long segmentSize = VolumeConfiguration.segmentSize;
+
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            for (int i = 1; i <= (segmentSize / bufferSize) - 1; i++) {
+                VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+                volume.append(session, randomBytes((int) bufferSize));
+            }
+            tr.commit().join();
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> numberOfRegisteredSegments() == 2);
+
+        volume.close();
+        assertEquals(1, numberOfRegisteredSegments());
+    }
+
     @Test
     void test_concurrent_append_then_get_all_versionstamped_keys() throws IOException, InterruptedException {
         ConcurrentHashMap<Versionstamp, ByteBuffer> pairs = new ConcurrentHashMap<>();
@@ -406,6 +728,74 @@ class VolumeTest extends BaseVolumeIntegrationTest {
         }
     }
 
+    @Test
+    void test_analyze_segment_stats() throws IOException, KeyNotFoundException {
+        AppendResult appendResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            appendResult = volume.append(session, getEntries(10));
+            tr.commit().join();
+        }
+        Versionstamp[] keys = appendResult.getVersionstampedKeys();
+
+        DeleteResult deleteResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            deleteResult = volume.delete(new VolumeSession(tr, redisVolumeSyncerPrefix), keys[0], keys[1]);
+            tr.commit().join();
+        }
+        deleteResult.complete();
+
+        UpdateResult updateResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            updateResult = volume.update(session, new KeyEntry(keys[2], ByteBuffer.wrap("foobar".getBytes())));
+            tr.commit().join();
+        }
+        updateResult.complete();
+
+        List<SegmentAnalysis> analysis = volume.analyze();
+        assertEquals(1, analysis.size());
+        SegmentAnalysis segmentAnalysis = analysis.getFirst();
+        // The test entry size is 10
+        assertEquals(8, segmentAnalysis.cardinality());
+        assertEquals(7 * 10 + 6, segmentAnalysis.usedBytes());
+        assertEquals(3, segmentAnalysis.deadEntries());
+        assertEquals(30, segmentAnalysis.deadBytes());
+        assertTrue(segmentAnalysis.lastModified() > 0);
+
+        SegmentStats stats = volume.getSegmentStats().get(0L);
+        assertNotNull(stats);
+        assertEquals(8, stats.liveEntries());
+        assertEquals(3, stats.deadEntries());
+    }
+
+    @Test
+    void test_delete_duplicate_keys() throws IOException {
+        AppendResult appendResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            appendResult = volume.append(session, getEntries(10));
+            tr.commit().join();
+        }
+
+        Versionstamp[] versionstampedKeys = appendResult.getVersionstampedKeys();
+        Versionstamp[] keys = {versionstampedKeys[3], versionstampedKeys[4], versionstampedKeys[3]};
+        DeleteResult deleteResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            deleteResult = volume.delete(session, keys);
+            tr.commit().join();
+        }
+        deleteResult.complete();
+
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            SegmentAnalysis segmentAnalysis = volume.analyze(tr).getFirst();
+            assertEquals(8, segmentAnalysis.cardinality());
+            long garbageBytes = segmentAnalysis.size() - segmentAnalysis.freeBytes() - segmentAnalysis.usedBytes();
+            assertEquals(20, garbageBytes); // Each key is deleted only once, the test entry size is 10.
+        }
+    }
+
     @Test
     void test_TooManyEntriesException_before_appending() {
         ByteBuffer[] entries = getEntries(UserVersion.MAX_VALUE + 1);
@@ -476,6 +866,64 @@ class VolumeTest extends BaseVolumeIntegrationTest {
         }
     }
 
+    @Test
+    void test_segment_counters_appends_and_deletes_across_segments() throws IOException {
+        int bufferSize = 100480;
+        int entriesPerSegment = (int) (VolumeConfiguration.segmentSize / bufferSize);
+
+        AppendResult appendResult;
+        ByteBuffer[] entries = new ByteBuffer[2 * entriesPerSegment];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = randomBytes(bufferSize);
+        }
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            appendResult = volume.append(session, entries);
+            tr.commit().join();
+        }
+        Versionstamp[] keys = appendResult.getVersionstampedKeys();
+
+        // Deletes from both segments and appends to the latest one, all in a single transaction.
+        DeleteResult deleteResult;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            deleteResult = volume.delete(session,
+                    keys[2],
+                    keys[3],
+                    keys[entriesPerSegment + 2],
+                    keys[entriesPerSegment + 3],
+                    keys[entriesPerSegment + 4]
+            );
+            volume.append(session, getEntries(3));
+            tr.commit().join();
+        }
+        deleteResult.complete();
+
+        List<SegmentAnalysis> segmentAnalysis = volume.analyze();
+        assertEquals(2, segmentAnalysis.size());
+
+        int[] expectedCardinality = {entriesPerSegment - 2, entriesPerSegment - 3 + 3};
+        // The test entry size is 10
+        long[] expectedUsedBytes = {
+                (long) (entriesPerSegment - 2) * bufferSize,
+                (long) (entriesPerSegment - 3) * bufferSize + 3 * 10
+        };
+
+        VolumeSubspace subspace = new VolumeSubspace(volume.getConfig().subspace());
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            for (int i = 0; i < 2; i++) {
+                SegmentAnalysis analysis = segmentAnalysis.get(i);
+                SegmentMetadata metadata = new SegmentMetadata(subspace, analysis.name());
+                assertEquals(expectedCardinality[i], metadata.cardinality(session));
+                assertEquals(expectedUsedBytes[i], metadata.usedBytes(session));
+
+                assertEquals(expectedCardinality[i], analysis.cardinality());
+                assertEquals(expectedUsedBytes[i], analysis.usedBytes());
+            }
+        }
+    }
+
     @Test
     void test_vacuumSegment() throws IOException {
         long bufferSize = 100480;
@@ -541,8 +989,38 @@ class VolumeTest extends BaseVolumeIntegrationTest {
         for (int i = 0; i < entries.length; i++) {
             ByteBuffer expected = entries[i];
             expected.flip();
+            // The entries read by a range scan are slices of a coalesced segment read.
             ByteBuffer actual = retrievedEntries[i];
-            assertArrayEquals(expected.array(), actual.array());
+            byte[] data = new byte[actual.remaining()];
+            actual.get(data);
+            assertArrayEquals(expected.array(), data);
+        }
+    }
+
+    @Test
+    void test_getRange_read_ahead_multiple_batches() throws IOException {
+        // Spans multiple read-ahead batches, the last one is partial.
+        ByteBuffer[] entries = getEntries(300);
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.append(session, entries);
+            tr.commit().join();
+        }
+
+        List<KeyEntry> retrieved = new ArrayList<>();
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            volume.getRange(session).forEach(retrieved::add);
+        }
+
+        Versionstamp[] versionstampedKeys = result.getVersionstampedKeys();
+        assertEquals(entries.length, retrieved.size());
+        for (int i = 0; i < entries.length; i++) {
+            assertEquals(versionstampedKeys[i], retrieved.get(i).key());
+            byte[] data = new byte[retrieved.get(i).entry().remaining()];
+            retrieved.get(i).entry().get(data);
+            assertArrayEquals(entries[i].array(), data);
         }
     }
 
@@ -579,7 +1057,9 @@ class VolumeTest extends BaseVolumeIntegrationTest {
             ByteBuffer expected = entries[i];
             expected.flip();
             ByteBuffer actual = retrievedEntries[i];
-            assertArrayEquals(expected.array(), actual.array());
+            byte[] data = new byte[actual.remaining()];
+            actual.get(data);
+            assertArrayEquals(expected.array(), data);
         }
     }
 
@@ -619,8 +1099,34 @@ class VolumeTest extends BaseVolumeIntegrationTest {
             ByteBuffer expected = entries[i];
             expected.flip();
             ByteBuffer actual = retrievedEntries[i];
-            assertArrayEquals(expected.array(), actual.array());
+            byte[] data = new byte[actual.remaining()];
+            actual.get(data);
+            assertArrayEquals(expected.array(), data);
+        }
+    }
+
+    @Test
+    void test_getRange_begin_without_end() throws IOException {
+        ByteBuffer[] entries = getEntries(10);
+        AppendResult result;
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            result = volume.append(session, entries);
+            tr.commit().join();
+        }
+
+        Versionstamp[] versionstampedKeys = result.getVersionstampedKeys();
+        // Continues after the fifth key until the end of the prefix.
+        Versionstamp[] expectedKeys = Arrays.copyOfRange(versionstampedKeys, 5, 10);
+        List<Versionstamp> retrievedKeys = new ArrayList<>();
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, redisVolumeSyncerPrefix);
+            VersionstampedKeySelector begin = VersionstampedKeySelector.firstGreaterThan(versionstampedKeys[4]);
+            for (KeyEntry keyEntry : volume.getRange(session, begin, null)) {
+                retrievedKeys.add(keyEntry.key());
+            }
         }
+        assertArrayEquals(expectedKeys, retrievedKeys.toArray(new Versionstamp[0]));
     }
 
     @Test
@@ -664,7 +1170,9 @@ class VolumeTest extends BaseVolumeIntegrationTest {
             ByteBuffer expected = expectedEntries[i];
             expected.flip();
             ByteBuffer actual = retrievedEntries[i];
-            assertArrayEquals(expected.array(), actual.array());
+            byte[] data = new byte[actual.remaining()];
+            actual.get(data);
+            assertArrayEquals(expected.array(), data);
         }
     }
 
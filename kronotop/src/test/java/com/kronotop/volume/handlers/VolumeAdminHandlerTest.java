@@ -18,10 +18,13 @@ package com.kronotop.volume.handlers;
 
 import com.apple.foundationdb.Transaction;
 import com.apple.foundationdb.tuple.Versionstamp;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.kronotop.KronotopTestInstance;
 import com.kronotop.cluster.sharding.ShardKind;
 import com.kronotop.commandbuilder.kronotop.TaskAdminCommandBuilder;
 import com.kronotop.commandbuilder.kronotop.VolumeAdminCommandBuilder;
+import com.kronotop.internal.ByteBufUtils;
+import com.kronotop.internal.JSONUtils;
 import com.kronotop.server.Response;
 import com.kronotop.server.resp3.*;
 import com.kronotop.volume.*;
@@ -118,12 +121,48 @@ class VolumeAdminHandlerTest extends BaseNetworkedVolumeIntegrationTest {
                                     IntegerRedisMessage freeBytes = (IntegerRedisMessage) v2;
                                     assertTrue(freeBytes.value() > 0);
                                     break;
+                                case "last_modified":
+                                    assertTrue(((IntegerRedisMessage) v2).value() > 0);
+                                    break;
                                 case "garbage_ratio":
                                     // TODO: Waits for KR-9
                                     break;
                             }
                         });
                     });
+                    break;
+                case "entry_metadata_cache":
+                    MapRedisMessage entryMetadataCache = (MapRedisMessage) v;
+                    entryMetadataCache.children().forEach((kk, vv) -> {
+                        SimpleStringRedisMessage stat = (SimpleStringRedisMessage) kk;
+                        if (stat.content().equals("max_weight")) {
+                            assertTrue(((IntegerRedisMessage) vv).value() > 0);
+                        }
+                    });
+                    break;
+                case "entry_cache":
+                    MapRedisMessage entryCache = (MapRedisMessage) v;
+                    entryCache.children().forEach((kk, vv) -> {
+                        SimpleStringRedisMessage stat = (SimpleStringRedisMessage) kk;
+                        if (stat.content().equals("max_size")) {
+                            assertTrue(((IntegerRedisMessage) vv).value() > 0);
+                        }
+                    });
+                    break;
+                case "metrics":
+                    MapRedisMessage metrics = (MapRedisMessage) v;
+                    metrics.children().forEach((kk, vv) -> {
+                        String metric = ((SimpleStringRedisMessage) kk).content();
+                        if (metric.equals("append_latency")) {
+                            ((MapRedisMessage) vv).children().forEach((k2, v2) -> {
+                                if (((SimpleStringRedisMessage) k2).content().equals("count")) {
+                                    assertTrue(((IntegerRedisMessage) v2).value() > 0);
+                                }
+                            });
+                        } else if (metric.equals("bytes_written")) {
+                            assertTrue(((IntegerRedisMessage) vv).value() > 0);
+                        }
+                    });
             }
         });
     }
@@ -197,6 +236,27 @@ class VolumeAdminHandlerTest extends BaseNetworkedVolumeIntegrationTest {
         }
     }
 
+    @Test
+    void test_volume_admin_vacuum_compact() {
+        String volumeName = "redis-shard-1";
+
+        VolumeAdminCommandBuilder<String, String> volumeAdmin = new VolumeAdminCommandBuilder<>(StringCodec.ASCII);
+        ByteBuf buf = Unpooled.buffer();
+        volumeAdmin.vacuum(volumeName, 10.0, true).encode(buf);
+
+        channel.writeInbound(buf);
+        Object msg = channel.readOutbound();
+        assertInstanceOf(SimpleStringRedisMessage.class, msg);
+        SimpleStringRedisMessage actualMessage = (SimpleStringRedisMessage) msg;
+        assertEquals(Response.OK, actualMessage.content());
+
+        try (Transaction tr = context.getFoundationDB().createTransaction()) {
+            VacuumMetadata vacuumMetadata = VacuumMetadata.load(tr, volumeConfig.subspace());
+            assertNotNull(vacuumMetadata);
+            assertTrue(vacuumMetadata.isCompaction());
+        }
+    }
+
     @Test
     void test_volume_admin_stop_vacuum() {
         String volumeName = "redis-shard-1";
@@ -346,6 +406,58 @@ class VolumeAdminHandlerTest extends BaseNetworkedVolumeIntegrationTest {
         assertFalse(orphanFile.exists());
     }
 
+    @Test
+    void test_volume_migrate_entry_metadata() throws IOException {
+        ByteBuffer[] entries = getEntries(3);
+
+        VolumeService service = context.getService(VolumeService.NAME);
+        Volume shard = service.findVolume("redis-shard-1");
+        try (Transaction tr = database.createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, prefix);
+            shard.append(session, entries);
+            tr.commit().join();
+        }
+
+        VolumeAdminCommandBuilder<String, String> cmd = new VolumeAdminCommandBuilder<>(StringCodec.ASCII);
+        ByteBuf buf = Unpooled.buffer();
+        cmd.migrateEntryMetadata("redis-shard-1").encode(buf);
+
+        channel.writeInbound(buf);
+        Object msg = channel.readOutbound();
+        assertInstanceOf(IntegerRedisMessage.class, msg);
+        IntegerRedisMessage actualMessage = (IntegerRedisMessage) msg;
+        // New entries are already written in the compact format.
+        assertEquals(0, actualMessage.value());
+    }
+
+    @Test
+    void test_volume_admin_metrics() throws IOException {
+        ByteBuffer[] entries = getEntries(3);
+
+        VolumeService service = context.getService(VolumeService.NAME);
+        Volume shard = service.findVolume("redis-shard-1");
+        try (Transaction tr = database.createTransaction()) {
+            VolumeSession session = new VolumeSession(tr, prefix);
+            shard.append(session, entries);
+            tr.commit().join();
+        }
+
+        VolumeAdminCommandBuilder<String, String> cmd = new VolumeAdminCommandBuilder<>(StringCodec.ASCII);
+        ByteBuf buf = Unpooled.buffer();
+        cmd.metrics("redis-shard-1").encode(buf);
+
+        channel.writeInbound(buf);
+        Object msg = channel.readOutbound();
+        assertInstanceOf(FullBulkStringRedisMessage.class, msg);
+        FullBulkStringRedisMessage actualMessage = (FullBulkStringRedisMessage) msg;
+
+        JsonNode metrics = JSONUtils.objectMapper.readTree(ByteBufUtils.readAsString(actualMessage.content()));
+        assertTrue(metrics.get("appendLatency").get("count").asLong() > 0);
+        assertTrue(metrics.get("entriesPerBatch").get("max").asLong() >= entries.length);
+        assertTrue(metrics.get("bytesWritten").asLong() > 0);
+        assertFalse(metrics.get("vacuum").get("running").asBoolean());
+    }
+
     @Test
     void test_mark_stale_prefixes_start() {
         {
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2023-2025 Burak Sezer
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.kronotop.volume.segment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentDirectIOTest {
+    private static final long SEGMENT_SIZE = 4194304;
+    private final Random random = new Random();
+
+    @TempDir
+    Path dataDir;
+
+    private byte[] randomBytes(int size) {
+        byte[] b = new byte[size];
+        random.nextBytes(b);
+        return b;
+    }
+
+    private Segment newSegment(long position) throws Exception {
+        return new Segment(new SegmentConfig(1, dataDir.toString(), SEGMENT_SIZE, true), position);
+    }
+
+    private byte[] read(Segment segment, SegmentAppendResult result) throws Exception {
+        ByteBuffer buffer = segment.get(result.position(), result.length());
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return data;
+    }
+
+    @Test
+    void should_pack_unaligned_entries_back_to_back() throws Exception {
+        Segment segment = newSegment(0);
+        try {
+            byte[][] entries = new byte[100][];
+            SegmentAppendResult[] results = new SegmentAppendResult[entries.length];
+            long position = 0;
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = randomBytes(random.nextInt(1, 10000));
+                results[i] = segment.append(ByteBuffer.wrap(entries[i]));
+                assertEquals(position, results[i].position());
+                position += entries[i].length;
+            }
+            assertEquals(SEGMENT_SIZE - position, segment.getFreeBytes());
+            for (int i = 0; i < entries.length; i++) {
+                assertArrayEquals(entries[i], read(segment, results[i]));
+            }
+        } finally {
+            segment.close();
+        }
+    }
+
+    @Test
+    void should_append_entries_larger_than_a_chunk_with_gathering_write() throws Exception {
+        Segment segment = newSegment(0);
+        try {
+            segment.append(ByteBuffer.wrap(randomBytes(17)));
+            byte[][] entries = new byte[][]{randomBytes(DirectIOChannel.CHUNK_SIZE + 4099), randomBytes(3), randomBytes(70000)};
+            ByteBuffer[] buffers = new ByteBuffer[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                buffers[i] = ByteBuffer.wrap(entries[i]);
+            }
+            SegmentAppendResult[] results = segment.append(buffers);
+            for (int i = 0; i < entries.length; i++) {
+                assertFalse(buffers[i].hasRemaining());
+                assertArrayEquals(entries[i], read(segment, results[i]));
+            }
+        } finally {
+            segment.close();
+        }
+    }
+
+    @Test
+    void should_insert_without_overwriting_the_neighbouring_bytes() throws Exception {
+        Segment segment = newSegment(0);
+        try {
+            byte[] first = randomBytes(5000);
+            SegmentAppendResult firstResult = segment.append(ByteBuffer.wrap(first));
+            byte[] inserted = randomBytes(10);
+            segment.insert(ByteBuffer.wrap(inserted), 100);
+            System.arraycopy(inserted, 0, first, 100, inserted.length);
+            assertArrayEquals(first, read(segment, firstResult));
+
+            byte[] second = randomBytes(300);
+            SegmentAppendResult secondResult = segment.append(ByteBuffer.wrap(second));
+            assertArrayEquals(first, read(segment, firstResult));
+            assertArrayEquals(second, read(segment, secondResult));
+        } finally {
+            segment.close();
+        }
+    }
+
+    @Test
+    void should_continue_appending_after_reopen() throws Exception {
+        byte[] first = randomBytes(1234);
+        SegmentAppendResult firstResult;
+        Segment segment = newSegment(0);
+        try {
+            firstResult = segment.append(ByteBuffer.wrap(first));
+        } finally {
+            segment.close();
+        }
+
+        Segment reopened = newSegment(first.length);
+        try {
+            byte[] second = randomBytes(4321);
+            SegmentAppendResult secondResult = reopened.append(ByteBuffer.wrap(second));
+            assertEquals(first.length, secondResult.position());
+            assertArrayEquals(first, read(reopened, firstResult));
+            assertArrayEquals(second, read(reopened, secondResult));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void should_not_map_direct_io_segments() throws Exception {
+        Segment segment = newSegment(0);
+        try {
+            assertEquals(!segment.isDirectIO(), segment.map());
+        } finally {
+            segment.close();
+        }
+    }
+}
@@ -83,6 +83,45 @@ class SegmentTest extends BaseStandaloneInstanceTest {
         }
     }
 
+    @Test
+    void test_get_when_mapped() throws IOException, NotEnoughSpaceException {
+        Segment segment = new Segment(getSegmentConfig());
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(6).put("foobar".getBytes()).flip();
+            SegmentAppendResult segmentEntryMetadata = segment.append(buffer);
+            assertTrue(segment.map());
+            assertTrue(segment.isMapped());
+
+            ByteBuffer result = segment.get(segmentEntryMetadata.position(), segmentEntryMetadata.length());
+            assertTrue(result.isReadOnly());
+            assertEquals(buffer.rewind(), result);
+        } finally {
+            segment.close();
+        }
+    }
+
+    @Test
+    void test_append_many() throws IOException, NotEnoughSpaceException {
+        Segment segment = new Segment(getSegmentConfig());
+        try {
+            segment.append(ByteBuffer.wrap("foobar".getBytes()));
+            ByteBuffer[] entries = new ByteBuffer[]{randomBytes(10), randomBytes(20), randomBytes(30)};
+            SegmentAppendResult[] results = segment.append(entries);
+            assertEquals(entries.length, results.length);
+
+            long position = 6;
+            for (int i = 0; i < entries.length; i++) {
+                assertEquals(position, results[i].position());
+                assertEquals(entries[i].capacity(), results[i].length());
+                ByteBuffer result = segment.get(results[i].position(), results[i].length());
+                assertArrayEquals(entries[i].array(), result.array());
+                position += results[i].length();
+            }
+        } finally {
+            segment.close();
+        }
+    }
+
     @Test
     void test_getFreeBytes() throws IOException {
         Segment segment = new Segment(getSegmentConfig());